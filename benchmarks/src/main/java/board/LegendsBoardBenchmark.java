@@ -0,0 +1,59 @@
+package board;
+
+import common.GameIO;
+import common.StreamIO;
+import entities.Party;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * World generation and frame rendering. Frames go through a StreamIO into a discarding stream,
+ * so the numbers measure formatting and buffering overhead, not the terminal.
+ * fullFrame redraws everything; moveFrame is the common turn where only the party marker moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LegendsBoardBenchmark {
+
+    @Param({"4", "20", "1000"})
+    public int size;
+
+    private LegendsBoard board;
+    private Party party;
+    private GameIO io;
+
+    @Setup
+    public void setup() {
+        board = new LegendsBoard(size);
+        party = new Party();
+        board.setParty(party);
+        io = new StreamIO(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public LegendsBoard construct() {
+        return new LegendsBoard(size);
+    }
+
+    @Benchmark
+    public void fullFrame() {
+        board.invalidateFrame();
+        board.printBoard(io);
+        io.flush();
+    }
+
+    @Benchmark
+    public void moveFrame() {
+        // (0,0) and (0,1) are always accessible, so the marker can shuttle between them.
+        party.setLocation(0, 1 - party.getCol());
+        board.printBoard(io);
+        io.flush();
+    }
+}
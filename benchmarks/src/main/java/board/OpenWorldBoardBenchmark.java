@@ -0,0 +1,43 @@
+package board;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-world chunk access. walk moves one tile east per op, so it crosses a chunk
+ * boundary every 32 ops and keeps evicting; revisit stays inside the cached working set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenWorldBoardBenchmark {
+
+    private OpenWorldBoard world;
+    private int col;
+
+    @Setup
+    public void setup() {
+        world = new OpenWorldBoard(42L);
+        col = 0;
+    }
+
+    @Benchmark
+    public Cell walk() {
+        return world.getCell(0, col++);
+    }
+
+    @Benchmark
+    public Cell revisit() {
+        col = (col + 1) & 63;
+        return world.getCell(col, col);
+    }
+
+    @Benchmark
+    public WorldChunk generateChunk() {
+        return WorldChunk.generate(42L, col++, 0);
+    }
+}
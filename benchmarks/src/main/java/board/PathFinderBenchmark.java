@@ -0,0 +1,53 @@
+package board;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route planning from the start tile to the far corner of a generated board.
+ * A fresh PathFinder per op keeps the route cache cold, so scratch allocation is included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+
+    @Param({"20", "500"})
+    public int size;
+
+    @Param({"A_STAR", "JUMP_POINT"})
+    public PathFinder.Algorithm algorithm;
+
+    private LegendsBoard board;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setup() {
+        board = new LegendsBoard(size);
+        // Any accessible tiles in the far quarter of the board
+        targets = new int[64];
+        int found = 0;
+        for (int i = size * size - 1; i >= 0 && found < targets.length; i--) {
+            if (board.getCell(i / size, i % size).isAccessible()) targets[found++] = i;
+        }
+        targets = Arrays.copyOf(targets, found);
+    }
+
+    @Benchmark
+    public Route findRoute() {
+        PathFinder finder = new PathFinder(board, algorithm);
+        int target = targets[next++ % targets.length];
+        return finder.findRoute(0, 0, target / size, target % size);
+    }
+
+    @Benchmark
+    public Route nearestMarket() {
+        return new PathFinder(board, algorithm).findRouteToNearestMarket(size - 1, size - 1);
+    }
+}
@@ -0,0 +1,80 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import entities.Party;
+import org.openjdk.jmh.annotations.*;
+import utils.GameDataLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Damage resolution throughput: complete headless battles through BattleController.runBattle
+ * and through the pooled, allocation-free runEncounter path, plus the cost of a single
+ * weighted, level-scaled spawn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+
+    @Param({"1", "3"})
+    public int partySize;
+
+    private BattleController controller;
+    private MonsterSpawner spawner;
+    private RandomGenerator spawnRng;
+    private AutoBattlePolicy policy;
+    private List<Hero> heroTemplates;
+    private final Encounter encounter = new Encounter();
+
+    @Setup
+    public void setup() {
+        List<Monster> monsters = new ArrayList<>();
+        monsters.addAll(GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON));
+        monsters.addAll(GameDataLoader.loadMonsters("Exoskeletons.txt", MonsterType.EXOSKELETON));
+        monsters.addAll(GameDataLoader.loadMonsters("Spirits.txt", MonsterType.SPIRIT));
+
+        heroTemplates = new ArrayList<>();
+        heroTemplates.addAll(GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR));
+        heroTemplates.addAll(GameDataLoader.loadHeroes("Sorcerers.txt", HeroType.SORCERER));
+        heroTemplates.addAll(GameDataLoader.loadHeroes("Paladins.txt", HeroType.PALADIN));
+
+        controller = new BattleController(monsters, RandomGenerator.newSeeded(42));
+        spawner = new MonsterSpawner(monsters, Map.of(MonsterType.DRAGON, 2.0), 0.5);
+        spawnRng = RandomGenerator.newSeeded(7);
+        policy = new AutoBattlePolicy();
+    }
+
+    @Benchmark
+    public BattleResult headlessBattle() {
+        Party party = new Party();
+        for (int i = 0; i < partySize; i++) {
+            party.addHero(heroTemplates.get(i).copy());
+        }
+        return controller.runBattle(party, policy, BattleListener.SILENT);
+    }
+
+    @Benchmark
+    public BattleResult.Outcome encounterBattle() {
+        encounter.clear();
+        for (int i = 0; i < partySize; i++) {
+            encounter.addHero(heroTemplates.get(i));
+        }
+        return controller.runEncounter(encounter, policy);
+    }
+
+    @Benchmark
+    public Monster spawnMonster() {
+        return spawner.spawn(5, spawnRng);
+    }
+}
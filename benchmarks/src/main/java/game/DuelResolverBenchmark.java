@@ -0,0 +1,67 @@
+package game;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import org.openjdk.jmh.annotations.*;
+import utils.GameDataLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch duel throughput (one op = one duel) of the scalar and Vector API resolvers. The batch is
+ * refilled before every invocation, outside the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DuelResolverBenchmark {
+
+    private static final int DUELS = 4096;
+
+    @Param({"scalar", "vector"})
+    public String resolverName;
+
+    private DuelResolver resolver;
+    private MonsterSpawner spawner;
+    private List<Hero> heroTemplates;
+    private final DuelBatch batch = new DuelBatch(DUELS);
+    private long nextSeed;
+
+    @Setup
+    public void setup() {
+        List<Monster> monsters = new ArrayList<>();
+        monsters.addAll(GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON));
+        monsters.addAll(GameDataLoader.loadMonsters("Exoskeletons.txt", MonsterType.EXOSKELETON));
+        monsters.addAll(GameDataLoader.loadMonsters("Spirits.txt", MonsterType.SPIRIT));
+
+        heroTemplates = new ArrayList<>();
+        heroTemplates.addAll(GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR));
+        heroTemplates.addAll(GameDataLoader.loadHeroes("Sorcerers.txt", HeroType.SORCERER));
+        heroTemplates.addAll(GameDataLoader.loadHeroes("Paladins.txt", HeroType.PALADIN));
+
+        spawner = new MonsterSpawner(monsters);
+        resolver = resolverName.equals("vector") ? DuelResolver.vector() : DuelResolver.scalar();
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        batch.clear();
+        for (int i = 0; i < DUELS; i++) {
+            batch.add(heroTemplates.get(i % heroTemplates.size()), spawner, nextSeed++);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DUELS)
+    public DuelBatch resolveBatch() {
+        resolver.resolve(batch, 1000);
+        return batch;
+    }
+}
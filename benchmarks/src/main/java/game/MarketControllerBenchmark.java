@@ -0,0 +1,52 @@
+package game;
+
+import items.Armor;
+import items.Item;
+import items.Weapon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rolling a market's stock on every visit, for the shipped catalog and for a
+ * generated 100,000-item one (stock sampling should not grow with catalog size).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketControllerBenchmark {
+
+    private static final int LARGE_CATALOG_SIZE = 100_000;
+
+    private MarketController market;
+    private MarketController largeMarket;
+
+    @Setup
+    public void setup() {
+        market = new MarketController();
+
+        List<Item> catalog = new ArrayList<>(LARGE_CATALOG_SIZE);
+        for (int i = 0; i < LARGE_CATALOG_SIZE; i++) {
+            int level = 1 + i % 10;
+            catalog.add(i % 2 == 0
+                    ? new Weapon("Blade_" + i, 100 * level, level, 50 * level, 1 + i % 2)
+                    : new Armor("Plate_" + i, 80 * level, level, 40 * level));
+        }
+        largeMarket = new MarketController(catalog);
+    }
+
+    @Benchmark
+    public List<Item> generateMarketInventory() {
+        return market.generateMarketInventory(3);
+    }
+
+    @Benchmark
+    public List<Item> generateLargeMarketInventory() {
+        return largeMarket.generateMarketInventory(3);
+    }
+}
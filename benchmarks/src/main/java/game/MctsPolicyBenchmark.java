@@ -0,0 +1,70 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import entities.Party;
+import items.Item;
+import items.Spell;
+import org.openjdk.jmh.annotations.*;
+import utils.GameDataLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rollout throughput of the MCTS autopilot (one op = one rollout): a single-worker decision
+ * with a fixed rollout count for the first hero of a three-hero party carrying spells and
+ * potions, so the state copy, move generation and playout all run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MctsPolicyBenchmark {
+
+    private static final int ROLLOUTS = 2000;
+
+    private MctsPolicy policy;
+    private Party party;
+    private List<Monster> enemies;
+
+    @Setup
+    public void setup() {
+        List<Monster> monsters = new ArrayList<>();
+        monsters.addAll(GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON));
+        monsters.addAll(GameDataLoader.loadMonsters("Exoskeletons.txt", MonsterType.EXOSKELETON));
+        monsters.addAll(GameDataLoader.loadMonsters("Spirits.txt", MonsterType.SPIRIT));
+
+        List<Item> items = new ArrayList<>();
+        items.addAll(GameDataLoader.loadSpells("FireSpells.txt", Spell.SpellType.FIRE));
+        items.addAll(GameDataLoader.loadSpells("IceSpells.txt", Spell.SpellType.ICE));
+        items.addAll(GameDataLoader.loadPotions("Potions.txt"));
+
+        party = new Party();
+        party.addHero(GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR).get(0).copy());
+        party.addHero(GameDataLoader.loadHeroes("Sorcerers.txt", HeroType.SORCERER).get(0).copy());
+        party.addHero(GameDataLoader.loadHeroes("Paladins.txt", HeroType.PALADIN).get(0).copy());
+        for (Hero hero : party.getHeroes()) {
+            for (int i = 0; i < 4; i++) hero.getInventory().addItem(items.get((i * 7 + hero.getName().length()) % items.size()));
+        }
+
+        MonsterSpawner spawner = new MonsterSpawner(monsters);
+        RandomGenerator rng = RandomGenerator.newSeeded(3);
+        enemies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) enemies.add(spawner.spawn(1, rng));
+
+        policy = new MctsPolicy(0, ROLLOUTS, 1, 42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROLLOUTS)
+    public ActionPolicy.Action decide() {
+        return policy.chooseAction(party.getHero(0), party, enemies);
+    }
+}
@@ -0,0 +1,75 @@
+package game;
+
+import board.CellType;
+import board.LegendsBoard;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Party;
+import items.Item;
+import org.openjdk.jmh.annotations.*;
+import utils.GameData;
+import utils.GameDataLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autosave cost on a large classic board. autosaveDelta is one turn's save (the party moved,
+ * one tile changed) appended to the log; snapshot rewrites the whole world. Must run with the
+ * project root as working directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveFileBenchmark {
+
+    @Param({"20", "2000"})
+    public int boardSize;
+
+    private LegendsBoard board;
+    private Party party;
+    private Path file;
+    private SaveFile saveFile;
+    private int turn;
+
+    @Setup
+    public void setup() throws IOException {
+        GameData data = GameDataLoader.loadAll();
+        List<Item> items = data.getItems();
+        board = new LegendsBoard(boardSize);
+        party = new Party();
+        for (HeroType type : HeroType.values()) {
+            Hero hero = data.getHeroes(type).get(0).copy();
+            for (int i = 0; i < 8; i++) hero.getInventory().addItem(items.get(i));
+            party.addHero(hero);
+        }
+        file = Files.createTempFile("autosave", ".lms");
+        saveFile = new SaveFile(file);
+        saveFile.save(board, party);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void autosaveDelta() throws IOException {
+        turn++;
+        party.setLocation(turn % boardSize, (turn / boardSize) % boardSize);
+        board.setCellType(turn % boardSize, 1, (turn & 1) == 0 ? CellType.COMMON : CellType.MARKET);
+        saveFile.save(board, party);
+    }
+
+    @Benchmark
+    public void snapshot() throws IOException {
+        saveFile.delete();
+        saveFile.save(board, party);
+    }
+}
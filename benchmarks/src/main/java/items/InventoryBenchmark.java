@@ -0,0 +1,67 @@
+package items;
+
+import items.Spell.SpellType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed inventory views, queried on every battle and market prompt,
+ * and the add/remove churn of buying, selling and consuming items.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"5", "1000"})
+    public int size;
+
+    private Inventory inventory;
+
+    @Setup
+    public void setup() {
+        inventory = new Inventory();
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+                case 0: inventory.addItem(new Weapon("Sword_" + i, 500, 1, 800, 1)); break;
+                case 1: inventory.addItem(new Armor("Shield_" + i, 150, 1, 200)); break;
+                case 2: inventory.addItem(new Potion("Potion_" + i, 250, 1, 100, "Health")); break;
+                default: inventory.addItem(new Spell("Spell_" + i, 350, 1, 450, 100, SpellType.FIRE)); break;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Item> getItems() {
+        return inventory.getItems();
+    }
+
+    @Benchmark
+    public List<Weapon> getWeapons() {
+        return inventory.getWeapons();
+    }
+
+    @Benchmark
+    public List<Potion> getPotions() {
+        return inventory.getPotions();
+    }
+
+    @Benchmark
+    public List<Spell> getSpells() {
+        return inventory.getSpells();
+    }
+
+    @Benchmark
+    public boolean removeAndReAdd() {
+        // Takes the oldest item out and puts it back, so the inventory size stays constant
+        Item item = inventory.getItems().get(0);
+        boolean removed = inventory.removeItem(item);
+        inventory.addItem(item);
+        return removed;
+    }
+}
@@ -0,0 +1,115 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Armor;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+import items.Weapon;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog parsing cost per data file. Must run with the project root as working directory.
+ * The load* cases go through GameDataLoader (compiled catalog when fresh, else text);
+ * textHeroes and compiledHeroes pin each path so the two can be compared directly.
+ * loadAll reads all twelve files concurrently; largeWeaponCatalog parses a generated
+ * 200,000-row weapon file to show the tokenizer's per-row cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameDataLoaderBenchmark {
+
+    private static final int LARGE_CATALOG_ROWS = 200_000;
+
+    private CompiledCatalog catalog;
+    private Path catalogFile;
+    private Path largeCatalogFile;
+
+    @Setup
+    public void setup() throws IOException {
+        catalogFile = Files.createTempFile("catalog", ".bin");
+        new CatalogCompiler().compile(Paths.get("data"), catalogFile);
+        catalog = CompiledCatalog.open(catalogFile, Paths.get("data"));
+
+        StringBuilder rows = new StringBuilder("Name/cost/level/damage/required hands\n");
+        for (int i = 0; i < LARGE_CATALOG_ROWS; i++) {
+            rows.append("Blade_").append(i).append("    ").append(100 + i % 900).append("    ")
+                    .append(1 + i % 10).append("    ").append(250 + i % 750).append(".5    ")
+                    .append(1 + i % 2).append('\n');
+        }
+        largeCatalogFile = Files.createTempFile("weaponry", ".txt");
+        Files.writeString(largeCatalogFile, rows);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(catalogFile);
+        Files.deleteIfExists(largeCatalogFile);
+    }
+
+    @Benchmark
+    public List<Hero> textHeroes() {
+        return DataFileParser.parse(Paths.get("data", "Warriors.txt"),
+                GameDataLoader.heroSchema(HeroType.WARRIOR), new ArrayList<>());
+    }
+
+    @Benchmark
+    public List<Hero> compiledHeroes() {
+        return catalog.heroes("Warriors.txt", HeroType.WARRIOR);
+    }
+
+    @Benchmark
+    public List<Weapon> largeWeaponCatalog() {
+        return DataFileParser.parse(largeCatalogFile, GameDataLoader.WEAPON_SCHEMA, new ArrayList<>());
+    }
+
+    @Benchmark
+    public GameData loadAll() {
+        return GameDataLoader.loadAll();
+    }
+
+    @Benchmark
+    public List<Hero> loadHeroes() {
+        return GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR);
+    }
+
+    @Benchmark
+    public List<Monster> loadMonsters() {
+        return GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON);
+    }
+
+    @Benchmark
+    public List<Weapon> loadWeapons() {
+        return GameDataLoader.loadWeapons("Weaponry.txt");
+    }
+
+    @Benchmark
+    public List<Armor> loadArmor() {
+        return GameDataLoader.loadArmor("Armory.txt");
+    }
+
+    @Benchmark
+    public List<Potion> loadPotions() {
+        return GameDataLoader.loadPotions("Potions.txt");
+    }
+
+    @Benchmark
+    public List<Spell> loadSpells() {
+        return GameDataLoader.loadSpells("FireSpells.txt", SpellType.FIRE);
+    }
+}
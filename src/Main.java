@@ -7,6 +7,6 @@ import common.GameRunner;
 public class Main {
 
     public static void main(String[] args) {
-        GameRunner.run();
+        GameRunner.run(args);
     }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package board;
 
+import common.GameIO;
+import entities.Party;
+
 /**
  * Abstract base class for a rectangular game board.
  * Encapsulates dimensions and boundary checking logic to prevent code duplication.
@@ -7,6 +10,8 @@ package board;
 public abstract class Board {
     protected final int width;
     protected final int height;
+    protected Party party;
+    protected long terrainVersion; // Bumped on every terrain change after generation
 
     public Board(int width, int height) {
         this.width = width;
@@ -16,6 +21,25 @@ public abstract class Board {
     public int getWidth() { return width; }
     public int getHeight() { return height; }
 
+    /**
+     * @return false for boards without edges (every coordinate is valid).
+     */
+    public boolean isBounded() {
+        return true;
+    }
+
+    /**
+     * Changes whenever a tile's terrain changes, so caches built from the terrain
+     * (routes, distance fields) can tell they are stale.
+     */
+    public long getTerrainVersion() {
+        return terrainVersion;
+    }
+
+    public void setParty(Party party) {
+        this.party = party;
+    }
+
     /**
      * Validates if a specific coordinate exists within the board boundaries.
      * This is a utility method used by all subclasses to prevent IndexOutOfBounds exceptions.
@@ -28,8 +52,20 @@ public abstract class Board {
         return row >= 0 && row < height && col >= 0 && col < width;
     }
 
+    /**
+     * Returns the tile at the given coordinate.
+     * @throws IndexOutOfBoundsException if the coordinate is not valid.
+     */
+    public abstract Cell getCell(int row, int col);
+
     /**
      * Forces subclasses to define how the board is visualized.
      */
-    public abstract void printBoard();
-}
\ No newline at end of file
+    public abstract void printBoard(GameIO io);
+
+    /**
+     * Makes the next printBoard() a full redraw.
+     * Needed whenever other output has scrolled the board off its screen position.
+     */
+    public abstract void invalidateFrame();
+}
@@ -0,0 +1,206 @@
+package board;
+
+import common.GameIO;
+import entities.Party;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Frame renderer for a rectangular view of a Board.
+ * Builds each frame in one reusable byte buffer and hands it to the GameIO in a single write.
+ *
+ * <p>The first frame (and any frame after {@link #invalidate()}) draws the whole grid where the
+ * cursor is, scrolling the terminal like plain output, so whatever was printed since the last
+ * prompt (a battle summary, a market farewell) stays readable above it. The next frame clears the
+ * screen and draws the grid from the top-left corner: by then the player has answered a prompt.
+ * Later frames only send cursor-addressed updates for the cells whose glyph changed since the
+ * previous frame, then park the cursor below the grid and clear the rest of the screen so
+ * whatever the caller prints next starts on a clean line. Callers must therefore print a turn's
+ * messages after the frame, not before it.</p>
+ *
+ * <p>The view has a fixed size but its origin may move between frames (open-world scrolling);
+ * the diff is taken on screen positions, so a scroll simply redraws the cells that differ.</p>
+ */
+public class BoardRenderer {
+
+    private static final String ANSI_BORDER_COLOR = "\u001B[35m"; // Purple
+    private static final String ANSI_HERO_COLOR = "\u001B[36m";   // Cyan
+    private static final String ANSI_RESET = "\u001B[0m";
+
+    private static final byte[] CLEAR_SCREEN = ascii("\u001B[H\u001B[2J");
+    private static final byte[] CLEAR_BELOW = ascii("\u001B[J");
+    private static final byte[] ROW_START = ascii(ANSI_BORDER_COLOR + "|" + ANSI_RESET);
+    private static final byte[] SEPARATOR = ROW_START;
+    private static final byte[] BORDER_START = ascii(ANSI_BORDER_COLOR + "+");
+    private static final byte[] BORDER_CELL = ascii("---+");
+    private static final byte[] BORDER_END = ascii(ANSI_RESET + "\n");
+
+    // Glyph per cell code: CellType ordinals first, the party marker last.
+    private static final byte HERO = (byte) CellType.values().length;
+    private static final byte[][] GLYPHS = new byte[CellType.values().length + 1][];
+
+    /** What the next call to render() sends. */
+    private enum FrameKind { SCROLLED, CLEARED, CHANGED_CELLS }
+
+    static {
+        for (CellType type : CellType.values()) {
+            GLYPHS[type.ordinal()] = ascii(type.getSymbol());
+        }
+        GLYPHS[HERO] = ascii(ANSI_HERO_COLOR + " P " + ANSI_RESET);
+    }
+
+    private final Board board;
+    private final int rows;
+    private final int cols;
+    private final byte[] shown;   // Cell code currently on screen, row-major
+    private byte[] buffer;
+    private int length;
+    private FrameKind next;
+
+    /**
+     * @param board The board to draw.
+     * @param rows  Visible rows.
+     * @param cols  Visible columns.
+     */
+    public BoardRenderer(Board board, int rows, int cols) {
+        this.board = board;
+        this.rows = rows;
+        this.cols = cols;
+        this.shown = new byte[rows * cols];
+        this.buffer = new byte[fullFrameSize(cols, rows)];
+        invalidate();
+    }
+
+    /**
+     * Forces the next frame to be a full redraw that scrolls in below the current output.
+     * Call this after anything else has scrolled or overwritten the board area (battles, menus).
+     */
+    public void invalidate() {
+        next = FrameKind.SCROLLED;
+    }
+
+    /**
+     * Renders the view (with the party marker, if any) to the given output.
+     *
+     * @param party     The party to mark on the grid, or null.
+     * @param originRow Board row shown in the top line of the view.
+     * @param originCol Board column shown in the left column of the view.
+     * @param io        The destination; receives exactly one write per call.
+     */
+    public void render(Party party, int originRow, int originCol, GameIO io) {
+        length = 0;
+        switch (next) {
+            case SCROLLED:
+                writeFullFrame(party, originRow, originCol, false);
+                next = FrameKind.CLEARED;
+                break;
+            case CLEARED:
+                writeFullFrame(party, originRow, originCol, true);
+                next = FrameKind.CHANGED_CELLS;
+                break;
+            case CHANGED_CELLS:
+                writeChangedCells(party, originRow, originCol);
+                break;
+        }
+        io.write(buffer, 0, length);
+    }
+
+    private void writeFullFrame(Party party, int originRow, int originCol, boolean clearScreen) {
+        // Only a frame drawn from the top-left corner can be patched by cursor address later
+        if (clearScreen) {
+            append(CLEAR_SCREEN);
+        } else {
+            appendByte('\n');
+        }
+        appendBorder(cols);
+        for (int r = 0; r < rows; r++) {
+            append(ROW_START);
+            for (int c = 0; c < cols; c++) {
+                byte code = codeAt(party, originRow + r, originCol + c);
+                shown[r * cols + c] = code;
+                append(GLYPHS[code]);
+                append(SEPARATOR);
+            }
+            appendByte('\n');
+            appendBorder(cols);
+        }
+    }
+
+    private void writeChangedCells(Party party, int originRow, int originCol) {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                byte code = codeAt(party, originRow + r, originCol + c);
+                int index = r * cols + c;
+                if (shown[index] != code) {
+                    shown[index] = code;
+                    // Row r sits on screen line 2r+2 (line 1 is the top border); column c starts at 4c+2.
+                    appendCursor(2 * r + 2, 4 * c + 2);
+                    append(GLYPHS[code]);
+                }
+            }
+        }
+        appendCursor(2 * rows + 2, 1);
+        append(CLEAR_BELOW);
+    }
+
+    private byte codeAt(Party party, int r, int c) {
+        if (party != null && party.getRow() == r && party.getCol() == c) {
+            return HERO;
+        }
+        return (byte) board.getCell(r, c).getType().ordinal();
+    }
+
+    private void appendBorder(int width) {
+        append(BORDER_START);
+        for (int c = 0; c < width; c++) {
+            append(BORDER_CELL);
+        }
+        append(BORDER_END);
+    }
+
+    private void appendCursor(int line, int column) {
+        appendByte(0x1B);
+        appendByte('[');
+        appendInt(line);
+        appendByte(';');
+        appendInt(column);
+        appendByte('H');
+    }
+
+    private void appendInt(int value) {
+        if (value >= 10) {
+            appendInt(value / 10);
+        }
+        appendByte('0' + value % 10);
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static int fullFrameSize(int width, int height) {
+        int glyph = 0;
+        for (byte[] g : GLYPHS) glyph = Math.max(glyph, g.length);
+        int border = BORDER_START.length + width * BORDER_CELL.length + BORDER_END.length;
+        int row = ROW_START.length + width * (glyph + SEPARATOR.length) + 1;
+        return CLEAR_SCREEN.length + border + height * (row + border);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
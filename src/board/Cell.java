@@ -3,14 +3,34 @@ package board;
 /**
  * Represents a single tile on the game board.
  * Encapsulates the terrain type and logic for accessibility.
+ *
+ * <p>Cells are immutable flyweights: there is exactly one instance per CellType,
+ * obtained through {@link #of(CellType)}. Boards store only the packed terrain type.</p>
  */
-public class Cell {
+public final class Cell {
+    private static final Cell[] FLYWEIGHTS = new Cell[CellType.values().length];
+
+    static {
+        for (CellType type : CellType.values()) {
+            FLYWEIGHTS[type.ordinal()] = new Cell(type);
+        }
+    }
+
     private final CellType type;
 
-    public Cell(CellType type) {
+    private Cell(CellType type) {
         this.type = type;
     }
 
+    /**
+     * Returns the shared cell for the given terrain type.
+     * @param type The terrain type.
+     * @return The flyweight instance for that type.
+     */
+    public static Cell of(CellType type) {
+        return FLYWEIGHTS[type.ordinal()];
+    }
+
     public CellType getType() {
         return type;
     }
@@ -43,4 +63,4 @@ public class Cell {
     public String toString() {
         return type.getSymbol();
     }
-}
\ No newline at end of file
+}
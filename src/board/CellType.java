@@ -10,16 +10,14 @@ public enum CellType {
     MARKET(" M ", "\u001B[33;1m"),    // Bright Yellow/Gold
     INACCESSIBLE(" X ", "\u001B[31m");  // Red Hash blocks
 
-    private final String symbol;
-    private final String colorCode;
+    private final String symbol; // Pre-colored, so rendering never concatenates
     private static final String RESET = "\u001B[0m";
 
     CellType(String symbol, String colorCode) {
-        this.symbol = symbol;
-        this.colorCode = colorCode;
+        this.symbol = colorCode + symbol + RESET;
     }
 
     public String getSymbol() {
-        return colorCode + symbol + RESET;
+        return symbol;
     }
 }
\ No newline at end of file
@@ -1,99 +1,194 @@
 package board;
 
-import entities.Party;
-import java.util.Random;
+import common.GameEvents;
+import common.GameIO;
+import common.RandomGenerator;
+
+import java.util.BitSet;
 
 /**
  * Concrete implementation of the Board for Legends: Monsters and Heroes.
  * Manages the grid of Cells, procedural generation, and rendering.
+ *
+ * <p>Terrain is packed two bits per tile (see PackedTerrain), and
+ * {@link #getCell(int, int)} hands out the shared Cell flyweights, so a board costs
+ * a quarter of a byte per tile however large it is.</p>
+ *
+ * <p>After the random roll, a connectivity pass opens walls until every accessible tile
+ * (markets included) is reachable from the start, joining each cut-off tile along a path that
+ * crosses as few walls as possible. The distance from each tile
+ * to its nearest market is computed once, on first query, and then answered in O(1).</p>
  */
 public class LegendsBoard extends Board {
-    private final Cell[][] grid;
-    private final Random random;
-    private Party party;
+    public static final int MIN_SIZE = 4;
 
-    // Visual styling
-    private static final String HERO_SYMBOL = " P ";
-    private static final String ANSI_HERO_COLOR = "\u001B[36m"; // Cyan (to contrast with Purple grid)
-    private static final String ANSI_BORDER_COLOR = "\u001B[35m"; // Purple
-    private static final String ANSI_RESET = "\u001B[0m";
+    private final PackedTerrain terrain;
+    private final RandomGenerator random;
+    private BoardRenderer renderer; // Created on first print; large load-test boards are never drawn
+    private char[] marketDistance;  // Built on first query; 2 bytes per tile
+    private final BitSet changedWords = new BitSet(); // Terrain words edited since takeChangedTerrainWords()
 
     public LegendsBoard(int n) {
         super(n, n);
-        if (n < 4 || n > 20) {
-            throw new IllegalArgumentException("Board size must be between 4 and 20.");
+        if (n < MIN_SIZE) {
+            throw new IllegalArgumentException("Board size must be at least " + MIN_SIZE + ".");
+        }
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Board size " + n + " is too large.");
         }
-        this.grid = new Cell[n][n];
-        this.random = new Random();
+        this.terrain = new PackedTerrain((long) n * n);
+        this.random = RandomGenerator.getInstance(); // The session stream, so layouts replay
         initializeBoard();
+        TerrainConnectivity.connect(terrain, width, height);
     }
 
-    public void setParty(Party party) {
-        this.party = party;
+    /**
+     * Rebuilds a saved board from its packed terrain words (see {@link #getTerrainWord}),
+     * without generating or re-running the connectivity pass.
+     *
+     * @throws IllegalArgumentException if the word count does not match the board size or a
+     *                                  tile holds no valid cell type.
+     */
+    public static LegendsBoard fromTerrain(int n, long[] terrainWords) {
+        return new LegendsBoard(n, terrainWords);
+    }
+
+    private LegendsBoard(int n, long[] terrainWords) {
+        super(n, n);
+        if (n < MIN_SIZE) {
+            throw new IllegalArgumentException("Board size must be at least " + MIN_SIZE + ".");
+        }
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Board size " + n + " is too large.");
+        }
+        if (terrainWords.length != PackedTerrain.wordsFor((long) n * n)) {
+            throw new IllegalArgumentException("A " + n + "x" + n + " board needs " + PackedTerrain.wordsFor((long) n * n)
+                    + " terrain words, got " + terrainWords.length + ".");
+        }
+        this.terrain = new PackedTerrain(terrainWords);
+        if (!terrain.holdsOnlyCellTypes((long) n * n)) {
+            throw new IllegalArgumentException("The terrain words hold an unknown cell type.");
+        }
+        this.random = RandomGenerator.getInstance();
     }
 
     private void initializeBoard() {
         for (int r = 0; r < height; r++) {
             for (int c = 0; c < width; c++) {
-                grid[r][c] = createCell(r, c);
+                setType(r, c, createCellType(r, c));
             }
         }
     }
 
-    private Cell createCell(int r, int c) {
+    private CellType createCellType(int r, int c) {
         // 1. START POSITION (0,0) -> Always Common
-        if (r == 0 && c == 0) return new Cell(CellType.COMMON);
+        if (r == 0 && c == 0) return CellType.COMMON;
 
         // 2. SAFE ZONE: Ensure (0,1) AND (1,0) are never blocked
         // This allows movement Right (0,1) and Down (1,0) from start
         if ((r == 0 && c == 1) || (r == 1 && c == 0)) {
-            return new Cell(CellType.COMMON);
+            return CellType.COMMON;
         }
 
         // 3. RANDOM GENERATION
         double roll = random.nextDouble();
-        if (roll < 0.20) return new Cell(CellType.INACCESSIBLE);
-        else if (roll < 0.50) return new Cell(CellType.MARKET);
-        else return new Cell(CellType.COMMON);
+        if (roll < 0.20) return CellType.INACCESSIBLE;
+        else if (roll < 0.50) return CellType.MARKET;
+        else return CellType.COMMON;
     }
 
+    @Override
     public Cell getCell(int row, int col) {
         if (!isValidCoordinate(row, col)) {
             throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
         }
-        return grid[row][col];
+        return Cell.of(typeAt(row, col));
     }
 
-    @Override
-    public void printBoard() {
-        // Top Border
-        printHorizontalBorder();
+    /**
+     * Replaces the terrain of one tile (scripted events, editors).
+     * Bumps the terrain version and drops the market distance field; the connectivity
+     * guarantee only covers generation, so callers placing walls are responsible for it.
+     */
+    public void setCellType(int row, int col, CellType type) {
+        if (!isValidCoordinate(row, col)) {
+            throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
+        }
+        setType(row, col, type);
+        changedWords.set(PackedTerrain.wordOf((long) row * width + col));
+        marketDistance = null;
+        terrainVersion++;
+    }
 
-        for (int r = 0; r < height; r++) {
-            // Left Border for the row
-            System.out.print(ANSI_BORDER_COLOR + "|" + ANSI_RESET);
+    // PACKED TERRAIN ACCESS (save files): 2 bits per tile, row-major, 32 tiles per word
 
-            for (int c = 0; c < width; c++) {
-                // Render Logic
-                if (party != null && party.getRow() == r && party.getCol() == c) {
-                    System.out.print(ANSI_HERO_COLOR + HERO_SYMBOL + ANSI_RESET);
-                } else {
-                    System.out.print(grid[r][c].toString());
-                }
-
-                System.out.print(ANSI_BORDER_COLOR + "|" + ANSI_RESET); // Column separator
-            }
-            System.out.println(); // New line after row
+    public int getTerrainWordCount() {
+        return terrain.wordCount();
+    }
+
+    public long getTerrainWord(int index) {
+        return terrain.word(index);
+    }
+
+    /**
+     * Returns the indices of the terrain words changed by {@link #setCellType} since the
+     * previous call (or since generation), in ascending order, and starts tracking afresh.
+     */
+    public int[] takeChangedTerrainWords() {
+        int[] changed = changedWords.stream().toArray();
+        changedWords.clear();
+        return changed;
+    }
+
+    /**
+     * Returns the number of steps from the given tile to the nearest market.
+     *
+     * @return 0 on a market, or -1 for walls (every accessible tile can reach a market
+     *         unless the board has none).
+     */
+    public int getMarketDistance(int row, int col) {
+        if (!isValidCoordinate(row, col)) {
+            throw new IndexOutOfBoundsException("Invalid coordinate: " + row + "," + col);
+        }
+        if (marketDistance == null) {
+            marketDistance = TerrainConnectivity.marketDistances(terrain, width, height);
+        }
+        char distance = marketDistance[row * width + col];
+        return distance == TerrainConnectivity.UNREACHABLE ? -1 : distance;
+    }
 
-            printHorizontalBorder();
+    private CellType typeAt(int row, int col) {
+        return terrain.get((long) row * width + col);
+    }
+
+    private void setType(int row, int col, CellType type) {
+        terrain.set((long) row * width + col, type);
+    }
+
+    /**
+     * Draws the board through the frame renderer: a full frame the first time,
+     * then only the cells that changed since the previous call.
+     */
+    @Override
+    public void printBoard(GameIO io) {
+        GameEvents.BoardRender event = new GameEvents.BoardRender();
+        event.begin();
+        if (renderer == null) {
+            renderer = new BoardRenderer(this, height, width);
+        }
+        renderer.render(party, 0, 0, io);
+        if (event.shouldCommit()) {
+            event.board = "Legends";
+            event.rows = height;
+            event.columns = width;
+            event.commit();
         }
     }
 
-    private void printHorizontalBorder() {
-        System.out.print(ANSI_BORDER_COLOR + "+");
-        for (int c = 0; c < width; c++) {
-            System.out.print("---+");
+    @Override
+    public void invalidateFrame() {
+        if (renderer != null) {
+            renderer.invalidate();
         }
-        System.out.println(ANSI_RESET);
     }
-}
\ No newline at end of file
+}
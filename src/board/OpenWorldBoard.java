@@ -0,0 +1,165 @@
+package board;
+
+import common.GameEvents;
+import common.GameIO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unbounded board for the open-world mode.
+ * The world is split into WorldChunks that are generated on first access from
+ * (world seed, chunk coordinates). Loaded chunks live in a bounded LRU cache; chunks the
+ * party has walked away from fall out of it and are regenerated identically if revisited,
+ * so memory stays flat however far the party travels.
+ *
+ * <p>Every coordinate is valid (negative ones included). printBoard() draws a fixed-size
+ * view centred on the party and prefetches the surrounding chunks in parallel.</p>
+ */
+public class OpenWorldBoard extends Board {
+    public static final int VIEW_SIZE = 15;
+    public static final int DEFAULT_CACHED_CHUNKS = 64;
+
+    // Chunks loaded around the view on every print (1 => the 3x3 block around the party)
+    private static final int PREFETCH_RADIUS = 1;
+
+    private final long seed;
+    private final Map<Long, WorldChunk> chunks;
+    private final BoardRenderer renderer;
+
+    // Single-entry cache in front of the map: consecutive lookups mostly hit the same chunk
+    private long lastKey;
+    private WorldChunk lastChunk;
+    private long generated;
+
+    public OpenWorldBoard(long seed) {
+        this(seed, DEFAULT_CACHED_CHUNKS);
+    }
+
+    /**
+     * @param seed         World seed; the same seed always produces the same world.
+     * @param cachedChunks Maximum number of chunks kept in memory.
+     */
+    public OpenWorldBoard(long seed, int cachedChunks) {
+        super(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        int minimum = (2 * PREFETCH_RADIUS + 1) * (2 * PREFETCH_RADIUS + 1);
+        if (cachedChunks < minimum) {
+            throw new IllegalArgumentException("Chunk cache must hold at least " + minimum + " chunks.");
+        }
+        this.seed = seed;
+        this.chunks = new LinkedHashMap<>(cachedChunks * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, WorldChunk> eldest) {
+                return size() > cachedChunks;
+            }
+        };
+        this.renderer = new BoardRenderer(this, VIEW_SIZE, VIEW_SIZE);
+    }
+
+    public long getSeed() { return seed; }
+
+    @Override
+    public boolean isValidCoordinate(int row, int col) {
+        return true;
+    }
+
+    @Override
+    public boolean isBounded() {
+        return false;
+    }
+
+    @Override
+    public Cell getCell(int row, int col) {
+        WorldChunk chunk = chunkAt(row >> WorldChunk.SHIFT, col >> WorldChunk.SHIFT);
+        return Cell.of(chunk.get(row & WorldChunk.MASK, col & WorldChunk.MASK));
+    }
+
+    /**
+     * @return The number of chunks currently held in memory.
+     */
+    public synchronized int getLoadedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return How many chunks have been generated so far, including regenerations after eviction.
+     */
+    public synchronized long getGeneratedChunkCount() {
+        return generated;
+    }
+
+    private synchronized WorldChunk chunkAt(int chunkRow, int chunkCol) {
+        long key = WorldChunk.key(chunkRow, chunkCol);
+        if (lastChunk != null && lastKey == key) {
+            return lastChunk;
+        }
+        WorldChunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = WorldChunk.generate(seed, chunkRow, chunkCol);
+            chunks.put(key, chunk);
+            generated++;
+        }
+        lastKey = key;
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    /**
+     * Makes sure every chunk within {@code radius} chunks of the given tile is loaded.
+     * Missing chunks are generated in parallel outside the cache lock.
+     */
+    public void prefetch(int row, int col, int radius) {
+        int centerRow = row >> WorldChunk.SHIFT;
+        int centerCol = col >> WorldChunk.SHIFT;
+
+        List<int[]> missing = new ArrayList<>();
+        synchronized (this) {
+            for (int cr = centerRow - radius; cr <= centerRow + radius; cr++) {
+                for (int cc = centerCol - radius; cc <= centerCol + radius; cc++) {
+                    // get() also refreshes chunks that are already loaded, so they are not evicted next
+                    if (chunks.get(WorldChunk.key(cr, cc)) == null) {
+                        missing.add(new int[] {cr, cc});
+                    }
+                }
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        List<WorldChunk> built = missing.parallelStream()
+                .map(at -> WorldChunk.generate(seed, at[0], at[1]))
+                .toList();
+
+        synchronized (this) {
+            for (int i = 0; i < missing.size(); i++) {
+                int[] at = missing.get(i);
+                // Another caller may have loaded the chunk meanwhile; only count the ones added here
+                if (chunks.putIfAbsent(WorldChunk.key(at[0], at[1]), built.get(i)) == null) {
+                    generated++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void printBoard(GameIO io) {
+        GameEvents.BoardRender event = new GameEvents.BoardRender();
+        event.begin();
+        int row = party != null ? party.getRow() : 0;
+        int col = party != null ? party.getCol() : 0;
+        prefetch(row, col, PREFETCH_RADIUS);
+        renderer.render(party, row - VIEW_SIZE / 2, col - VIEW_SIZE / 2, io);
+        if (event.shouldCommit()) {
+            event.board = "Open world";
+            event.rows = VIEW_SIZE;
+            event.columns = VIEW_SIZE;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void invalidateFrame() {
+        renderer.invalidate();
+    }
+}
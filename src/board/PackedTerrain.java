@@ -0,0 +1,69 @@
+package board;
+
+/**
+ * Fixed-size terrain store packing one CellType into two bits (32 tiles per long).
+ * Indexing is row-major and left to the owner; this class only knows tile indices.
+ */
+final class PackedTerrain {
+    private static final CellType[] TYPES = CellType.values();
+    private static final int BITS_PER_CELL = 2;
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+    private final long[] words;
+
+    PackedTerrain(long tiles) {
+        long count = wordsFor(tiles);
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many tiles: " + tiles);
+        }
+        this.words = new long[(int) count];
+    }
+
+    /**
+     * Wraps previously saved words (see {@link #word}); the array is used as is, not copied.
+     */
+    PackedTerrain(long[] words) {
+        this.words = words;
+    }
+
+    int wordCount() {
+        return words.length;
+    }
+
+    long word(int slot) {
+        return words[slot];
+    }
+
+    /** @return The word holding a tile, for callers tracking which words changed. */
+    static int wordOf(long index) {
+        return (int) (index / CELLS_PER_WORD);
+    }
+
+    /** @return The number of words needed for {@code tiles} tiles. */
+    static long wordsFor(long tiles) {
+        return (tiles + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /** @return False if any of the first {@code tiles} tiles holds a code that names no CellType. */
+    boolean holdsOnlyCellTypes(long tiles) {
+        for (long index = 0; index < tiles; index++) {
+            long word = words[(int) (index / CELLS_PER_WORD)];
+            int shift = (int) (index % CELLS_PER_WORD) * BITS_PER_CELL;
+            if (((word >>> shift) & CELL_MASK) >= TYPES.length) return false;
+        }
+        return true;
+    }
+
+    CellType get(long index) {
+        long word = words[(int) (index / CELLS_PER_WORD)];
+        int shift = (int) (index % CELLS_PER_WORD) * BITS_PER_CELL;
+        return TYPES[(int) ((word >>> shift) & CELL_MASK)];
+    }
+
+    void set(long index, CellType type) {
+        int slot = (int) (index / CELLS_PER_WORD);
+        int shift = (int) (index % CELLS_PER_WORD) * BITS_PER_CELL;
+        words[slot] = (words[slot] & ~(CELL_MASK << shift)) | ((long) type.ordinal() << shift);
+    }
+}
@@ -0,0 +1,439 @@
+package board;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Route planning over any Board (4-connected, every step costs 1).
+ *
+ * <p>Searches run A* with a Manhattan heuristic, either expanding one tile at a time or using
+ * jump point search (the 4-connected variant), which skips across open stretches and expands
+ * far fewer nodes on large, sparse boards. Both return shortest routes.</p>
+ *
+ * <p>Searches are confined to a window around source and target, so a short trip on a huge (or
+ * endless) board only touches nearby tiles. The window grows when no route is found, and also
+ * when the route found detours so far that a route leaving the window could be shorter; only a
+ * window over {@code MAX_WINDOW_TILES} tiles stops the growth, and then the best route found so
+ * far is returned even if it is not the shortest. Finished routes
+ * are cached per (source, target) and the cache is dropped whenever the board's terrain version
+ * changes. Instances reuse their scratch arrays and are not thread-safe.</p>
+ */
+public class PathFinder {
+
+    public enum Algorithm { A_STAR, JUMP_POINT }
+
+    private static final int CACHE_SIZE = 256;
+    private static final int WINDOW_MARGIN = 16;
+    private static final int MAX_WINDOW_TILES = 1 << 22;
+    // How far the open world is searched for a market (bounded boards use their distance field)
+    private static final int MARKET_SEARCH_RADIUS = 64;
+
+    // Up, right, down, left
+    private static final int[] DR = {-1, 0, 1, 0};
+    private static final int[] DC = {0, 1, 0, -1};
+    private static final int RIGHT = 1;
+    private static final int LEFT = 3;
+
+    private final Board board;
+    private final Algorithm algorithm;
+    private final Map<RouteKey, Route> cache;
+    private final RouteKey lookupKey = new RouteKey();   // Reused for cache hits; misses store a copy
+    private long cachedVersion;
+
+    // Search window and per-search scratch; stamp[i] == search marks entries as belonging to this search
+    private int top;
+    private int left;
+    private int rows;
+    private int cols;
+    private int[] cost = new int[0];
+    private int[] parent = new int[0];
+    private int[] stamp = new int[0];
+    private int[] closed = new int[0];
+    private int[] queue = new int[0];
+    private int search;
+    // Jump point memo, one window-sized slice per direction (allocated for JUMP_POINT only)
+    private int[] jumpTo = new int[0];
+    private int[] jumpStamp = new int[0];
+    // Open list: heapKey orders by f, then by larger g; heapNode holds the matching node
+    private long[] heapKey = new long[64];
+    private int[] heapNode = new int[64];
+    private int heapSize;
+
+    public PathFinder(Board board, Algorithm algorithm) {
+        this.board = board;
+        this.algorithm = algorithm;
+        this.cachedVersion = board.getTerrainVersion();
+        this.cache = new LinkedHashMap<>(CACHE_SIZE * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, Route> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Finds a shortest route between two tiles.
+     *
+     * @return The route, or null if the target is blocked or cannot be reached.
+     */
+    public Route findRoute(int fromRow, int fromCol, int toRow, int toCol) {
+        if (!isOpen(toRow, toCol)) return null;
+        if (fromRow == toRow && fromCol == toCol) return new Route(new int[0], new int[0]);
+
+        if (cachedVersion != board.getTerrainVersion()) {
+            cache.clear();
+            cachedVersion = board.getTerrainVersion();
+        }
+        lookupKey.set(fromRow, fromCol, toRow, toCol);
+        Route cached = cache.get(lookupKey);
+        if (cached != null) return cached;
+
+        long distance = Math.abs((long) toRow - fromRow) + Math.abs((long) toCol - fromCol);
+        Route best = null;
+        int margin = WINDOW_MARGIN;
+        while (true) {
+            boolean wholeBoard = openWindow(fromRow, fromCol, toRow, toCol, margin);
+            if ((long) rows * cols > MAX_WINDOW_TILES) break;
+            Route route = search(fromRow, fromCol, toRow, toCol);
+            if (route != null) {
+                best = route;
+                // A route leaving the window walks out past the margin and back: at least
+                // distance + 2 * (margin + 1) steps. Otherwise widen the window to admit any shorter one.
+                long detour = route.length() - distance;
+                if (wholeBoard || detour <= 2L * margin + 2) break;
+                margin = (int) Math.min((detour - 1) / 2, Integer.MAX_VALUE / 4);
+            } else {
+                if (wholeBoard) break;
+                margin *= 4;
+            }
+        }
+        if (best != null) cache.put(new RouteKey().set(fromRow, fromCol, toRow, toCol), best);
+        return best;
+    }
+
+    /**
+     * Finds a shortest route to the closest MARKET tile.
+     * On a LegendsBoard this just walks down the precomputed market distance field.
+     *
+     * @return The route (empty if already on a market), or null if no market is in reach.
+     */
+    public Route findRouteToNearestMarket(int fromRow, int fromCol) {
+        if (board instanceof LegendsBoard) {
+            return descendMarketField((LegendsBoard) board, fromRow, fromCol);
+        }
+        openWindow(fromRow, fromCol, fromRow, fromCol, MARKET_SEARCH_RADIUS);
+        return searchNearestMarket(fromRow, fromCol);
+    }
+
+    private Route descendMarketField(LegendsBoard legends, int row, int col) {
+        int distance = legends.getMarketDistance(row, col);
+        if (distance < 0) return null;
+
+        int[] routeRows = new int[distance];
+        int[] routeCols = new int[distance];
+        for (int step = 0; step < distance; step++) {
+            for (int dir = 0; dir < 4; dir++) {
+                int r = row + DR[dir];
+                int c = col + DC[dir];
+                if (legends.isValidCoordinate(r, c) && legends.getMarketDistance(r, c) == distance - step - 1) {
+                    row = r;
+                    col = c;
+                    break;
+                }
+            }
+            routeRows[step] = row;
+            routeCols[step] = col;
+        }
+        return new Route(routeRows, routeCols);
+    }
+
+    // --- Search window ---
+
+    /**
+     * Sets the window to the bounding box of both points plus a margin, clipped to bounded boards.
+     * @return true if the window covers the whole (bounded) board.
+     */
+    private boolean openWindow(int r1, int c1, int r2, int c2, int margin) {
+        long minRow = (long) Math.min(r1, r2) - margin;
+        long maxRow = (long) Math.max(r1, r2) + margin;
+        long minCol = (long) Math.min(c1, c2) - margin;
+        long maxCol = (long) Math.max(c1, c2) + margin;
+        boolean wholeBoard = false;
+        if (board.isBounded()) {
+            minRow = Math.max(minRow, 0);
+            minCol = Math.max(minCol, 0);
+            maxRow = Math.min(maxRow, board.getHeight() - 1);
+            maxCol = Math.min(maxCol, board.getWidth() - 1);
+            wholeBoard = minRow == 0 && minCol == 0
+                    && maxRow == board.getHeight() - 1 && maxCol == board.getWidth() - 1;
+        }
+        top = (int) minRow;
+        left = (int) minCol;
+        rows = (int) Math.min(maxRow - minRow + 1, Integer.MAX_VALUE);
+        cols = (int) Math.min(maxCol - minCol + 1, Integer.MAX_VALUE);
+
+        long tiles = (long) rows * cols;
+        if (tiles <= MAX_WINDOW_TILES && tiles > cost.length) {
+            int size = (int) tiles;
+            cost = new int[size];
+            parent = new int[size];
+            stamp = new int[size];
+            closed = new int[size];
+            queue = new int[size];
+            if (algorithm == Algorithm.JUMP_POINT) {
+                jumpTo = new int[4 * size];
+                jumpStamp = new int[4 * size];
+            }
+            search = 0;
+        }
+        if (++search == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(jumpStamp, 0);
+            search = 1;
+        }
+        return wholeBoard;
+    }
+
+    private boolean isOpen(int row, int col) {
+        return board.isValidCoordinate(row, col) && board.getCell(row, col).isAccessible();
+    }
+
+    private boolean blocked(int row, int col) {
+        return row < top || row >= top + rows || col < left || col >= left + cols || !isOpen(row, col);
+    }
+
+    private int index(int row, int col) {
+        return (row - top) * cols + (col - left);
+    }
+
+    // --- A* / jump point search ---
+
+    private Route search(int fromRow, int fromCol, int toRow, int toCol) {
+        heapSize = 0;
+        int start = index(fromRow, fromCol);
+        int goal = index(toRow, toCol);
+        relax(start, -1, 0, fromRow, fromCol, toRow, toCol);
+
+        while (heapSize > 0) {
+            int node = pop();
+            if (closed[node] == search) continue;
+            closed[node] = search;
+            if (node == goal) return buildRoute(goal);
+
+            int row = top + node / cols;
+            int col = left + node % cols;
+            for (int dir = 0; dir < 4; dir++) {
+                int next;
+                if (algorithm == Algorithm.JUMP_POINT) {
+                    next = jump(row, col, dir, toRow, toCol);
+                } else {
+                    next = blocked(row + DR[dir], col + DC[dir]) ? -1 : index(row + DR[dir], col + DC[dir]);
+                }
+                if (next < 0 || closed[next] == search) continue;
+                int nextRow = top + next / cols;
+                int nextCol = left + next % cols;
+                int step = Math.abs(nextRow - row) + Math.abs(nextCol - col);
+                relax(next, node, cost[node] + step, nextRow, nextCol, toRow, toCol);
+            }
+        }
+        return null;
+    }
+
+    private void relax(int node, int from, int g, int row, int col, int toRow, int toCol) {
+        if (stamp[node] == search && cost[node] <= g) return;
+        stamp[node] = search;
+        cost[node] = g;
+        parent[node] = from;
+        int f = g + Math.abs(toRow - row) + Math.abs(toCol - col);
+        // Among equal f, expand the node closest to the target first (fewer ties on open ground)
+        push(((long) f << 32) | (Integer.MAX_VALUE - g), node);
+    }
+
+    /**
+     * Moves from (row, col) in a straight line until a jump point, the target or a wall.
+     * Horizontal runs stop where a wall beside the run ends (a forced neighbour); vertical runs
+     * also stop wherever a horizontal run from the current tile would find a jump point.
+     *
+     * <p>The answer for every tile passed on the way is memoized for the current search, so each
+     * (tile, direction) pair is scanned at most once and the nested horizontal runs of a vertical
+     * jump do not rescan the same rows.</p>
+     *
+     * @return The window index of the jump point, or -1 if the run dead-ends.
+     */
+    private int jump(int row, int col, int dir, int toRow, int toCol) {
+        int dr = DR[dir];
+        int dc = DC[dir];
+        int base = dir * cost.length;
+
+        int result;
+        int steps = 0;
+        int r = row;
+        int c = col;
+        while (true) {
+            int at = base + index(r, c);
+            if (jumpStamp[at] == search) {
+                result = jumpTo[at];
+                break;
+            }
+            steps++;
+            int nr = r + dr;
+            int nc = c + dc;
+            if (blocked(nr, nc)) {
+                result = -1;
+                break;
+            }
+            if ((nr == toRow && nc == toCol) || isJumpPoint(r, c, nr, nc, dr, toRow, toCol)) {
+                result = index(nr, nc);
+                break;
+            }
+            r = nr;
+            c = nc;
+        }
+
+        // Every tile walked over leads to the same jump point in this direction
+        for (int i = 0; i < steps; i++) {
+            int at = base + index(row + i * dr, col + i * dc);
+            jumpStamp[at] = search;
+            jumpTo[at] = result;
+        }
+        return result;
+    }
+
+    private boolean isJumpPoint(int row, int col, int r, int c, int dr, int toRow, int toCol) {
+        if (dr != 0) {
+            return jump(r, c, RIGHT, toRow, toCol) >= 0 || jump(r, c, LEFT, toRow, toCol) >= 0;
+        }
+        return (blocked(row - 1, col) && !blocked(r - 1, c))
+                || (blocked(row + 1, col) && !blocked(r + 1, c));
+    }
+
+    private Route buildRoute(int goal) {
+        int length = cost[goal];
+        int[] routeRows = new int[length];
+        int[] routeCols = new int[length];
+        int step = length;
+        // Walk the parent chain backwards; jump point parents are joined by straight runs
+        for (int node = goal; parent[node] >= 0; node = parent[node]) {
+            int row = top + node / cols;
+            int col = left + node % cols;
+            int fromRow = top + parent[node] / cols;
+            int fromCol = left + parent[node] % cols;
+            int dr = Integer.signum(fromRow - row);
+            int dc = Integer.signum(fromCol - col);
+            while (row != fromRow || col != fromCol) {
+                step--;
+                routeRows[step] = row;
+                routeCols[step] = col;
+                row += dr;
+                col += dc;
+            }
+        }
+        return new Route(routeRows, routeCols);
+    }
+
+    // --- Breadth-first market search (unbounded boards) ---
+
+    private Route searchNearestMarket(int fromRow, int fromCol) {
+        // Every tile is enqueued at most once, so a window-sized array is a big enough FIFO
+        int head = 0;
+        int tail = 0;
+        int start = index(fromRow, fromCol);
+        stamp[start] = search;
+        cost[start] = 0;
+        parent[start] = -1;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int node = queue[head++];
+            int row = top + node / cols;
+            int col = left + node % cols;
+            if (board.getCell(row, col).isMarket()) return buildRoute(node);
+            for (int dir = 0; dir < 4; dir++) {
+                int r = row + DR[dir];
+                int c = col + DC[dir];
+                if (blocked(r, c)) continue;
+                int next = index(r, c);
+                if (stamp[next] == search) continue;
+                stamp[next] = search;
+                cost[next] = cost[node] + 1;
+                parent[next] = node;
+                queue[tail++] = next;
+            }
+        }
+        return null;
+    }
+
+    // --- Binary min-heap over (heapKey, heapNode) ---
+
+    private void push(long key, int node) {
+        if (heapSize == heapKey.length) {
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+            heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) break;
+            heapKey[i] = heapKey[up];
+            heapNode[i] = heapNode[up];
+            i = up;
+        }
+        heapKey[i] = key;
+        heapNode[i] = node;
+    }
+
+    private int pop() {
+        int min = heapNode[0];
+        long lastKey = heapKey[--heapSize];
+        int lastNode = heapNode[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) child++;
+            if (heapKey[child] >= lastKey) break;
+            heapKey[i] = heapKey[child];
+            heapNode[i] = heapNode[child];
+            i = child;
+        }
+        if (heapSize > 0) {
+            heapKey[i] = lastKey;
+            heapNode[i] = lastNode;
+        }
+        return min;
+    }
+
+    // Mutable so lookups can reuse one instance; keys stored in the cache are never changed
+    private static final class RouteKey {
+        private int fromRow;
+        private int fromCol;
+        private int toRow;
+        private int toCol;
+
+        RouteKey set(int fromRow, int fromCol, int toRow, int toCol) {
+            this.fromRow = fromRow;
+            this.fromCol = fromCol;
+            this.toRow = toRow;
+            this.toCol = toCol;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RouteKey)) return false;
+            RouteKey other = (RouteKey) o;
+            return fromRow == other.fromRow && fromCol == other.fromCol
+                    && toRow == other.toRow && toCol == other.toCol;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = fromRow;
+            h = 31 * h + fromCol;
+            h = 31 * h + toRow;
+            return 31 * h + toCol;
+        }
+    }
+}
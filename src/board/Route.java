@@ -0,0 +1,25 @@
+package board;
+
+/**
+ * Immutable sequence of orthogonal steps produced by the PathFinder.
+ * Step 0 is the first tile after the start; the last step is the destination.
+ */
+public final class Route {
+    private final int[] rows;
+    private final int[] cols;
+
+    Route(int[] rows, int[] cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * @return The number of steps (0 when the start already is the destination).
+     */
+    public int length() {
+        return rows.length;
+    }
+
+    public int getRow(int step) { return rows[step]; }
+    public int getCol(int step) { return cols[step]; }
+}
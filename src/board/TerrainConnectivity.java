@@ -0,0 +1,170 @@
+package board;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Linear-time connectivity passes over a packed width x height terrain.
+ * Tiles are addressed by row-major index; the start tile is always index 0.
+ */
+final class TerrainConnectivity {
+
+    /** Market distance reported for tiles no market can be reached from. */
+    static final char UNREACHABLE = Character.MAX_VALUE;
+
+    // Up, right, down, left
+    private static final int[] DR = {-1, 0, 1, 0};
+    private static final int[] DC = {0, 1, 0, -1};
+
+    private TerrainConnectivity() {
+    }
+
+    /**
+     * Opens walls until every accessible tile is reachable from the start, joining each cut-off
+     * tile along a path that crosses as few walls as possible. That is not the fewest walls in
+     * total (paths picked per tile can miss a shared shortcut), but it is cheap and never opens
+     * a wall no cut-off tile needed.
+     *
+     * <p>A 0-1 BFS from the start (entering a wall costs 1, entering any other tile 0) builds a
+     * tree in which each tile's path back to the start crosses as few walls as possible. Every
+     * accessible tile outside the start's region then walks up that tree, turning walls into
+     * COMMON tiles, until it meets a tile that is already connected. Each tile is settled once
+     * and carved at most once, so the whole pass is O(tiles).</p>
+     *
+     * @return The number of walls that were opened.
+     */
+    static int connect(PackedTerrain terrain, int width, int height) {
+        int tiles = width * height;
+        byte[] parent = new byte[tiles];   // Direction back towards the start
+        BitSet settled = new BitSet(tiles);
+        BitSet pendingWall = new BitSet(tiles);
+        BitSet connected = new BitSet(tiles);
+
+        IntQueue level = new IntQueue();
+        IntQueue nextLevel = new IntQueue();
+        settled.set(0);
+        level.add(0);
+        boolean startRegion = true;
+
+        while (!level.isEmpty()) {
+            while (!level.isEmpty()) {
+                int tile = level.poll();
+                if (startRegion) connected.set(tile);
+                int row = tile / width;
+                int col = tile % width;
+                for (int dir = 0; dir < 4; dir++) {
+                    int r = row + DR[dir];
+                    int c = col + DC[dir];
+                    if (r < 0 || r >= height || c < 0 || c >= width) continue;
+                    int next = r * width + c;
+                    if (settled.get(next)) continue;
+                    if (terrain.get(next) != CellType.INACCESSIBLE) {
+                        settled.set(next);
+                        parent[next] = (byte) opposite(dir);
+                        level.add(next);
+                    } else if (!pendingWall.get(next)) {
+                        pendingWall.set(next);
+                        parent[next] = (byte) opposite(dir);
+                        nextLevel.add(next);
+                    }
+                }
+            }
+            startRegion = false;
+            // Walls reached by a cheaper open path in the meantime are already settled; skip them
+            while (!nextLevel.isEmpty()) {
+                int wall = nextLevel.poll();
+                if (!settled.get(wall)) {
+                    settled.set(wall);
+                    level.add(wall);
+                }
+            }
+        }
+
+        int opened = 0;
+        for (int tile = 0; tile < tiles; tile++) {
+            if (connected.get(tile) || terrain.get(tile) == CellType.INACCESSIBLE) continue;
+            int step = tile;
+            while (!connected.get(step)) {
+                connected.set(step);
+                if (terrain.get(step) == CellType.INACCESSIBLE) {
+                    terrain.set(step, CellType.COMMON);
+                    opened++;
+                }
+                int dir = parent[step];
+                step = (step / width + DR[dir]) * width + (step % width + DC[dir]);
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Multi-source BFS from every market over accessible tiles.
+     *
+     * @return Steps from each tile to its nearest market, saturating just below
+     *         {@link #UNREACHABLE}; walls and cut-off tiles get {@code UNREACHABLE}.
+     */
+    static char[] marketDistances(PackedTerrain terrain, int width, int height) {
+        int tiles = width * height;
+        char[] distance = new char[tiles];
+        Arrays.fill(distance, UNREACHABLE);
+
+        IntQueue queue = new IntQueue();
+        for (int tile = 0; tile < tiles; tile++) {
+            if (terrain.get(tile) == CellType.MARKET) {
+                distance[tile] = 0;
+                queue.add(tile);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int tile = queue.poll();
+            char step = (char) Math.min(distance[tile] + 1, UNREACHABLE - 1);
+            int row = tile / width;
+            int col = tile % width;
+            for (int dir = 0; dir < 4; dir++) {
+                int r = row + DR[dir];
+                int c = col + DC[dir];
+                if (r < 0 || r >= height || c < 0 || c >= width) continue;
+                int next = r * width + c;
+                if (distance[next] != UNREACHABLE || terrain.get(next) == CellType.INACCESSIBLE) continue;
+                distance[next] = step;
+                queue.add(next);
+            }
+        }
+        return distance;
+    }
+
+    private static int opposite(int dir) {
+        return (dir + 2) & 3;
+    }
+
+    /**
+     * Growable FIFO of ints; avoids boxing on boards with millions of tiles.
+     */
+    private static final class IntQueue {
+        private int[] items = new int[256];
+        private int head;
+        private int tail;
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        void add(int value) {
+            if (tail == items.length) {
+                if (head >= items.length / 2) {
+                    System.arraycopy(items, head, items, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                }
+                if (tail == items.length) {
+                    items = Arrays.copyOf(items, items.length * 2);
+                }
+            }
+            items[tail++] = value;
+        }
+
+        int poll() {
+            return items[head++];
+        }
+    }
+}
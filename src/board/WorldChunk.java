@@ -0,0 +1,55 @@
+package board;
+
+import common.RandomGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * One fixed-size square of an open world.
+ * Terrain depends only on (world seed, chunk row, chunk column), so a chunk can be generated
+ * on any thread and rebuilt identically after it has been evicted.
+ */
+final class WorldChunk {
+    static final int SHIFT = 5;
+    static final int SIZE = 1 << SHIFT;   // 32x32 tiles
+    static final int MASK = SIZE - 1;
+
+    private final PackedTerrain terrain = new PackedTerrain(SIZE * SIZE);
+
+    private WorldChunk() {
+    }
+
+    CellType get(int localRow, int localCol) {
+        return terrain.get(localRow * SIZE + localCol);
+    }
+
+    /**
+     * Generates a chunk with the same tile odds as the classic board.
+     * The world origin keeps the classic safe zone: (0,0), (0,1) and (1,0) are always common.
+     */
+    static WorldChunk generate(long worldSeed, int chunkRow, int chunkCol) {
+        WorldChunk chunk = new WorldChunk();
+        SplittableRandom random = new SplittableRandom(RandomGenerator.deriveSeed(worldSeed, key(chunkRow, chunkCol)));
+        boolean origin = chunkRow == 0 && chunkCol == 0;
+
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                double roll = random.nextDouble();
+                CellType type;
+                if (origin && r + c <= 1) type = CellType.COMMON;
+                else if (roll < 0.20) type = CellType.INACCESSIBLE;
+                else if (roll < 0.50) type = CellType.MARKET;
+                else type = CellType.COMMON;
+                chunk.terrain.set(r * SIZE + c, type);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Packs chunk coordinates into one map key.
+     */
+    static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,177 @@
+package common;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event types for the phases of a game session, all under the "Legends"
+ * category so a recording of a live server can tell rendering, game logic and waiting on the
+ * player apart, e.g.
+ * {@code java -XX:StartFlightRecording=filename=legends.jfr -cp bin common.GameServer}.
+ *
+ * <p>Phases nest: a {@link Turn} contains its {@link ProcessTurn}, which contains the board
+ * render, any market visit or battle, and the {@link InputWait}s in between. Time spent in a phase
+ * but not in a nested event is game logic. Server sessions run on threads named
+ * {@code session-<id>}, so every event's thread identifies its session.</p>
+ *
+ * <p>Events carry no stack trace and cost a few instructions when no recording is running:
+ * the usual pattern is {@code new X()}, {@code begin()}, and setting fields only
+ * {@code if (event.shouldCommit())} before {@code commit()}.</p>
+ */
+public final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    @Name("legends.Turn")
+    @Label("Game Turn")
+    @Category({"Legends", "Game Loop"})
+    @Description("One iteration of the Game.play() loop")
+    @StackTrace(false)
+    public static final class Turn extends Event {
+        @Label("Turn")
+        public int turn;
+    }
+
+    @Name("legends.ProcessTurn")
+    @Label("Process Turn")
+    @Category({"Legends", "Game Loop"})
+    @Description("One world-map command: render, read, act, autosave")
+    @StackTrace(false)
+    public static final class ProcessTurn extends Event {
+        @Label("Command")
+        public String command;
+
+        @Label("Rendered")
+        @Description("Whether the frame, dashboard and controls were drawn this turn")
+        public boolean rendered;
+    }
+
+    @Name("legends.BoardRender")
+    @Label("Board Render")
+    @Category({"Legends", "Rendering"})
+    @Description("Building one board frame into the output buffer")
+    @StackTrace(false)
+    public static final class BoardRender extends Event {
+        @Label("Board")
+        public String board;
+
+        @Label("Rows")
+        public int rows;
+
+        @Label("Columns")
+        public int columns;
+    }
+
+    @Name("legends.MarketVisit")
+    @Label("Market Visit")
+    @Category({"Legends", "Market"})
+    @Description("A whole market visit, from stock generation to leaving")
+    @StackTrace(false)
+    public static final class MarketVisit extends Event {
+        @Label("Party Level")
+        public int partyLevel;
+
+        @Label("Stock Size")
+        public int stockSize;
+    }
+
+    @Name("legends.MarketStock")
+    @Label("Market Stock")
+    @Category({"Legends", "Market"})
+    @Description("Drawing a market visit's stock from the item catalog")
+    @StackTrace(false)
+    public static final class MarketStock extends Event {
+        @Label("Party Level")
+        public int partyLevel;
+
+        @Label("Items")
+        public int items;
+    }
+
+    @Name("legends.Battle")
+    @Label("Battle")
+    @Category({"Legends", "Combat"})
+    @Description("An interactive battle, from the ambush to its outcome")
+    @StackTrace(false)
+    public static final class Battle extends Event {
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Rounds")
+        public int rounds;
+
+        @Label("Monsters")
+        public int monsters;
+    }
+
+    @Name("legends.AutopilotDecision")
+    @Label("Autopilot Decision")
+    @Category({"Legends", "Combat"})
+    @Description("One hero decision searched by the MCTS autopilot")
+    @StackTrace(false)
+    public static final class AutopilotDecision extends Event {
+        @Label("Move")
+        public String move;
+
+        @Label("Rollouts")
+        public long rollouts;
+
+        @Label("Workers")
+        public int workers;
+    }
+
+    @Name("legends.CatalogLoad")
+    @Label("Catalog Load")
+    @Category({"Legends", "Data"})
+    @Description("Loading all data files (GameDataLoader.loadAll)")
+    @StackTrace(false)
+    public static final class CatalogLoad extends Event {
+        @Label("Files")
+        public int files;
+
+        @Label("Records")
+        public int records;
+
+        @Label("Diagnostics")
+        public int diagnostics;
+    }
+
+    @Name("legends.CatalogFileLoad")
+    @Label("Catalog File Load")
+    @Category({"Legends", "Data"})
+    @Description("Loading one data file, from the compiled catalog or its text")
+    @StackTrace(false)
+    public static final class CatalogFileLoad extends Event {
+        @Label("File")
+        public String fileName;
+
+        @Label("Records")
+        public int records;
+
+        @Label("Diagnostics")
+        public int diagnostics;
+    }
+
+    @Name("legends.InputWait")
+    @Label("Input Wait")
+    @Category({"Legends", "I/O"})
+    @Description("Blocked reading the player's next line")
+    @StackTrace(false)
+    public static final class InputWait extends Event {
+        @Label("Line Length")
+        public int length;
+    }
+
+    @Name("legends.OutputFlush")
+    @Label("Output Flush")
+    @Category({"Legends", "I/O"})
+    @Description("Writing the buffered output to the terminal or socket")
+    @StackTrace(false)
+    public static final class OutputFlush extends Event {
+    }
+}
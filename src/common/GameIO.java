@@ -0,0 +1,58 @@
+package common;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Where a game session prints and reads: the terminal, a socket, or nothing at all.
+ *
+ * <p>Every controller and view writes through the GameIO it is handed instead of
+ * {@code System.out}, so several sessions can share one JVM (see GameServer) and headless runs
+ * can switch output off. Output may be buffered until the next {@link #readLine()} or
+ * {@link #flush()}: a player only needs to see the screen when asked for input.</p>
+ *
+ * <p>Implementations are used by one thread at a time, like the session they belong to.</p>
+ */
+public interface GameIO {
+
+    void print(String text);
+
+    void println(String text);
+
+    void println();
+
+    /**
+     * Same as {@link #println(String)} with {@code String.valueOf(value)}; the value is only
+     * converted when output is kept.
+     */
+    default void println(Object value) {
+        if (!isSilent()) println(String.valueOf(value));
+    }
+
+    /**
+     * Formats like {@link String#format}. Silent implementations skip the formatting entirely.
+     */
+    void printf(String format, Object... args);
+
+    /**
+     * Writes pre-encoded bytes, e.g. a rendered board frame.
+     */
+    void write(byte[] bytes, int offset, int length);
+
+    /**
+     * Pushes any buffered output to the player.
+     */
+    void flush();
+
+    /**
+     * Flushes the output, then reads one line of input (without its line terminator).
+     *
+     * @throws NoSuchElementException at the end of input (e.g. the player disconnected).
+     */
+    String readLine();
+
+    /**
+     * @return True if output is discarded. Callers may then skip building output altogether
+     *         (rendering frames, formatting tables).
+     */
+    boolean isSilent();
+}
@@ -1,25 +1,62 @@
 package common;
 
+import game.CombatMetrics;
 import game.LegendsGame;
-import java.util.Scanner;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * specialized class responsible for bootstrapping the game application.
  * Encapsulates the execution logic and global error handling strategies.
+ *
+ * <p>Options: {@code --seed <n>} fixes the master seed (otherwise one is picked at random) and
+ * {@code --record <file>} writes the seed and every input line to a {@link SessionJournal},
+ * which {@code simulation.SessionReplayer} can play back.</p>
  */
 public class GameRunner {
 
+    public static void run() {
+        run(new String[0]);
+    }
+
     /**
      * Safely starts the game loop.
      * Any unhandled exceptions during the game's lifecycle will be caught here.
      */
-    public static void run() {
-        try (Scanner scanner = new Scanner(System.in)) {
-            // Instantiate and play the specific game implementation
-            new LegendsGame().play(scanner);
+    public static void run(String[] args) {
+        try {
+            long seed = RandomGenerator.getInstance().nextLong();
+            Path journal = null;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--seed") && i + 1 < args.length) {
+                    seed = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--record") && i + 1 < args.length) {
+                    journal = Paths.get(args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + args[i] + " (expected --seed <n> or --record <file>)");
+                }
+            }
+
+            // One seeded stream for the whole session: the journal only has to hold the seed and the input
+            RandomGenerator.startSession(seed);
+            CombatMetrics.registerMBean();
+
+            GameIO io = new StreamIO(System.in, System.out);
+            try (SessionJournal.Recorder recorder = (journal != null) ? SessionJournal.record(journal, seed) : null) {
+                if (recorder != null) {
+                    io.println("Recording session to " + journal + " (seed " + seed + ")");
+                    InputValidator.setRecorder(recorder);
+                }
+                // Instantiate and play the specific game implementation
+                new LegendsGame().play(io);
+            } finally {
+                InputValidator.setRecorder(null);
+                io.flush();     // Whatever was printed before a crash still reaches the screen
+            }
         } catch (Exception e) {
             // Delegate critical failure handling to the dedicated ErrorHandler
             ErrorHandler.handleFatalError(e);
         }
     }
-}
\ No newline at end of file
+}
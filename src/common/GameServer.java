@@ -0,0 +1,209 @@
+package common;
+
+import game.CombatMetrics;
+import game.LegendsGame;
+import utils.CatalogReloader;
+import utils.GameData;
+import utils.GameDataLoader;
+import utils.ParseDiagnostic;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local multi-player server: every TCP connection plays its own {@link LegendsGame}, e.g. with
+ * {@code telnet localhost 4000} or {@code nc localhost 4000}.
+ *
+ * <p>Each session runs the ordinary blocking game loop on its own thread, playing through a
+ * {@link StreamIO} over the connection. What the game keeps per process is made per session: the
+ * session's seeded {@link RandomGenerator} stream and its journal recorder in {@link InputValidator}
+ * belong to the session thread. The catalog is loaded once, watched by one {@link CatalogReloader}
+ * and shared read-only by all sessions.</p>
+ *
+ * <p>Session threads are pooled and created with a small stack, since a session only needs enough
+ * for the game loop and a blocked read. Connections beyond {@code --max-sessions} are turned away,
+ * and a player idle for {@link #IDLE_TIMEOUT_MINUTES} minutes is disconnected.</p>
+ *
+ * <p>Usage: {@code java -cp bin common.GameServer [--port <n>] [--max-sessions <n>] [--record <dir>]}
+ * ({@code --record} journals every session to {@code <dir>/session-<id>.lmj} for SessionReplayer).</p>
+ */
+public class GameServer {
+
+    private static final int DEFAULT_PORT = 4000;
+    private static final int DEFAULT_MAX_SESSIONS = 4096;
+    private static final int IDLE_TIMEOUT_MINUTES = 30;
+    // Pending connections the OS queues while the accept loop catches up (the JDK default is 50)
+    private static final int ACCEPT_BACKLOG = 1024;
+    // A session is the game loop plus a blocked socket read; 256 KB keeps thousands of them cheap
+    private static final long SESSION_STACK_BYTES = 256 * 1024;
+    private static final int SOCKET_BUFFER_BYTES = 16 * 1024;
+
+    private final int port;
+    private final Path recordDir;           // Null: sessions are not journaled
+    private final ThreadPoolExecutor sessions;
+    private final PrintStream console;      // Server log
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+
+    public GameServer(int port, int maxSessions, Path recordDir) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("maxSessions must be at least 1, got " + maxSessions);
+        }
+        this.port = port;
+        this.recordDir = recordDir;
+        this.console = System.out;
+        this.sessions = new ThreadPoolExecutor(0, maxSessions, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(null, task, "session", SESSION_STACK_BYTES);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int maxSessions = DEFAULT_MAX_SESSIONS;
+        Path recordDir = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--max-sessions") && i + 1 < args.length) {
+                maxSessions = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--record") && i + 1 < args.length) {
+                recordDir = Paths.get(args[++i]);
+            } else {
+                System.err.println("Usage: java -cp bin common.GameServer [--port <n>] [--max-sessions <n>] [--record <dir>]");
+                System.exit(1);
+            }
+        }
+        new GameServer(port, maxSessions, recordDir).serve();
+    }
+
+    /**
+     * Loads the catalog and accepts connections until the process is stopped.
+     */
+    public void serve() throws IOException {
+        if (recordDir != null) Files.createDirectories(recordDir);
+        GameData data = GameDataLoader.loadAll();
+        GameDataLoader.printDiagnostics(data.getDiagnostics());
+        CombatMetrics.registerMBean();
+
+        try (CatalogReloader catalog = new CatalogReloader(data);
+             ServerSocket server = new ServerSocket()) {
+            catalog.addListener((fileName, applied, diagnostics) -> {
+                for (ParseDiagnostic diagnostic : diagnostics) console.println("Warning: " + diagnostic);
+                console.println(applied ? "Data reloaded: " + fileName
+                        : "Ignored edit to " + fileName + " (no valid rows); keeping the previous data");
+            });
+            catalog.start();
+
+            // Local play only: the game has no accounts or rate limits to face the open network with
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), ACCEPT_BACKLOG);
+            console.println("Legends server listening on " + server.getLocalSocketAddress()
+                    + " (up to " + sessions.getMaximumPoolSize() + " sessions)");
+
+            while (true) {
+                Socket socket = server.accept();
+                int id = sessionIds.incrementAndGet();
+                // Drawn here, on the accept thread, so a recorded session can be told apart by its seed in the log
+                long seed = RandomGenerator.getInstance().nextLong();
+                try {
+                    sessions.execute(() -> runSession(socket, id, seed, catalog));
+                } catch (RejectedExecutionException e) {
+                    reject(socket);
+                }
+            }
+        } finally {
+            sessions.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one connection's game on the calling (session) thread.
+     */
+    private void runSession(Socket socket, int id, long seed, CatalogReloader catalog) {
+        Thread.currentThread().setName("session-" + id);
+        console.printf("Session %d connected from %s (seed %d, %d active)%n",
+                id, socket.getRemoteSocketAddress(), seed, activeSessions.incrementAndGet());
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) TimeUnit.MINUTES.toMillis(IDLE_TIMEOUT_MINUTES));
+            // Buffered again below the CRLF translation, which splits every flush at its line ends
+            GameIO io = new StreamIO(socket.getInputStream(),
+                    new TelnetOutputStream(new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_BYTES)));
+
+            RandomGenerator.startSession(seed);
+            try (SessionJournal.Recorder recorder = (recordDir != null)
+                    ? SessionJournal.record(recordDir.resolve("session-" + id + SessionJournal.EXTENSION), seed) : null) {
+                InputValidator.setRecorder(recorder);
+                new LegendsGame(catalog::current).play(io);
+            } catch (NoSuchElementException e) {
+                // The player disconnected or idled out (StreamIO reports socket errors as the end of input)
+            } finally {
+                InputValidator.setRecorder(null);
+                io.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            console.println("Session " + id + " failed: " + e);
+        } finally {
+            console.printf("Session %d closed (%d active)%n", id, activeSessions.decrementAndGet());
+        }
+    }
+
+    private void reject(Socket socket) {
+        try (socket) {
+            OutputStream out = socket.getOutputStream();
+            out.write("The server is full. Please try again later.\r\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            // The client is gone already
+        }
+        console.println("Rejected a connection from " + socket.getRemoteSocketAddress() + ": server full");
+    }
+
+    /**
+     * Writes the game's '\n' line ends as the "\r\n" that telnet (NVT) terminals expect.
+     */
+    private static final class TelnetOutputStream extends FilterOutputStream {
+        TelnetOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') out.write('\r');
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                if (b[i] == '\n') {
+                    out.write(b, start, i - start);
+                    out.write('\r');
+                    start = i;      // The '\n' goes out with the next chunk
+                }
+            }
+            out.write(b, start, end - start);
+        }
+    }
+}
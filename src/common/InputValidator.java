@@ -1,6 +1,5 @@
 package common;
 
-import java.util.Scanner;
 import java.util.function.Predicate;
 
 /**
@@ -10,30 +9,45 @@ import java.util.function.Predicate;
  */
 public class InputValidator {
 
+    // Receives every line the thread reads below, when its session is being recorded
+    private static final ThreadLocal<SessionJournal.Recorder> RECORDER = new ThreadLocal<>();
+
+    /**
+     * Starts (or, with null, stops) copying every input line the calling thread consumes into a
+     * session journal. Per thread, so concurrent server sessions each record only their own input.
+     */
+    public static void setRecorder(SessionJournal.Recorder journalRecorder) {
+        if (journalRecorder == null) {
+            RECORDER.remove();
+        } else {
+            RECORDER.set(journalRecorder);
+        }
+    }
+
     /**
      * Prompts the user for an integer within a specific range [min, max].
      * Loops until valid input is received.
      *
-     * @param scanner The input scanner.
+     * @param io      The session's input and output.
      * @param prompt  The message to display to the user.
      * @param min     The minimum acceptable value (inclusive).
      * @param max     The maximum acceptable value (inclusive).
      * @return A valid integer within the range.
      */
-    public static int getValidInt(Scanner scanner, String prompt, int min, int max) {
+    public static int getValidInt(GameIO io, String prompt, int min, int max) {
         while (true) {
-            System.out.print(prompt);
-            String input = scanner.nextLine().trim();
+            io.print(prompt);
+            String input = readLine(io).trim();
 
             try {
                 int value = Integer.parseInt(input);
                 if (value >= min && value <= max) {
                     return value;
                 } else {
-                    System.out.println("Invalid input. Please enter a number between " + min + " and " + max + ".");
+                    io.println("Invalid input. Please enter a number between " + min + " and " + max + ".");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a valid integer.");
+                io.println("Invalid input. Please enter a valid integer.");
             }
         }
     }
@@ -41,19 +55,19 @@ public class InputValidator {
     /**
      * Prompts the user for a non-empty string.
      *
-     * @param scanner The input scanner.
+     * @param io      The session's input and output.
      * @param prompt  The message to display.
      * @return A non-empty, trimmed string.
      */
-    public static String getValidString(Scanner scanner, String prompt) {
+    public static String getValidString(GameIO io, String prompt) {
         while (true) {
-            System.out.print(prompt);
-            String input = scanner.nextLine().trim();
+            io.print(prompt);
+            String input = readLine(io).trim();
 
             if (!input.isEmpty()) {
                 return input;
             }
-            System.out.println("Input cannot be empty. Please try again.");
+            io.println("Input cannot be empty. Please try again.");
         }
     }
 
@@ -61,22 +75,41 @@ public class InputValidator {
      * Prompts the user for a string that matches specific valid options (case-insensitive).
      * Useful for commands like "w/a/s/d" or "yes/no".
      *
-     * @param scanner      The input scanner.
+     * @param io           The session's input and output.
      * @param prompt       The message to display.
      * @param validOptions An array of valid strings (e.g., {"w", "a", "s", "d"}).
      * @return The valid string entered by the user (normalized to lowercase).
      */
-    public static String getValidOption(Scanner scanner, String prompt, String... validOptions) {
+    public static String getValidOption(GameIO io, String prompt, String... validOptions) {
         while (true) {
-            System.out.print(prompt);
-            String input = scanner.nextLine().trim().toLowerCase();
+            io.print(prompt);
+            String input = readLine(io).trim().toLowerCase();
 
             for (String option : validOptions) {
                 if (input.equals(option.toLowerCase())) {
                     return input;
                 }
             }
-            System.out.println("Invalid command. Accepted options: " + String.join(", ", validOptions));
+            io.println("Invalid command. Accepted options: " + String.join(", ", validOptions));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Journals the save file contents a world menu offers (null: none), so a replay is offered
+     * the same save. Does nothing unless the calling thread's session is being recorded.
+     */
+    public static void recordSave(byte[] contents) {
+        SessionJournal.Recorder journal = RECORDER.get();
+        if (journal != null) journal.appendSave(contents);
+    }
+
+    /**
+     * Reads one raw line and journals it, so a replay sees exactly what the player typed.
+     */
+    private static String readLine(GameIO io) {
+        String line = io.readLine();
+        SessionJournal.Recorder journal = RECORDER.get();
+        if (journal != null) journal.append(line);
+        return line;
+    }
+}
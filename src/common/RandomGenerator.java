@@ -1,46 +1,155 @@
 package common;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
- * Singleton utility for random number generation.
+ * Seedable, splittable random number streams.
  * Centralizes randomness to allow for deterministic seeding during testing.
+ *
+ * <p>Each instance is a SplitMix64 stream that draws exactly what a {@link SplittableRandom}
+ * with the same seed would (same nextLong, nextInt(bound), nextDouble and split), but keeps the
+ * two words of state in its own fields, so {@link #setSeed} restarts it in place instead of
+ * allocating a new SplittableRandom per battle or rollout. Like SplittableRandom, it is meant to
+ * be used by one thread at a time: there is no locking or CAS on any draw. Independent streams
+ * are made with {@link #newSeeded} or {@link #split()}, so parallel work gets one stream per
+ * worker instead of contending on a shared one.</p>
+ *
+ * <p>{@link #getInstance()} returns the calling thread's <em>session stream</em>. A session
+ * (an interactive game, a replay) calls {@link #startSession} once with its master seed, and every
+ * random decision it makes (board layout, open-world seed, ambushes, spawns, combat rolls,
+ * market stock) then draws from that one stream, so the session is reproducible from its seed and
+ * input alone (see {@link SessionJournal}). Threads that never start a session get a stream split
+ * from a randomly seeded root.</p>
  */
 public class RandomGenerator {
-    private static RandomGenerator instance;
-    private final Random random;
 
-    private RandomGenerator() {
-        this.random = new Random();
+    // SplittableRandom's default gamma
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Root for threads without a session; split() advances it, hence the lock
+    private static final RandomGenerator ROOT = newSeeded(new SplittableRandom().nextLong());
+    private static final ThreadLocal<RandomGenerator> SESSION = ThreadLocal.withInitial(() -> {
+        synchronized (ROOT) {
+            return ROOT.split();
+        }
+    });
+
+    private long seed;
+    private long gamma;    // Odd; fixed for the stream's life except through setSeed
+
+    private RandomGenerator(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates an independent, seeded generator that does not share state with any session stream.
+     * Used by simulations that need one reproducible stream per worker.
+     *
+     * @param seed The long seed value.
+     */
+    public static RandomGenerator newSeeded(long seed) {
+        return new RandomGenerator(seed, GOLDEN_GAMMA);
     }
 
+    /**
+     * @return The calling thread's session stream.
+     */
     public static RandomGenerator getInstance() {
-        if (instance == null) {
-            instance = new RandomGenerator();
-        }
-        return instance;
+        return SESSION.get();
     }
 
     /**
-     * Set a fixed seed for reproducible results (Testing/Debugging).
+     * Starts a new session stream for the calling thread, replacing its previous one.
+     * Generators handed out by getInstance() before this call keep their old stream.
+     *
+     * @param seed The session's master seed.
+     * @return The new session stream (also returned by getInstance() on this thread from now on).
+     */
+    public static RandomGenerator startSession(long seed) {
+        RandomGenerator session = newSeeded(seed);
+        SESSION.set(session);
+        return session;
+    }
+
+    /**
+     * Derives the {@code index}-th seed of a family rooted at {@code seed} (one per battle, one per
+     * world chunk), without drawing from any stream: SplitMix64's finalizer over
+     * {@code seed + (index + 1) * gamma}. Nearby indices give unrelated seeds.
+     */
+    public static long deriveSeed(long seed, long index) {
+        return mix64(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * SplitMix64's output function, as in {@code SplittableRandom.mix64}.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    // A split stream's gamma, as in SplittableRandom.mixGamma
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+
+    /**
+     * Splits off a new generator whose stream is statistically independent of this one.
+     * Deterministic: the same seed and the same sequence of draws and splits give the same children.
+     */
+    public RandomGenerator split() {
+        long childSeed = nextLong();
+        return new RandomGenerator(childSeed, mixGamma(seed += gamma));
+    }
+
+    /**
+     * Restarts this generator's stream from a fixed seed (Testing/Debugging, per-battle seeding).
+     * Allocation-free, so it can run once per battle or rollout.
      * @param seed The long seed value.
      */
     public void setSeed(long seed) {
-        this.random.setSeed(seed);
+        this.seed = seed;
+        this.gamma = GOLDEN_GAMMA;
     }
 
     public int nextInt(int bound) {
-        return random.nextInt(bound);
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int m = bound - 1;
+        int r = mix32(seed += gamma);
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        // Reject the over-represented top of the range, as SplittableRandom does
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(seed += gamma) >>> 1) {
+        }
+        return r;
     }
 
     public double nextDouble() {
-        return random.nextDouble();
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public long nextLong() {
+        return mix64(seed += gamma);
     }
 
     /**
      * Returns a random integer in the range [min, max].
      */
     public int nextInt(int min, int max) {
-        return random.nextInt((max - min) + 1) + min;
+        return nextInt((max - min) + 1) + min;
     }
-}
\ No newline at end of file
+}
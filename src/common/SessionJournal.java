@@ -0,0 +1,228 @@
+package common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A recorded play session: the master seed plus every input line the game consumed.
+ *
+ * <p>All game randomness comes from the session stream that {@link RandomGenerator#startSession}
+ * seeds for the playing thread (a per-thread SplittableRandom stream, so sessions on other threads
+ * never draw from it) and all input goes through {@link InputValidator}, so seed + lines are
+ * enough to play a session again exactly, provided the data files have not changed in between.</p>
+ *
+ * <p>The one other thing a session reads is the autosave it is offered to continue. Whenever the
+ * world menu looks for one, the game journals what it found ({@link Recorder#appendSave}) and a
+ * replay is offered those bytes instead of whatever is on disk, so "Continue saved game" replays
+ * like any other choice.</p>
+ *
+ * <p>File layout (big-endian): the magic {@code "LMHJ"}, a format version byte, the 8-byte seed,
+ * then one entry per input line or offered save: an unsigned LEB128 varint holding the entry's
+ * length shifted left by one, with the low bit set for a save, followed by the bytes (the line's
+ * UTF-8, or the save file's contents; none when there was no save). A typical command ("w", "2")
+ * costs two bytes. There is no trailer, so a journal cut short by a crash is still readable up to
+ * its last complete entry.</p>
+ */
+public final class SessionJournal {
+
+    private static final int MAGIC = 0x4C4D484A;    // "LMHJ"
+    // 2: session streams became SplittableRandom, so version 1 seeds no longer replay the same game
+    // 3: offered saves are journaled; version 2 entries cannot tell lines and saves apart
+    private static final byte VERSION = 3;
+
+    private static final int SAVE_ENTRY = 1;    // Low bit of an entry's length varint
+
+    /** File extension used for journals, e.g. by SessionReplayer when scanning a directory. */
+    public static final String EXTENSION = ".lmj";
+
+    private final long seed;
+    private final List<String> lines;
+    private final List<byte[]> saves;
+
+    private SessionJournal(long seed, List<String> lines, List<byte[]> saves) {
+        this.seed = seed;
+        this.lines = Collections.unmodifiableList(lines);
+        this.saves = Collections.unmodifiableList(saves);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * @return The save file contents offered by each world menu, in order; null where there was none.
+     */
+    public List<byte[]> getSaves() {
+        return saves;
+    }
+
+    /**
+     * @return A reader that hands out the recorded lines in order and then runs dry.
+     */
+    public BufferedReader newReader() {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) text.append(line).append('\n');
+        return new BufferedReader(new StringReader(text.toString()));
+    }
+
+    /**
+     * Reads a journal. A truncated final entry (e.g. the recording process was killed) is dropped.
+     *
+     * @throws IOException if the file cannot be read or is not a journal.
+     */
+    public static SessionJournal read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long seed;
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException(file + " is not a session journal.");
+                }
+                int version = in.readUnsignedByte();
+                if (version != VERSION) {
+                    throw new IOException(file + " has journal version " + version + "; expected " + VERSION + ".");
+                }
+                seed = in.readLong();
+            } catch (EOFException e) {
+                throw new IOException(file + " is truncated before the end of its header.");
+            }
+
+            List<String> lines = new ArrayList<>();
+            List<byte[]> saves = new ArrayList<>();
+            byte[] buffer = new byte[64];
+            while (true) {
+                int entry;
+                try {
+                    entry = readVarint(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (entry == -1) break;  // End of file in the middle of a length
+                int length = entry >>> 1;
+                if ((entry & 1) == SAVE_ENTRY) {
+                    byte[] save = in.readNBytes(length);
+                    if (save.length < length) break;
+                    saves.add(length == 0 ? null : save);
+                    continue;
+                }
+                if (length > buffer.length) buffer = new byte[Math.max(length, buffer.length * 2)];
+                if (in.readNBytes(buffer, 0, length) < length) break;
+                lines.add(new String(buffer, 0, length, StandardCharsets.UTF_8));
+            }
+            return new SessionJournal(seed, lines, saves);
+        }
+    }
+
+    /**
+     * Starts a new journal at {@code file}, replacing any existing one.
+     */
+    public static Recorder record(Path file, long seed) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        return new Recorder(file, Files.newOutputStream(file), seed);
+    }
+
+    /**
+     * Appends input lines to a journal file as they are consumed.
+     * Each line is flushed straight away, so the journal survives a crash of the game.
+     */
+    public static final class Recorder implements Closeable {
+        private final Path file;
+        private final DataOutputStream out;
+        private boolean failed;
+
+        private Recorder(Path file, OutputStream target, long seed) throws IOException {
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(target));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.flush();
+        }
+
+        /**
+         * Records one input line. A write error stops the recording with a warning but never
+         * interrupts the game.
+         */
+        public synchronized void append(String line) {
+            if (failed) return;
+            try {
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, bytes.length << 1);
+                out.write(bytes);
+                out.flush();
+            } catch (IOException e) {
+                stop(e);
+            }
+        }
+
+        /**
+         * Records the save a world menu offered, or null if it offered none.
+         */
+        public synchronized void appendSave(byte[] contents) {
+            if (failed) return;
+            try {
+                int length = (contents == null) ? 0 : contents.length;
+                writeVarint(out, length << 1 | SAVE_ENTRY);
+                if (contents != null) out.write(contents);
+                out.flush();
+            } catch (IOException e) {
+                stop(e);
+            }
+        }
+
+        private void stop(IOException e) {
+            failed = true;
+            System.err.println("Warning: Session recording to " + file + " stopped: " + e.getMessage());
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * @return The value, or -1 if the stream ends inside it.
+     * @throws EOFException if the stream ends before its first byte.
+     */
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) throw new EOFException();
+                return -1;
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Corrupt journal: line length does not fit in 32 bits.");
+    }
+}
@@ -0,0 +1,46 @@
+package common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * GameIO that reads input but discards all output, for headless runs such as replays.
+ * Nothing is formatted or encoded, and callers that check {@link #isSilent()} skip building
+ * output (board frames, tables) altogether.
+ */
+public final class SilentIO implements GameIO {
+
+    private final BufferedReader input;
+
+    public SilentIO(BufferedReader input) {
+        this.input = input;
+    }
+
+    @Override public void print(String text) { }
+    @Override public void println(String text) { }
+    @Override public void println() { }
+    @Override public void println(Object value) { }
+    @Override public void printf(String format, Object... args) { }
+    @Override public void write(byte[] bytes, int offset, int length) { }
+    @Override public void flush() { }
+
+    @Override
+    public String readLine() {
+        String line;
+        try {
+            line = input.readLine();
+        } catch (IOException e) {
+            NoSuchElementException end = new NoSuchElementException("Input failed: " + e.getMessage());
+            end.initCause(e);
+            throw end;
+        }
+        if (line == null) throw new NoSuchElementException("No line found");
+        return line;
+    }
+
+    @Override
+    public boolean isSilent() {
+        return true;
+    }
+}
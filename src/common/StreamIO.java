@@ -0,0 +1,150 @@
+package common;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Formatter;
+import java.util.NoSuchElementException;
+
+/**
+ * GameIO over a pair of streams (stdin/stdout, a socket), in UTF-8.
+ *
+ * <p>Output is batched: text and frames collect in one buffer that reaches the stream only when
+ * the game waits for input, when {@link #flush()} is called or when the buffer fills, so a whole
+ * turn (frame, dashboard, prompt) normally goes out in a single write. A write error (e.g. a closed
+ * socket) is remembered and further output dropped, as with PrintStream; the session then ends at
+ * its next read.</p>
+ */
+public final class StreamIO implements GameIO {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final BufferedReader input;
+    private final OutputStream output;
+    private final Writer text;
+    private final Formatter formatter;
+    private boolean outputFailed;
+
+    public StreamIO(InputStream input, OutputStream output) {
+        this(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), output);
+    }
+
+    /**
+     * @param input  Source of input lines.
+     * @param output Destination of all output; it is written in large chunks and flushed at every read.
+     */
+    public StreamIO(BufferedReader input, OutputStream output) {
+        this.input = input;
+        this.output = new BufferedOutputStream(output, BUFFER_SIZE);
+        // Text is encoded into the same buffer that frames are written to, so both stay in order
+        this.text = new OutputStreamWriter(new BufferOnly(this.output), StandardCharsets.UTF_8);
+        this.formatter = new Formatter(text);
+    }
+
+    @Override
+    public void print(String value) {
+        if (outputFailed) return;
+        try {
+            text.write(String.valueOf(value));
+        } catch (IOException e) {
+            outputFailed = true;
+        }
+    }
+
+    @Override
+    public void println(String value) {
+        print(value);
+        print(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void println() {
+        print(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void printf(String format, Object... args) {
+        if (outputFailed) return;
+        formatter.format(format, args);
+        if (formatter.ioException() != null) outputFailed = true;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        if (outputFailed) return;
+        try {
+            text.flush();
+            output.write(bytes, offset, length);
+        } catch (IOException e) {
+            outputFailed = true;
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (outputFailed) return;
+        GameEvents.OutputFlush event = new GameEvents.OutputFlush();
+        event.begin();
+        try {
+            text.flush();
+            output.flush();
+        } catch (IOException e) {
+            outputFailed = true;
+        }
+        event.commit();
+    }
+
+    @Override
+    public String readLine() {
+        flush();
+        GameEvents.InputWait event = new GameEvents.InputWait();
+        event.begin();
+        String line;
+        try {
+            line = input.readLine();
+            if (line != null && event.shouldCommit()) {
+                event.length = line.length();
+                event.commit();
+            }
+        } catch (IOException e) {
+            // A broken or timed-out connection ends the session like a closed one
+            NoSuchElementException end = new NoSuchElementException("Input failed: " + e.getMessage());
+            end.initCause(e);
+            throw end;
+        }
+        if (line == null) throw new NoSuchElementException("No line found");
+        return line;
+    }
+
+    @Override
+    public boolean isSilent() {
+        return false;
+    }
+
+    /**
+     * Lets the text writer's flush() hand its encoded bytes to the shared buffer without also
+     * flushing that buffer to the stream.
+     */
+    private static final class BufferOnly extends FilterOutputStream {
+        BufferOnly(OutputStream buffer) {
+            super(buffer);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
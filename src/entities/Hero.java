@@ -52,12 +52,18 @@ public class Hero extends RPGCharacter {
         this.hp = this.level * 100;
     }
 
-    public void gainExperience(int amount) {
+    /**
+     * Adds experience and levels the hero up when the threshold is reached.
+     * @return true if the hero leveled up.
+     */
+    public boolean gainExperience(int amount) {
         this.experience += amount;
         // Experience points to level up = hero_current_level * 10
         if (this.experience >= this.level * 10) {
             levelUp();
+            return true;
         }
+        return false;
     }
 
     private void levelUp() {
@@ -91,8 +97,26 @@ public class Hero extends RPGCharacter {
             agility *= standardFactor;
             dexterity *= favoredFactor;
         }
+    }
 
-        System.out.println(this.name + " leveled up to " + this.level + "!");
+    /**
+     * Creates a fresh Hero with this hero's current name, class and stats.
+     * Inventory and equipment are not copied. Used to stamp out party members from catalog templates.
+     */
+    public Hero copy() {
+        return new Hero(name, type, mana, strength, agility, dexterity, money, experience);
+    }
+
+    /**
+     * Restores progress read from a save file; the constructor always starts a hero at level 1.
+     * HP is restored separately with setHp.
+     */
+    public void restoreProgress(int level, int experience) {
+        if (level < 1) {
+            throw new IllegalArgumentException("Level must be at least 1.");
+        }
+        this.level = level;
+        this.experience = experience;
     }
 
     public void revive() {
@@ -102,12 +126,10 @@ public class Hero extends RPGCharacter {
 
     public void equipWeapon(Weapon weapon) {
         this.equippedWeapon = weapon;
-        System.out.println(this.name + " equipped " + weapon.getName());
     }
 
     public void equipArmor(Armor armor) {
         this.equippedArmor = armor;
-        System.out.println(this.name + " equipped " + armor.getName());
     }
 
     public Weapon getEquippedWeapon() {
@@ -44,6 +44,13 @@ public class Monster extends RPGCharacter {
         return dodgeChance * 0.01;
     }
 
+    /**
+     * @return The dodge chance as loaded from the data file (0-100 scale).
+     */
+    public double getBaseDodgeChance() {
+        return dodgeChance;
+    }
+
     public void reduceDefense(double amount) {
         this.defense = Math.max(0, this.defense - amount);
     }
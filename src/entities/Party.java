@@ -18,12 +18,13 @@ public class Party {
         this.col = 0;
     }
 
-    public void addHero(Hero hero) {
-        if (heroes.size() < 3) {
-            heroes.add(hero);
-        } else {
-            System.out.println("Party is full! (Max 3 heroes)");
-        }
+    /**
+     * @return False if the party already has 3 heroes; the hero is then not added.
+     */
+    public boolean addHero(Hero hero) {
+        if (heroes.size() >= 3) return false;
+        heroes.add(hero);
+        return true;
     }
 
     public List<Hero> getHeroes() {
@@ -0,0 +1,55 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Spell;
+
+import java.util.List;
+
+/**
+ * Strategy interface for the decisions a Hero makes during combat.
+ * The BattleController owns the rules (damage, dodge, mana, turn order);
+ * a policy only chooses, so the same engine can be driven by the console,
+ * a script, or an AI without any GameIO involved.
+ *
+ * <p>Contract: ATTACK, CAST_SPELL and USE_POTION consume the turn when they succeed.
+ * EQUIP and failed actions do not, so a policy must eventually pick an action that can succeed.</p>
+ */
+public interface ActionPolicy {
+
+    enum Action {
+        ATTACK, CAST_SPELL, USE_POTION, EQUIP, QUIT
+    }
+
+    /**
+     * Picks the top-level action for the hero whose turn it is.
+     */
+    Action chooseAction(Hero hero, Party party, List<Monster> enemies);
+
+    /**
+     * Picks the monster to hit from the living enemies.
+     * @return the target, or null to cancel the action.
+     */
+    Monster chooseTarget(Hero hero, List<Monster> aliveEnemies);
+
+    /**
+     * Picks a spell from the hero's (non-empty) spellbook.
+     * @return the spell, or null to cancel the action.
+     */
+    Spell chooseSpell(Hero hero, List<Spell> spells);
+
+    /**
+     * Picks a potion from the hero's (non-empty) potion list.
+     * @return the potion, or null to cancel the action.
+     */
+    Potion choosePotion(Hero hero, List<Potion> potions);
+
+    /**
+     * Picks a Weapon or Armor from the hero's inventory to equip.
+     * @return the item, or null if nothing should be equipped.
+     */
+    Item chooseEquipment(Hero hero);
+}
@@ -0,0 +1,142 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Armor;
+import items.Inventory;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Weapon;
+
+import java.util.List;
+
+/**
+ * Scripted, stateless policy for headless battles.
+ * Upgrades gear when something better is carried, drinks a health potion when low,
+ * casts the strongest affordable spell, and otherwise attacks the weakest enemy.
+ * Being stateless, one instance can be shared by any number of concurrent battles.
+ *
+ * <p>Implements both {@link ActionPolicy} and {@link EncounterPolicy} with the same rules, so
+ * the object and encounter engines play identical battles.</p>
+ */
+public class AutoBattlePolicy implements ActionPolicy, EncounterPolicy {
+
+    // Drink a health potion below this fraction of max HP (level * 100)
+    private static final double LOW_HP_RATIO = 0.3;
+
+    @Override
+    public Action chooseAction(Hero hero, Party party, List<Monster> enemies) {
+        return chooseAction(hero.getInventory(), hero.getLevel(), hero.getHp(), hero.getMana(),
+                hero.getEquippedWeapon(), hero.getEquippedArmor());
+    }
+
+    @Override
+    public Monster chooseTarget(Hero hero, List<Monster> aliveEnemies) {
+        Monster weakest = null;
+        for (Monster m : aliveEnemies) {
+            if (weakest == null || m.getHp() < weakest.getHp()) weakest = m;
+        }
+        return weakest;
+    }
+
+    @Override
+    public Spell chooseSpell(Hero hero, List<Spell> spells) {
+        return strongestAffordableSpell(hero.getInventory(), hero.getMana());
+    }
+
+    @Override
+    public Potion choosePotion(Hero hero, List<Potion> potions) {
+        return findHealthPotion(hero.getInventory());
+    }
+
+    @Override
+    public Item chooseEquipment(Hero hero) {
+        return chooseEquipment(hero.getInventory(), hero.getEquippedWeapon(), hero.getEquippedArmor());
+    }
+
+    // ENCOUNTER VERSIONS: current HP, mana and gear come from the encounter, not the Hero
+
+    @Override
+    public Action chooseAction(Encounter encounter, int hero) {
+        return chooseAction(encounter.getHero(hero).getInventory(), encounter.getHeroLevel(hero),
+                encounter.getHeroHp(hero), encounter.getHeroMana(hero),
+                encounter.getHeroWeapon(hero), encounter.getHeroArmor(hero));
+    }
+
+    @Override
+    public int chooseTarget(Encounter encounter, int hero) {
+        // First living monster with the lowest HP, the same pick as the list version
+        int weakest = -1;
+        for (int m = 0; m < encounter.getMonsterCount(); m++) {
+            if (encounter.isMonsterFainted(m)) continue;
+            if (weakest < 0 || encounter.getMonsterHp(m) < encounter.getMonsterHp(weakest)) weakest = m;
+        }
+        return weakest;
+    }
+
+    @Override
+    public Spell chooseSpell(Encounter encounter, int hero, List<Spell> spells) {
+        return strongestAffordableSpell(encounter.getHero(hero).getInventory(), encounter.getHeroMana(hero));
+    }
+
+    @Override
+    public Potion choosePotion(Encounter encounter, int hero, List<Potion> potions) {
+        return findHealthPotion(encounter.getHero(hero).getInventory());
+    }
+
+    @Override
+    public Item chooseEquipment(Encounter encounter, int hero) {
+        return chooseEquipment(encounter.getHero(hero).getInventory(),
+                encounter.getHeroWeapon(hero), encounter.getHeroArmor(hero));
+    }
+
+    private Action chooseAction(Inventory inventory, int level, double hp, double mana, Weapon weapon, Armor armor) {
+        if (chooseEquipment(inventory, weapon, armor) != null) return Action.EQUIP;
+        if (hp < level * 100 * LOW_HP_RATIO && findHealthPotion(inventory) != null) {
+            return Action.USE_POTION;
+        }
+        if (strongestAffordableSpell(inventory, mana) != null) return Action.CAST_SPELL;
+        return Action.ATTACK;
+    }
+
+    private Item chooseEquipment(Inventory inventory, Weapon current, Armor worn) {
+        double bestDamage = (current != null) ? current.getDamage() : 0;
+        Weapon bestWeapon = null;
+        for (Weapon w : inventory.getWeapons()) {
+            if (w.getDamage() > bestDamage) {
+                bestDamage = w.getDamage();
+                bestWeapon = w;
+            }
+        }
+        if (bestWeapon != null) return bestWeapon;
+
+        double bestReduction = (worn != null) ? worn.getDamageReduction() : 0;
+        Armor bestArmor = null;
+        for (Armor a : inventory.getArmor()) {
+            if (a.getDamageReduction() > bestReduction) {
+                bestReduction = a.getDamageReduction();
+                bestArmor = a;
+            }
+        }
+        return bestArmor;
+    }
+
+    private Spell strongestAffordableSpell(Inventory inventory, double mana) {
+        Spell best = null;
+        for (Spell s : inventory.getSpells()) {
+            if (s.getManaCost() <= mana && (best == null || s.getDamage() > best.getDamage())) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    private Potion findHealthPotion(Inventory inventory) {
+        for (Potion p : inventory.getPotions()) {
+            if (p.affects("Health")) return p;
+        }
+        return null;
+    }
+}
@@ -1,6 +1,7 @@
 package game;
 
-import common.InputValidator;
+import common.GameEvents;
+import common.GameIO;
 import common.RandomGenerator;
 import entities.Hero;
 import entities.Monster;
@@ -10,68 +11,243 @@ import items.Spell.SpellType;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Controller responsible for managing turn-based combat.
  * Handles monster spawning, turn order, damage calculation, and victory conditions.
+ *
+ * <p>Hero decisions come from an {@link ActionPolicy} and all output goes to a {@link BattleListener},
+ * so the same rules serve the interactive console and headless simulations.</p>
+ *
+ * <p>A battle still undecided after {@link #setMaxRounds max rounds} (a hero who cannot get through a
+ * monster's defense while regeneration outpaces its damage, say) ends as a DRAW, so headless runs
+ * always terminate.</p>
+ *
+ * <p>Every battle is counted in {@link CombatMetrics}. Interactive battles publish their counts as
+ * they start and end and time every hero turn and monster phase. Headless ones publish every
+ * {@value #PUBLISH_EVERY} battles (call {@link #flushMetrics()} after the last) and time one battle in
+ * {@value #TIMING_SAMPLE}, since two clock reads per turn would cost a simulated battle about half
+ * its run time.</p>
  */
 public class BattleController {
 
-    private final List<Monster> monsterCatalog;
+    private final Supplier<List<Monster>> monsterCatalog;   // Null when the spawner is fixed
     private final RandomGenerator rng;
-
-    // ANSI Colors
-    private static final String ANSI_RESET = "\u001B[0m";
-    private static final String ANSI_RED = "\u001B[31m";
-    private static final String ANSI_GREEN = "\u001B[32m";
-    private static final String ANSI_YELLOW = "\u001B[33m";
-    private static final String ANSI_CYAN = "\u001B[36m";
-    private static final String ANSI_PURPLE = "\u001B[35m";
-    private static final String ANSI_WHITE_BOLD = "\033[1;37m";
+    private int maxRounds = DEFAULT_MAX_ROUNDS;
+    // Spawn table for the catalog last read; rebuilt only when the supplier hands out a different list
+    private MonsterSpawner spawner;
+    private List<Monster> spawnerCatalog;
+
+    public static final int DEFAULT_MAX_ROUNDS = 1000;
+
+    private static final int PUBLISH_EVERY = 64;
+    private static final int TIMING_SAMPLE = 16;    // Power of two
+    private final CombatMetrics metrics = CombatMetrics.getInstance();
+    private final CombatMetrics.Tally tally = new CombatMetrics.Tally();   // Counts not yet published
+    private long headlessBattles;
+    private boolean interactive;                    // The current battle's kind
+    private boolean timeTurns;
+    private final List<Monster> aliveEnemies = new ArrayList<>(Encounter.MAX_COMBATANTS);
 
     public BattleController(List<Monster> monsterCatalog) {
+        this(monsterCatalog, RandomGenerator.getInstance());
+    }
+
+    /**
+     * @param rng Source of randomness for spawns, dodges and targeting. Simulations pass
+     *            their own seeded generator so battles are reproducible and thread-confined.
+     */
+    public BattleController(List<Monster> monsterCatalog, RandomGenerator rng) {
+        this(new MonsterSpawner(monsterCatalog), rng);
+    }
+
+    /**
+     * @param spawner Spawn table to use for every battle. Spawners are thread-safe, so
+     *                simulations share one across workers and its level cache with it.
+     */
+    public BattleController(MonsterSpawner spawner, RandomGenerator rng) {
+        this.monsterCatalog = null;
+        this.spawner = spawner;
+        this.rng = rng;
+    }
+
+    /**
+     * @param monsterCatalog Supplies the current monster templates (e.g. from a CatalogReloader).
+     *                       It is read once per battle, when the enemies spawn, so a catalog
+     *                       swapped mid-fight never affects a battle already in progress.
+     */
+    public BattleController(Supplier<List<Monster>> monsterCatalog, RandomGenerator rng) {
         this.monsterCatalog = monsterCatalog;
-        this.rng = RandomGenerator.getInstance();
+        this.rng = rng;
+    }
+
+    /**
+     * Sets the number of rounds after which a battle with both sides standing ends as a DRAW.
+     */
+    public void setMaxRounds(int maxRounds) {
+        if (maxRounds < 1) {
+            throw new IllegalArgumentException("maxRounds must be at least 1, got " + maxRounds);
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Runs an interactive battle through the session's GameIO. When its output is silent the combat
+     * log is not even built.
+     *
+     * @return False if the player chose "Quit Game" from the battle menu; the caller ends the session.
+     */
+    public boolean startBattle(GameIO io, Party party) {
+        GameEvents.Battle event = new GameEvents.Battle();
+        event.begin();
+        BattleResult result = runBattle(party, new ConsoleActionPolicy(io),
+                io.isSilent() ? BattleListener.SILENT : new ConsoleBattleListener(io), true);
+        if (event.shouldCommit()) {
+            event.outcome = result.getOutcome().name();
+            event.rounds = result.getRounds();
+            event.monsters = result.getEnemies().size();
+            event.commit();
+        }
+        return result.getOutcome() != BattleResult.Outcome.QUIT;
+    }
+
+    /**
+     * Headless battle engine. Spawns enemies for the party and resolves the fight,
+     * asking the policy for every hero decision and reporting every event to the listener.
+     *
+     * @param party    The heroes entering combat.
+     * @param policy   Decides hero actions (console, scripted, AI...).
+     * @param listener Receives battle events; use {@link BattleListener#SILENT} for machine-speed runs.
+     * @return The outcome and number of rounds played.
+     */
+    public BattleResult runBattle(Party party, ActionPolicy policy, BattleListener listener) {
+        return runBattle(party, policy, listener, false);
     }
 
-    public void startBattle(Scanner scanner, Party party) {
+    private BattleResult runBattle(Party party, ActionPolicy policy, BattleListener listener, boolean interactive) {
         List<Monster> enemies = spawnMonsters(party);
-        System.out.println(ANSI_RED + "\n*** Battle Started! Enemies approaching: ***" + ANSI_RESET);
-        for (Monster m : enemies) System.out.println("- " + m);
+        startMetrics(interactive);
+        listener.battleStarted(party, enemies);
 
         int round = 1;
-        boolean battleActive = true;
-
-        while (battleActive) {
-            System.out.println("\n" + ANSI_YELLOW + "=== Round " + round + " ===" + ANSI_RESET);
+        while (true) {
+            if (round > maxRounds) {
+                listener.battleDrawn(party, maxRounds);
+                return recordResult(new BattleResult(BattleResult.Outcome.DRAW, maxRounds, enemies));
+            }
+            listener.roundStarted(round);
 
-            if (!processHeroesTurn(scanner, party, enemies)) {
-                battleActive = false;
-                break;
+            if (!processHeroesTurn(party, enemies, policy, listener)) {
+                return recordResult(new BattleResult(BattleResult.Outcome.QUIT, round, enemies));
             }
 
-            if (enemies.stream().allMatch(Monster::isFainted)) {
-                processVictory(party, enemies);
-                battleActive = false;
-                break;
+            if (allFainted(enemies)) {
+                processVictory(party, enemies, listener);
+                return recordResult(new BattleResult(BattleResult.Outcome.VICTORY, round, enemies));
             }
 
-            processMonstersTurn(party, enemies);
+            long phaseStart = timeTurns ? System.nanoTime() : 0;
+            processMonstersTurn(party, enemies, listener);
+            if (timeTurns) metrics.monsterPhaseTimed(System.nanoTime() - phaseStart);
 
             if (party.isPartyWipedOut()) {
-                System.out.println(ANSI_RED + "The party has been defeated!" + ANSI_RESET);
-                battleActive = false;
-                break;
+                listener.battleLost(party);
+                return recordResult(new BattleResult(BattleResult.Outcome.DEFEAT, round, enemies));
             }
 
-            performRegeneration(party);
+            performRegeneration(party, listener);
             round++;
         }
     }
 
+    /**
+     * Allocation-free variant of {@link #runBattle} for simulations. Spawns monsters for the
+     * heroes already loaded into {@code encounter} and resolves the fight on its primitive arrays
+     * with the same rules, the same random draws in the same order, and no listener.
+     * The outcome, round count and rewards are left in the encounter; the Hero objects are not
+     * updated unless the caller then calls {@link Encounter#applyToHeroes()}.
+     *
+     * @return The outcome (also available from the encounter).
+     */
+    public BattleResult.Outcome runEncounter(Encounter encounter, EncounterPolicy policy) {
+        MonsterSpawner spawner = currentSpawner();
+        int targetLevel = 1;
+        for (int i = 0; i < encounter.heroCount; i++) {
+            targetLevel = Math.max(targetLevel, encounter.heroLevel[i]);
+        }
+        for (int i = 0; i < encounter.heroCount; i++) {
+            spawner.spawnInto(encounter, targetLevel, rng);
+        }
+        startMetrics(false);
+
+        int round = 1;
+        while (true) {
+            if (round > maxRounds) {
+                encounter.rounds = maxRounds;
+                return recordOutcome(encounter, BattleResult.Outcome.DRAW);
+            }
+            encounter.rounds = round;
+            if (!processHeroesTurn(encounter, policy)) {
+                return recordOutcome(encounter, BattleResult.Outcome.QUIT);
+            }
+            if (allMonstersFainted(encounter)) {
+                double levels = 0;
+                for (int m = 0; m < encounter.monsterCount; m++) levels += encounter.monsterLevel[m];
+                encounter.goldReward = levels * 100;
+                encounter.xpReward = encounter.monsterCount * 2;
+                return recordOutcome(encounter, BattleResult.Outcome.VICTORY);
+            }
+
+            long phaseStart = timeTurns ? System.nanoTime() : 0;
+            processMonstersTurn(encounter);
+            if (timeTurns) metrics.monsterPhaseTimed(System.nanoTime() - phaseStart);
+
+            if (aliveHeroCount(encounter) == 0) {
+                return recordOutcome(encounter, BattleResult.Outcome.DEFEAT);
+            }
+
+            for (int i = 0; i < encounter.heroCount; i++) {
+                if (!encounter.isHeroFainted(i)) {
+                    encounter.heroHp[i] *= 1.1;
+                    encounter.heroMana[i] *= 1.1;
+                }
+            }
+            round++;
+        }
+    }
+
+    /**
+     * Publishes the counts of headless battles that have not reached CombatMetrics yet.
+     */
+    public void flushMetrics() {
+        metrics.publish(tally);
+    }
+
+    private void startMetrics(boolean interactiveBattle) {
+        interactive = interactiveBattle;
+        timeTurns = interactiveBattle || (headlessBattles++ & (TIMING_SAMPLE - 1)) == 0;
+        tally.battlesStarted++;
+        if (interactive) metrics.publish(tally);
+    }
+
+    private void endMetrics(BattleResult.Outcome outcome, int rounds) {
+        tally.battleEnded(outcome, rounds);
+        if (interactive || tally.battlesEnded() >= PUBLISH_EVERY) metrics.publish(tally);
+    }
+
+    private BattleResult recordResult(BattleResult result) {
+        endMetrics(result.getOutcome(), result.getRounds());
+        return result;
+    }
+
+    private BattleResult.Outcome recordOutcome(Encounter encounter, BattleResult.Outcome outcome) {
+        endMetrics(outcome, encounter.rounds);
+        return encounter.outcome = outcome;
+    }
+
     private List<Monster> spawnMonsters(Party party) {
+        MonsterSpawner spawner = currentSpawner();
         List<Monster> enemies = new ArrayList<>();
         int partySize = party.getSize();
 
@@ -80,140 +256,120 @@ public class BattleController {
                 .max().orElse(1);
 
         for (int i = 0; i < partySize; i++) {
-            Monster template = monsterCatalog.get(rng.nextInt(monsterCatalog.size()));
-
-            Monster monster = new Monster(
-                    template.getName(),
-                    template.getType(),
-                    targetLevel,
-                    template.getBaseDamage() * (targetLevel / (double)Math.max(1, template.getLevel())),
-                    template.getDefense() * (targetLevel / (double)Math.max(1, template.getLevel())),
-                    template.getDodgeChance() * 100
-            );
-            enemies.add(monster);
+            enemies.add(spawner.spawn(targetLevel, rng));
         }
         return enemies;
     }
 
-    private boolean processHeroesTurn(Scanner scanner, Party party, List<Monster> enemies) {
+    private MonsterSpawner currentSpawner() {
+        if (monsterCatalog != null) {
+            List<Monster> templates = monsterCatalog.get();
+            if (templates != spawnerCatalog) {
+                spawner = new MonsterSpawner(templates);
+                spawnerCatalog = templates;
+            }
+        }
+        return spawner;
+    }
+
+    private boolean processHeroesTurn(Party party, List<Monster> enemies, ActionPolicy policy, BattleListener listener) {
         for (Hero hero : party.getHeroes()) {
             if (hero.isFainted()) continue;
-            if (enemies.stream().allMatch(Monster::isFainted)) break;
+            if (allFainted(enemies)) break;
 
-            System.out.println("\nIt is " + ANSI_PURPLE + hero.getName() + ANSI_RESET + "'s turn.");
-            System.out.println(hero);
+            listener.turnStarted(hero);
 
+            long turnStart = timeTurns ? System.nanoTime() : 0;
             boolean actionTaken = false;
             while (!actionTaken) {
-                System.out.println("1. Attack");
-                System.out.println("2. Cast Spell");
-                System.out.println("3. Use Potion");
-                System.out.println("4. Equip Gear");
-                System.out.println("5. Info");
-                System.out.println("6. Quit Game");
-
-                int choice = InputValidator.getValidInt(scanner, ANSI_CYAN + "Action: " + ANSI_RESET, 1, 6);
-                switch (choice) {
-                    case 1: actionTaken = performAttack(scanner, hero, enemies); break;
-                    case 2: actionTaken = performSpell(scanner, hero, enemies); break;
-                    case 3: actionTaken = performPotion(scanner, hero); break;
-                    case 4: performEquip(scanner, hero); break;
-                    case 5: showBattleInfo(party, enemies); break;
-                    case 6:
-                        System.out.println(ANSI_RED + "Quitting Game..." + ANSI_RESET);
-                        System.exit(0);
+                switch (policy.chooseAction(hero, party, enemies)) {
+                    case ATTACK: actionTaken = performAttack(hero, enemies, policy, listener); break;
+                    case CAST_SPELL: actionTaken = performSpell(hero, enemies, policy, listener); break;
+                    case USE_POTION: actionTaken = performPotion(hero, policy, listener); break;
+                    case EQUIP: performEquip(hero, policy, listener); break;
+                    case QUIT:
+                        listener.battleQuit(hero);
                         return false;
                 }
             }
+            if (timeTurns) metrics.heroTurnTimed(System.nanoTime() - turnStart);
         }
         return true;
     }
 
-    private boolean performAttack(Scanner scanner, Hero hero, List<Monster> enemies) {
-        Monster target = selectMonster(scanner, enemies);
+    private boolean performAttack(Hero hero, List<Monster> enemies, ActionPolicy policy, BattleListener listener) {
+        Monster target = selectMonster(hero, enemies, policy);
         if (target == null) return false;
 
-        // CAP MONSTER DODGE AT 30% (Making it 70% chance to hit at worst)
-        double monsterDodge = Math.min(0.30, target.getDodgeChance());
-
-        if (rng.nextDouble() < monsterDodge) {
-            System.out.println(target.getName() + " dodged the attack!");
+        tally.heroAttacks++;
+        if (CombatMath.dodges(CombatMath.monsterDodgeChance(target.getBaseDodgeChance()), rng.nextDouble())) {
+            tally.heroAttacksDodged++;
+            listener.attackDodged(hero, target);
             return true;
         }
 
         double weaponDmg = (hero.getEquippedWeapon() != null) ? hero.getEquippedWeapon().getDamage() : 0;
-        double rawDamage = (hero.getStrength() + weaponDmg) * 0.05;
+        double actualDamage = CombatMath.attackDamage(hero.getStrength(), weaponDmg, target.getDefense());
 
-        double actualDamage = Math.max(0, rawDamage - (target.getDefense() * 0.05));
+        target.setHp(CombatMath.hpAfterHit(target.getHp(), actualDamage));
+        tally.heroAttackDamage += actualDamage;
+        listener.damageDealt(hero, target, actualDamage);
 
-        target.setHp(target.getHp() - actualDamage);
-        System.out.printf("%s attacks %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", hero.getName(), target.getName(), actualDamage);
-
-        if (target.isFainted()) System.out.println(ANSI_GREEN + target.getName() + " has been defeated!" + ANSI_RESET);
+        if (target.isFainted()) listener.monsterDefeated(target);
 
         return true;
     }
 
-    private boolean performSpell(Scanner scanner, Hero hero, List<Monster> enemies) {
+    private boolean performSpell(Hero hero, List<Monster> enemies, ActionPolicy policy, BattleListener listener) {
         List<Spell> spells = hero.getInventory().getSpells();
         if (spells.isEmpty()) {
-            System.out.println(ANSI_YELLOW + "You have no spells!" + ANSI_RESET);
+            listener.actionRejected(hero, "You have no spells!");
             return false;
         }
 
-        System.out.println(ANSI_WHITE_BOLD + "--- Spellbook ---" + ANSI_RESET);
-        for (int i = 0; i < spells.size(); i++) {
-            System.out.println((i + 1) + ". " + spells.get(i));
-        }
-        System.out.println((spells.size() + 1) + ". Cancel");
-
-        int choice = InputValidator.getValidInt(scanner, ANSI_CYAN + "Select Spell: " + ANSI_RESET, 1, spells.size() + 1);
-        if (choice == spells.size() + 1) return false;
+        Spell spell = policy.chooseSpell(hero, spells);
+        if (spell == null) return false;
 
-        Spell spell = spells.get(choice - 1);
         if (hero.getMana() < spell.getManaCost()) {
-            System.out.println(ANSI_RED + "Not enough Mana!" + ANSI_RESET);
+            listener.actionRejected(hero, "Not enough Mana!");
             return false;
         }
 
-        Monster target = selectMonster(scanner, enemies);
+        Monster target = selectMonster(hero, enemies, policy);
         if (target == null) return false;
 
         hero.setMana(hero.getMana() - spell.getManaCost());
 
-        double damage = spell.getDamage() + ((hero.getDexterity() / 10000.0) * spell.getDamage());
-        target.setHp(target.getHp() - damage);
+        double damage = CombatMath.spellDamage(spell.getDamage(), hero.getDexterity());
+        target.setHp(CombatMath.hpAfterHit(target.getHp(), damage));
+        tally.spellsCast++;
+        tally.spellDamage += damage;
 
         if (!target.isFainted()) {
             if (spell.getType() == SpellType.ICE) {
-                target.reduceDamage(target.getBaseDamage() * 0.1);
-                System.out.println(target.getName() + "'s damage reduced by Ice!");
+                target.reduceDamage(CombatMath.debuff(target.getBaseDamage()));
             } else if (spell.getType() == SpellType.FIRE) {
-                target.reduceDefense(target.getDefense() * 0.1);
-                System.out.println(target.getName() + "'s defense melted by Fire!");
+                target.reduceDefense(CombatMath.debuff(target.getDefense()));
             } else if (spell.getType() == SpellType.LIGHTNING) {
-                target.reduceDodgeChance(target.getDodgeChance() * 0.1);
-                System.out.println(target.getName() + "'s dodge reduced by Lightning!");
+                target.reduceDodgeChance(CombatMath.dodgeDebuff(target.getBaseDodgeChance()));
             }
+            listener.spellDebuffApplied(target, spell.getType());
         }
 
-        System.out.printf("%s casts %s on %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", hero.getName(), spell.getName(), target.getName(), damage);
+        listener.spellCast(hero, spell, target, damage);
         hero.getInventory().removeItem(spell);
         return true;
     }
 
-    private boolean performPotion(Scanner scanner, Hero hero) {
+    private boolean performPotion(Hero hero, ActionPolicy policy, BattleListener listener) {
         List<Potion> potions = hero.getInventory().getPotions();
         if (potions.isEmpty()) {
-            System.out.println(ANSI_YELLOW + "No potions in inventory." + ANSI_RESET);
+            listener.actionRejected(hero, "No potions in inventory.");
             return false;
         }
 
-        System.out.println(ANSI_WHITE_BOLD + "--- Potions ---" + ANSI_RESET);
-        for(int i=0; i<potions.size(); i++) System.out.println((i+1) + ". " + potions.get(i));
-
-        int choice = InputValidator.getValidInt(scanner, ANSI_CYAN + "Use Potion: " + ANSI_RESET, 1, potions.size());
-        Potion potion = potions.get(choice - 1);
+        Potion potion = policy.choosePotion(hero, potions);
+        if (potion == null) return false;
 
         double val = potion.getAttributeIncrease();
         if (potion.affects("Health")) hero.setHp(hero.getHp() + val);
@@ -222,111 +378,249 @@ public class BattleController {
         if (potion.affects("Dexterity")) hero.setDexterity(hero.getDexterity() + val);
         if (potion.affects("Agility")) hero.setAgility(hero.getAgility() + val);
 
-        System.out.println(ANSI_GREEN + hero.getName() + " used " + potion.getName() + "!" + ANSI_RESET);
+        tally.potionsUsed++;
+        listener.potionUsed(hero, potion);
         hero.getInventory().removeItem(potion);
         return true;
     }
 
-    private void performEquip(Scanner scanner, Hero hero) {
-        System.out.println("1. Weapons");
-        System.out.println("2. Armor");
-        int type = InputValidator.getValidInt(scanner, ANSI_CYAN + "Type: " + ANSI_RESET, 1, 2);
-
-        if (type == 1) {
-            List<Weapon> weps = hero.getInventory().getWeapons();
-            if (weps.isEmpty()) { System.out.println(ANSI_YELLOW + "No weapons." + ANSI_RESET); return; }
-            for(int i=0; i<weps.size(); i++) System.out.println((i+1) + ". " + weps.get(i));
-            int sel = InputValidator.getValidInt(scanner, "Equip: ", 1, weps.size());
-            hero.equipWeapon(weps.get(sel-1));
-        } else {
-            List<Armor> arms = hero.getInventory().getArmor();
-            if (arms.isEmpty()) { System.out.println(ANSI_YELLOW + "No armor." + ANSI_RESET); return; }
-            for(int i=0; i<arms.size(); i++) System.out.println((i+1) + ". " + arms.get(i));
-            int sel = InputValidator.getValidInt(scanner, "Equip: ", 1, arms.size());
-            hero.equipArmor(arms.get(sel-1));
+    private void performEquip(Hero hero, ActionPolicy policy, BattleListener listener) {
+        Item item = policy.chooseEquipment(hero);
+        if (item instanceof Weapon) {
+            hero.equipWeapon((Weapon) item);
+            listener.itemEquipped(hero, item);
+        } else if (item instanceof Armor) {
+            hero.equipArmor((Armor) item);
+            listener.itemEquipped(hero, item);
         }
     }
 
-    private void processMonstersTurn(Party party, List<Monster> enemies) {
+    private void processMonstersTurn(Party party, List<Monster> enemies, BattleListener listener) {
         for (Monster monster : enemies) {
             if (monster.isFainted()) continue;
 
-            List<Hero> aliveHeroes = party.getHeroes().stream()
-                    .filter(h -> !h.isFainted())
-                    .collect(Collectors.toList());
-
-            if (aliveHeroes.isEmpty()) break;
-
-            Hero target = aliveHeroes.get(rng.nextInt(aliveHeroes.size()));
-
-            // CAP HERO DODGE AT 75% (Heroes can be very dodgy, but not invincible)
-            double heroDodgeChance = target.getAgility() / (target.getAgility() + 1000.0);
-            heroDodgeChance = Math.min(0.75, heroDodgeChance);
-
-            if (rng.nextDouble() < heroDodgeChance) {
-                System.out.println(target.getName() + " dodged " + monster.getName() + "'s attack!");
+            List<Hero> heroes = party.getHeroes();
+            int alive = 0;
+            for (int i = 0; i < heroes.size(); i++) {
+                if (!heroes.get(i).isFainted()) alive++;
+            }
+            if (alive == 0) break;
+
+            // The k-th living hero, counted in place instead of collecting the living into a list
+            int k = rng.nextInt(alive);
+            int index = 0;
+            while (heroes.get(index).isFainted() || k-- > 0) index++;
+            Hero target = heroes.get(index);
+
+            tally.monsterAttacks++;
+            if (CombatMath.dodges(CombatMath.heroDodgeChance(target.getAgility()), rng.nextDouble())) {
+                tally.monsterAttacksDodged++;
+                listener.attackDodged(monster, target);
                 continue;
             }
 
-            double rawDmg = monster.getBaseDamage();
             double mitigation = (target.getEquippedArmor() != null) ? target.getEquippedArmor().getDamageReduction() : 0;
-            double finalDmg = Math.max(0, rawDmg - (mitigation * 0.2));
+            double finalDmg = CombatMath.monsterHitDamage(monster.getBaseDamage(), mitigation);
 
-            target.setHp(target.getHp() - finalDmg);
-            System.out.printf("%s attacks %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", monster.getName(), target.getName(), finalDmg);
+            target.setHp(CombatMath.hpAfterHit(target.getHp(), finalDmg));
+            tally.monsterAttackDamage += finalDmg;
+            listener.damageDealt(monster, target, finalDmg);
 
             if (target.isFainted()) {
-                System.out.println(ANSI_RED + target.getName() + " has fainted!" + ANSI_RESET);
+                listener.heroFainted(target);
             }
         }
     }
 
-    private void performRegeneration(Party party) {
+    private void performRegeneration(Party party, BattleListener listener) {
         for (Hero h : party.getHeroes()) {
             if (!h.isFainted()) {
                 h.setHp(h.getHp() * 1.1);
                 h.setMana(h.getMana() * 1.1);
             }
         }
-        System.out.println(ANSI_CYAN + "Heroes regain some health and mana." + ANSI_RESET);
+        listener.heroesRegenerated(party);
     }
 
-    private void processVictory(Party party, List<Monster> enemies) {
-        System.out.println(ANSI_GREEN + "\n*** VICTORY! ***" + ANSI_RESET);
+    private void processVictory(Party party, List<Monster> enemies, BattleListener listener) {
         double goldReward = enemies.stream().mapToDouble(Monster::getLevel).sum() * 100;
         int xpReward = enemies.size() * 2;
 
-        System.out.printf("Party gains %.0f Gold and %d XP!\n", goldReward, xpReward);
+        listener.battleWon(party, goldReward, xpReward);
 
         for (Hero h : party.getHeroes()) {
             if (h.isFainted()) {
-                System.out.println(h.getName() + " is revived.");
+                listener.heroRevived(h);
                 h.revive();
             } else {
                 h.addMoney(goldReward);
-                h.gainExperience(xpReward);
+                if (h.gainExperience(xpReward)) listener.heroLeveledUp(h);
+            }
+        }
+    }
+
+    // ENCOUNTER RULES (mirror the object-based methods above, step for step)
+
+    private boolean processHeroesTurn(Encounter e, EncounterPolicy policy) {
+        for (int i = 0; i < e.heroCount; i++) {
+            if (e.isHeroFainted(i)) continue;
+            if (allMonstersFainted(e)) break;
+
+            long turnStart = timeTurns ? System.nanoTime() : 0;
+            boolean actionTaken = false;
+            while (!actionTaken) {
+                switch (policy.chooseAction(e, i)) {
+                    case ATTACK: actionTaken = performAttack(e, i, policy); break;
+                    case CAST_SPELL: actionTaken = performSpell(e, i, policy); break;
+                    case USE_POTION: actionTaken = performPotion(e, i, policy); break;
+                    case EQUIP: performEquip(e, i, policy); break;
+                    case QUIT: return false;
+                }
             }
+            if (timeTurns) metrics.heroTurnTimed(System.nanoTime() - turnStart);
         }
+        return true;
+    }
+
+    private boolean performAttack(Encounter e, int hero, EncounterPolicy policy) {
+        int target = selectMonster(e, hero, policy);
+        if (target < 0) return false;
+
+        tally.heroAttacks++;
+        if (CombatMath.dodges(CombatMath.monsterDodgeChance(e.monsterDodge[target]), rng.nextDouble())) {
+            tally.heroAttacksDodged++;
+            return true;
+        }
+
+        double weaponDmg = (e.heroWeapon[hero] != null) ? e.heroWeapon[hero].getDamage() : 0;
+        double actualDamage = CombatMath.attackDamage(e.heroStrength[hero], weaponDmg, e.monsterDefense[target]);
+        e.monsterHp[target] = CombatMath.hpAfterHit(e.monsterHp[target], actualDamage);
+        tally.heroAttackDamage += actualDamage;
+        return true;
     }
 
-    private Monster selectMonster(Scanner scanner, List<Monster> enemies) {
-        List<Monster> alive = enemies.stream().filter(m -> !m.isFainted()).collect(Collectors.toList());
-        if (alive.isEmpty()) return null;
+    private boolean performSpell(Encounter e, int hero, EncounterPolicy policy) {
+        Hero h = e.getHero(hero);
+        List<Spell> spells = h.getInventory().getSpells();
+        if (spells.isEmpty()) return false;
+
+        Spell spell = policy.chooseSpell(e, hero, spells);
+        if (spell == null) return false;
+        if (e.heroMana[hero] < spell.getManaCost()) return false;
+
+        int target = selectMonster(e, hero, policy);
+        if (target < 0) return false;
+
+        e.heroMana[hero] -= spell.getManaCost();
 
-        System.out.println(ANSI_CYAN + "Select Target:" + ANSI_RESET);
-        for(int i=0; i<alive.size(); i++) {
-            System.out.println((i+1) + ". " + alive.get(i));
+        double damage = CombatMath.spellDamage(spell.getDamage(), e.heroDexterity[hero]);
+        e.monsterHp[target] = CombatMath.hpAfterHit(e.monsterHp[target], damage);
+        tally.spellsCast++;
+        tally.spellDamage += damage;
+
+        if (!e.isMonsterFainted(target)) {
+            if (spell.getType() == SpellType.ICE) {
+                e.monsterDamage[target] = CombatMath.weakened(e.monsterDamage[target]);
+            } else if (spell.getType() == SpellType.FIRE) {
+                e.monsterDefense[target] = CombatMath.weakened(e.monsterDefense[target]);
+            } else if (spell.getType() == SpellType.LIGHTNING) {
+                e.monsterDodge[target] = CombatMath.weakenedDodge(e.monsterDodge[target]);
+            }
         }
-        int choice = InputValidator.getValidInt(scanner, ANSI_CYAN + "Target: " + ANSI_RESET, 1, alive.size());
-        return alive.get(choice - 1);
+
+        h.getInventory().removeItem(spell);
+        return true;
     }
 
-    private void showBattleInfo(Party party, List<Monster> enemies) {
-        System.out.println("\n" + ANSI_WHITE_BOLD + "--- Battle Status ---" + ANSI_RESET);
-        System.out.println(ANSI_PURPLE + "HEROES:" + ANSI_RESET);
-        party.getHeroes().forEach(System.out::println);
-        System.out.println(ANSI_RED + "MONSTERS:" + ANSI_RESET);
-        enemies.forEach(System.out::println);
-        System.out.println("---------------------");
+    private boolean performPotion(Encounter e, int hero, EncounterPolicy policy) {
+        Hero h = e.getHero(hero);
+        List<Potion> potions = h.getInventory().getPotions();
+        if (potions.isEmpty()) return false;
+
+        Potion potion = policy.choosePotion(e, hero, potions);
+        if (potion == null) return false;
+
+        double val = potion.getAttributeIncrease();
+        if (potion.affects("Health")) e.heroHp[hero] = Math.max(0, e.heroHp[hero] + val);
+        if (potion.affects("Mana")) e.heroMana[hero] += val;
+        if (potion.affects("Strength")) e.heroStrength[hero] += val;
+        if (potion.affects("Dexterity")) e.heroDexterity[hero] += val;
+        if (potion.affects("Agility")) e.heroAgility[hero] += val;
+
+        tally.potionsUsed++;
+        h.getInventory().removeItem(potion);
+        return true;
+    }
+
+    private void performEquip(Encounter e, int hero, EncounterPolicy policy) {
+        Item item = policy.chooseEquipment(e, hero);
+        if (item instanceof Weapon) {
+            e.heroWeapon[hero] = (Weapon) item;
+        } else if (item instanceof Armor) {
+            e.heroArmor[hero] = (Armor) item;
+        }
+    }
+
+    private void processMonstersTurn(Encounter e) {
+        for (int m = 0; m < e.monsterCount; m++) {
+            if (e.isMonsterFainted(m)) continue;
+
+            int alive = aliveHeroCount(e);
+            if (alive == 0) break;
+
+            // The k-th living hero, as aliveHeroes.get(k) in the object version
+            int k = rng.nextInt(alive);
+            int target = 0;
+            while (e.isHeroFainted(target) || k-- > 0) target++;
+
+            tally.monsterAttacks++;
+            if (CombatMath.dodges(CombatMath.heroDodgeChance(e.heroAgility[target]), rng.nextDouble())) {
+                tally.monsterAttacksDodged++;
+                continue;
+            }
+
+            double mitigation = (e.heroArmor[target] != null) ? e.heroArmor[target].getDamageReduction() : 0;
+            double finalDmg = CombatMath.monsterHitDamage(e.monsterDamage[m], mitigation);
+            e.heroHp[target] = CombatMath.hpAfterHit(e.heroHp[target], finalDmg);
+            tally.monsterAttackDamage += finalDmg;
+        }
+    }
+
+    private int selectMonster(Encounter e, int hero, EncounterPolicy policy) {
+        return allMonstersFainted(e) ? -1 : policy.chooseTarget(e, hero);
+    }
+
+    private static boolean allMonstersFainted(Encounter e) {
+        for (int m = 0; m < e.monsterCount; m++) {
+            if (!e.isMonsterFainted(m)) return false;
+        }
+        return true;
+    }
+
+    private static int aliveHeroCount(Encounter e) {
+        int alive = 0;
+        for (int i = 0; i < e.heroCount; i++) {
+            if (!e.isHeroFainted(i)) alive++;
+        }
+        return alive;
+    }
+
+    private Monster selectMonster(Hero hero, List<Monster> enemies, ActionPolicy policy) {
+        // Refilled on every call; the policy only reads it while choosing
+        aliveEnemies.clear();
+        for (int i = 0; i < enemies.size(); i++) {
+            Monster m = enemies.get(i);
+            if (!m.isFainted()) aliveEnemies.add(m);
+        }
+        if (aliveEnemies.isEmpty()) return null;
+
+        return policy.chooseTarget(hero, aliveEnemies);
+    }
+
+    private static boolean allFainted(List<Monster> enemies) {
+        for (int i = 0; i < enemies.size(); i++) {
+            if (!enemies.get(i).isFainted()) return false;
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
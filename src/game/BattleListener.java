@@ -0,0 +1,69 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import entities.RPGCharacter;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.util.List;
+
+/**
+ * Event sink for everything that happens during a battle.
+ * Every method defaults to a no-op, so headless runs can use {@link #SILENT}
+ * and pay nothing for reporting.
+ */
+public interface BattleListener {
+
+    /**
+     * Discards every event. Used for simulations and scripted battles.
+     */
+    BattleListener SILENT = new BattleListener() { };
+
+    default void battleStarted(Party party, List<Monster> enemies) { }
+
+    default void roundStarted(int round) { }
+
+    default void turnStarted(Hero hero) { }
+
+    /**
+     * An action could not be performed (no spells, not enough mana, ...). The turn is not consumed.
+     */
+    default void actionRejected(Hero hero, String reason) { }
+
+    default void attackDodged(RPGCharacter attacker, RPGCharacter target) { }
+
+    default void damageDealt(RPGCharacter attacker, RPGCharacter target, double damage) { }
+
+    default void spellDebuffApplied(Monster target, SpellType type) { }
+
+    default void spellCast(Hero hero, Spell spell, Monster target, double damage) { }
+
+    default void potionUsed(Hero hero, Potion potion) { }
+
+    default void itemEquipped(Hero hero, Item item) { }
+
+    default void monsterDefeated(Monster monster) { }
+
+    default void heroFainted(Hero hero) { }
+
+    default void heroesRegenerated(Party party) { }
+
+    default void battleWon(Party party, double goldReward, int xpReward) { }
+
+    default void heroRevived(Hero hero) { }
+
+    default void heroLeveledUp(Hero hero) { }
+
+    default void battleLost(Party party) { }
+
+    default void battleQuit(Hero hero) { }
+
+    /**
+     * The round limit ran out with both sides standing; the heroes keep their current HP and mana.
+     */
+    default void battleDrawn(Party party, int rounds) { }
+}
@@ -0,0 +1,37 @@
+package game;
+
+import entities.Monster;
+
+import java.util.List;
+
+/**
+ * Immutable summary of a finished battle, returned by the headless engine.
+ */
+public class BattleResult {
+
+    /**
+     * DRAW: both sides were still standing when the round limit ran out (see
+     * {@link BattleController#setMaxRounds}), e.g. because neither could hurt the other.
+     */
+    public enum Outcome {
+        VICTORY, DEFEAT, QUIT, DRAW
+    }
+
+    private final Outcome outcome;
+    private final int rounds;
+    private final List<Monster> enemies;
+
+    public BattleResult(Outcome outcome, int rounds, List<Monster> enemies) {
+        this.outcome = outcome;
+        this.rounds = rounds;
+        this.enemies = enemies;
+    }
+
+    public Outcome getOutcome() { return outcome; }
+    public int getRounds() { return rounds; }
+    public List<Monster> getEnemies() { return enemies; }
+
+    public boolean isVictory() {
+        return outcome == Outcome.VICTORY;
+    }
+}
@@ -0,0 +1,509 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.util.List;
+
+/**
+ * Compact, copyable snapshot of a battle in progress, for the rollouts of {@link MctsPolicy}.
+ *
+ * <p>Everything a rollout changes (HP, mana, stats, monster debuffs, which spells and potions are
+ * used up) lives in a few small primitive arrays, so {@link #copyFrom} is a handful of array
+ * copies and a rollout allocates nothing. What stays fixed during a decision (levels, gear, the
+ * spell and potion tables) sits in a {@link Loadout} shared by every copy. Gear does not change
+ * inside a rollout; the policy settles equipment before it searches.</p>
+ *
+ * <p>The rules are those of {@link BattleController}, step for step and through
+ * {@link CombatMath}: heroes act in slot order, then every living monster hits a random living
+ * hero, then living heroes regenerate. Only the random draws differ, since each search worker
+ * uses its own stream. Not thread-safe; every worker owns its states.</p>
+ */
+final class BattleState {
+
+    static final int ONGOING = 0;
+    static final int VICTORY = 1;
+    static final int DEFEAT = 2;
+
+    // Moves are packed ints: kind << 16 | item << 8 | target
+    static final int ATTACK = 1;
+    static final int CAST_SPELL = 2;
+    static final int USE_POTION = 3;
+
+    // Items per hero the search tracks, one bit each
+    static final int MAX_ITEMS = 64;
+
+    // Same threshold as AutoBattlePolicy: drink a health potion below 30% of max HP
+    private static final double LOW_HP_RATIO = 0.3;
+
+    private static final int N = Encounter.MAX_COMBATANTS;
+
+    Loadout loadout;
+    int heroCount;
+    int monsterCount;
+    int actor;                      // Hero slot whose decision is next
+    int rounds;                     // Rounds completed since the snapshot
+    int outcome;
+
+    final double[] heroHp = new double[N];
+    final double[] heroMana = new double[N];
+    final double[] heroStrength = new double[N];
+    final double[] heroDexterity = new double[N];
+    final double[] heroAgility = new double[N];
+    final long[] spellsUsed = new long[N];
+    final long[] potionsUsed = new long[N];
+
+    final double[] monsterHp = new double[N];
+    final double[] monsterDamage = new double[N];
+    final double[] monsterDefense = new double[N];
+    final double[] monsterDodge = new double[N];   // 0-100 scale, as loaded
+
+    /**
+     * Loads the battle as the object engine holds it, with {@code actor} about to act.
+     */
+    void load(Party party, List<Monster> enemies, int actor) {
+        List<Hero> heroes = party.getHeroes();
+        heroCount = heroes.size();
+        loadout = new Loadout(heroCount);
+        for (int i = 0; i < heroCount; i++) {
+            Hero h = heroes.get(i);
+            heroHp[i] = h.getHp();
+            heroMana[i] = h.getMana();
+            heroStrength[i] = h.getStrength();
+            heroDexterity[i] = h.getDexterity();
+            heroAgility[i] = h.getAgility();
+            loadout.loadHero(i, h.getLevel(),
+                    (h.getEquippedWeapon() != null) ? h.getEquippedWeapon().getDamage() : 0,
+                    (h.getEquippedArmor() != null) ? h.getEquippedArmor().getDamageReduction() : 0,
+                    h.getInventory().getSpells(), h.getInventory().getPotions());
+        }
+        monsterCount = enemies.size();
+        for (int m = 0; m < monsterCount; m++) {
+            Monster monster = enemies.get(m);
+            monsterHp[m] = monster.getHp();
+            monsterDamage[m] = monster.getBaseDamage();
+            monsterDefense[m] = monster.getDefense();
+            monsterDodge[m] = monster.getBaseDodgeChance();
+            loadout.monsterLevel[m] = monster.getLevel();
+        }
+        start(actor);
+    }
+
+    /**
+     * Loads the battle as {@link BattleController#runEncounter} holds it, with {@code actor} about to act.
+     */
+    void load(Encounter e, int actor) {
+        heroCount = e.heroCount;
+        loadout = new Loadout(heroCount);
+        for (int i = 0; i < heroCount; i++) {
+            heroHp[i] = e.heroHp[i];
+            heroMana[i] = e.heroMana[i];
+            heroStrength[i] = e.heroStrength[i];
+            heroDexterity[i] = e.heroDexterity[i];
+            heroAgility[i] = e.heroAgility[i];
+            Hero h = e.getHero(i);
+            loadout.loadHero(i, e.heroLevel[i],
+                    (e.heroWeapon[i] != null) ? e.heroWeapon[i].getDamage() : 0,
+                    (e.heroArmor[i] != null) ? e.heroArmor[i].getDamageReduction() : 0,
+                    h.getInventory().getSpells(), h.getInventory().getPotions());
+        }
+        monsterCount = e.monsterCount;
+        for (int m = 0; m < monsterCount; m++) {
+            monsterHp[m] = e.monsterHp[m];
+            monsterDamage[m] = e.monsterDamage[m];
+            monsterDefense[m] = e.monsterDefense[m];
+            monsterDodge[m] = e.monsterDodge[m];
+            loadout.monsterLevel[m] = e.monsterLevel[m];
+        }
+        start(actor);
+    }
+
+    private void start(int actor) {
+        this.actor = actor;
+        rounds = 0;
+        outcome = ONGOING;
+        for (int i = 0; i < heroCount; i++) {
+            spellsUsed[i] = 0;
+            potionsUsed[i] = 0;
+        }
+    }
+
+    void copyFrom(BattleState s) {
+        loadout = s.loadout;
+        heroCount = s.heroCount;
+        monsterCount = s.monsterCount;
+        actor = s.actor;
+        rounds = s.rounds;
+        outcome = s.outcome;
+        System.arraycopy(s.heroHp, 0, heroHp, 0, heroCount);
+        System.arraycopy(s.heroMana, 0, heroMana, 0, heroCount);
+        System.arraycopy(s.heroStrength, 0, heroStrength, 0, heroCount);
+        System.arraycopy(s.heroDexterity, 0, heroDexterity, 0, heroCount);
+        System.arraycopy(s.heroAgility, 0, heroAgility, 0, heroCount);
+        System.arraycopy(s.spellsUsed, 0, spellsUsed, 0, heroCount);
+        System.arraycopy(s.potionsUsed, 0, potionsUsed, 0, heroCount);
+        System.arraycopy(s.monsterHp, 0, monsterHp, 0, monsterCount);
+        System.arraycopy(s.monsterDamage, 0, monsterDamage, 0, monsterCount);
+        System.arraycopy(s.monsterDefense, 0, monsterDefense, 0, monsterCount);
+        System.arraycopy(s.monsterDodge, 0, monsterDodge, 0, monsterCount);
+    }
+
+    /**
+     * @return A hash of the position (who acts, levels, gear, stats, HP and mana, items left), so
+     *         a search can be seeded from the battle instead of from the thread that asks.
+     */
+    long fingerprint() {
+        long h = mix(actor, heroCount);
+        h = mix(h, monsterCount);
+        Loadout l = loadout;
+        for (int i = 0; i < heroCount; i++) {
+            h = mix(h, l.heroLevel[i]);
+            h = mix(h, Double.doubleToLongBits(l.weaponDamage[i]));
+            h = mix(h, Double.doubleToLongBits(l.armorReduction[i]));
+            h = mix(h, (long) l.spellCount[i] << 32 | l.potionCount[i]);
+            h = mix(h, Double.doubleToLongBits(heroHp[i]));
+            h = mix(h, Double.doubleToLongBits(heroMana[i]));
+            h = mix(h, Double.doubleToLongBits(heroStrength[i]));
+            h = mix(h, Double.doubleToLongBits(heroDexterity[i]));
+            h = mix(h, Double.doubleToLongBits(heroAgility[i]));
+        }
+        for (int m = 0; m < monsterCount; m++) {
+            h = mix(h, l.monsterLevel[m]);
+            h = mix(h, Double.doubleToLongBits(monsterHp[m]));
+            h = mix(h, Double.doubleToLongBits(monsterDamage[m]));
+            h = mix(h, Double.doubleToLongBits(monsterDefense[m]));
+            h = mix(h, Double.doubleToLongBits(monsterDodge[m]));
+        }
+        return h;
+    }
+
+    private static long mix(long h, long value) {
+        h = (h ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    // MOVES
+
+    static int move(int kind, int item, int target) {
+        return kind << 16 | item << 8 | target;
+    }
+
+    static int kindOf(int move) { return move >>> 16; }
+    static int itemOf(int move) { return (move >>> 8) & 0xff; }
+    static int targetOf(int move) { return move & 0xff; }
+
+    /**
+     * Fills {@code into} with the actor's turn-consuming moves: attack or cast an affordable
+     * spell at each living monster, or drink a potion. Of several identical spells or potions
+     * only the first unused one is offered.
+     *
+     * @return The number of moves; at least one while the battle is ongoing.
+     */
+    int legalMoves(int[] into) {
+        int h = actor;
+        int n = 0;
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] > 0) into[n++] = move(ATTACK, 0, m);
+        }
+        Loadout l = loadout;
+        for (int s = 0; s < l.spellCount[h]; s++) {
+            if (!offered(spellsUsed[h], l.spellPrevious[h][s], s) || l.spellCost[h][s] > heroMana[h]) continue;
+            for (int m = 0; m < monsterCount; m++) {
+                if (monsterHp[m] > 0) into[n++] = move(CAST_SPELL, s, m);
+            }
+        }
+        for (int p = 0; p < l.potionCount[h]; p++) {
+            if (offered(potionsUsed[h], l.potionPrevious[h][p], p)) into[n++] = move(USE_POTION, p, 0);
+        }
+        return n;
+    }
+
+    /**
+     * Largest number of moves {@link #legalMoves} can return.
+     */
+    static int maxMoves() {
+        return N + MAX_ITEMS * N + MAX_ITEMS;
+    }
+
+    private static boolean offered(long used, int previousSame, int item) {
+        return (used & (1L << item)) == 0 && (previousSame < 0 || (used & (1L << previousSame)) != 0);
+    }
+
+    /**
+     * Plays {@code move} for the actor, then advances to the next decision: the next living
+     * hero, or the monsters' turn and regeneration, or the end of the battle.
+     */
+    void play(int move, RandomGenerator rng) {
+        int h = actor;
+        int m = targetOf(move);
+        switch (kindOf(move)) {
+            case ATTACK: attack(h, m, rng); break;
+            case CAST_SPELL: castSpell(h, itemOf(move), m); break;
+            case USE_POTION: drinkPotion(h, itemOf(move)); break;
+            default: throw new IllegalArgumentException("Not a move: " + move);
+        }
+        advance(rng);
+    }
+
+    /**
+     * Plays the battle out with {@link AutoBattlePolicy}'s rules for up to {@code roundLimit}
+     * rounds after the snapshot.
+     */
+    void playOut(RandomGenerator rng, int roundLimit) {
+        while (outcome == ONGOING && rounds < roundLimit) {
+            play(defaultMove(), rng);
+        }
+    }
+
+    /**
+     * @return The score of this state for the party, in [0, 1]: 0 for a defeat, above 0.5 for a
+     *         victory (more with more HP left), and below 0.5 for an unfinished battle, by HP
+     *         left on both sides.
+     */
+    double reward() {
+        if (outcome == DEFEAT) return 0;
+        double heroShare = 0;
+        double heroMax = 0;
+        for (int i = 0; i < heroCount; i++) {
+            heroShare += Math.min(heroHp[i], loadout.heroLevel[i] * 100);
+            heroMax += loadout.heroLevel[i] * 100;
+        }
+        heroShare /= heroMax;
+        if (outcome == VICTORY) return 0.5 + 0.5 * heroShare;
+
+        double monsterShare = 0;
+        double monsterMax = 0;
+        for (int m = 0; m < monsterCount; m++) {
+            monsterShare += monsterHp[m];
+            monsterMax += loadout.monsterLevel[m] * 100;
+        }
+        return 0.5 * heroShare * (1 - Math.min(1, monsterShare / monsterMax));
+    }
+
+    // RULES (as in BattleController's encounter methods)
+
+    private void attack(int h, int m, RandomGenerator rng) {
+        if (CombatMath.dodges(CombatMath.monsterDodgeChance(monsterDodge[m]), rng.nextDouble())) return;
+        double damage = CombatMath.attackDamage(heroStrength[h], loadout.weaponDamage[h], monsterDefense[m]);
+        monsterHp[m] = CombatMath.hpAfterHit(monsterHp[m], damage);
+    }
+
+    private void castSpell(int h, int s, int m) {
+        Loadout l = loadout;
+        heroMana[h] -= l.spellCost[h][s];
+        double damage = CombatMath.spellDamage(l.spellDamage[h][s], heroDexterity[h]);
+        monsterHp[m] = CombatMath.hpAfterHit(monsterHp[m], damage);
+        if (monsterHp[m] > 0) {
+            SpellType type = l.spellType[h][s];
+            if (type == SpellType.ICE) {
+                monsterDamage[m] = CombatMath.weakened(monsterDamage[m]);
+            } else if (type == SpellType.FIRE) {
+                monsterDefense[m] = CombatMath.weakened(monsterDefense[m]);
+            } else if (type == SpellType.LIGHTNING) {
+                monsterDodge[m] = CombatMath.weakenedDodge(monsterDodge[m]);
+            }
+        }
+        spellsUsed[h] |= 1L << s;
+    }
+
+    private void drinkPotion(int h, int p) {
+        Loadout l = loadout;
+        double val = l.potionAmount[h][p];
+        int affects = l.potionAffects[h][p];
+        if ((affects & Loadout.HEALTH) != 0) heroHp[h] = Math.max(0, heroHp[h] + val);
+        if ((affects & Loadout.MANA) != 0) heroMana[h] += val;
+        if ((affects & Loadout.STRENGTH) != 0) heroStrength[h] += val;
+        if ((affects & Loadout.DEXTERITY) != 0) heroDexterity[h] += val;
+        if ((affects & Loadout.AGILITY) != 0) heroAgility[h] += val;
+        potionsUsed[h] |= 1L << p;
+    }
+
+    private void advance(RandomGenerator rng) {
+        if (allMonstersFainted()) {
+            outcome = VICTORY;
+            return;
+        }
+        int next = nextLivingHero(actor + 1);
+        if (next >= 0) {
+            actor = next;
+            return;
+        }
+
+        monstersTurn(rng);
+        if (nextLivingHero(0) < 0) {
+            outcome = DEFEAT;
+            return;
+        }
+        for (int i = 0; i < heroCount; i++) {
+            if (heroHp[i] > 0) {
+                heroHp[i] *= 1.1;
+                heroMana[i] *= 1.1;
+            }
+        }
+        rounds++;
+        actor = nextLivingHero(0);
+    }
+
+    private void monstersTurn(RandomGenerator rng) {
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] <= 0) continue;
+
+            int alive = 0;
+            for (int i = 0; i < heroCount; i++) {
+                if (heroHp[i] > 0) alive++;
+            }
+            if (alive == 0) break;
+
+            int k = rng.nextInt(alive);
+            int target = 0;
+            while (heroHp[target] <= 0 || k-- > 0) target++;
+
+            if (CombatMath.dodges(CombatMath.heroDodgeChance(heroAgility[target]), rng.nextDouble())) continue;
+            double damage = CombatMath.monsterHitDamage(monsterDamage[m], loadout.armorReduction[target]);
+            heroHp[target] = CombatMath.hpAfterHit(heroHp[target], damage);
+        }
+    }
+
+    /**
+     * AutoBattlePolicy's choice for the actor: a health potion when low, else the strongest
+     * affordable spell, else an attack, at the weakest living monster.
+     */
+    private int defaultMove() {
+        int h = actor;
+        Loadout l = loadout;
+        if (heroHp[h] < l.heroLevel[h] * 100 * LOW_HP_RATIO) {
+            for (int p = 0; p < l.potionCount[h]; p++) {
+                if ((l.potionAffects[h][p] & Loadout.HEALTH) != 0 && (potionsUsed[h] & (1L << p)) == 0) {
+                    return move(USE_POTION, p, 0);
+                }
+            }
+        }
+
+        int weakest = -1;
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] <= 0) continue;
+            if (weakest < 0 || monsterHp[m] < monsterHp[weakest]) weakest = m;
+        }
+
+        int best = -1;
+        for (int s = 0; s < l.spellCount[h]; s++) {
+            if ((spellsUsed[h] & (1L << s)) != 0 || l.spellCost[h][s] > heroMana[h]) continue;
+            if (best < 0 || l.spellDamage[h][s] > l.spellDamage[h][best]) best = s;
+        }
+        return (best >= 0) ? move(CAST_SPELL, best, weakest) : move(ATTACK, 0, weakest);
+    }
+
+    private boolean allMonstersFainted() {
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] > 0) return false;
+        }
+        return true;
+    }
+
+    private int nextLivingHero(int from) {
+        for (int i = from; i < heroCount; i++) {
+            if (heroHp[i] > 0) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The part of a snapshot that no move changes. Spells and potions keep their inventory
+     * order (the first {@value #MAX_ITEMS} of each), so a move's item index maps back to the
+     * hero's lists when the chosen move is played for real.
+     */
+    static final class Loadout {
+        static final int HEALTH = 1;
+        static final int MANA = 2;
+        static final int STRENGTH = 4;
+        static final int DEXTERITY = 8;
+        static final int AGILITY = 16;
+
+        final int[] heroLevel = new int[N];
+        final double[] weaponDamage = new double[N];
+        final double[] armorReduction = new double[N];
+        final int[] monsterLevel = new int[N];
+
+        final Spell[][] spells;
+        final int[] spellCount = new int[N];
+        final double[][] spellDamage;
+        final double[][] spellCost;
+        final SpellType[][] spellType;
+        final int[][] spellPrevious;    // Index of the previous identical spell, or -1
+
+        final Potion[][] potions;
+        final int[] potionCount = new int[N];
+        final double[][] potionAmount;
+        final int[][] potionAffects;
+        final int[][] potionPrevious;
+
+        Loadout(int heroes) {
+            spells = new Spell[heroes][];
+            spellDamage = new double[heroes][];
+            spellCost = new double[heroes][];
+            spellType = new SpellType[heroes][];
+            spellPrevious = new int[heroes][];
+            potions = new Potion[heroes][];
+            potionAmount = new double[heroes][];
+            potionAffects = new int[heroes][];
+            potionPrevious = new int[heroes][];
+        }
+
+        void loadHero(int h, int level, double weapon, double armor, List<Spell> spellList, List<Potion> potionList) {
+            heroLevel[h] = level;
+            weaponDamage[h] = weapon;
+            armorReduction[h] = armor;
+
+            int s = Math.min(spellList.size(), MAX_ITEMS);
+            spellCount[h] = s;
+            spells[h] = new Spell[s];
+            spellDamage[h] = new double[s];
+            spellCost[h] = new double[s];
+            spellType[h] = new SpellType[s];
+            spellPrevious[h] = new int[s];
+            for (int k = 0; k < s; k++) {
+                Spell spell = spellList.get(k);
+                spells[h][k] = spell;
+                spellDamage[h][k] = spell.getDamage();
+                spellCost[h][k] = spell.getManaCost();
+                spellType[h][k] = spell.getType();
+                spellPrevious[h][k] = -1;
+                for (int j = k - 1; j >= 0; j--) {
+                    if (spells[h][j].getName().equals(spell.getName())) {
+                        spellPrevious[h][k] = j;
+                        break;
+                    }
+                }
+            }
+
+            int p = Math.min(potionList.size(), MAX_ITEMS);
+            potionCount[h] = p;
+            potions[h] = new Potion[p];
+            potionAmount[h] = new double[p];
+            potionAffects[h] = new int[p];
+            potionPrevious[h] = new int[p];
+            for (int k = 0; k < p; k++) {
+                Potion potion = potionList.get(k);
+                potions[h][k] = potion;
+                potionAmount[h][k] = potion.getAttributeIncrease();
+                potionAffects[h][k] = (potion.affects("Health") ? HEALTH : 0)
+                        | (potion.affects("Mana") ? MANA : 0)
+                        | (potion.affects("Strength") ? STRENGTH : 0)
+                        | (potion.affects("Dexterity") ? DEXTERITY : 0)
+                        | (potion.affects("Agility") ? AGILITY : 0);
+                potionPrevious[h][k] = -1;
+                for (int j = k - 1; j >= 0; j--) {
+                    if (potions[h][j].getName().equals(potion.getName())) {
+                        potionPrevious[h][k] = j;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package game;
+
+/**
+ * The combat formulas, shared by both battle paths in {@link BattleController}: the object path
+ * (Hero/Monster, interactive battles) and the {@link Encounter} path (simulations).
+ *
+ * <p>Every method is a pure function of primitives, so a hit allocates nothing and both paths
+ * compute the same doubles in the same order. Callers draw the random rolls themselves and pass
+ * them in; the kernel never touches a generator. Monster dodge is kept as the loaded 0-100 value,
+ * as in {@link entities.Monster}.</p>
+ */
+final class CombatMath {
+
+    // CAP MONSTER DODGE AT 30% (Making it 70% chance to hit at worst)
+    static final double MONSTER_DODGE_CAP = 0.30;
+    // CAP HERO DODGE AT 75% (Heroes can be very dodgy, but not invincible)
+    static final double HERO_DODGE_CAP = 0.75;
+    // Share of a stat that an ICE (damage), FIRE (defense) or LIGHTNING (dodge) spell takes away
+    static final double DEBUFF_FRACTION = 0.1;
+
+    private CombatMath() {
+    }
+
+    /**
+     * @param dodgePercent The monster's dodge value as loaded (0-100).
+     * @return The chance in [0, 0.30] that the monster dodges a hero's attack.
+     */
+    static double monsterDodgeChance(double dodgePercent) {
+        return Math.min(MONSTER_DODGE_CAP, dodgePercent * 0.01);
+    }
+
+    /**
+     * @return The chance in [0, 0.75] that a hero with this agility dodges a monster's attack.
+     */
+    static double heroDodgeChance(double agility) {
+        double chance = agility / (agility + 1000.0);
+        return Math.min(HERO_DODGE_CAP, chance);
+    }
+
+    /**
+     * @param roll A uniform draw in [0, 1).
+     */
+    static boolean dodges(double dodgeChance, double roll) {
+        return roll < dodgeChance;
+    }
+
+    /**
+     * Physical damage of a hero's attack after the monster's defense.
+     *
+     * @param weaponDamage The equipped weapon's damage, or 0 when unarmed.
+     */
+    static double attackDamage(double strength, double weaponDamage, double monsterDefense) {
+        double rawDamage = (strength + weaponDamage) * 0.05;
+        return Math.max(0, rawDamage - (monsterDefense * 0.05));
+    }
+
+    /**
+     * Spell damage, raised by one percent per hundred points of the caster's dexterity.
+     */
+    static double spellDamage(double baseDamage, double dexterity) {
+        return baseDamage + ((dexterity / 10000.0) * baseDamage);
+    }
+
+    /**
+     * Damage of a monster's hit after the hero's armor.
+     *
+     * @param armorReduction The equipped armor's damage reduction, or 0 without armor.
+     */
+    static double monsterHitDamage(double monsterDamage, double armorReduction) {
+        return Math.max(0, monsterDamage - (armorReduction * 0.2));
+    }
+
+    /**
+     * @return HP after taking {@code damage}, never below zero.
+     */
+    static double hpAfterHit(double hp, double damage) {
+        return Math.max(0, hp - damage);
+    }
+
+    /**
+     * How much an ICE spell cuts from monster damage, or a FIRE spell from monster defense.
+     */
+    static double debuff(double stat) {
+        return stat * DEBUFF_FRACTION;
+    }
+
+    /**
+     * @return The stat after {@link #debuff}, never below zero (as Monster.reduceDamage/reduceDefense).
+     */
+    static double weakened(double stat) {
+        return Math.max(0, stat - debuff(stat));
+    }
+
+    /**
+     * How much a LIGHTNING spell cuts from monster dodge: a tenth of the 0-1 chance, taken from
+     * the 0-100 value (as Monster.reduceDodgeChance(getDodgeChance() * 0.1)).
+     */
+    static double dodgeDebuff(double dodgePercent) {
+        return dodgePercent * 0.01 * DEBUFF_FRACTION;
+    }
+
+    /**
+     * @return The 0-100 dodge value after {@link #dodgeDebuff}, never below zero.
+     */
+    static double weakenedDodge(double dodgePercent) {
+        return Math.max(0, dodgePercent - dodgeDebuff(dodgePercent));
+    }
+}
@@ -0,0 +1,234 @@
+package game;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide combat counters, published over JMX as {@value #OBJECT_NAME}.
+ *
+ * <p>Every battle on every thread (interactive sessions, server sessions, simulation workers)
+ * reports here. Counters are {@link LongAdder}s and {@link DoubleAdder}s, which stripe their
+ * updates across cells, so concurrent battles do not contend on one cache line. A controller
+ * only bumps the plain fields of its own {@link Tally} while fighting and {@link #publish}es it
+ * when an interactive battle starts or ends, or every few dozen simulated battles.</p>
+ *
+ * <p>Wall time per hero turn and per monster phase goes to histograms. An interactive hero turn
+ * includes the time the player takes to choose.</p>
+ */
+public final class CombatMetrics implements CombatMetricsMXBean {
+
+    public static final String OBJECT_NAME = "legends:type=CombatMetrics";
+
+    private static final CombatMetrics INSTANCE = new CombatMetrics();
+    private static boolean registering;
+
+    private final LongAdder battlesStarted = new LongAdder();
+    private final LongAdder battlesWon = new LongAdder();
+    private final LongAdder battlesLost = new LongAdder();
+    private final LongAdder battlesQuit = new LongAdder();
+    private final LongAdder battlesDrawn = new LongAdder();
+    private final MetricHistogram rounds = new MetricHistogram();
+
+    private final LongAdder heroAttacks = new LongAdder();
+    private final LongAdder heroAttacksDodged = new LongAdder();
+    private final DoubleAdder heroAttackDamage = new DoubleAdder();
+    private final LongAdder spellsCast = new LongAdder();
+    private final DoubleAdder spellDamage = new DoubleAdder();
+    private final LongAdder potionsUsed = new LongAdder();
+    private final LongAdder monsterAttacks = new LongAdder();
+    private final LongAdder monsterAttacksDodged = new LongAdder();
+    private final DoubleAdder monsterAttackDamage = new DoubleAdder();
+
+    private final MetricHistogram heroTurnNanos = new MetricHistogram();
+    private final MetricHistogram monsterPhaseNanos = new MetricHistogram();
+
+    private CombatMetrics() {
+    }
+
+    /**
+     * @return The process-wide metrics.
+     */
+    public static CombatMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server. Starting that server takes a good part of
+     * a second, so it happens on a background thread and the caller does not wait. Counting works
+     * without it; later calls do nothing.
+     */
+    public static synchronized void registerMBean() {
+        if (registering) return;
+        registering = true;
+        Thread thread = new Thread(() -> {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                System.err.println("Warning: Combat metrics are not published over JMX: " + e.getMessage());
+            }
+        }, "combat-metrics-jmx");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Counts kept by one BattleController on one thread without any synchronization,
+     * until they are published.
+     */
+    static final class Tally {
+        long battlesStarted;
+        long battlesWon;
+        long battlesLost;
+        long battlesQuit;
+        long battlesDrawn;
+        final long[] roundBuckets = new long[MetricHistogram.BUCKETS];
+        long roundsSum;
+        long roundsMax;
+        long heroAttacks;
+        long heroAttacksDodged;
+        double heroAttackDamage;
+        long spellsCast;
+        double spellDamage;
+        long potionsUsed;
+        long monsterAttacks;
+        long monsterAttacksDodged;
+        double monsterAttackDamage;
+
+        /** @return Battles finished since the last publish. */
+        long battlesEnded() {
+            return battlesWon + battlesLost + battlesQuit + battlesDrawn;
+        }
+
+        void battleEnded(BattleResult.Outcome outcome, int rounds) {
+            switch (outcome) {
+                case VICTORY: battlesWon++; break;
+                case DEFEAT: battlesLost++; break;
+                case QUIT: battlesQuit++; break;
+                case DRAW: battlesDrawn++; break;
+            }
+            roundBuckets[MetricHistogram.bucket(rounds)]++;
+            roundsSum += rounds;
+            roundsMax = Math.max(roundsMax, rounds);
+        }
+    }
+
+    /**
+     * Adds a tally to the shared counters and clears it.
+     */
+    void publish(Tally tally) {
+        if (tally.battlesStarted != 0) battlesStarted.add(tally.battlesStarted);
+        if (tally.battlesEnded() != 0) {
+            battlesWon.add(tally.battlesWon);
+            battlesLost.add(tally.battlesLost);
+            battlesQuit.add(tally.battlesQuit);
+            battlesDrawn.add(tally.battlesDrawn);
+            rounds.add(tally.roundBuckets, tally.roundsSum, tally.roundsMax);
+        }
+
+        // Skips the adders an action type never touched (most battles see no spells or potions)
+        if (tally.heroAttacks != 0) {
+            heroAttacks.add(tally.heroAttacks);
+            heroAttacksDodged.add(tally.heroAttacksDodged);
+            heroAttackDamage.add(tally.heroAttackDamage);
+        }
+        if (tally.spellsCast != 0) {
+            spellsCast.add(tally.spellsCast);
+            spellDamage.add(tally.spellDamage);
+        }
+        if (tally.potionsUsed != 0) potionsUsed.add(tally.potionsUsed);
+        if (tally.monsterAttacks != 0) {
+            monsterAttacks.add(tally.monsterAttacks);
+            monsterAttacksDodged.add(tally.monsterAttacksDodged);
+            monsterAttackDamage.add(tally.monsterAttackDamage);
+        }
+
+        tally.battlesStarted = 0;
+        tally.battlesWon = 0;
+        tally.battlesLost = 0;
+        tally.battlesQuit = 0;
+        tally.battlesDrawn = 0;
+        tally.roundsSum = 0;
+        tally.roundsMax = 0;
+        tally.heroAttacks = 0;
+        tally.heroAttacksDodged = 0;
+        tally.heroAttackDamage = 0;
+        tally.spellsCast = 0;
+        tally.spellDamage = 0;
+        tally.potionsUsed = 0;
+        tally.monsterAttacks = 0;
+        tally.monsterAttacksDodged = 0;
+        tally.monsterAttackDamage = 0;
+    }
+
+    void heroTurnTimed(long nanos) {
+        heroTurnNanos.record(nanos);
+    }
+
+    void monsterPhaseTimed(long nanos) {
+        monsterPhaseNanos.record(nanos);
+    }
+
+    @Override public long getBattlesStarted() { return battlesStarted.sum(); }
+    @Override public long getBattlesWon() { return battlesWon.sum(); }
+    @Override public long getBattlesLost() { return battlesLost.sum(); }
+    @Override public long getBattlesQuit() { return battlesQuit.sum(); }
+    @Override public long getBattlesDrawn() { return battlesDrawn.sum(); }
+
+    @Override public double getRoundsPerBattleMean() { return rounds.mean(); }
+    @Override public long getRoundsPerBattleP50() { return rounds.percentile(0.50); }
+    @Override public long getRoundsPerBattleP99() { return rounds.percentile(0.99); }
+    @Override public long getRoundsPerBattleMax() { return rounds.max(); }
+
+    @Override public long getHeroAttacks() { return heroAttacks.sum(); }
+    @Override public double getHeroAttackDamageTotal() { return heroAttackDamage.sum(); }
+    @Override public double getHeroAttackDamageMean() {
+        return ratio(heroAttackDamage.sum(), heroAttacks.sum() - heroAttacksDodged.sum());
+    }
+
+    @Override public long getSpellsCast() { return spellsCast.sum(); }
+    @Override public double getSpellDamageTotal() { return spellDamage.sum(); }
+    @Override public double getSpellDamageMean() { return ratio(spellDamage.sum(), spellsCast.sum()); }
+    @Override public long getPotionsUsed() { return potionsUsed.sum(); }
+
+    @Override public long getMonsterAttacks() { return monsterAttacks.sum(); }
+    @Override public double getMonsterAttackDamageTotal() { return monsterAttackDamage.sum(); }
+    @Override public double getMonsterAttackDamageMean() {
+        return ratio(monsterAttackDamage.sum(), monsterAttacks.sum() - monsterAttacksDodged.sum());
+    }
+
+    @Override public double getMonsterDodgeRate() { return ratio(heroAttacksDodged.sum(), heroAttacks.sum()); }
+    @Override public double getHeroDodgeRate() { return ratio(monsterAttacksDodged.sum(), monsterAttacks.sum()); }
+
+    @Override public long getHeroTurnsTimed() { return heroTurnNanos.count(); }
+    @Override public double getHeroTurnMicrosMean() { return heroTurnNanos.mean() / 1e3; }
+    @Override public double getHeroTurnMicrosP50() { return heroTurnNanos.percentile(0.50) / 1e3; }
+    @Override public double getHeroTurnMicrosP99() { return heroTurnNanos.percentile(0.99) / 1e3; }
+    @Override public double getHeroTurnMicrosMax() { return heroTurnNanos.max() / 1e3; }
+
+    @Override public long getMonsterPhasesTimed() { return monsterPhaseNanos.count(); }
+    @Override public double getMonsterPhaseMicrosMean() { return monsterPhaseNanos.mean() / 1e3; }
+    @Override public double getMonsterPhaseMicrosP50() { return monsterPhaseNanos.percentile(0.50) / 1e3; }
+    @Override public double getMonsterPhaseMicrosP99() { return monsterPhaseNanos.percentile(0.99) / 1e3; }
+    @Override public double getMonsterPhaseMicrosMax() { return monsterPhaseNanos.max() / 1e3; }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : new LongAdder[] {battlesStarted, battlesWon, battlesLost, battlesQuit, battlesDrawn,
+                heroAttacks, heroAttacksDodged, spellsCast, potionsUsed, monsterAttacks, monsterAttacksDodged}) {
+            counter.reset();
+        }
+        heroAttackDamage.reset();
+        spellDamage.reset();
+        monsterAttackDamage.reset();
+        rounds.reset();
+        heroTurnNanos.reset();
+        monsterPhaseNanos.reset();
+    }
+
+    private static double ratio(double part, double whole) {
+        return (whole == 0) ? 0 : part / whole;
+    }
+}
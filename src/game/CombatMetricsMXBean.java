@@ -0,0 +1,82 @@
+package game;
+
+/**
+ * Management interface of {@link CombatMetrics}, published as {@value CombatMetrics#OBJECT_NAME}
+ * (visible in JConsole, VisualVM or any JMX client). Means, rates and percentiles are derived from
+ * the counters when read; percentiles are approximate (see MetricHistogram).
+ */
+public interface CombatMetricsMXBean {
+
+    long getBattlesStarted();
+
+    long getBattlesWon();
+
+    long getBattlesLost();
+
+    long getBattlesQuit();
+
+    /** Battles stopped at the round limit with both sides standing. */
+    long getBattlesDrawn();
+
+    double getRoundsPerBattleMean();
+
+    long getRoundsPerBattleP50();
+
+    long getRoundsPerBattleP99();
+
+    long getRoundsPerBattleMax();
+
+    /** Hero weapon attacks, dodged ones included. */
+    long getHeroAttacks();
+
+    double getHeroAttackDamageTotal();
+
+    /** Mean damage of the hero attacks that landed. */
+    double getHeroAttackDamageMean();
+
+    long getSpellsCast();
+
+    double getSpellDamageTotal();
+
+    double getSpellDamageMean();
+
+    long getPotionsUsed();
+
+    /** Monster attacks, dodged ones included. */
+    long getMonsterAttacks();
+
+    double getMonsterAttackDamageTotal();
+
+    /** Mean damage of the monster attacks that landed. */
+    double getMonsterAttackDamageMean();
+
+    /** Share of hero attacks the monsters dodged. */
+    double getMonsterDodgeRate();
+
+    /** Share of monster attacks the heroes dodged. */
+    double getHeroDodgeRate();
+
+    /** Hero turns timed (all interactive turns, a sample of simulated ones). */
+    long getHeroTurnsTimed();
+
+    double getHeroTurnMicrosMean();
+
+    double getHeroTurnMicrosP50();
+
+    double getHeroTurnMicrosP99();
+
+    double getHeroTurnMicrosMax();
+
+    long getMonsterPhasesTimed();
+
+    double getMonsterPhaseMicrosMean();
+
+    double getMonsterPhaseMicrosP50();
+
+    double getMonsterPhaseMicrosP99();
+
+    double getMonsterPhaseMicrosMax();
+
+    /** Sets every counter and histogram back to zero. */
+    void reset();
+}
@@ -0,0 +1,140 @@
+package game;
+
+import common.GameIO;
+import common.InputValidator;
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Armor;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Weapon;
+
+import java.util.List;
+
+/**
+ * Interactive policy: every decision is prompted on the console through InputValidator.
+ * This is the classic menu-driven battle UI, now just one ActionPolicy among others.
+ *
+ * <p>"Auto-Battle" hands the rest of the battle to an {@link MctsPolicy}. It searches a fixed
+ * number of rollouts per decision rather than for a fixed time, and is seeded from the session
+ * stream, so a recorded session still replays move for move.</p>
+ */
+public class ConsoleActionPolicy implements ActionPolicy {
+
+    private final GameIO io;
+    private MctsPolicy autopilot;       // Set once the player picks Auto-Battle; one policy per battle
+
+    // Autopilot search per decision: 4 trees of 1500 rollouts, a few milliseconds on a desktop
+    private static final int AUTOPILOT_WORKERS = 4;
+    private static final int AUTOPILOT_ROLLOUTS = 1500;
+
+    // ANSI Colors
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_RED = "\u001B[31m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_PURPLE = "\u001B[35m";
+    private static final String ANSI_WHITE_BOLD = "\033[1;37m";
+
+    public ConsoleActionPolicy(GameIO io) {
+        this.io = io;
+    }
+
+    @Override
+    public Action chooseAction(Hero hero, Party party, List<Monster> enemies) {
+        if (autopilot != null) return autopilot.chooseAction(hero, party, enemies);
+        while (true) {
+            io.println("1. Attack");
+            io.println("2. Cast Spell");
+            io.println("3. Use Potion");
+            io.println("4. Equip Gear");
+            io.println("5. Info");
+            io.println("6. Quit Game");
+            io.println("7. Auto-Battle");
+
+            int choice = InputValidator.getValidInt(io, ANSI_CYAN + "Action: " + ANSI_RESET, 1, 7);
+            switch (choice) {
+                case 1: return Action.ATTACK;
+                case 2: return Action.CAST_SPELL;
+                case 3: return Action.USE_POTION;
+                case 4: return Action.EQUIP;
+                case 5: showBattleInfo(party, enemies); break;
+                case 6: return Action.QUIT;
+                default:
+                    io.println(ANSI_PURPLE + "Autopilot takes over for the rest of this battle." + ANSI_RESET);
+                    autopilot = new MctsPolicy(0, AUTOPILOT_ROLLOUTS, AUTOPILOT_WORKERS,
+                            RandomGenerator.getInstance().nextLong());
+                    return autopilot.chooseAction(hero, party, enemies);
+            }
+        }
+    }
+
+    @Override
+    public Monster chooseTarget(Hero hero, List<Monster> aliveEnemies) {
+        if (autopilot != null) return autopilot.chooseTarget(hero, aliveEnemies);
+        io.println(ANSI_CYAN + "Select Target:" + ANSI_RESET);
+        for (int i = 0; i < aliveEnemies.size(); i++) {
+            io.println((i + 1) + ". " + aliveEnemies.get(i));
+        }
+        int choice = InputValidator.getValidInt(io, ANSI_CYAN + "Target: " + ANSI_RESET, 1, aliveEnemies.size());
+        return aliveEnemies.get(choice - 1);
+    }
+
+    @Override
+    public Spell chooseSpell(Hero hero, List<Spell> spells) {
+        if (autopilot != null) return autopilot.chooseSpell(hero, spells);
+        io.println(ANSI_WHITE_BOLD + "--- Spellbook ---" + ANSI_RESET);
+        for (int i = 0; i < spells.size(); i++) {
+            io.println((i + 1) + ". " + spells.get(i));
+        }
+        io.println((spells.size() + 1) + ". Cancel");
+
+        int choice = InputValidator.getValidInt(io, ANSI_CYAN + "Select Spell: " + ANSI_RESET, 1, spells.size() + 1);
+        if (choice == spells.size() + 1) return null;
+        return spells.get(choice - 1);
+    }
+
+    @Override
+    public Potion choosePotion(Hero hero, List<Potion> potions) {
+        if (autopilot != null) return autopilot.choosePotion(hero, potions);
+        io.println(ANSI_WHITE_BOLD + "--- Potions ---" + ANSI_RESET);
+        for (int i = 0; i < potions.size(); i++) io.println((i + 1) + ". " + potions.get(i));
+
+        int choice = InputValidator.getValidInt(io, ANSI_CYAN + "Use Potion: " + ANSI_RESET, 1, potions.size());
+        return potions.get(choice - 1);
+    }
+
+    @Override
+    public Item chooseEquipment(Hero hero) {
+        if (autopilot != null) return autopilot.chooseEquipment(hero);
+        io.println("1. Weapons");
+        io.println("2. Armor");
+        int type = InputValidator.getValidInt(io, ANSI_CYAN + "Type: " + ANSI_RESET, 1, 2);
+
+        if (type == 1) {
+            List<Weapon> weps = hero.getInventory().getWeapons();
+            if (weps.isEmpty()) { io.println(ANSI_YELLOW + "No weapons." + ANSI_RESET); return null; }
+            for (int i = 0; i < weps.size(); i++) io.println((i + 1) + ". " + weps.get(i));
+            int sel = InputValidator.getValidInt(io, "Equip: ", 1, weps.size());
+            return weps.get(sel - 1);
+        } else {
+            List<Armor> arms = hero.getInventory().getArmor();
+            if (arms.isEmpty()) { io.println(ANSI_YELLOW + "No armor." + ANSI_RESET); return null; }
+            for (int i = 0; i < arms.size(); i++) io.println((i + 1) + ". " + arms.get(i));
+            int sel = InputValidator.getValidInt(io, "Equip: ", 1, arms.size());
+            return arms.get(sel - 1);
+        }
+    }
+
+    private void showBattleInfo(Party party, List<Monster> enemies) {
+        io.println("\n" + ANSI_WHITE_BOLD + "--- Battle Status ---" + ANSI_RESET);
+        io.println(ANSI_PURPLE + "HEROES:" + ANSI_RESET);
+        party.getHeroes().forEach(io::println);
+        io.println(ANSI_RED + "MONSTERS:" + ANSI_RESET);
+        enemies.forEach(io::println);
+        io.println("---------------------");
+    }
+}
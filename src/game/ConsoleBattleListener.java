@@ -0,0 +1,141 @@
+package game;
+
+import common.GameIO;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import entities.RPGCharacter;
+import items.Item;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+
+import java.util.List;
+
+/**
+ * Renders battle events to the terminal with the game's ANSI styling.
+ */
+public class ConsoleBattleListener implements BattleListener {
+
+    // ANSI Colors
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_RED = "\u001B[31m";
+    private static final String ANSI_GREEN = "\u001B[32m";
+    private static final String ANSI_YELLOW = "\u001B[33m";
+    private static final String ANSI_CYAN = "\u001B[36m";
+    private static final String ANSI_PURPLE = "\u001B[35m";
+
+    private final GameIO io;
+
+    public ConsoleBattleListener(GameIO io) {
+        this.io = io;
+    }
+
+    @Override
+    public void battleStarted(Party party, List<Monster> enemies) {
+        io.println(ANSI_RED + "\n*** Battle Started! Enemies approaching: ***" + ANSI_RESET);
+        for (Monster m : enemies) io.println("- " + m);
+    }
+
+    @Override
+    public void roundStarted(int round) {
+        io.println("\n" + ANSI_YELLOW + "=== Round " + round + " ===" + ANSI_RESET);
+    }
+
+    @Override
+    public void turnStarted(Hero hero) {
+        io.println("\nIt is " + ANSI_PURPLE + hero.getName() + ANSI_RESET + "'s turn.");
+        io.println(hero);
+    }
+
+    @Override
+    public void actionRejected(Hero hero, String reason) {
+        io.println(ANSI_YELLOW + reason + ANSI_RESET);
+    }
+
+    @Override
+    public void attackDodged(RPGCharacter attacker, RPGCharacter target) {
+        if (attacker instanceof Hero) {
+            io.println(target.getName() + " dodged the attack!");
+        } else {
+            io.println(target.getName() + " dodged " + attacker.getName() + "'s attack!");
+        }
+    }
+
+    @Override
+    public void damageDealt(RPGCharacter attacker, RPGCharacter target, double damage) {
+        io.printf("%s attacks %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", attacker.getName(), target.getName(), damage);
+    }
+
+    @Override
+    public void spellDebuffApplied(Monster target, SpellType type) {
+        if (type == SpellType.ICE) {
+            io.println(target.getName() + "'s damage reduced by Ice!");
+        } else if (type == SpellType.FIRE) {
+            io.println(target.getName() + "'s defense melted by Fire!");
+        } else if (type == SpellType.LIGHTNING) {
+            io.println(target.getName() + "'s dodge reduced by Lightning!");
+        }
+    }
+
+    @Override
+    public void spellCast(Hero hero, Spell spell, Monster target, double damage) {
+        io.printf("%s casts %s on %s for " + ANSI_RED + "%.0f damage!" + ANSI_RESET + "\n", hero.getName(), spell.getName(), target.getName(), damage);
+    }
+
+    @Override
+    public void potionUsed(Hero hero, Potion potion) {
+        io.println(ANSI_GREEN + hero.getName() + " used " + potion.getName() + "!" + ANSI_RESET);
+    }
+
+    @Override
+    public void itemEquipped(Hero hero, Item item) {
+        io.println(hero.getName() + " equipped " + item.getName());
+    }
+
+    @Override
+    public void monsterDefeated(Monster monster) {
+        io.println(ANSI_GREEN + monster.getName() + " has been defeated!" + ANSI_RESET);
+    }
+
+    @Override
+    public void heroFainted(Hero hero) {
+        io.println(ANSI_RED + hero.getName() + " has fainted!" + ANSI_RESET);
+    }
+
+    @Override
+    public void heroesRegenerated(Party party) {
+        io.println(ANSI_CYAN + "Heroes regain some health and mana." + ANSI_RESET);
+    }
+
+    @Override
+    public void battleWon(Party party, double goldReward, int xpReward) {
+        io.println(ANSI_GREEN + "\n*** VICTORY! ***" + ANSI_RESET);
+        io.printf("Party gains %.0f Gold and %d XP!\n", goldReward, xpReward);
+    }
+
+    @Override
+    public void heroRevived(Hero hero) {
+        io.println(hero.getName() + " is revived.");
+    }
+
+    @Override
+    public void heroLeveledUp(Hero hero) {
+        io.println(hero.getName() + " leveled up to " + hero.getLevel() + "!");
+    }
+
+    @Override
+    public void battleLost(Party party) {
+        io.println(ANSI_RED + "The party has been defeated!" + ANSI_RESET);
+    }
+
+    @Override
+    public void battleDrawn(Party party, int rounds) {
+        io.println(ANSI_YELLOW + "After " + rounds + " rounds neither side can win. The party withdraws." + ANSI_RESET);
+    }
+
+    @Override
+    public void battleQuit(Hero hero) {
+        io.println(ANSI_RED + "Quitting Game..." + ANSI_RESET);
+    }
+}
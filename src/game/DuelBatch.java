@@ -0,0 +1,144 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Monster.MonsterType;
+
+/**
+ * Struct-of-arrays state of many independent one-hero-vs-one-monster duels, for balance sweeps
+ * that resolve them all at once with a {@link DuelResolver}.
+ *
+ * <p>Each duel is a lane: index {@code i} of every array. {@link #add} spawns the monster with
+ * the same spawner and first draw that {@link BattleController#runEncounter} would use, then
+ * folds everything that stays fixed for the duel (dodge caps, damage after defense and armor)
+ * into per-lane constants via {@link CombatMath}, so resolving a round is a few multiply-adds
+ * and two random draws per lane.</p>
+ *
+ * <p>A duel plays out exactly like runEncounter with {@link AutoBattlePolicy} and a hero with an
+ * empty inventory (attack every turn, no spells, potions or gear changes), including the random
+ * draws: each lane carries the state of the {@code SplittableRandom} that runEncounter would
+ * have been seeded with, advanced by the same SplitMix64 steps. Not thread-safe; use one batch
+ * per worker.</p>
+ */
+public final class DuelBatch {
+
+    // SplittableRandom's default gamma: a stream seeded with s yields mix64(s + k * GAMMA), k = 1, 2, ...
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final int capacity;
+    private int size;
+    private final Hero[] heroes;
+    private final MonsterType[] monsterTypes;
+    private final Encounter spawnScratch = new Encounter();
+    private final RandomGenerator spawnRng = RandomGenerator.newSeeded(0);
+
+    // Per-duel constants
+    final double[] heroHitDamage;       // Hero attack damage after the monster's defense
+    final double[] monsterDodgeChance;  // Capped at 30%
+    final double[] monsterHitDamage;    // Monster attack damage after the hero's armor
+    final double[] heroDodgeChance;     // Capped at 75%
+
+    // Per-duel state
+    final double[] heroHp;
+    final double[] heroMana;
+    final double[] monsterHp;
+    final long[] rngState;              // SplittableRandom seed field: the next draw mixes rngState + GOLDEN_GAMMA
+    final BattleResult.Outcome[] outcome;
+    final int[] rounds;
+
+    public DuelBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1, got " + capacity);
+        }
+        this.capacity = capacity;
+        heroes = new Hero[capacity];
+        monsterTypes = new MonsterType[capacity];
+        heroHitDamage = new double[capacity];
+        monsterDodgeChance = new double[capacity];
+        monsterHitDamage = new double[capacity];
+        heroDodgeChance = new double[capacity];
+        heroHp = new double[capacity];
+        heroMana = new double[capacity];
+        monsterHp = new double[capacity];
+        rngState = new long[capacity];
+        outcome = new BattleResult.Outcome[capacity];
+        rounds = new int[capacity];
+    }
+
+    /**
+     * Empties the batch for the next set of duels.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heroes[i] = null;
+            monsterTypes[i] = null;
+            outcome[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Adds a duel: {@code hero} (which is only read) against a monster spawned at its level, as
+     * runEncounter does after {@code rng.setSeed(seed)}.
+     *
+     * @return The duel's lane index.
+     * @throws IllegalArgumentException if the hero carries items (the duel rules never use them),
+     *                                  is fainted, or the batch is full.
+     */
+    public int add(Hero hero, MonsterSpawner spawner, long seed) {
+        if (size == capacity) {
+            throw new IllegalArgumentException("The batch already holds " + capacity + " duels.");
+        }
+        if (!hero.getInventory().isEmpty()) {
+            throw new IllegalArgumentException(hero.getName() + " carries items; duels only model attacks.");
+        }
+        if (hero.isFainted()) {
+            throw new IllegalArgumentException(hero.getName() + " is fainted.");
+        }
+
+        Encounter e = spawnScratch;
+        e.clear();
+        e.addHero(hero);
+        spawnRng.setSeed(seed);
+        spawner.spawnInto(e, Math.max(1, e.heroLevel[0]), spawnRng);
+
+        int i = size++;
+        heroes[i] = hero;
+        monsterTypes[i] = e.getMonsterType(0);
+        double weaponDamage = (e.heroWeapon[0] != null) ? e.heroWeapon[0].getDamage() : 0;
+        double mitigation = (e.heroArmor[0] != null) ? e.heroArmor[0].getDamageReduction() : 0;
+        heroHitDamage[i] = CombatMath.attackDamage(e.heroStrength[0], weaponDamage, e.monsterDefense[0]);
+        monsterDodgeChance[i] = CombatMath.monsterDodgeChance(e.monsterDodge[0]);
+        monsterHitDamage[i] = CombatMath.monsterHitDamage(e.monsterDamage[0], mitigation);
+        heroDodgeChance[i] = CombatMath.heroDodgeChance(e.heroAgility[0]);
+        heroHp[i] = e.heroHp[0];
+        heroMana[i] = e.heroMana[0];
+        monsterHp[i] = e.monsterHp[0];
+        rngState[i] = seed + GOLDEN_GAMMA;      // The spawn took the stream's first draw
+        outcome[i] = null;
+        rounds[i] = 0;
+        return i;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+    public Hero getHero(int i) { return heroes[i]; }
+    public MonsterType getMonsterType(int i) { return monsterTypes[i]; }
+
+    /**
+     * @return VICTORY or DEFEAT, DRAW if the duel was still undecided after the resolver's round
+     *         limit, or null before it is resolved.
+     */
+    public BattleResult.Outcome getOutcome(int i) { return outcome[i]; }
+    public int getRounds(int i) { return rounds[i]; }
+    public double getHeroHp(int i) { return heroHp[i]; }
+    public double getHeroMana(int i) { return heroMana[i]; }
+    public double getMonsterHp(int i) { return monsterHp[i]; }
+
+    /**
+     * The double in [0, 1) that {@code SplittableRandom.nextDouble()} makes of a mixed value.
+     */
+    static double unitDouble(long mixed) {
+        return (mixed >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,40 @@
+package game;
+
+/**
+ * Resolves every duel in a {@link DuelBatch} with the rules of
+ * {@link BattleController#runEncounter}: the hero attacks (the monster dodges up to 30% of the
+ * time), then the monster attacks (the hero dodges up to 75%), then the hero regenerates 10% HP
+ * and mana, until one side faints.
+ *
+ * <p>{@link #scalar()} resolves one duel at a time; {@link #vector()} resolves a vector's worth
+ * per step with the incubating Vector API and needs the JVM started with
+ * {@code --add-modules jdk.incubator.vector}. Both give the same results, bit for bit. On JDK 17
+ * C2 does not compile the Vector API's mask operations to machine code on every CPU (they fall
+ * back to allocating Java code on AVX-512), so measure before preferring the vector one.</p>
+ */
+public interface DuelResolver {
+
+    /**
+     * Resolves all duels in the batch. A duel still undecided when round {@code maxRounds} ends
+     * (neither side can hurt the other, say) is a DRAW after {@code maxRounds} rounds, as in
+     * runEncounter with {@link BattleController#setMaxRounds}.
+     */
+    void resolve(DuelBatch batch, int maxRounds);
+
+    /** @return A short description for reports, e.g. "vector (8 lanes)". */
+    String getName();
+
+    static DuelResolver scalar() {
+        return new ScalarDuelResolver();
+    }
+
+    /**
+     * @throws IllegalStateException if the JVM runs without the jdk.incubator.vector module.
+     */
+    static DuelResolver vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            throw new IllegalStateException("The vector resolver needs --add-modules jdk.incubator.vector.");
+        }
+        return new VectorDuelResolver();
+    }
+}
@@ -0,0 +1,166 @@
+package game;
+
+import entities.Hero;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Armor;
+import items.Weapon;
+
+/**
+ * Struct-of-arrays state of one battle, for running huge numbers of headless fights without
+ * allocating Monster objects, lists or results.
+ *
+ * <p>Combatant stats live in primitive arrays indexed by slot (heroes 0..heroCount-1, monsters
+ * 0..monsterCount-1). An Encounter is meant to be reused: {@link #clear()} it, add the heroes,
+ * then hand it to {@link BattleController#runEncounter}, which spawns the monsters and resolves
+ * the fight with the same rules as {@link BattleController#runBattle}. One instance per worker
+ * thread is enough; it is not thread-safe.</p>
+ *
+ * <p>Hero objects are only read when loaded, except that spells and potions used in battle are
+ * removed from the hero's inventory just as in runBattle. Everything else (HP, mana, stat boosts,
+ * equipment, rewards) stays in the encounter until {@link #applyToHeroes()} copies it back, so a
+ * simulation can load catalog templates directly and skip copying them.</p>
+ */
+public final class Encounter {
+
+    /** Largest side: a party holds at most three heroes and meets as many monsters. */
+    public static final int MAX_COMBATANTS = 3;
+
+    // Heroes
+    private final Hero[] heroes = new Hero[MAX_COMBATANTS];
+    final int[] heroLevel = new int[MAX_COMBATANTS];
+    final double[] heroHp = new double[MAX_COMBATANTS];
+    final double[] heroMana = new double[MAX_COMBATANTS];
+    final double[] heroStrength = new double[MAX_COMBATANTS];
+    final double[] heroDexterity = new double[MAX_COMBATANTS];
+    final double[] heroAgility = new double[MAX_COMBATANTS];
+    final Weapon[] heroWeapon = new Weapon[MAX_COMBATANTS];
+    final Armor[] heroArmor = new Armor[MAX_COMBATANTS];
+    int heroCount;
+
+    // Monsters
+    private MonsterSpawner spawner;                 // Source of the templates in monsterTemplate
+    final int[] monsterTemplate = new int[MAX_COMBATANTS];
+    final int[] monsterLevel = new int[MAX_COMBATANTS];
+    final double[] monsterHp = new double[MAX_COMBATANTS];
+    final double[] monsterDamage = new double[MAX_COMBATANTS];
+    final double[] monsterDefense = new double[MAX_COMBATANTS];
+    final double[] monsterDodge = new double[MAX_COMBATANTS];   // 0-100 scale, as loaded
+    int monsterCount;
+
+    // Result
+    BattleResult.Outcome outcome;
+    int rounds;
+    double goldReward;
+    int xpReward;
+
+    /**
+     * Empties the encounter for the next battle.
+     */
+    public void clear() {
+        for (int i = 0; i < heroCount; i++) {
+            heroes[i] = null;
+            heroWeapon[i] = null;
+            heroArmor[i] = null;
+        }
+        heroCount = 0;
+        monsterCount = 0;
+        spawner = null;
+        outcome = null;
+        rounds = 0;
+        goldReward = 0;
+        xpReward = 0;
+    }
+
+    /**
+     * Loads a hero's current stats and equipment into the next hero slot.
+     */
+    public void addHero(Hero hero) {
+        if (heroCount == MAX_COMBATANTS) {
+            throw new IllegalStateException("An encounter holds at most " + MAX_COMBATANTS + " heroes.");
+        }
+        int i = heroCount++;
+        heroes[i] = hero;
+        heroLevel[i] = hero.getLevel();
+        heroHp[i] = hero.getHp();
+        heroMana[i] = hero.getMana();
+        heroStrength[i] = hero.getStrength();
+        heroDexterity[i] = hero.getDexterity();
+        heroAgility[i] = hero.getAgility();
+        heroWeapon[i] = hero.getEquippedWeapon();
+        heroArmor[i] = hero.getEquippedArmor();
+    }
+
+    void addMonster(MonsterSpawner source, int template, int level, double damage, double defense, double dodge) {
+        int m = monsterCount++;
+        spawner = source;
+        monsterTemplate[m] = template;
+        monsterLevel[m] = level;
+        monsterHp[m] = level * 100;   // Same rule as the Monster constructor
+        monsterDamage[m] = damage;
+        monsterDefense[m] = defense;
+        monsterDodge[m] = dodge;
+    }
+
+    /**
+     * Copies the battle's effects back onto the Hero objects: HP, mana, stat changes and
+     * equipment, then (after a victory) the same revive, gold and experience handling as
+     * runBattle. Skip this when the heroes are templates that must not change.
+     */
+    public void applyToHeroes() {
+        for (int i = 0; i < heroCount; i++) {
+            Hero hero = heroes[i];
+            hero.setHp(heroHp[i]);
+            hero.setMana(heroMana[i]);
+            hero.setStrength(heroStrength[i]);
+            hero.setDexterity(heroDexterity[i]);
+            hero.setAgility(heroAgility[i]);
+            hero.equipWeapon(heroWeapon[i]);
+            hero.equipArmor(heroArmor[i]);
+            if (outcome != BattleResult.Outcome.VICTORY) continue;
+            if (hero.isFainted()) {
+                hero.revive();
+            } else {
+                hero.addMoney(goldReward);
+                hero.gainExperience(xpReward);
+            }
+        }
+    }
+
+    // HERO SLOTS
+    public int getHeroCount() { return heroCount; }
+    public Hero getHero(int i) { return heroes[i]; }
+    public int getHeroLevel(int i) { return heroLevel[i]; }
+    public double getHeroHp(int i) { return heroHp[i]; }
+    public double getHeroMana(int i) { return heroMana[i]; }
+    public Weapon getHeroWeapon(int i) { return heroWeapon[i]; }
+    public Armor getHeroArmor(int i) { return heroArmor[i]; }
+
+    public boolean isHeroFainted(int i) {
+        return heroHp[i] <= 0;
+    }
+
+    // MONSTER SLOTS
+    public int getMonsterCount() { return monsterCount; }
+    public int getMonsterLevel(int m) { return monsterLevel[m]; }
+    public double getMonsterHp(int m) { return monsterHp[m]; }
+
+    public Monster getMonsterTemplate(int m) {
+        return spawner.getTemplates().get(monsterTemplate[m]);
+    }
+
+    public MonsterType getMonsterType(int m) {
+        return getMonsterTemplate(m).getType();
+    }
+
+    public boolean isMonsterFainted(int m) {
+        return monsterHp[m] <= 0;
+    }
+
+    // RESULT
+    /** @return The outcome, or null if the encounter has not been run since it was cleared. */
+    public BattleResult.Outcome getOutcome() { return outcome; }
+    public int getRounds() { return rounds; }
+    public double getGoldReward() { return goldReward; }
+    public int getXpReward() { return xpReward; }
+}
@@ -0,0 +1,48 @@
+package game;
+
+import game.ActionPolicy.Action;
+import items.Item;
+import items.Potion;
+import items.Spell;
+
+import java.util.List;
+
+/**
+ * The decisions of {@link ActionPolicy}, asked against an {@link Encounter} instead of live
+ * Hero and Monster objects. Heroes and monsters are addressed by slot index; during a fight the
+ * encounter, not the Hero object, holds a hero's current HP, mana and equipment.
+ *
+ * <p>Same contract as ActionPolicy: ATTACK, CAST_SPELL and USE_POTION consume the turn when
+ * they succeed; EQUIP and failed actions do not.</p>
+ */
+public interface EncounterPolicy {
+
+    /**
+     * Picks the top-level action for the hero in slot {@code hero}.
+     */
+    Action chooseAction(Encounter encounter, int hero);
+
+    /**
+     * Picks the monster to hit.
+     * @return the slot of a living monster, or -1 to cancel the action.
+     */
+    int chooseTarget(Encounter encounter, int hero);
+
+    /**
+     * Picks a spell from the hero's (non-empty) spellbook.
+     * @return the spell, or null to cancel the action.
+     */
+    Spell chooseSpell(Encounter encounter, int hero, List<Spell> spells);
+
+    /**
+     * Picks a potion from the hero's (non-empty) potion list.
+     * @return the potion, or null to cancel the action.
+     */
+    Potion choosePotion(Encounter encounter, int hero, List<Potion> potions);
+
+    /**
+     * Picks a Weapon or Armor from the hero's inventory to equip.
+     * @return the item, or null if nothing should be equipped.
+     */
+    Item chooseEquipment(Encounter encounter, int hero);
+}
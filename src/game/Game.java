@@ -1,6 +1,7 @@
 package game;
 
-import java.util.Scanner;
+import common.GameEvents;
+import common.GameIO;
 
 /**
  * Abstract Game Controller.
@@ -14,25 +15,33 @@ public abstract class Game {
      * The Template Method. This defines the algorithm for playing the game.
      * It is 'final' to prevent subclasses from altering the structural flow.
      *
-     * @param scanner Shared scanner resource for input.
+     * @param io Where the session reads input and prints output.
      */
-    public final void play(Scanner scanner) {
-        System.out.println("Initializing Game Engine...");
+    public final void play(GameIO io) {
+        io.println("Initializing Game Engine...");
 
         // Configuration & Setup
-        initializeGame(scanner);
+        initializeGame(io);
 
         // Main Game Loop
         boolean isRunning = true;
+        int turn = 0;
         while (isRunning) {
+            GameEvents.Turn event = new GameEvents.Turn();
+            event.begin();
+            turn++;
+
             // Check for game over conditions before the turn
             if (isGameOver()) {
-                System.out.println("Game Over Condition Met.");
+                io.println("Game Over Condition Met.");
                 break;
             }
 
             // Execute a single turn
-            processTurn(scanner);
+            processTurn(io);
+
+            event.turn = turn;
+            event.commit();
 
             // Check if user quit or game ended during the turn
             if (shouldQuit()) {
@@ -41,7 +50,8 @@ public abstract class Game {
         }
 
         // Cleanup & Final Stats
-        endGame();
+        endGame(io);
+        io.flush();     // The goodbye is not followed by a prompt that would flush it
     }
 
     // --- Abstract Hooks (To be implemented by LegendsGame) ---
@@ -49,12 +59,12 @@ public abstract class Game {
     /**
      * Handles initial setup: creating the board, selecting heroes, loading data.
      */
-    protected abstract void initializeGame(Scanner scanner);
+    protected abstract void initializeGame(GameIO io);
 
     /**
      * Executes the logic for a single turn (Hero move, combat, etc.).
      */
-    protected abstract void processTurn(Scanner scanner);
+    protected abstract void processTurn(GameIO io);
 
     /**
      * Checks if the game has reached a natural conclusion (Win/Loss).
@@ -70,6 +80,8 @@ public abstract class Game {
 
     /**
      * Displays final score, goodbye messages, or cleanup logic.
+     *
+     * @param io The same GameIO the session was played with (e.g. for a "play again?" prompt).
      */
-    protected abstract void endGame();
+    protected abstract void endGame(GameIO io);
 }
\ No newline at end of file
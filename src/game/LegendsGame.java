@@ -1,41 +1,65 @@
 package game;
 
+import board.Board;
 import board.Cell;
 import board.LegendsBoard;
+import board.OpenWorldBoard;
+import board.PathFinder;
+import board.Route;
+import common.GameEvents;
+import common.GameIO;
 import common.InputValidator;
+import common.RandomGenerator;
 import entities.Hero;
 import entities.Hero.HeroType;
-import entities.Monster;
-import entities.Monster.MonsterType;
 import entities.Party;
 import items.Item;
 import items.Weapon;
 import items.Armor;
 import items.Potion;
 import items.Spell;
+import utils.CatalogReloader;
+import utils.GameData;
 import utils.GameDataLoader;
+import utils.ParseDiagnostic;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
-import java.util.Scanner;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
 
 public class LegendsGame extends Game {
 
-    private LegendsBoard board;
+    private Board board;
+    private PathFinder pathFinder;
     private Party party;
-    private final Random random = new Random();
+    private final RandomGenerator random = RandomGenerator.getInstance();
     private boolean quitGame = false;
+    private boolean exitRequested = false;  // "Quit Game" from a battle: end without the replay prompt
 
     private boolean skipNextRender = false;
 
+    private final Supplier<GameData> sharedCatalog;    // Null: load data/ and watch it for edits
+    private Supplier<GameData> catalog;
+    private CatalogReloader catalogReloader;
+    private final SaveFile saveFile;        // Null for replays: they must not read or write saves
+    private final Iterator<byte[]> recordedSaves;  // Replays: the save each world menu was offered
+    // Reload notices from the watcher thread, shown with the next frame
+    private final Queue<String> catalogNotices = new ConcurrentLinkedQueue<>();
+    // Results of the last command, printed after the next frame: a frame clears below the board
+    private final List<String> turnMessages = new ArrayList<>();
+
     private MarketController marketController;
     private BattleController battleController;
 
     private List<Hero> availableWarriors;
     private List<Hero> availableSorcerers;
     private List<Hero> availablePaladins;
-    private List<Monster> allMonsters;
 
     // ANSI Color Constants
     private static final String ANSI_RESET = "\u001B[0m";
@@ -47,31 +71,113 @@ public class LegendsGame extends Game {
     private static final String ANSI_PURPLE = "\u001B[35m";
     private static final String ANSI_WHITE_BOLD = "\033[1;37m";
 
+    // Written at the end of every turn; offered as "Continue saved game" on the next start
+    private static final Path AUTOSAVE = Paths.get("saves", "autosave.lms");
+
+    // Auto-travel target limit on the open world (keeps searches to a sane window)
+    private static final int MAX_TRAVEL_COORDINATE = 100_000;
+
+    /**
+     * Interactive game: loads {@code data/}, watches it for edits and autosaves.
+     * Frames are drawn unless the GameIO it is played with is silent.
+     */
+    public LegendsGame() {
+        this((Supplier<GameData>) null);
+    }
+
+    /**
+     * Game for replays and other unattended runs.
+     *
+     * @param catalog Catalog to play with and never reload, or null to load {@code data/} and watch it.
+     *                A shared catalog is never modified: picked heroes are copies. With a fixed
+     *                catalog the game also neither loads nor autosaves, so runs stay independent.
+     */
+    public LegendsGame(GameData catalog) {
+        this((catalog == null) ? null : () -> catalog);
+    }
+
+    /**
+     * Game for replaying a session journal: as above, but each world menu is offered the next of
+     * the recorded saves (see {@link common.SessionJournal#getSaves()}) instead of none.
+     */
+    public LegendsGame(GameData catalog, List<byte[]> recordedSaves) {
+        this(() -> catalog, recordedSaves.iterator());
+    }
+
+    /**
+     * Game that shares its catalog with other sessions, e.g. one per connection on GameServer.
+     *
+     * @param catalog Source of the current catalog (read once per battle or market visit, so it may be
+     *                a CatalogReloader), or null to load {@code data/} and watch it. As above, a shared
+     *                catalog is never modified and the game neither loads nor autosaves.
+     */
+    public LegendsGame(Supplier<GameData> catalog) {
+        this(catalog, null);
+    }
+
+    private LegendsGame(Supplier<GameData> catalog, Iterator<byte[]> recordedSaves) {
+        this.sharedCatalog = catalog;
+        this.saveFile = (catalog == null) ? new SaveFile(AUTOSAVE) : null;
+        this.recordedSaves = recordedSaves;
+    }
+
     @Override
-    protected void initializeGame(Scanner scanner) {
-        System.out.println(ANSI_CYAN + "Loading Game Data..." + ANSI_RESET);
-        loadAssets();
+    protected void initializeGame(GameIO io) {
+        io.println(ANSI_CYAN + "Loading Game Data..." + ANSI_RESET);
+        GameData data = loadAssets();
+        if (sharedCatalog != null) {
+            catalog = sharedCatalog;
+        } else {
+            startCatalogReloader(data);
+            catalog = catalogReloader::current;
+        }
 
-        this.marketController = new MarketController();
-        this.battleController = new BattleController(allMonsters);
+        // Both read the live catalog once per visit / battle, so edits to data/ apply without a restart
+        this.marketController = new MarketController(() -> catalog.get().getItems());
+        this.battleController = new BattleController(() -> catalog.get().getMonsters(), random);
 
-        setupNewSession(scanner);
+        setupNewSession(io);
     }
 
-    private void setupNewSession(Scanner scanner) {
+    private void setupNewSession(GameIO io) {
         quitGame = false; // Reset quit flag for new session
+        exitRequested = false;
+
+        io.println("\n" + ANSI_YELLOW + "--- World Generation ---" + ANSI_RESET);
+        byte[] save = offeredSave(io);
+        boolean canContinue = save != null;
+        int worldType;
+        while (true) {
+            io.println("1. Classic board (4x4 to 20x20)");
+            io.println("2. Open world (endless, generated as you explore)");
+            if (canContinue) io.println("3. Continue saved game");
+            worldType = InputValidator.getValidInt(io, "Choose world: ", 1, canContinue ? 3 : 2);
+            if (worldType != 3 || continueSavedGame(io, save)) break;
+            canContinue = false;
+        }
+        if (worldType == 1) {
+            int boardSize = InputValidator.getValidInt(io, "Enter board size (4-20): ", 4, 20);
+            this.board = new LegendsBoard(boardSize);
+        } else if (worldType == 2) {
+            this.board = new OpenWorldBoard(random.nextLong());
+        }
+        // Jump point search pays off on the open world, where every tile lookup goes through the chunk cache
+        this.pathFinder = new PathFinder(board,
+                board.isBounded() ? PathFinder.Algorithm.A_STAR : PathFinder.Algorithm.JUMP_POINT);
 
-        System.out.println("\n" + ANSI_YELLOW + "--- World Generation ---" + ANSI_RESET);
-        int boardSize = InputValidator.getValidInt(scanner, "Enter board size (4-20): ", 4, 20);
-        this.board = new LegendsBoard(boardSize);
+        if (worldType == 3) {
+            this.board.setParty(party);
+            io.println(ANSI_GREEN + "\nThe party returns to the world..." + ANSI_RESET);
+            return;
+        }
 
-        System.out.println("\n" + ANSI_YELLOW + "--- Hero Selection ---" + ANSI_RESET);
-        int partySize = InputValidator.getValidInt(scanner, "Enter party size (1-3): ", 1, 3);
+        io.println("\n" + ANSI_YELLOW + "--- Hero Selection ---" + ANSI_RESET);
+        int partySize = InputValidator.getValidInt(io, "Enter party size (1-3): ", 1, 3);
 
         this.party = new Party();
         for (int i = 0; i < partySize; i++) {
-            System.out.println("\nSelect Hero #" + (i + 1) + ":");
-            Hero selectedHero = selectHero(scanner);
+            io.println("\nSelect Hero #" + (i + 1) + ":");
+            Hero selectedHero = selectHero(io);
             if (selectedHero == null) {
                 quitGame = true;
                 return;
@@ -80,172 +186,347 @@ public class LegendsGame extends Game {
         }
 
         this.board.setParty(party);
-        System.out.println(ANSI_GREEN + "\nThe party enters the world..." + ANSI_RESET);
+        io.println(ANSI_GREEN + "\nThe party enters the world..." + ANSI_RESET);
+        autosave(io);
     }
 
-    private void loadAssets() {
-        availableWarriors = GameDataLoader.loadHeroes("Warriors.txt", HeroType.WARRIOR);
-        availableSorcerers = GameDataLoader.loadHeroes("Sorcerers.txt", HeroType.SORCERER);
-        availablePaladins = GameDataLoader.loadHeroes("Paladins.txt", HeroType.PALADIN);
+    /**
+     * Looks for the save the world menu can offer: the autosave, or in a replay the one the
+     * recorded session was offered. Either way it goes into the session journal, if any, so
+     * choosing "Continue saved game" replays exactly.
+     * @return The save file contents, or null if there is none.
+     */
+    private byte[] offeredSave(GameIO io) {
+        byte[] contents = null;
+        if (recordedSaves != null) {
+            contents = recordedSaves.hasNext() ? recordedSaves.next() : null;
+        } else if (saveFile != null && saveFile.exists()) {
+            try {
+                contents = saveFile.readContents();
+            } catch (IOException e) {
+                io.println(ANSI_RED + "Could not read the saved game: " + e.getMessage() + ANSI_RESET);
+            }
+        }
+        InputValidator.recordSave(contents);
+        return contents;
+    }
 
-        allMonsters = new ArrayList<>();
-        allMonsters.addAll(GameDataLoader.loadMonsters("Dragons.txt", MonsterType.DRAGON));
-        allMonsters.addAll(GameDataLoader.loadMonsters("Exoskeletons.txt", MonsterType.EXOSKELETON));
-        allMonsters.addAll(GameDataLoader.loadMonsters("Spirits.txt", MonsterType.SPIRIT));
+    /**
+     * Restores the board and party from the offered save.
+     * @return false if the save could not be read (the player then picks a new world).
+     */
+    private boolean continueSavedGame(GameIO io, byte[] save) {
+        try {
+            List<Item> items = catalog.get().getItems();
+            SaveFile.Loaded saved = (saveFile != null)
+                    ? saveFile.load(save, items)
+                    : SaveFile.decode(save, "The recorded save", items);
+            for (String warning : saved.getWarnings()) {
+                io.println(ANSI_YELLOW + "Warning: " + warning + ANSI_RESET);
+            }
+            this.board = saved.getBoard();
+            this.party = saved.getParty();
+            return true;
+        } catch (IOException e) {
+            io.println(ANSI_RED + "Could not load the saved game: " + e.getMessage() + ANSI_RESET);
+            return false;
+        }
+    }
+
+    /**
+     * Saves the turn's result (only what changed, see SaveFile). A wiped-out party has nothing
+     * left to continue, so its save is deleted instead.
+     */
+    private void autosave(GameIO io) {
+        if (saveFile == null || party == null || exitRequested) return;
+        try {
+            if (party.isPartyWipedOut()) {
+                saveFile.delete();
+            } else {
+                saveFile.save(board, party);
+            }
+        } catch (IOException e) {
+            turnMessages.add(ANSI_RED + "Warning: Autosave to " + saveFile.getPath() + " failed: " + e.getMessage() + ANSI_RESET);
+        }
+    }
+
+    private GameData loadAssets() {
+        GameData data = (sharedCatalog != null) ? sharedCatalog.get() : GameDataLoader.loadAll();
+        GameDataLoader.printDiagnostics(data.getDiagnostics());
+
+        // Copies: a hero is removed from its list once picked
+        availableWarriors = new ArrayList<>(data.getHeroes(HeroType.WARRIOR));
+        availableSorcerers = new ArrayList<>(data.getHeroes(HeroType.SORCERER));
+        availablePaladins = new ArrayList<>(data.getHeroes(HeroType.PALADIN));
 
         if (availableWarriors.isEmpty() && availableSorcerers.isEmpty() && availablePaladins.isEmpty()) {
             throw new RuntimeException("CRITICAL ERROR: No heroes could be loaded. Check data/ directory.");
         }
+        return data;
+    }
+
+    private void startCatalogReloader(GameData data) {
+        if (catalogReloader != null) catalogReloader.close(); // Restarted game: replace the old watcher
+        catalogReloader = new CatalogReloader(data);
+        catalogReloader.addListener((fileName, applied, diagnostics) -> {
+            for (ParseDiagnostic diagnostic : diagnostics) {
+                catalogNotices.add(ANSI_RED + "Warning: " + diagnostic + ANSI_RESET);
+            }
+            catalogNotices.add(applied
+                    ? ANSI_YELLOW + "Data reloaded: " + fileName + ANSI_RESET
+                    : ANSI_RED + "Ignored edit to " + fileName + " (no valid rows); keeping the previous data" + ANSI_RESET);
+        });
+        catalogReloader.start();
     }
 
-    private Hero selectHero(Scanner scanner) {
-        System.out.println("1. " + ANSI_RED + "Warrior" + ANSI_RESET + " (Favors Strength/Agility)");
-        System.out.println("2. " + ANSI_BLUE + "Sorcerer" + ANSI_RESET + " (Favors Dexterity/Agility)");
-        System.out.println("3. " + ANSI_GREEN + "Paladin" + ANSI_RESET + " (Favors Strength/Dexterity)");
+    private Hero selectHero(GameIO io) {
+        io.println("1. " + ANSI_RED + "Warrior" + ANSI_RESET + " (Favors Strength/Agility)");
+        io.println("2. " + ANSI_BLUE + "Sorcerer" + ANSI_RESET + " (Favors Dexterity/Agility)");
+        io.println("3. " + ANSI_GREEN + "Paladin" + ANSI_RESET + " (Favors Strength/Dexterity)");
 
-        int typeChoice = InputValidator.getValidInt(scanner, "Choose class: ", 1, 3);
+        int typeChoice = InputValidator.getValidInt(io, "Choose class: ", 1, 3);
         List<Hero> choiceList = (typeChoice == 1) ? availableWarriors :
                 (typeChoice == 2) ? availableSorcerers : availablePaladins;
 
-        System.out.println("\n" + ANSI_WHITE_BOLD + "Available Heroes:" + ANSI_RESET);
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+        io.println("\n" + ANSI_WHITE_BOLD + "Available Heroes:" + ANSI_RESET);
+        io.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
+        io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|" + ANSI_RESET + " %-4s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                 "ID", "NAME", "LVL", "HP", "MP", "STR", "DEX", "AGI");
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
+        io.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
 
         for (int i = 0; i < choiceList.size(); i++) {
             Hero h = choiceList.get(i);
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-4.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     (i + 1), h.getName(), h.getLevel(), h.getHp(), h.getMana(), h.getStrength(), h.getDexterity(), h.getAgility());
         }
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
-        System.out.println((choiceList.size() + 1) + ". Quit Game");
+        io.println(ANSI_CYAN + "+----+----------------------+-----+------+------+------+------+------+" + ANSI_RESET);
+        io.println((choiceList.size() + 1) + ". Quit Game");
 
-        int heroIndex = InputValidator.getValidInt(scanner, "Select hero ID: ", 1, choiceList.size() + 1) - 1;
+        int heroIndex = InputValidator.getValidInt(io, "Select hero ID: ", 1, choiceList.size() + 1) - 1;
 
         if (heroIndex == choiceList.size()) {
             return null;
         }
 
-        return choiceList.remove(heroIndex);
+        Hero picked = choiceList.remove(heroIndex);
+        // A shared catalog outlives this session, so its templates must stay untouched
+        return (sharedCatalog != null) ? picked.copy() : picked;
     }
 
     @Override
-    protected void processTurn(Scanner scanner) {
+    protected void processTurn(GameIO io) {
         if (quitGame) return;
-
-        if (!skipNextRender) {
-            board.printBoard();
-            printDashboard();
-            printControls();
+        GameEvents.ProcessTurn event = new GameEvents.ProcessTurn();
+        event.begin();
+
+        // Nothing of the frame is built when the output goes nowhere (replays)
+        boolean render = !io.isSilent() && !skipNextRender;
+        if (render) {
+            board.printBoard(io);
+            printDashboard(io);
+            printControls(io);
+            printCatalogNotices(io);
         }
+        printTurnMessages(io);
         skipNextRender = false;
 
-        String input = InputValidator.getValidOption(scanner, "Action: ", "w", "a", "s", "d", "m", "i", "q");
+        String input = InputValidator.getValidOption(io, "Action: ", "w", "a", "s", "d", "m", "t", "i", "q");
 
         switch (input) {
-            case "w": moveParty(scanner, -1, 0); break;
-            case "a": moveParty(scanner, 0, -1); break;
-            case "s": moveParty(scanner, 1, 0); break;
-            case "d": moveParty(scanner, 0, 1); break;
-            case "m": handleMarketInteraction(scanner); break;
+            case "w": moveParty(io, -1, 0); break;
+            case "a": moveParty(io, 0, -1); break;
+            case "s": moveParty(io, 1, 0); break;
+            case "d": moveParty(io, 0, 1); break;
+            case "m": handleMarketInteraction(io); break;
+            case "t": autoTravel(io); break;
             case "i":
-                showDetailedInfo();
+                showDetailedInfo(io);
+                board.invalidateFrame();
                 skipNextRender = true;
                 break;
             case "q": quitGame = true; break;
         }
+        autosave(io);
+
+        if (event.shouldCommit()) {
+            event.command = input;
+            event.rendered = render;
+            event.commit();
+        }
     }
 
-    private void printDashboard() {
-        System.out.println(ANSI_CYAN + "\n+------------------------------------------------------------+" + ANSI_RESET);
-        System.out.println(ANSI_CYAN + "|" + ANSI_RESET + ANSI_WHITE_BOLD + "                        PARTY STATUS                        " + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET);
-        System.out.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-9s " + ANSI_CYAN + "|\n" + ANSI_RESET, "NAME", "LVL", "HP", "MP", "GOLD");
-        System.out.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
+    private void printDashboard(GameIO io) {
+        io.println(ANSI_CYAN + "\n+------------------------------------------------------------+" + ANSI_RESET);
+        io.println(ANSI_CYAN + "|" + ANSI_RESET + ANSI_WHITE_BOLD + "                        PARTY STATUS                        " + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET);
+        io.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
+        io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-6s " + ANSI_CYAN + "|" + ANSI_RESET + " %-9s " + ANSI_CYAN + "|\n" + ANSI_RESET, "NAME", "LVL", "HP", "MP", "GOLD");
+        io.println(ANSI_CYAN + "+----------------------+-------+--------+--------+-----------+" + ANSI_RESET);
 
         for (Hero h : party.getHeroes()) {
             String hp = String.format("%.0f", h.getHp());
             String mp = String.format("%.0f", h.getMana());
 
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5d " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-9.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-5d " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-6.0f " + ANSI_CYAN + "|" + ANSI_RESET + " %-9.0f " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     h.getName(), h.getLevel(), h.getHp(), h.getMana(), h.getMoney());
         }
-        System.out.println(ANSI_CYAN + "+------------------------------------------------------------+" + ANSI_RESET);
+        io.println(ANSI_CYAN + "+------------------------------------------------------------+" + ANSI_RESET);
     }
 
-    private void printControls() {
-        System.out.println(" CONTROLS: [" + ANSI_YELLOW + "W" + ANSI_RESET + "]Up [" + ANSI_YELLOW + "A" + ANSI_RESET + "]Left [" + ANSI_YELLOW + "S" + ANSI_RESET + "]Down [" + ANSI_YELLOW + "D" + ANSI_RESET + "]Right  [" + ANSI_YELLOW + "M" + ANSI_RESET + "]Market [" + ANSI_YELLOW + "I" + ANSI_RESET + "]Info [" + ANSI_YELLOW + "Q" + ANSI_RESET + "]Quit");
-        System.out.println("--------------------------------------------------------------");
+    private void printCatalogNotices(GameIO io) {
+        String notice;
+        while ((notice = catalogNotices.poll()) != null) {
+            io.println(notice);
+        }
     }
 
-    private void moveParty(Scanner scanner, int dRow, int dCol) {
+    private void printTurnMessages(GameIO io) {
+        for (String message : turnMessages) {
+            io.println(message);
+        }
+        turnMessages.clear();
+    }
+
+    private void printControls(GameIO io) {
+        io.println(" CONTROLS: [" + ANSI_YELLOW + "W" + ANSI_RESET + "]Up [" + ANSI_YELLOW + "A" + ANSI_RESET + "]Left [" + ANSI_YELLOW + "S" + ANSI_RESET + "]Down [" + ANSI_YELLOW + "D" + ANSI_RESET + "]Right  [" + ANSI_YELLOW + "M" + ANSI_RESET + "]Market [" + ANSI_YELLOW + "T" + ANSI_RESET + "]Travel [" + ANSI_YELLOW + "I" + ANSI_RESET + "]Info [" + ANSI_YELLOW + "Q" + ANSI_RESET + "]Quit");
+        io.println("--------------------------------------------------------------");
+    }
+
+    /**
+     * Moves the party one tile.
+     * @return true if the party moved and was not ambushed.
+     */
+    private boolean moveParty(GameIO io, int dRow, int dCol) {
         int newRow = party.getRow() + dRow;
         int newCol = party.getCol() + dCol;
 
         if (!board.isValidCoordinate(newRow, newCol)) {
-            System.out.println(ANSI_RED + "You cannot move off the edge of the world!" + ANSI_RESET);
-            return;
+            turnMessages.add(ANSI_RED + "You cannot move off the edge of the world!" + ANSI_RESET);
+            return false;
         }
 
         Cell targetCell = board.getCell(newRow, newCol);
         if (!targetCell.isAccessible()) {
-            System.out.println(ANSI_RED + "That path is blocked (Inaccessible)." + ANSI_RESET);
-            return;
+            turnMessages.add(ANSI_RED + "That path is blocked (Inaccessible)." + ANSI_RESET);
+            return false;
         }
 
         party.setLocation(newRow, newCol);
 
         if (targetCell.isCommon()) {
-            checkForBattle(scanner);
+            return !checkForBattle(io);
         }
+        return true;
     }
 
-    private void checkForBattle(Scanner scanner) {
+    /**
+     * @return true if an ambush happened.
+     */
+    private boolean checkForBattle(GameIO io) {
         if (random.nextDouble() < 0.50) {
-            System.out.println(ANSI_RED + "\n*** AMBUSH! You have encountered monsters! ***" + ANSI_RESET);
-            battleController.startBattle(scanner, party);
+            printTurnMessages(io);
+            io.println(ANSI_RED + "\n*** AMBUSH! You have encountered monsters! ***" + ANSI_RESET);
+            if (!battleController.startBattle(io, party)) {
+                quitGame = true;
+                exitRequested = true;
+            }
+            board.invalidateFrame();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Walks the party along a planned route, one regular move per step.
+     * Ambushes still roll on every common tile; a battle ends the trip early.
+     */
+    private void autoTravel(GameIO io) {
+        io.println("1. Nearest market");
+        io.println("2. A specific tile");
+        io.println("3. Cancel");
+        int choice = InputValidator.getValidInt(io, "Travel to: ", 1, 3);
+        if (choice == 3) return;
+
+        Route route;
+        if (choice == 1) {
+            route = pathFinder.findRouteToNearestMarket(party.getRow(), party.getCol());
+        } else {
+            int maxRow = board.isBounded() ? board.getHeight() - 1 : MAX_TRAVEL_COORDINATE;
+            int maxCol = board.isBounded() ? board.getWidth() - 1 : MAX_TRAVEL_COORDINATE;
+            int minRow = board.isBounded() ? 0 : -MAX_TRAVEL_COORDINATE;
+            int minCol = board.isBounded() ? 0 : -MAX_TRAVEL_COORDINATE;
+            int row = InputValidator.getValidInt(io, "Target row (" + minRow + "-" + maxRow + "): ", minRow, maxRow);
+            int col = InputValidator.getValidInt(io, "Target column (" + minCol + "-" + maxCol + "): ", minCol, maxCol);
+            route = pathFinder.findRoute(party.getRow(), party.getCol(), row, col);
+        }
+
+        if (route == null) {
+            turnMessages.add(ANSI_RED + "No route found to that destination." + ANSI_RESET);
+            return;
+        }
+
+        int walked = 0;
+        for (int step = 0; step < route.length(); step++) {
+            int dRow = route.getRow(step) - party.getRow();
+            int dCol = route.getCol(step) - party.getCol();
+            boolean clear = moveParty(io, dRow, dCol);
+            walked++;
+            if (!clear || party.isPartyWipedOut()) break;
+        }
+        if (exitRequested) return;
+
+        if (walked == route.length()) {
+            turnMessages.add(ANSI_GREEN + "Arrived after " + walked + " steps." + ANSI_RESET);
+        } else {
+            turnMessages.add(ANSI_YELLOW + "Travel interrupted after " + walked + " of " + route.length() + " steps." + ANSI_RESET);
         }
     }
 
-    private void handleMarketInteraction(Scanner scanner) {
+    private void handleMarketInteraction(GameIO io) {
         Cell currentCell = board.getCell(party.getRow(), party.getCol());
         if (!currentCell.isMarket()) {
-            System.out.println(ANSI_YELLOW + "There is no market here." + ANSI_RESET);
+            turnMessages.add(ANSI_YELLOW + "There is no market here." + ANSI_RESET);
+            if (board instanceof LegendsBoard) {
+                int steps = ((LegendsBoard) board).getMarketDistance(party.getRow(), party.getCol());
+                if (steps > 0) {
+                    turnMessages.add(ANSI_YELLOW + "The nearest market is " + steps + " steps away." + ANSI_RESET);
+                }
+            }
             return;
         }
-        marketController.enterMarket(scanner, party);
+        marketController.enterMarket(io, party);
+        board.invalidateFrame();
     }
 
-    private void showDetailedInfo() {
-        System.out.println(ANSI_WHITE_BOLD + "\n=== DETAILED HERO INFORMATION ===" + ANSI_RESET);
+    private void showDetailedInfo(GameIO io) {
+        if (io.isSilent()) return;
+        io.println(ANSI_WHITE_BOLD + "\n=== DETAILED HERO INFORMATION ===" + ANSI_RESET);
 
         for (Hero h : party.getHeroes()) {
-            System.out.println("\n" + ANSI_PURPLE + "+ " + String.format("[%s] %s (Lvl %d)", h.getType(), h.getName(), h.getLevel()) + ANSI_RESET);
+            io.println("\n" + ANSI_PURPLE + "+ " + String.format("[%s] %s (Lvl %d)", h.getType(), h.getName(), h.getLevel()) + ANSI_RESET);
 
-            System.out.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " HP: " + ANSI_GREEN + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " MP: " + ANSI_BLUE + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " STR: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " DEX: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " AGI: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " GOLD: " + ANSI_YELLOW + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " XP: %-5d " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            io.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
+            io.printf(ANSI_CYAN + "|" + ANSI_RESET + " HP: " + ANSI_GREEN + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " MP: " + ANSI_BLUE + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " STR: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " DEX: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " AGI: %-4.0f" + ANSI_CYAN + "|" + ANSI_RESET + " GOLD: " + ANSI_YELLOW + "%-5.0f" + ANSI_RESET + ANSI_CYAN + "|" + ANSI_RESET + " XP: %-5d " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     h.getHp(), h.getMana(), h.getStrength(), h.getDexterity(), h.getAgility(), h.getMoney(), h.getExperience());
-            System.out.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
+            io.println(ANSI_CYAN + "+----------+----------+----------+----------+----------+------------+------------+" + ANSI_RESET);
 
-            System.out.println(ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_WHITE_BOLD + "INVENTORY" + ANSI_RESET + "                                                                    " + ANSI_CYAN + "|" + ANSI_RESET);
-            System.out.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
+            io.println(ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_WHITE_BOLD + "INVENTORY" + ANSI_RESET + "                                                                    " + ANSI_CYAN + "|" + ANSI_RESET);
+            io.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
 
             List<Item> items = h.getInventory().getItems();
             if (items.isEmpty()) {
-                System.out.println(ANSI_CYAN + "|" + ANSI_RESET + " (Empty)              " + ANSI_CYAN + "|" + ANSI_RESET + "        " + ANSI_CYAN + "|" + ANSI_RESET + "          " + ANSI_CYAN + "|" + ANSI_RESET + "                                      " + ANSI_CYAN + "|" + ANSI_RESET);
+                io.println(ANSI_CYAN + "|" + ANSI_RESET + " (Empty)              " + ANSI_CYAN + "|" + ANSI_RESET + "        " + ANSI_CYAN + "|" + ANSI_RESET + "          " + ANSI_CYAN + "|" + ANSI_RESET + "                                      " + ANSI_CYAN + "|" + ANSI_RESET);
             } else {
                 for (Item item : items) {
                     String stats = extractItemStats(item);
                     if (stats.length() > 40) stats = stats.substring(0, 37) + "...";
 
-                    System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " Lv%-4d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-36s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+                    io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " Lv%-4d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-36s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                             item.getName(), item.getMinLevel(), item.getPrice(), stats);
                 }
             }
-            System.out.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
+            io.println(ANSI_CYAN + "+----------------------+--------+----------+--------------------------------------+" + ANSI_RESET);
         }
-        System.out.println("Press Enter to continue...");
+        io.println("Press Enter to continue...");
     }
 
     private String extractItemStats(Item item) {
@@ -272,30 +553,39 @@ public class LegendsGame extends Game {
     }
 
     @Override
-    protected void endGame() {
-        System.out.println(ANSI_RED + "\nGame Over. Thanks for playing Legends: Monsters and Heroes!" + ANSI_RESET);
+    protected void endGame(GameIO io) {
+        if (exitRequested) {
+            // "Quit Game" in a battle has always closed the game at once, without the replay prompt
+            stopCatalogReloader();
+            return;
+        }
+        printTurnMessages(io);
+        io.println(ANSI_RED + "\nGame Over. Thanks for playing Legends: Monsters and Heroes!" + ANSI_RESET);
         if (party != null) {
-            System.out.println(ANSI_WHITE_BOLD + "Final Status:" + ANSI_RESET);
-            printDashboard();
+            io.println(ANSI_WHITE_BOLD + "Final Status:" + ANSI_RESET);
+            printDashboard(io);
         }
 
-        // --- NEW: Restart Logic ---
-        Scanner scanner = new Scanner(System.in); // Use a fresh scanner or pass it down if possible
-        // Note: System.in should not be closed if we want to read again, but here we are at end of app lifecycle usually.
-
-        String input = InputValidator.getValidOption(scanner, "\n" + ANSI_YELLOW + "Do you want to play again? (y/n): " + ANSI_RESET, "y", "n");
+        String input = InputValidator.getValidOption(io, "\n" + ANSI_YELLOW + "Do you want to play again? (y/n): " + ANSI_RESET, "y", "n");
 
         if (input.equals("y")) {
             // Restart the game
-            System.out.println(ANSI_GREEN + "Starting a new game..." + ANSI_RESET);
+            io.println(ANSI_GREEN + "Starting a new game..." + ANSI_RESET);
 
             quitGame = false;
             skipNextRender = false;
 
-            play(scanner);
+            play(io);
         } else {
-            System.out.println(ANSI_CYAN + "Goodbye!" + ANSI_RESET);
-            System.exit(0);
+            io.println(ANSI_CYAN + "Goodbye!" + ANSI_RESET);
+            stopCatalogReloader();
+        }
+    }
+
+    private void stopCatalogReloader() {
+        if (catalogReloader != null) {
+            catalogReloader.close();
+            catalogReloader = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package game;
 
+import common.GameEvents;
+import common.GameIO;
 import common.InputValidator;
 import common.RandomGenerator;
 import entities.Hero;
@@ -9,9 +11,8 @@ import items.Spell.SpellType;
 import utils.GameDataLoader;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -20,7 +21,13 @@ import java.util.stream.Collectors;
  */
 public class MarketController {
 
-    private final List<Item> globalItemCatalog;
+    // Read once per visit; a CatalogReloader may swap the list between visits
+    private final Supplier<List<Item>> globalItemCatalog;
+    // Index over the catalog last seen; rebuilt only when the supplier hands out a different list
+    private List<Item> indexedCatalog;
+    private MarketStockSampler stockSampler;
+
+    private static final int MARKET_STOCK_SIZE = 10;
 
     // ANSI Colors
     private static final String ANSI_RESET = "\u001B[0m";
@@ -31,183 +38,212 @@ public class MarketController {
     private static final String ANSI_WHITE_BOLD = "\033[1;37m";
 
     public MarketController() {
-        this.globalItemCatalog = new ArrayList<>();
-        initializeCatalog();
+        this(initializeCatalog());
     }
 
     /**
-     * Loads all possible items into a master catalog.
-     * In a larger app, this might be injected rather than loaded here.
+     * Creates a market over an already loaded catalog (see GameDataLoader.loadAll).
      */
-    private void initializeCatalog() {
-        globalItemCatalog.addAll(GameDataLoader.loadWeapons("Weaponry.txt"));
-        globalItemCatalog.addAll(GameDataLoader.loadArmor("Armory.txt"));
-        globalItemCatalog.addAll(GameDataLoader.loadPotions("Potions.txt"));
-        globalItemCatalog.addAll(GameDataLoader.loadSpells("FireSpells.txt", SpellType.FIRE));
-        globalItemCatalog.addAll(GameDataLoader.loadSpells("IceSpells.txt", SpellType.ICE));
-        globalItemCatalog.addAll(GameDataLoader.loadSpells("LightningSpells.txt", SpellType.LIGHTNING));
-
-        if (globalItemCatalog.isEmpty()) {
+    public MarketController(List<Item> catalog) {
+        this(() -> catalog);
+        if (catalog.isEmpty()) {
             System.err.println("Warning: Market initialized with no items. Check data files.");
         }
     }
 
+    /**
+     * Creates a market whose catalog may change while the game runs (see CatalogReloader).
+     * The supplier is read once per visit, so stock rolled for a visit never changes under it.
+     */
+    public MarketController(Supplier<List<Item>> catalog) {
+        this.globalItemCatalog = catalog;
+    }
+
+    /**
+     * Loads all possible items into a master catalog.
+     */
+    private static List<Item> initializeCatalog() {
+        List<Item> catalog = new ArrayList<>();
+        catalog.addAll(GameDataLoader.loadWeapons("Weaponry.txt"));
+        catalog.addAll(GameDataLoader.loadArmor("Armory.txt"));
+        catalog.addAll(GameDataLoader.loadPotions("Potions.txt"));
+        catalog.addAll(GameDataLoader.loadSpells("FireSpells.txt", SpellType.FIRE));
+        catalog.addAll(GameDataLoader.loadSpells("IceSpells.txt", SpellType.ICE));
+        catalog.addAll(GameDataLoader.loadSpells("LightningSpells.txt", SpellType.LIGHTNING));
+        return catalog;
+    }
+
     /**
      * Starts the market interaction loop.
      * Generates a random subset of items for this specific market visit.
      */
-    public void enterMarket(Scanner scanner, Party party) {
-        // Generate a unique inventory for this market session (e.g., 5-10 random items)
-        List<Item> marketInventory = generateMarketInventory();
+    public void enterMarket(GameIO io, Party party) {
+        GameEvents.MarketVisit visit = new GameEvents.MarketVisit();
+        visit.begin();
+
+        // Generate a unique inventory for this market session, leaning toward what the party can use
+        int partyLevel = party.getHeroes().stream().mapToInt(Hero::getLevel).max().orElse(1);
+        GameEvents.MarketStock stock = new GameEvents.MarketStock();
+        stock.begin();
+        List<Item> marketInventory = generateMarketInventory(partyLevel);
+        if (stock.shouldCommit()) {
+            stock.partyLevel = partyLevel;
+            stock.items = marketInventory.size();
+            stock.commit();
+        }
 
         boolean inMarket = true;
         while (inMarket) {
-            System.out.println("\n" + ANSI_YELLOW + "--- Market Menu ---" + ANSI_RESET);
-            System.out.println("1. Buy Items");
-            System.out.println("2. Sell Items");
-            System.out.println("3. Exit Market");
+            io.println("\n" + ANSI_YELLOW + "--- Market Menu ---" + ANSI_RESET);
+            io.println("1. Buy Items");
+            io.println("2. Sell Items");
+            io.println("3. Exit Market");
 
-            int choice = InputValidator.getValidInt(scanner, "Choose action: ", 1, 3);
+            int choice = InputValidator.getValidInt(io, "Choose action: ", 1, 3);
 
             switch (choice) {
-                case 1: buyLoop(scanner, party, marketInventory); break;
-                case 2: sellLoop(scanner, party); break;
+                case 1: buyLoop(io, party, marketInventory); break;
+                case 2: sellLoop(io, party); break;
                 case 3: inMarket = false; break;
             }
         }
-        System.out.println(ANSI_GREEN + "You leave the market." + ANSI_RESET);
-    }
-
-    private List<Item> generateMarketInventory() {
-        List<Item> inventory = new ArrayList<>();
-        if (globalItemCatalog.isEmpty()) return inventory;
-
-        // Create a shuffled copy of the catalog to pick unique random items
-        List<Item> shuffledCatalog = new ArrayList<>(globalItemCatalog);
-        Collections.shuffle(shuffledCatalog);
+        io.println(ANSI_GREEN + "You leave the market." + ANSI_RESET);
 
-        // Select the first N items (e.g., 10)
-        int stockSize = Math.min(10, shuffledCatalog.size());
-        for (int i = 0; i < stockSize; i++) {
-            inventory.add(shuffledCatalog.get(i));
+        if (visit.shouldCommit()) {
+            visit.partyLevel = partyLevel;
+            visit.stockSize = marketInventory.size();
+            visit.commit();
         }
+    }
 
-        return inventory;
+    /**
+     * Rolls a visit's stock: up to ten distinct catalog items, mostly ones a hero of
+     * {@code partyLevel} can buy, with a few higher-level items mixed in.
+     */
+    List<Item> generateMarketInventory(int partyLevel) {
+        List<Item> catalog = globalItemCatalog.get();
+        if (catalog != indexedCatalog) {
+            stockSampler = new MarketStockSampler(catalog);
+            indexedCatalog = catalog;
+        }
+        return stockSampler.sample(partyLevel, MARKET_STOCK_SIZE, RandomGenerator.getInstance());
     }
 
     // BUYING LOGIC
-    private void buyLoop(Scanner scanner, Party party, List<Item> marketInventory) {
-        Hero shopper = selectHero(scanner, party, "Who is buying?");
+    private void buyLoop(GameIO io, Party party, List<Item> marketInventory) {
+        Hero shopper = selectHero(io, party, "Who is buying?");
         if (shopper == null) return;
 
         while (true) {
-            System.out.println("\n" + ANSI_WHITE_BOLD + "--- Items for Sale (Shopper: " + shopper.getName() + " | Gold: " + shopper.getMoney() + ") ---" + ANSI_RESET);
-            printItemTable(marketInventory);
-            System.out.println((marketInventory.size() + 1) + ". Back");
+            io.println("\n" + ANSI_WHITE_BOLD + "--- Items for Sale (Shopper: " + shopper.getName() + " | Gold: " + shopper.getMoney() + ") ---" + ANSI_RESET);
+            printItemTable(io, marketInventory);
+            io.println((marketInventory.size() + 1) + ". Back");
 
-            int choice = InputValidator.getValidInt(scanner, "Select item to buy: ", 1, marketInventory.size() + 1);
+            int choice = InputValidator.getValidInt(io, "Select item to buy: ", 1, marketInventory.size() + 1);
             if (choice == marketInventory.size() + 1) break;
 
             Item item = marketInventory.get(choice - 1);
-            processPurchase(shopper, item);
+            processPurchase(io, shopper, item);
         }
     }
 
-    private void processPurchase(Hero hero, Item item) {
+    private void processPurchase(GameIO io, Hero hero, Item item) {
         // Rule: Hero cannot buy item if level is too low
         if (hero.getLevel() < item.getMinLevel()) {
-            System.out.println(ANSI_RED + "Cannot buy! Required Level: " + item.getMinLevel() + ANSI_RESET);
+            io.println(ANSI_RED + "Cannot buy! Required Level: " + item.getMinLevel() + ANSI_RESET);
             return;
         }
 
         // Rule: Hero cannot buy if insufficient gold
         if (hero.getMoney() < item.getPrice()) {
-            System.out.println(ANSI_RED + "Insufficient Gold! Cost: " + item.getPrice() + ANSI_RESET);
+            io.println(ANSI_RED + "Insufficient Gold! Cost: " + item.getPrice() + ANSI_RESET);
             return;
         }
 
         // Transaction
         hero.deductMoney(item.getPrice());
         hero.getInventory().addItem(item);
-        System.out.println(ANSI_GREEN + "Purchase successful! " + item.getName() + " added to inventory." + ANSI_RESET);
+        io.println(ANSI_GREEN + "Purchase successful! " + item.getName() + " added to inventory." + ANSI_RESET);
     }
 
     // SELLING LOGIC
-    private void sellLoop(Scanner scanner, Party party) {
-        Hero seller = selectHero(scanner, party, "Who is selling?");
+    private void sellLoop(GameIO io, Party party) {
+        Hero seller = selectHero(io, party, "Who is selling?");
         if (seller == null) return;
 
         while (true) {
             List<Item> sellableItems = seller.getInventory().getItems();
             if (sellableItems.isEmpty()) {
-                System.out.println(ANSI_YELLOW + seller.getName() + " has nothing to sell." + ANSI_RESET);
+                io.println(ANSI_YELLOW + seller.getName() + " has nothing to sell." + ANSI_RESET);
                 break;
             }
 
-            System.out.println("\n" + ANSI_WHITE_BOLD + "--- Your Inventory (Seller: " + seller.getName() + ") ---" + ANSI_RESET);
+            io.println("\n" + ANSI_WHITE_BOLD + "--- Your Inventory (Seller: " + seller.getName() + ") ---" + ANSI_RESET);
             // Show items with their resale value (50% of price)
-            printSellableItemTable(sellableItems);
-            System.out.println((sellableItems.size() + 1) + ". Back");
+            printSellableItemTable(io, sellableItems);
+            io.println((sellableItems.size() + 1) + ". Back");
 
-            int choice = InputValidator.getValidInt(scanner, "Select item to sell: ", 1, sellableItems.size() + 1);
+            int choice = InputValidator.getValidInt(io, "Select item to sell: ", 1, sellableItems.size() + 1);
             if (choice == sellableItems.size() + 1) break;
 
             Item itemToSell = sellableItems.get(choice - 1);
-            processSale(seller, itemToSell);
+            processSale(io, seller, itemToSell);
         }
     }
 
-    private void processSale(Hero hero, Item item) {
+    private void processSale(GameIO io, Hero hero, Item item) {
         double resaleValue = item.getPrice() * 0.5;
 
         hero.getInventory().removeItem(item);
         hero.addMoney(resaleValue);
 
-        System.out.println(ANSI_GREEN + "Sold " + item.getName() + " for " + resaleValue + " gold." + ANSI_RESET);
+        io.println(ANSI_GREEN + "Sold " + item.getName() + " for " + resaleValue + " gold." + ANSI_RESET);
     }
 
     // HELPERS
-    private Hero selectHero(Scanner scanner, Party party, String prompt) {
-        System.out.println(ANSI_CYAN + prompt + ANSI_RESET);
+    private Hero selectHero(GameIO io, Party party, String prompt) {
+        io.println(ANSI_CYAN + prompt + ANSI_RESET);
         for (int i = 0; i < party.getSize(); i++) {
-            System.out.println((i + 1) + ". " + party.getHero(i).getName());
+            io.println((i + 1) + ". " + party.getHero(i).getName());
         }
-        System.out.println((party.getSize() + 1) + ". Cancel");
+        io.println((party.getSize() + 1) + ". Cancel");
 
-        int choice = InputValidator.getValidInt(scanner, "Select Hero: ", 1, party.getSize() + 1);
+        int choice = InputValidator.getValidInt(io, "Select Hero: ", 1, party.getSize() + 1);
         if (choice == party.getSize() + 1) return null;
 
         return party.getHero(choice - 1);
     }
 
     // PRETTY TABLE PRINTING
-    private void printItemTable(List<Item> items) {
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "COST", "TYPE / STATS");
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+    private void printItemTable(GameIO io, List<Item> items) {
+        if (io.isSilent()) return;  // Skip building the stats column too
+        io.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "COST", "TYPE / STATS");
+        io.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
 
         for (int i = 0; i < items.size(); i++) {
             Item item = items.get(i);
             String stats = extractStats(item); // Helper to get simplified stats
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     (i + 1), item.getName(), item.getMinLevel(), item.getPrice(), stats);
         }
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        io.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
     }
 
-    private void printSellableItemTable(List<Item> items) {
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
-        System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "SELL", "TYPE / STATS");
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+    private void printSellableItemTable(GameIO io, List<Item> items) {
+        if (io.isSilent()) return;
+        io.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2s " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3s " + ANSI_CYAN + "|" + ANSI_RESET + " %-8s " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET, "ID", "NAME", "LVL", "SELL", "TYPE / STATS");
+        io.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
 
         for (int i = 0; i < items.size(); i++) {
             Item item = items.get(i);
             String stats = extractStats(item);
             double sellPrice = item.getPrice() * 0.5;
-            System.out.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
+            io.printf(ANSI_CYAN + "|" + ANSI_RESET + " %-2d " + ANSI_CYAN + "|" + ANSI_RESET + " %-20s " + ANSI_CYAN + "|" + ANSI_RESET + " %-3d " + ANSI_CYAN + "|" + ANSI_RESET + " " + ANSI_YELLOW + "%-8.0f" + ANSI_RESET + " " + ANSI_CYAN + "|" + ANSI_RESET + " %-30s " + ANSI_CYAN + "|\n" + ANSI_RESET,
                     (i + 1), item.getName(), item.getMinLevel(), sellPrice, stats);
         }
-        System.out.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
+        io.println(ANSI_CYAN + "+----+----------------------+-----+----------+--------------------------------+" + ANSI_RESET);
     }
 
     // Helper to format item details concisely for the table
@@ -0,0 +1,155 @@
+package game;
+
+import common.RandomGenerator;
+import items.Armor;
+import items.Item;
+import items.Potion;
+import items.Weapon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Index over a market catalog that draws a visit's stock in O(k) for k items, however large
+ * the catalog is.
+ *
+ * <p>Items are bucketed by type (weapon, armor, potion, spell) and each bucket is sorted by
+ * minimum level, so the items a party of a given level can use form a prefix of every bucket,
+ * found by binary search. Stock is drawn without replacement by a partial Fisher-Yates shuffle
+ * over the virtual concatenation of those prefixes (or of the remaining suffixes); only the
+ * positions actually swapped are remembered, so nothing proportional to the catalog is copied
+ * or allocated per visit.</p>
+ *
+ * <p>About {@link #USABLE_SHARE} of the slots are filled with items the party can already
+ * equip and the rest with higher-level items to save up for; if either side runs out, the
+ * other fills the gap.</p>
+ */
+final class MarketStockSampler {
+
+    /** Expected share of stock drawn from items at or below the party's level. */
+    static final double USABLE_SHARE = 0.8;
+
+    private static final int TYPES = 4;   // Weapon, armor, potion, spell
+
+    private final Item[][] buckets;       // Per type, sorted by minimum level
+    private final int[][] minLevels;      // Parallel to buckets, for binary search
+    private final int size;
+
+    MarketStockSampler(List<Item> catalog) {
+        List<List<Item>> byType = new ArrayList<>(TYPES);
+        for (int t = 0; t < TYPES; t++) byType.add(new ArrayList<>());
+        for (Item item : catalog) byType.get(typeIndex(item)).add(item);
+
+        this.buckets = new Item[TYPES][];
+        this.minLevels = new int[TYPES][];
+        for (int t = 0; t < TYPES; t++) {
+            Item[] bucket = byType.get(t).toArray(new Item[0]);
+            // Stable, so equal-level items keep catalog order
+            Arrays.sort(bucket, Comparator.comparingInt(Item::getMinLevel));
+            buckets[t] = bucket;
+            minLevels[t] = new int[bucket.length];
+            for (int i = 0; i < bucket.length; i++) minLevels[t][i] = bucket[i].getMinLevel();
+        }
+        this.size = catalog.size();
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Draws up to {@code count} distinct catalog entries, weighted toward usable items.
+     *
+     * @param partyLevel Highest level in the visiting party; items up to it count as usable.
+     */
+    List<Item> sample(int partyLevel, int count, RandomGenerator rng) {
+        int[] usableEnd = new int[TYPES];
+        int usable = 0;
+        for (int t = 0; t < TYPES; t++) {
+            usableEnd[t] = upperBound(minLevels[t], partyLevel);
+            usable += usableEnd[t];
+        }
+        int aboveLevel = size - usable;
+        int total = Math.min(count, size);
+
+        int fromUsable = 0;
+        for (int i = 0; i < total; i++) {
+            if (rng.nextDouble() < USABLE_SHARE) fromUsable++;
+        }
+        fromUsable = Math.max(total - aboveLevel, Math.min(fromUsable, usable));
+
+        List<Item> stock = new ArrayList<>(total);
+        draw(stock, fromUsable, usable, usableEnd, true, rng);
+        draw(stock, total - fromUsable, aboveLevel, usableEnd, false, rng);
+        return stock;
+    }
+
+    /**
+     * Partial Fisher-Yates over the virtual range [0, n) of either the usable prefixes or the
+     * above-level suffixes. Swapped slots are kept in two small parallel arrays (at most k
+     * entries, searched linearly), so the cost is O(k^2) with k the stock size, not O(n).
+     */
+    private void draw(List<Item> out, int k, int n, int[] usableEnd, boolean usable, RandomGenerator rng) {
+        int[] swappedAt = new int[k];
+        int[] swappedValue = new int[k];
+        int swaps = 0;
+        for (int i = 0; i < k; i++) {
+            int j = i + rng.nextInt(n - i);
+            int picked = lookup(swappedAt, swappedValue, swaps, j);
+            // Slot j now holds what slot i held; slot i is never read again
+            int displaced = lookup(swappedAt, swappedValue, swaps, i);
+            int at = indexOf(swappedAt, swaps, j);
+            if (at >= 0) {
+                swappedValue[at] = displaced;
+            } else {
+                swappedAt[swaps] = j;
+                swappedValue[swaps++] = displaced;
+            }
+            out.add(item(picked, usableEnd, usable));
+        }
+    }
+
+    /** Maps a position in the virtual range back to its bucket entry. */
+    private Item item(int position, int[] usableEnd, boolean usable) {
+        for (int t = 0; t < TYPES; t++) {
+            int start = usable ? 0 : usableEnd[t];
+            int length = usable ? usableEnd[t] : buckets[t].length - usableEnd[t];
+            if (position < length) return buckets[t][start + position];
+            position -= length;
+        }
+        throw new IllegalStateException("Position outside the sampled range");
+    }
+
+    private static int lookup(int[] keys, int[] values, int count, int key) {
+        int at = indexOf(keys, count, key);
+        return at >= 0 ? values[at] : key;
+    }
+
+    private static int indexOf(int[] keys, int count, int key) {
+        for (int i = 0; i < count; i++) {
+            if (keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    /** @return The number of entries in the sorted array that are {@code <= level}. */
+    private static int upperBound(int[] sorted, int level) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= level) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static int typeIndex(Item item) {
+        if (item instanceof Weapon) return 0;
+        if (item instanceof Armor) return 1;
+        if (item instanceof Potion) return 2;
+        return 3;
+    }
+}
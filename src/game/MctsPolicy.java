@@ -0,0 +1,445 @@
+package game;
+
+import common.GameEvents;
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Monster;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Spell;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Autopilot that picks each hero's move by Monte Carlo Tree Search over the combat rules.
+ *
+ * <p>Each decision snapshots the battle into a {@link BattleState} and searches it on several
+ * workers at once (root parallelization): every worker grows its own tree from the snapshot with
+ * UCB1 selection, plays each new line out with {@link AutoBattlePolicy}'s rules, and scores the
+ * end state by outcome and HP left. The trees are open loop (a node is a sequence of hero moves;
+ * dodges and monster targets are redrawn on every pass), so no chance nodes are needed. Their root
+ * visit counts are summed and the most visited move is played. Equipment is settled first with
+ * AutoBattlePolicy's rule, since equipping does not use up the turn.</p>
+ *
+ * <p>A decision stops at its time budget or once every worker has done its rollout limit,
+ * whichever comes first. The workers' random streams are seeded from the policy's seed and a
+ * fingerprint of the position being decided ({@link BattleState#fingerprint()}), never from the
+ * thread that asks, so with a rollout limit and no time budget the move depends only on the seed
+ * and the battle: seeded sessions and simulations replay exactly, however many threads share the
+ * policy.</p>
+ *
+ * <p>All trees grow on a shared pool of daemon threads, one per core; the calling thread only
+ * waits for them. Each pool thread keeps its tree, states and random stream and reuses them, so a
+ * rollout allocates nothing and the trees' memory stays bounded by the core count, not by the
+ * number of threads that ever asked (e.g. server sessions).</p>
+ *
+ * <p>Thread-safe: the move being played is kept per calling thread, so one policy can serve
+ * concurrent battles, as in {@link simulation.BalanceSimulator}.</p>
+ */
+public class MctsPolicy implements ActionPolicy, EncounterPolicy {
+
+    public static final int DEFAULT_BUDGET_MILLIS = 5;
+
+    private static final double EXPLORATION = 0.7;      // UCB1 constant, for rewards in [0, 1]
+    private static final int TREE_DEPTH = 8;            // Decisions a pass descends before its rollout
+    private static final int ROLLOUT_ROUNDS = 50;       // Cut-off for battles that would not end
+    private static final int MAX_NODES = 1 << 15;
+
+    private static final ThreadLocal<SearchTree> TREES = ThreadLocal.withInitial(SearchTree::new);
+
+    private final ExecutorService pool;
+    private final int workers;
+    private final long budgetNanos;
+    private final int rolloutLimit;
+    private final long seed;
+    private final ThreadLocal<Planner> planners = ThreadLocal.withInitial(Planner::new);
+    private final AutoBattlePolicy gear = new AutoBattlePolicy();
+
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder rollouts = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+
+    /**
+     * Searches for {@value #DEFAULT_BUDGET_MILLIS} ms per decision on one worker per core.
+     */
+    public MctsPolicy(long seed) {
+        this(DEFAULT_BUDGET_MILLIS, 0, defaultWorkers(), seed);
+    }
+
+    /**
+     * @param budgetMillis Wall time per decision, or 0 for no time limit.
+     * @param rolloutLimit Rollouts per worker and decision, or 0 for no limit.
+     * @param workers      Trees searched in parallel per decision, on a shared daemon pool.
+     * @param seed         Seeds, together with the position, every worker's random stream.
+     * @throws IllegalArgumentException if there is neither a time budget nor a rollout limit.
+     */
+    public MctsPolicy(int budgetMillis, int rolloutLimit, int workers, long seed) {
+        if (budgetMillis < 0 || rolloutLimit < 0 || (budgetMillis == 0 && rolloutLimit == 0)) {
+            throw new IllegalArgumentException("Need a time budget or a rollout limit, got "
+                    + budgetMillis + " ms and " + rolloutLimit + " rollouts.");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1, got " + workers);
+        }
+        this.pool = WorkerPool.INSTANCE;
+        this.workers = workers;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.rolloutLimit = rolloutLimit;
+        this.seed = seed;
+    }
+
+    public static int defaultWorkers() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    // OBJECT ENGINE
+
+    @Override
+    public Action chooseAction(Hero hero, Party party, List<Monster> enemies) {
+        if (gear.chooseEquipment(hero) != null) return Action.EQUIP;
+        Planner p = planners.get();
+        p.root.load(party, enemies, party.getHeroes().indexOf(hero));
+        return p.plan(search(p), enemies);
+    }
+
+    @Override
+    public Monster chooseTarget(Hero hero, List<Monster> aliveEnemies) {
+        Monster target = planners.get().targetMonster;
+        return aliveEnemies.contains(target) ? target : gear.chooseTarget(hero, aliveEnemies);
+    }
+
+    @Override
+    public Spell chooseSpell(Hero hero, List<Spell> spells) {
+        return planners.get().spell;
+    }
+
+    @Override
+    public Potion choosePotion(Hero hero, List<Potion> potions) {
+        return planners.get().potion;
+    }
+
+    @Override
+    public Item chooseEquipment(Hero hero) {
+        return gear.chooseEquipment(hero);
+    }
+
+    // ENCOUNTER ENGINE
+
+    @Override
+    public Action chooseAction(Encounter encounter, int hero) {
+        if (gear.chooseEquipment(encounter, hero) != null) return Action.EQUIP;
+        Planner p = planners.get();
+        p.root.load(encounter, hero);
+        return p.plan(search(p), null);
+    }
+
+    @Override
+    public int chooseTarget(Encounter encounter, int hero) {
+        int target = planners.get().target;
+        return (target >= 0 && !encounter.isMonsterFainted(target)) ? target : gear.chooseTarget(encounter, hero);
+    }
+
+    @Override
+    public Spell chooseSpell(Encounter encounter, int hero, List<Spell> spells) {
+        return planners.get().spell;
+    }
+
+    @Override
+    public Potion choosePotion(Encounter encounter, int hero, List<Potion> potions) {
+        return planners.get().potion;
+    }
+
+    @Override
+    public Item chooseEquipment(Encounter encounter, int hero) {
+        return gear.chooseEquipment(encounter, hero);
+    }
+
+    // STATISTICS
+
+    public long getDecisions() { return decisions.sum(); }
+    public long getRollouts() { return rollouts.sum(); }
+
+    /** @return Wall time spent searching, summed over decisions (not over workers). */
+    public long getSearchNanos() { return searchNanos.sum(); }
+
+    // SEARCH
+
+    private int search(Planner p) {
+        GameEvents.AutopilotDecision event = new GameEvents.AutopilotDecision();
+        event.begin();
+        long start = System.nanoTime();
+        long deadline = (budgetNanos > 0) ? start + budgetNanos : Long.MAX_VALUE;
+        BattleState root = p.root;
+
+        p.rng.setSeed(seed ^ root.fingerprint());
+        List<Future<RootStats>> pending = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long treeSeed = p.rng.nextLong();
+            pending.add(pool.submit(() -> TREES.get().search(root, treeSeed, deadline, rolloutLimit)));
+        }
+        RootStats total = new RootStats(BattleState.maxMoves());
+        for (Future<RootStats> f : pending) {
+            total.merge(await(f));
+        }
+        int best = total.bestMove();
+
+        decisions.increment();
+        rollouts.add(total.rollouts);
+        searchNanos.add(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.move = describe(root, best);
+            event.rollouts = total.rollouts;
+            event.workers = workers;
+            event.commit();
+        }
+        return best;
+    }
+
+    /**
+     * Waits for one tree's result. An interrupt does not abandon the decision, whose trees are
+     * about to finish anyway; it is passed on once the result is in.
+     */
+    private static RootStats await(Future<RootStats> f) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return f.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Autopilot search failed.", e.getCause());
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String describe(BattleState s, int move) {
+        int h = s.actor;
+        switch (BattleState.kindOf(move)) {
+            case BattleState.CAST_SPELL:
+                return "CAST " + s.loadout.spells[h][BattleState.itemOf(move)].getName() + " @" + BattleState.targetOf(move);
+            case BattleState.USE_POTION:
+                return "DRINK " + s.loadout.potions[h][BattleState.itemOf(move)].getName();
+            default:
+                return "ATTACK @" + BattleState.targetOf(move);
+        }
+    }
+
+    /**
+     * The calling thread's snapshot, the stream that seeds its decision's trees, and the move it
+     * is playing, which the follow-up questions (target, spell, potion) are answered from.
+     */
+    private static final class Planner {
+        final RandomGenerator rng = RandomGenerator.newSeeded(0);
+        final BattleState root = new BattleState();
+        int target = -1;
+        Monster targetMonster;
+        Spell spell;
+        Potion potion;
+
+        Action plan(int move, List<Monster> enemies) {
+            int h = root.actor;
+            target = BattleState.targetOf(move);
+            targetMonster = (enemies != null) ? enemies.get(target) : null;
+            spell = null;
+            potion = null;
+            switch (BattleState.kindOf(move)) {
+                case BattleState.CAST_SPELL:
+                    spell = root.loadout.spells[h][BattleState.itemOf(move)];
+                    return Action.CAST_SPELL;
+                case BattleState.USE_POTION:
+                    potion = root.loadout.potions[h][BattleState.itemOf(move)];
+                    target = -1;
+                    targetMonster = null;
+                    return Action.USE_POTION;
+                default:
+                    return Action.ATTACK;
+            }
+        }
+    }
+
+    /**
+     * Visit counts and total reward per root move, from one or more trees.
+     */
+    private static final class RootStats {
+        final int[] moves;
+        final int[] visits;
+        final double[] rewards;
+        int count;
+        long rollouts;
+
+        RootStats(int capacity) {
+            moves = new int[capacity];
+            visits = new int[capacity];
+            rewards = new double[capacity];
+        }
+
+        void add(int move, int moveVisits, double moveReward) {
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == move) {
+                    visits[i] += moveVisits;
+                    rewards[i] += moveReward;
+                    return;
+                }
+            }
+            moves[count] = move;
+            visits[count] = moveVisits;
+            rewards[count] = moveReward;
+            count++;
+        }
+
+        void merge(RootStats other) {
+            for (int i = 0; i < other.count; i++) add(other.moves[i], other.visits[i], other.rewards[i]);
+            rollouts += other.rollouts;
+        }
+
+        /**
+         * @return The most visited move; ties go to the higher mean reward, then the earlier move.
+         */
+        int bestMove() {
+            int best = 0;
+            for (int i = 1; i < count; i++) {
+                if (visits[i] > visits[best]
+                        || (visits[i] == visits[best] && rewards[i] > rewards[best])) {
+                    best = i;
+                }
+            }
+            return moves[best];
+        }
+    }
+
+    /**
+     * One pool thread's tree, in parallel arrays indexed by node (0 is the root) and reused from
+     * one decision to the next, with the thread's scratch state and random stream.
+     */
+    private static final class SearchTree {
+        private final int[] move = new int[MAX_NODES];
+        private final int[] firstChild = new int[MAX_NODES];
+        private final int[] nextSibling = new int[MAX_NODES];
+        private final int[] visits = new int[MAX_NODES];
+        private final double[] reward = new double[MAX_NODES];
+        private int size;
+
+        private final BattleState state = new BattleState();
+        private final RandomGenerator rng = RandomGenerator.newSeeded(0);
+        private final int[] moves = new int[BattleState.maxMoves()];
+        private final int[] path = new int[TREE_DEPTH + 1];
+
+        RootStats search(BattleState root, long seed, long deadline, int limit) {
+            rng.setSeed(seed);
+            size = 0;
+            newNode(0);
+            long done = 0;
+            do {
+                iterate(root);
+                done++;
+            } while ((limit == 0 || done < limit) && System.nanoTime() < deadline);
+
+            RootStats stats = new RootStats(BattleState.maxMoves());
+            for (int c = firstChild[0]; c >= 0; c = nextSibling[c]) {
+                stats.add(move[c], visits[c], reward[c]);
+            }
+            stats.rollouts = done;
+            return stats;
+        }
+
+        /**
+         * One pass: descend by UCB1 over the moves legal in this pass's state, add the first
+         * untried move as a new node, play out, and back the reward up the path.
+         */
+        private void iterate(BattleState root) {
+            BattleState s = state;
+            s.copyFrom(root);
+            int node = 0;
+            int depth = 0;
+            path[0] = 0;
+            while (s.outcome == BattleState.ONGOING && depth < TREE_DEPTH) {
+                int n = s.legalMoves(moves);
+                double logVisits = Math.log(Math.max(1, visits[node]));
+                int selected = -1;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                int untried = -1;
+                for (int i = 0; i < n; i++) {
+                    int child = findChild(node, moves[i]);
+                    if (child < 0) {
+                        untried = moves[i];
+                        break;
+                    }
+                    double score = reward[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        selected = child;
+                    }
+                }
+
+                if (untried >= 0) {
+                    s.play(untried, rng);
+                    if (size < MAX_NODES) path[++depth] = addChild(node, untried);
+                    break;
+                }
+                s.play(move[selected], rng);
+                node = selected;
+                path[++depth] = node;
+            }
+
+            s.playOut(rng, ROLLOUT_ROUNDS);
+            double r = s.reward();
+            for (int i = 0; i <= depth; i++) {
+                visits[path[i]]++;
+                reward[path[i]] += r;
+            }
+        }
+
+        private int findChild(int node, int m) {
+            for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                if (move[c] == m) return c;
+            }
+            return -1;
+        }
+
+        private int addChild(int parent, int m) {
+            int c = newNode(m);
+            nextSibling[c] = firstChild[parent];
+            firstChild[parent] = c;
+            return c;
+        }
+
+        private int newNode(int m) {
+            int c = size++;
+            move[c] = m;
+            firstChild[c] = -1;
+            nextSibling[c] = -1;
+            visits[c] = 0;
+            reward[c] = 0;
+            return c;
+        }
+    }
+
+    /**
+     * Search threads shared by every policy in the process: one daemon thread per core, so
+     * concurrent battles (server sessions, simulations) queue for cores instead of oversubscribing.
+     */
+    private static final class WorkerPool {
+        static final ExecutorService INSTANCE;
+
+        static {
+            AtomicInteger ids = new AtomicInteger();
+            INSTANCE = Executors.newFixedThreadPool(defaultWorkers(), task -> {
+                Thread thread = new Thread(task, "mcts-worker-" + ids.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
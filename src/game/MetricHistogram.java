@@ -0,0 +1,102 @@
+package game;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of non-negative longs for {@link CombatMetrics}.
+ *
+ * <p>Values are counted in log-linear buckets: exact below 4, then four buckets per power of two,
+ * so a percentile is reported within 25% of the true value while the whole range of a long fits
+ * in 248 counters. Every counter is a {@link LongAdder}, so threads recording at the same time
+ * mostly update different cells instead of fighting over one.</p>
+ */
+final class MetricHistogram {
+
+    static final int BUCKETS = 248;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    MetricHistogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        buckets[bucket(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Adds a batch of values counted elsewhere with {@link #bucket}; clears {@code bucketCounts}.
+     */
+    void add(long[] bucketCounts, long valueSum, long valueMax) {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketCounts[i] != 0) {
+                buckets[i].add(bucketCounts[i]);
+                n += bucketCounts[i];
+                bucketCounts[i] = 0;
+            }
+        }
+        count.add(n);
+        sum.add(valueSum);
+        max.accumulate(valueMax);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    double mean() {
+        long n = count.sum();
+        return (n == 0) ? 0 : (double) sum.sum() / n;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile In [0, 1], e.g. 0.99.
+     * @return The upper bound of the bucket holding that quantile (never above the maximum), or 0 if empty.
+     */
+    long percentile(double quantile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();  // Records landed between the two passes
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    static int bucket(long value) {
+        if (value < 4) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 2)) & 3;
+        return (exponent - 1) * 4 + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < 4) return bucket;
+        int exponent = bucket / 4 + 1;
+        long width = 1L << (exponent - 2);
+        long lower = (4L + bucket % 4) * width;
+        return lower + width - 1;
+    }
+}
@@ -0,0 +1,180 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Monster;
+import entities.Monster.MonsterType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Weighted, O(1) monster spawning from a fixed list of templates.
+ *
+ * <p>A template's spawn weight is its type weight times {@code levelFalloff} raised to its
+ * distance from the target level, so a falloff of 1 ignores level and smaller values favour
+ * monsters close to the party's level. For each target level a {@link LevelTable} is built on
+ * first use and cached: a Walker alias table over the weights plus every template's damage and
+ * defense already scaled to that level. A spawn is then one random draw, one table lookup and
+ * the Monster allocation itself.</p>
+ *
+ * <p>Instances are immutable apart from the cache, which is concurrent, so one spawner can be
+ * shared by every simulation thread.</p>
+ */
+public final class MonsterSpawner {
+
+    private final List<Monster> templates;
+    private final double[] typeWeight;      // Per template
+    private final double[] dodgePercent;    // Per template; does not depend on level
+    private final double levelFalloff;
+    private final Map<Integer, LevelTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Spawner that picks every template with equal probability, regardless of level.
+     */
+    public MonsterSpawner(List<Monster> templates) {
+        this(templates, Collections.emptyMap(), 1.0);
+    }
+
+    /**
+     * @param templates    The monster catalog.
+     * @param typeWeights  Relative weight per type; types not listed weigh 1, a weight of 0 disables a type.
+     * @param levelFalloff Factor in (0, 1] applied once per level of distance from the target level.
+     */
+    public MonsterSpawner(List<Monster> templates, Map<MonsterType, Double> typeWeights, double levelFalloff) {
+        if (!(levelFalloff > 0 && levelFalloff <= 1)) {
+            throw new IllegalArgumentException("Level falloff must be in (0, 1].");
+        }
+        Map<MonsterType, Double> weights = new EnumMap<>(MonsterType.class);
+        for (MonsterType type : MonsterType.values()) {
+            double weight = typeWeights.getOrDefault(type, 1.0);
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Spawn weight for " + type + " must be a finite number >= 0.");
+            }
+            weights.put(type, weight);
+        }
+
+        this.templates = Collections.unmodifiableList(new ArrayList<>(templates));
+        this.levelFalloff = levelFalloff;
+        this.typeWeight = new double[templates.size()];
+        this.dodgePercent = new double[templates.size()];
+        for (int i = 0; i < templates.size(); i++) {
+            Monster template = templates.get(i);
+            typeWeight[i] = weights.get(template.getType());
+            dodgePercent[i] = template.getDodgeChance() * 100;
+        }
+    }
+
+    public List<Monster> getTemplates() {
+        return templates;
+    }
+
+    /**
+     * Creates a fresh monster at {@code targetLevel}, with damage and defense scaled from its
+     * template's level. Uses exactly one random draw.
+     *
+     * @throws IllegalStateException if there are no templates.
+     */
+    public Monster spawn(int targetLevel, RandomGenerator rng) {
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("No monster templates loaded. Check data files.");
+        }
+        LevelTable table = tables.computeIfAbsent(targetLevel, this::buildTable);
+        int i = table.sample(rng.nextDouble());
+        Monster template = templates.get(i);
+        return new Monster(template.getName(), template.getType(), targetLevel,
+                table.damage[i], table.defense[i], dodgePercent[i]);
+    }
+
+    /**
+     * Same draw as {@link #spawn}, but writes the monster into the next slot of an encounter
+     * instead of allocating it.
+     */
+    void spawnInto(Encounter encounter, int targetLevel, RandomGenerator rng) {
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("No monster templates loaded. Check data files.");
+        }
+        LevelTable table = tables.computeIfAbsent(targetLevel, this::buildTable);
+        int i = table.sample(rng.nextDouble());
+        encounter.addMonster(this, i, targetLevel, table.damage[i], table.defense[i], dodgePercent[i]);
+    }
+
+    private LevelTable buildTable(int targetLevel) {
+        int n = templates.size();
+        double[] weight = new double[n];
+        double[] damage = new double[n];
+        double[] defense = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            Monster template = templates.get(i);
+            weight[i] = typeWeight[i] * Math.pow(levelFalloff, Math.abs(template.getLevel() - targetLevel));
+            total += weight[i];
+
+            double scale = targetLevel / (double) Math.max(1, template.getLevel());
+            damage[i] = template.getBaseDamage() * scale;
+            defense[i] = template.getDefense() * scale;
+        }
+        if (!(total > 0)) {
+            // Every template weighted out (e.g. all types disabled): fall back to uniform
+            Arrays.fill(weight, 1.0);
+            total = n;
+        }
+        return new LevelTable(weight, total, damage, defense);
+    }
+
+    /**
+     * Alias table (Vose's construction) and pre-scaled stats for one target level.
+     */
+    private static final class LevelTable {
+        private final double[] probability;
+        private final int[] alias;
+        final double[] damage;
+        final double[] defense;
+
+        LevelTable(double[] weight, double total, double[] damage, double[] defense) {
+            int n = weight.length;
+            this.probability = new double[n];
+            this.alias = new int[n];
+            this.damage = damage;
+            this.defense = defense;
+
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weight[i] * n / total;
+                if (scaled[i] < 1) small[smallCount++] = i;
+                else large[largeCount++] = i;
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] = (scaled[more] + scaled[less]) - 1;
+                if (scaled[more] < 1) small[smallCount++] = more;
+                else large[largeCount++] = more;
+            }
+            // Whatever is left is 1 up to rounding error
+            while (largeCount > 0) probability[large[--largeCount]] = 1;
+            while (smallCount > 0) probability[small[--smallCount]] = 1;
+        }
+
+        /**
+         * Maps one uniform draw in [0, 1) to a template: the integer part of u * n picks a
+         * column, the fractional part decides between the column and its alias.
+         */
+        int sample(double u) {
+            int n = probability.length;
+            double x = u * n;
+            int column = Math.min((int) x, n - 1);
+            return x - column < probability[column] ? column : alias[column];
+        }
+    }
+}
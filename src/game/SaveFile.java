@@ -0,0 +1,595 @@
+package game;
+
+import board.Board;
+import board.LegendsBoard;
+import board.OpenWorldBoard;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Party;
+import items.Armor;
+import items.Item;
+import items.Weapon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary save file for a game in progress: the world and the party, with every hero's stats,
+ * inventory and equipment.
+ *
+ * <p>The file is a log. The first {@link #save} writes a full snapshot; later saves append a
+ * delta holding only what changed since the previous save: terrain words edited on a classic
+ * board (tracked by {@link LegendsBoard#takeChangedTerrainWords()}) and the party, which is tiny
+ * next to a large world. A save that changes nothing writes nothing. Once the deltas add up to
+ * more than the snapshot, the next save writes a fresh snapshot to a temporary file and swaps it
+ * in, so loading never replays a long log. An open world is stored as its seed only.</p>
+ *
+ * <p>Catalog items are stored as IDs into a table of item names kept in the file (each name is
+ * written once, by the record that first needs it) and are looked up in the current catalog on
+ * load, so a save stays small and picks up rebalanced item stats. Items no longer in the catalog
+ * are dropped with a warning.</p>
+ *
+ * <p>Layout (big-endian): the magic {@code "LMHS"} and a version byte, then records. A record is
+ * a kind byte (snapshot or delta), its payload, and a CRC-32 of both. Loading stops at the first
+ * record that is cut short or fails its checksum, i.e. at the last complete save.</p>
+ */
+public final class SaveFile {
+
+    private static final int MAGIC = 0x4C4D4853;    // "LMHS"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+
+    private static final byte SNAPSHOT = 1;
+    private static final byte DELTA = 2;
+
+    // Sanity bounds before the checksum is known (the world menu offers boards up to 20x20)
+    private static final int MAX_PARTY_BYTES = 1 << 20;
+    private static final int MAX_BOARD_SIZE = 1 << 12;
+
+    private static final byte BOUNDED_WORLD = 0;
+    private static final byte OPEN_WORLD = 1;
+
+    /**
+     * A loaded game. Warnings list items that could not be restored.
+     */
+    public static final class Loaded {
+        private final Board board;
+        private final Party party;
+        private final List<String> warnings;
+
+        // What load() needs to append further saves to the same file
+        private final List<String> names;
+        private final byte[] partyBytes;
+        private final long snapshotBytes;
+        private final long logBytes;
+        private final boolean damaged;
+
+        private Loaded(Board board, Party party, List<String> warnings, List<String> names, byte[] partyBytes,
+                       long snapshotBytes, long logBytes, boolean damaged) {
+            this.board = board;
+            this.party = party;
+            this.warnings = warnings;
+            this.names = names;
+            this.partyBytes = partyBytes;
+            this.snapshotBytes = snapshotBytes;
+            this.logBytes = logBytes;
+            this.damaged = damaged;
+        }
+
+        public Board getBoard() { return board; }
+        public Party getParty() { return party; }
+        public List<String> getWarnings() { return warnings; }
+    }
+
+    private final Path path;
+
+    // What the file on disk holds; savedBoard is null until a snapshot is written or loaded
+    private Board savedBoard;
+    private final List<String> itemNames = new ArrayList<>();
+    private final Map<String, Integer> itemIds = new HashMap<>();
+    private byte[] savedParty;
+    private long snapshotBytes;
+    private long deltaBytes;
+
+    public SaveFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    /**
+     * Deletes the file (e.g. when the party has been wiped out); the next save starts over.
+     */
+    public synchronized void delete() throws IOException {
+        Files.deleteIfExists(path);
+        savedBoard = null;
+    }
+
+    /**
+     * Saves the game: a full snapshot the first time, for a different board, or when the log
+     * has grown past the snapshot; otherwise a delta.
+     *
+     * @throws IllegalArgumentException if the board type cannot be saved.
+     */
+    public synchronized void save(Board board, Party party) throws IOException {
+        if (!(board instanceof LegendsBoard) && !(board instanceof OpenWorldBoard)) {
+            throw new IllegalArgumentException("Cannot save a " + board.getClass().getSimpleName() + ".");
+        }
+        try {
+            if (board != savedBoard || deltaBytes > snapshotBytes || !exists()) {
+                writeSnapshot(board, party);
+            } else {
+                writeDelta(board, party);
+            }
+        } catch (IOException e) {
+            savedBoard = null;  // The file may not match our bookkeeping any more: start over next time
+            throw e;
+        }
+    }
+
+    private void writeSnapshot(Board board, Party party) throws IOException {
+        itemNames.clear();
+        itemIds.clear();
+        byte[] partyBytes = encodeParty(party);
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            DataOutputStream header = new DataOutputStream(file);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+
+            RecordWriter record = new RecordWriter(file, SNAPSHOT);
+            DataOutputStream out = record.out;
+            writeNames(out, 0);
+            if (board instanceof LegendsBoard) {
+                LegendsBoard bounded = (LegendsBoard) board;
+                bounded.takeChangedTerrainWords(); // Everything is in this snapshot
+                out.writeByte(BOUNDED_WORLD);
+                writeVarint(out, bounded.getWidth());
+                for (int i = 0; i < bounded.getTerrainWordCount(); i++) {
+                    out.writeLong(bounded.getTerrainWord(i));
+                }
+            } else {
+                out.writeByte(OPEN_WORLD);
+                out.writeLong(((OpenWorldBoard) board).getSeed());
+            }
+            writeVarint(out, partyBytes.length);
+            out.write(partyBytes);
+            record.finish();
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        savedBoard = board;
+        savedParty = partyBytes;
+        snapshotBytes = Files.size(path) - HEADER_BYTES;
+        deltaBytes = 0;
+    }
+
+    private void writeDelta(Board board, Party party) throws IOException {
+        int knownNames = itemNames.size();
+        byte[] partyBytes = encodeParty(party);
+        int[] changed = (board instanceof LegendsBoard)
+                ? ((LegendsBoard) board).takeChangedTerrainWords()
+                : new int[0];
+        if (changed.length == 0 && itemNames.size() == knownNames && Arrays.equals(partyBytes, savedParty)) {
+            return;     // Nothing to write
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(partyBytes.length + 16 * changed.length + 64);
+        RecordWriter record = new RecordWriter(buffer, DELTA);
+        DataOutputStream out = record.out;
+        writeNames(out, knownNames);
+        writeVarint(out, changed.length);
+        for (int index : changed) {
+            writeVarint(out, index);
+            out.writeLong(((LegendsBoard) board).getTerrainWord(index));
+        }
+        writeVarint(out, partyBytes.length);
+        out.write(partyBytes);
+        record.finish();
+
+        try (OutputStream file = Files.newOutputStream(path, StandardOpenOption.APPEND)) {
+            buffer.writeTo(file);
+        }
+        savedParty = partyBytes;
+        deltaBytes += buffer.size();
+    }
+
+    /**
+     * @return The file's raw contents, e.g. to load with {@link #load(byte[], List)} and to keep a
+     *         copy of in a session journal.
+     */
+    public byte[] readContents() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    /**
+     * Loads the last complete save and makes it the base for further saves to this file.
+     *
+     * @param catalog The current item catalog, used to resolve saved item IDs.
+     * @throws IOException if the file cannot be read or holds no complete snapshot.
+     */
+    public Loaded load(List<Item> catalog) throws IOException {
+        return load(readContents(), catalog);
+    }
+
+    /**
+     * Loads a save from contents read earlier from this file (see {@link #readContents()}) and
+     * makes it the base for further saves to this file.
+     *
+     * @throws IOException if the contents hold no complete snapshot.
+     */
+    public synchronized Loaded load(byte[] contents, List<Item> catalog) throws IOException {
+        Loaded loaded = decode(contents, path.toString(), catalog);
+
+        savedBoard = loaded.board;
+        savedParty = loaded.partyBytes;
+        itemNames.clear();
+        itemIds.clear();
+        for (String name : loaded.names) {
+            itemIds.put(name, itemNames.size());
+            itemNames.add(name);
+        }
+        snapshotBytes = loaded.snapshotBytes;
+        // A damaged tail must not be appended to: force a fresh snapshot on the next save
+        deltaBytes = loaded.damaged ? Long.MAX_VALUE : loaded.logBytes;
+        return loaded;
+    }
+
+    /**
+     * Loads the last complete save in the given contents without touching any file, e.g. a save
+     * kept in a session journal.
+     *
+     * @param source  Names the contents in error messages and warnings.
+     * @param catalog The current item catalog, used to resolve saved item IDs.
+     * @throws IOException if the contents hold no complete snapshot.
+     */
+    public static Loaded decode(byte[] contents, String source, List<Item> catalog) throws IOException {
+        List<String> warnings = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int boardSize = 0;
+        long[] terrain = null;
+        long worldSeed = 0;
+        byte[] partyBytes;
+        long snapshotSize;
+        long logSize = 0;
+        boolean damaged = false;
+
+        try (InputStream file = new ByteArrayInputStream(contents)) {
+            DataInputStream header = new DataInputStream(file);
+            try {
+                if (header.readInt() != MAGIC) {
+                    throw new IOException(source + " is not a save file.");
+                }
+                int version = header.readUnsignedByte();
+                if (version != VERSION) {
+                    throw new IOException(source + " has save format version " + version + "; expected " + VERSION + ".");
+                }
+            } catch (EOFException e) {
+                throw new IOException(source + " is empty or truncated.");
+            }
+
+            RecordReader record = new RecordReader(file);
+            try {
+                DataInputStream in = record.begin();
+                if (in.readByte() != SNAPSHOT) {
+                    throw new IOException(source + " does not start with a snapshot.");
+                }
+                readNames(in, names);
+                byte world = in.readByte();
+                if (world == BOUNDED_WORLD) {
+                    boardSize = readVarint(in);
+                    long words = ((long) boardSize * boardSize + 31) / 32;
+                    if (boardSize < LegendsBoard.MIN_SIZE || boardSize > MAX_BOARD_SIZE
+                            || words * Long.BYTES > contents.length) {
+                        throw new IOException(source + " holds an invalid board size " + boardSize + ".");
+                    }
+                    terrain = new long[(int) words];
+                    for (int i = 0; i < terrain.length; i++) terrain[i] = in.readLong();
+                } else if (world == OPEN_WORLD) {
+                    worldSeed = in.readLong();
+                } else {
+                    throw new IOException(source + " holds an unknown world type " + world + ".");
+                }
+                partyBytes = readBytes(in);
+                snapshotSize = record.end();
+            } catch (EOFException | DamagedRecordException e) {
+                throw new IOException(source + " holds no complete snapshot.");
+            }
+
+            // Apply deltas until the end of the file or the first damaged record
+            while (true) {
+                int namesBefore = names.size();
+                try {
+                    DataInputStream in = record.begin();
+                    int kind = in.read();
+                    if (kind < 0) break;
+                    if (kind != DELTA) throw new DamagedRecordException();
+                    readNames(in, names);
+                    int changed = readVarint(in);
+                    if (changed > (terrain == null ? 0 : terrain.length)) throw new DamagedRecordException();
+                    long[] pending = new long[changed * 2];
+                    for (int i = 0; i < changed; i++) {
+                        int index = readVarint(in);
+                        if (terrain == null || index < 0 || index >= terrain.length) throw new DamagedRecordException();
+                        pending[2 * i] = index;
+                        pending[2 * i + 1] = in.readLong();
+                    }
+                    byte[] party = readBytes(in);
+                    long size = record.end();
+                    for (int i = 0; i < changed; i++) terrain[(int) pending[2 * i]] = pending[2 * i + 1];
+                    partyBytes = party;
+                    logSize += size;
+                } catch (EOFException | DamagedRecordException e) {
+                    names.subList(namesBefore, names.size()).clear();
+                    damaged = true;
+                    warnings.add("The last save in " + source + " was incomplete; loaded the one before it.");
+                    break;
+                }
+            }
+        }
+
+        Map<String, Item> itemsByName = new HashMap<>();
+        for (Item item : catalog) itemsByName.putIfAbsent(item.getName(), item);
+        Party party = decodeParty(partyBytes, names, itemsByName, warnings);
+        Board board;
+        try {
+            board = (terrain != null) ? LegendsBoard.fromTerrain(boardSize, terrain) : new OpenWorldBoard(worldSeed);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(source + " holds an invalid board: " + e.getMessage());
+        }
+        if (!board.isValidCoordinate(party.getRow(), party.getCol())) {
+            throw new IOException(source + " places the party off the board, at "
+                    + party.getRow() + "," + party.getCol() + ".");
+        }
+        return new Loaded(board, party, warnings, names, partyBytes, snapshotSize, logSize, damaged);
+    }
+
+    // PARTY ENCODING
+
+    private byte[] encodeParty(Party party) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(party.getRow());
+        out.writeInt(party.getCol());
+        writeVarint(out, party.getSize());
+        for (Hero hero : party.getHeroes()) {
+            out.writeUTF(hero.getName());
+            out.writeByte(hero.getType().ordinal());
+            writeVarint(out, hero.getLevel());
+            writeVarint(out, hero.getExperience());
+            out.writeDouble(hero.getHp());
+            out.writeDouble(hero.getMana());
+            out.writeDouble(hero.getStrength());
+            out.writeDouble(hero.getAgility());
+            out.writeDouble(hero.getDexterity());
+            out.writeDouble(hero.getMoney());
+            writeVarint(out, itemRef(hero.getEquippedWeapon()));
+            writeVarint(out, itemRef(hero.getEquippedArmor()));
+            List<Item> items = hero.getInventory().getItems();
+            writeVarint(out, items.size());
+            for (Item item : items) writeVarint(out, itemRef(item));
+        }
+        return buffer.toByteArray();
+    }
+
+    private static Party decodeParty(byte[] bytes, List<String> names, Map<String, Item> catalog,
+                                     List<String> warnings) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        Party party = new Party();
+        party.setLocation(in.readInt(), in.readInt());
+        int heroes = readVarint(in);
+        if (heroes < 1) {
+            throw new IOException("Save file holds a party without heroes.");
+        }
+        for (int h = 0; h < heroes; h++) {
+            String name = in.readUTF();
+            if (name.trim().isEmpty()) {
+                throw new IOException("Save file holds a hero without a name.");
+            }
+            int type = in.readUnsignedByte();
+            if (type >= HeroType.values().length) {
+                throw new IOException("Save file holds an unknown hero class " + type + ".");
+            }
+            int level = readVarint(in);
+            if (level < 1) {
+                throw new IOException("Save file holds an invalid hero level " + level + ".");
+            }
+            int experience = readVarint(in);
+            double hp = in.readDouble();
+            double mana = in.readDouble();
+            double strength = in.readDouble();
+            double agility = in.readDouble();
+            double dexterity = in.readDouble();
+            double money = in.readDouble();
+
+            Hero hero = new Hero(name, HeroType.values()[type], mana, strength, agility, dexterity, money, experience);
+            hero.restoreProgress(level, experience);
+            hero.setHp(hp);
+
+            Item weapon = resolve(readVarint(in), names, catalog, warnings);
+            Item armor = resolve(readVarint(in), names, catalog, warnings);
+            if (weapon instanceof Weapon) hero.equipWeapon((Weapon) weapon);
+            if (armor instanceof Armor) hero.equipArmor((Armor) armor);
+
+            int items = readVarint(in);
+            for (int i = 0; i < items; i++) {
+                Item item = resolve(readVarint(in), names, catalog, warnings);
+                if (item != null) hero.getInventory().addItem(item);
+            }
+            if (!party.addHero(hero)) {
+                throw new IOException("Save file holds more heroes than fit in a party.");
+            }
+        }
+        return party;
+    }
+
+    /** @return 0 for no item, else 1 + the item's ID, assigning a new ID on first use. */
+    private int itemRef(Item item) {
+        if (item == null) return 0;
+        Integer id = itemIds.get(item.getName());
+        if (id == null) {
+            id = itemNames.size();
+            itemIds.put(item.getName(), id);
+            itemNames.add(item.getName());
+        }
+        return id + 1;
+    }
+
+    private static Item resolve(int ref, List<String> names, Map<String, Item> catalog, List<String> warnings)
+            throws IOException {
+        if (ref == 0) return null;
+        if (ref > names.size()) {
+            throw new IOException("Save file refers to an unknown item ID " + (ref - 1) + ".");
+        }
+        String name = names.get(ref - 1);
+        Item item = catalog.get(name);
+        if (item == null) {
+            warnings.add("'" + name + "' is no longer in the item catalog and was dropped.");
+        }
+        return item;
+    }
+
+    private void writeNames(DataOutputStream out, int from) throws IOException {
+        writeVarint(out, itemNames.size() - from);
+        for (int i = from; i < itemNames.size(); i++) out.writeUTF(itemNames.get(i));
+    }
+
+    private static void readNames(DataInputStream in, List<String> names) throws IOException {
+        int count = readVarint(in);
+        for (int i = 0; i < count; i++) names.add(in.readUTF());
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = readVarint(in);
+        if (length > MAX_PARTY_BYTES) throw new DamagedRecordException();
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // RECORD FRAMING
+
+    /** Kind byte + payload through a CRC-32, then the checksum itself. */
+    private static final class RecordWriter {
+        private final OutputStream target;
+        private final CRC32 crc = new CRC32();
+        final DataOutputStream out;
+
+        RecordWriter(OutputStream target, byte kind) throws IOException {
+            this.target = target;
+            this.out = new DataOutputStream(new CheckedOutputStream(target, crc));
+            out.writeByte(kind);
+        }
+
+        void finish() throws IOException {
+            new DataOutputStream(target).writeInt((int) crc.getValue());
+        }
+    }
+
+    private static final class RecordReader {
+        private final InputStream source;
+        private final CRC32 crc = new CRC32();
+        private final CheckedInputStream checked;
+        private long startCount;
+        private long count;
+
+        RecordReader(InputStream source) {
+            this.source = source;
+            this.checked = new CheckedInputStream(new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    int b = source.read();
+                    if (b >= 0) count++;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = source.read(buffer, offset, length);
+                    if (n > 0) count += n;
+                    return n;
+                }
+            }, crc);
+        }
+
+        DataInputStream begin() {
+            crc.reset();
+            startCount = count;
+            return new DataInputStream(checked);
+        }
+
+        /**
+         * Reads and checks the trailing checksum.
+         * @return The record's size in bytes, checksum included.
+         */
+        long end() throws IOException {
+            long expected = crc.getValue();
+            int actual = new DataInputStream(source).readInt();
+            if ((int) expected != actual) throw new DamagedRecordException();
+            return count - startCount + 4;
+        }
+    }
+
+    private static final class DamagedRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a varint written by {@link #writeVarint}. Every value the format stores (sizes,
+     * counts, IDs, levels) is non-negative, so anything else means the record is damaged.
+     */
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) throw new DamagedRecordException();
+                return value;
+            }
+        }
+        throw new DamagedRecordException();
+    }
+}
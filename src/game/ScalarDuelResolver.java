@@ -0,0 +1,73 @@
+package game;
+
+import common.RandomGenerator;
+
+import static game.DuelBatch.GOLDEN_GAMMA;
+
+/**
+ * One duel at a time: the fallback without the Vector API, and the tail of a batch that does not
+ * fill a whole vector.
+ */
+final class ScalarDuelResolver implements DuelResolver {
+
+    @Override
+    public void resolve(DuelBatch batch, int maxRounds) {
+        resolve(batch, 0, batch.size(), maxRounds);
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    /**
+     * Resolves lanes {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    static void resolve(DuelBatch b, int from, int to, int maxRounds) {
+        for (int i = from; i < to; i++) {
+            double heroHp = b.heroHp[i];
+            double heroMana = b.heroMana[i];
+            double monsterHp = b.monsterHp[i];
+            long state = b.rngState[i];
+            BattleResult.Outcome outcome;
+            int round = 1;
+            while (true) {
+                if (round > maxRounds) {
+                    outcome = BattleResult.Outcome.DRAW;
+                    round = maxRounds;
+                    break;
+                }
+
+                // Hero attacks
+                state += GOLDEN_GAMMA;
+                if (!CombatMath.dodges(b.monsterDodgeChance[i], DuelBatch.unitDouble(RandomGenerator.mix64(state)))) {
+                    monsterHp = CombatMath.hpAfterHit(monsterHp, b.heroHitDamage[i]);
+                }
+                if (monsterHp <= 0) {
+                    outcome = BattleResult.Outcome.VICTORY;
+                    break;
+                }
+
+                // Monster attacks: one draw picks the (only) living hero, the next rolls the dodge
+                state += 2 * GOLDEN_GAMMA;
+                if (!CombatMath.dodges(b.heroDodgeChance[i], DuelBatch.unitDouble(RandomGenerator.mix64(state)))) {
+                    heroHp = CombatMath.hpAfterHit(heroHp, b.monsterHitDamage[i]);
+                }
+                if (heroHp <= 0) {
+                    outcome = BattleResult.Outcome.DEFEAT;
+                    break;
+                }
+
+                heroHp *= 1.1;
+                heroMana *= 1.1;
+                round++;
+            }
+            b.heroHp[i] = heroHp;
+            b.heroMana[i] = heroMana;
+            b.monsterHp[i] = monsterHp;
+            b.rngState[i] = state;
+            b.outcome[i] = outcome;
+            b.rounds[i] = round;
+        }
+    }
+}
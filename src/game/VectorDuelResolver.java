@@ -0,0 +1,140 @@
+package game;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static game.DuelBatch.GOLDEN_GAMMA;
+
+/**
+ * Resolves a vector's worth of duels per step with the incubating Vector API: 8 lanes on AVX-512,
+ * 4 on AVX2. Needs {@code --add-modules jdk.incubator.vector} both to compile and to run; only
+ * {@link DuelResolver#vector()} instantiates it, after checking that the module is there.
+ *
+ * <p>Every lane steps its own SplittableRandom state with long-vector SplitMix64, then the hit,
+ * damage, faint and regeneration rules run as masked double-vector operations that compute the
+ * same IEEE results as {@link ScalarDuelResolver}. Lanes whose duel has ended are masked out and
+ * the group keeps going until its longest duel is over. Whatever does not fill a whole vector is
+ * resolved by the scalar code. Not thread-safe (it keeps per-group scratch arrays); use one
+ * resolver per worker.</p>
+ */
+final class VectorDuelResolver implements DuelResolver {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    // Outcome codes in the lanes of a double vector
+    private static final double VICTORY = 1;
+    private static final double DEFEAT = 2;
+    private static final double DRAW = 3;
+    private static final BattleResult.Outcome[] OUTCOMES =
+            {null, BattleResult.Outcome.VICTORY, BattleResult.Outcome.DEFEAT, BattleResult.Outcome.DRAW};
+
+    // Per-group scratch, so resolving allocates nothing
+    private final long[] monsterThresholds = new long[DOUBLES.length()];
+    private final long[] heroThresholds = new long[DOUBLES.length()];
+    private final double[] outcomes = new double[DOUBLES.length()];
+    private final double[] rounds = new double[DOUBLES.length()];
+
+    @Override
+    public void resolve(DuelBatch batch, int maxRounds) {
+        int lanes = DOUBLES.length();
+        int size = batch.size();
+        int i = 0;
+        for (; i + lanes <= size; i += lanes) {
+            resolveGroup(batch, i, maxRounds);
+        }
+        ScalarDuelResolver.resolve(batch, i, size, maxRounds);
+    }
+
+    @Override
+    public String getName() {
+        return "vector (" + DOUBLES.length() + " lanes)";
+    }
+
+    private void resolveGroup(DuelBatch b, int offset, int maxRounds) {
+        DoubleVector heroHitDamage = DoubleVector.fromArray(DOUBLES, b.heroHitDamage, offset);
+        LongVector monsterDodgeBelow = LongVector.fromArray(LONGS, thresholds(b.monsterDodgeChance, offset, monsterThresholds), 0);
+        DoubleVector monsterHitDamage = DoubleVector.fromArray(DOUBLES, b.monsterHitDamage, offset);
+        LongVector heroDodgeBelow = LongVector.fromArray(LONGS, thresholds(b.heroDodgeChance, offset, heroThresholds), 0);
+        DoubleVector heroHp = DoubleVector.fromArray(DOUBLES, b.heroHp, offset);
+        DoubleVector heroMana = DoubleVector.fromArray(DOUBLES, b.heroMana, offset);
+        DoubleVector monsterHp = DoubleVector.fromArray(DOUBLES, b.monsterHp, offset);
+        LongVector state = LongVector.fromArray(LONGS, b.rngState, offset);
+
+        // Outcome and last round per lane, kept as doubles so every mask stays a double mask
+        DoubleVector outcome = DoubleVector.zero(DOUBLES);
+        DoubleVector lastRound = DoubleVector.zero(DOUBLES);
+        VectorMask<Double> fighting = DOUBLES.maskAll(true);
+        int round = 1;
+        while (true) {
+            if (round > maxRounds) {
+                outcome = outcome.blend(DRAW, fighting);
+                lastRound = lastRound.blend(maxRounds, fighting);
+                break;
+            }
+
+            // Hero attacks
+            state = state.add(GOLDEN_GAMMA);
+            VectorMask<Double> hit = hits(state, monsterDodgeBelow).and(fighting);
+            monsterHp = monsterHp.blend(monsterHp.sub(heroHitDamage).max(0), hit);
+            VectorMask<Double> won = monsterHp.compare(VectorOperators.LE, 0).and(fighting);
+            outcome = outcome.blend(VICTORY, won);
+            lastRound = lastRound.blend(round, won);
+            fighting = fighting.andNot(won);
+            if (!fighting.anyTrue()) break;
+
+            // Monster attacks: one draw picks the (only) living hero, the next rolls the dodge
+            state = state.add(2 * GOLDEN_GAMMA);
+            hit = hits(state, heroDodgeBelow).and(fighting);
+            heroHp = heroHp.blend(heroHp.sub(monsterHitDamage).max(0), hit);
+            VectorMask<Double> lost = heroHp.compare(VectorOperators.LE, 0).and(fighting);
+            outcome = outcome.blend(DEFEAT, lost);
+            lastRound = lastRound.blend(round, lost);
+            fighting = fighting.andNot(lost);
+            if (!fighting.anyTrue()) break;
+
+            heroHp = heroHp.blend(heroHp.mul(1.1), fighting);
+            heroMana = heroMana.blend(heroMana.mul(1.1), fighting);
+            round++;
+        }
+
+        heroHp.intoArray(b.heroHp, offset);
+        heroMana.intoArray(b.heroMana, offset);
+        monsterHp.intoArray(b.monsterHp, offset);
+        outcome.intoArray(outcomes, 0);
+        lastRound.intoArray(rounds, 0);
+        for (int lane = 0; lane < outcomes.length; lane++) {
+            b.outcome[offset + lane] = OUTCOMES[(int) outcomes[lane]];
+            b.rounds[offset + lane] = (int) rounds[lane];
+        }
+    }
+
+    private static LongVector mix64(LongVector z) {
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 30)).mul(0xbf58476d1ce4e5b9L);
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 27)).mul(0x94d049bb133111ebL);
+        return z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 31));
+    }
+
+    /**
+     * A draw {@code (mixed >>> 11) * 2^-53} is below a dodge chance exactly when its 53 integer
+     * bits are below {@code ceil(chance * 2^53)}: both scalings by 2^53 are exact. Comparing the
+     * bits against that threshold gives the scalar resolver's rolls without converting lanes from
+     * long to double.
+     */
+    private static long[] thresholds(double[] dodgeChance, int offset, long[] into) {
+        for (int lane = 0; lane < into.length; lane++) {
+            into[lane] = (long) Math.ceil(dodgeChance[offset + lane] * 0x1.0p53);
+        }
+        return into;
+    }
+
+    /**
+     * @return The lanes whose next draw from {@code state} is not a dodge.
+     */
+    private static VectorMask<Double> hits(LongVector state, LongVector dodgeBelow) {
+        return mix64(state).lanewise(VectorOperators.LSHR, 11).compare(VectorOperators.GE, dodgeBelow).cast(DOUBLES);
+    }
+}
@@ -1,26 +1,45 @@
 package items;
 
+import common.GameIO;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Manages a collection of Items for a Hero.
  * Provides methods to add, remove, and filter items by type.
+ *
+ * <p>Items are kept in one bucket per type (plus one bucket for everything), each updated on
+ * add and remove, so the typed getters return cached read-only views instead of filtering and
+ * copying. Views are live: they reflect later adds and removes, so re-read them after mutating.
+ * Removal is O(1) by swapping the last item of a bucket into the freed slot, which means the
+ * order of a view may change after a removal.</p>
  */
 public class Inventory {
-    private final List<Item> items;
-
-    public Inventory() {
-        this.items = new ArrayList<>();
-    }
+    private final Bucket<Item> items = new Bucket<>();
+    private final Bucket<Weapon> weapons = new Bucket<>();
+    private final Bucket<Armor> armor = new Bucket<>();
+    private final Bucket<Potion> potions = new Bucket<>();
+    private final Bucket<Spell> spells = new Bucket<>();
 
     public void addItem(Item item) {
         items.add(item);
+        if (item instanceof Weapon) weapons.add((Weapon) item);
+        else if (item instanceof Armor) armor.add((Armor) item);
+        else if (item instanceof Potion) potions.add((Potion) item);
+        else if (item instanceof Spell) spells.add((Spell) item);
     }
 
     public boolean removeItem(Item item) {
-        return items.remove(item);
+        if (!items.remove(item)) return false;
+        if (item instanceof Weapon) weapons.remove(item);
+        else if (item instanceof Armor) armor.remove(item);
+        else if (item instanceof Potion) potions.remove(item);
+        else if (item instanceof Spell) spells.remove(item);
+        return true;
     }
 
     public boolean contains(Item item) {
@@ -28,49 +47,90 @@ public class Inventory {
     }
 
     public List<Item> getItems() {
-        return new ArrayList<>(items); // Return copy to protect internal list
+        return items.view;
     }
 
     public List<Weapon> getWeapons() {
-        return items.stream()
-                .filter(i -> i instanceof Weapon)
-                .map(i -> (Weapon) i)
-                .collect(Collectors.toList());
+        return weapons.view;
     }
 
     public List<Armor> getArmor() {
-        return items.stream()
-                .filter(i -> i instanceof Armor)
-                .map(i -> (Armor) i)
-                .collect(Collectors.toList());
+        return armor.view;
     }
 
     public List<Potion> getPotions() {
-        return items.stream()
-                .filter(i -> i instanceof Potion)
-                .map(i -> (Potion) i)
-                .collect(Collectors.toList());
+        return potions.view;
     }
 
     public List<Spell> getSpells() {
-        return items.stream()
-                .filter(i -> i instanceof Spell)
-                .map(i -> (Spell) i)
-                .collect(Collectors.toList());
+        return spells.view;
     }
 
     public boolean isEmpty() {
-        return items.isEmpty();
+        return items.list.isEmpty();
     }
 
-    public void printInventory() {
-        if (items.isEmpty()) {
-            System.out.println("Inventory is empty.");
+    public void printInventory(GameIO io) {
+        if (items.list.isEmpty()) {
+            io.println("Inventory is empty.");
             return;
         }
-        System.out.println("--- Inventory ---");
-        for (int i = 0; i < items.size(); i++) {
-            System.out.println((i + 1) + ". " + items.get(i).toString());
+        io.println("--- Inventory ---");
+        for (int i = 0; i < items.list.size(); i++) {
+            io.println((i + 1) + ". " + items.list.get(i).toString());
+        }
+    }
+
+    /**
+     * Array-backed list with an identity index of where each item sits.
+     * The same Item instance may be held more than once (market stock is shared),
+     * so the index keeps every position of an item: {count, pos1, pos2, ...}.
+     */
+    private static final class Bucket<T extends Item> {
+        private final ArrayList<T> list = new ArrayList<>();
+        private final List<T> view = Collections.unmodifiableList(list);
+        private final IdentityHashMap<Item, int[]> slots = new IdentityHashMap<>();
+
+        void add(T item) {
+            int position = list.size();
+            list.add(item);
+            int[] entry = slots.get(item);
+            if (entry == null) {
+                slots.put(item, new int[] {1, position});
+            } else {
+                if (entry[0] + 1 == entry.length) {
+                    entry = Arrays.copyOf(entry, entry.length * 2);
+                    slots.put(item, entry);
+                }
+                entry[++entry[0]] = position;
+            }
+        }
+
+        boolean remove(Item item) {
+            int[] entry = slots.get(item);
+            if (entry == null) return false;
+
+            int position = entry[entry[0]--];
+            if (entry[0] == 0) slots.remove(item);
+
+            int last = list.size() - 1;
+            if (position != last) {
+                T moved = list.get(last);
+                list.set(position, moved);
+                int[] movedEntry = slots.get(moved);
+                for (int i = 1; i <= movedEntry[0]; i++) {
+                    if (movedEntry[i] == last) {
+                        movedEntry[i] = position;
+                        break;
+                    }
+                }
+            }
+            list.remove(last);
+            return true;
+        }
+
+        boolean contains(Item item) {
+            return slots.containsKey(item);
         }
     }
-}
\ No newline at end of file
+}
@@ -20,6 +20,11 @@ public class Potion extends Item {
 
     public double getAttributeIncrease() { return attributeIncrease; }
 
+    /**
+     * @return The affected attributes in data-file form, e.g. "Health/Mana".
+     */
+    public String getAttributeString() { return String.join("/", attributesAffected); }
+
     public boolean affects(String statName) {
         if (attributesAffected.contains("All")) return true;
         // Simple case-insensitive check
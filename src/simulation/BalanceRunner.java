@@ -0,0 +1,106 @@
+package simulation;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import game.ActionPolicy;
+import game.AutoBattlePolicy;
+import game.BattleController;
+import game.MctsPolicy;
+import utils.GameData;
+import utils.GameDataLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line entry point for balance runs.
+ * Loads the catalogs from data/, simulates battles with the AutoBattlePolicy and prints
+ * win rate, draw rate (battles stopped at BattleController's round limit), rounds-to-win and HP-left
+ * distributions per hero class and monster type.
+ *
+ * <p>{@code --mcts <ms>} plays the heroes with the {@link MctsPolicy} autopilot instead, searching
+ * each decision for that many milliseconds on the cores left over by the battle threads. It is a
+ * strong baseline for tuning, but far slower, and its results depend on machine speed.</p>
+ *
+ * <p>Usage: {@code java -cp bin simulation.BalanceRunner [battles] [seed] [partySize] [threads] [--mcts <ms>]}</p>
+ */
+public class BalanceRunner {
+
+    private static final String ROW_BORDER = "+-------------+------------+---------+---------+--------+-----------+-----------+--------+---------+";
+    private static final String ROW_FORMAT = "| %-11s | %10d | %6.2f%% | %6.3f%% | %6.2f | %4d/%-4d | %4d/%-4d | %5.1f%% | %6d%% |%n";
+
+    public static void main(String[] args) {
+        List<String> positional = new ArrayList<>();
+        int mctsMillis = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--mcts") && i + 1 < args.length) {
+                mctsMillis = Integer.parseInt(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        long battles = positional.size() > 0 ? Long.parseLong(positional.get(0)) : 1_000_000L;
+        long seed = positional.size() > 1 ? Long.parseLong(positional.get(1)) : 42L;
+        int partySize = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : 1;
+        int threads = positional.size() > 3 ? Integer.parseInt(positional.get(3)) : Runtime.getRuntime().availableProcessors();
+
+        GameData data = GameDataLoader.loadAll();
+        GameDataLoader.printDiagnostics(data.getDiagnostics());
+        List<Hero> heroes = data.getAllHeroes();
+        List<Monster> monsters = data.getMonsters();
+
+        if (heroes.isEmpty() || monsters.isEmpty()) {
+            System.err.println("No heroes or monsters loaded. Run from the project root so data/ is found.");
+            return;
+        }
+
+        MctsPolicy autopilot = (mctsMillis > 0)
+                ? new MctsPolicy(mctsMillis, 0, Math.max(1, MctsPolicy.defaultWorkers() / threads), seed)
+                : null;
+        ActionPolicy policy = (autopilot != null) ? autopilot : new AutoBattlePolicy();
+        BalanceSimulator simulator = new BalanceSimulator(
+                BalanceSimulator.groupByType(heroes), monsters, policy, partySize);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        BalanceStats stats = simulator.run(battles, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("Simulated %d battles (seed %d, party size %d) on %d threads in %.2fs (%.0f battles/s)%n",
+                stats.getBattles(), seed, partySize, threads, seconds, stats.getBattles() / seconds);
+        System.out.printf("Draws (undecided after %d rounds): %d%n", BattleController.DEFAULT_MAX_ROUNDS, stats.getDraws());
+        if (autopilot != null) {
+            System.out.printf("Autopilot: %d decisions, %.0f rollouts per decision, %.0f rollouts/s%n",
+                    autopilot.getDecisions(), (double) autopilot.getRollouts() / Math.max(1, autopilot.getDecisions()),
+                    autopilot.getRollouts() / seconds);
+        }
+
+        printHeader("HERO CLASS");
+        for (HeroType type : HeroType.values()) printRow(type.name(), stats.forHero(type));
+        System.out.println(ROW_BORDER);
+
+        printHeader("MONSTER TYPE");
+        for (MonsterType type : MonsterType.values()) printRow(type.name(), stats.forMonster(type));
+        System.out.println(ROW_BORDER);
+    }
+
+    private static void printHeader(String title) {
+        System.out.println();
+        System.out.println(title + " (party perspective; rounds and HP over won battles)");
+        System.out.println(ROW_BORDER);
+        System.out.printf("| %-11s | %10s | %7s | %7s | %6s | %9s | %9s | %6s | %7s |%n",
+                "NAME", "BATTLES", "WIN", "DRAW", "ROUNDS", "P50/P90", "MIN/MAX", "HP AVG", "HP P10");
+        System.out.println(ROW_BORDER);
+    }
+
+    private static void printRow(String name, OutcomeStats s) {
+        System.out.printf(ROW_FORMAT, name, s.getBattles(), s.getWinRate() * 100, s.getDrawRate() * 100, s.getMeanRoundsToWin(),
+                s.getRoundsToWinPercentile(0.5), s.getRoundsToWinPercentile(0.9),
+                s.getRoundsToWinPercentile(0.0), s.getRoundsToWinPercentile(1.0),
+                s.getMeanHpLeftPercent(), s.getHpLeftPercentile(0.1));
+    }
+}
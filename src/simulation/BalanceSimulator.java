@@ -0,0 +1,204 @@
+package simulation;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Party;
+import game.ActionPolicy;
+import game.BattleController;
+import game.BattleListener;
+import game.BattleResult;
+import game.Encounter;
+import game.EncounterPolicy;
+import game.MonsterSpawner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo balance simulator.
+ * Resolves large numbers of headless battles with the real BattleController rules,
+ * fanned out over a ForkJoinPool.
+ *
+ * <p>Every battle is seeded from (master seed, battle index) alone, so results are identical
+ * for a given master seed no matter how many threads run or how the work is split.</p>
+ *
+ * <p>If the policy is also an {@link EncounterPolicy} (AutoBattlePolicy is), battles run on the
+ * allocation-free {@link BattleController#runEncounter} path: each batch reuses one
+ * {@link Encounter} and loads hero templates into it directly, so the steady state creates no
+ * Party, Hero or Monster objects. The random draws are the same as on the object path, so a
+ * seed gives the same statistics either way.</p>
+ */
+public class BalanceSimulator {
+
+    // Battles per leaf task; large enough to amortize task overhead, small enough to balance cores
+    private static final int BATCH_SIZE = 2048;
+
+    private final List<List<Hero>> heroesByType;
+    private final MonsterSpawner spawner;   // Shared by all workers, so level tables are built once
+    private final ActionPolicy policy;
+    private final int partySize;
+
+    /**
+     * @param heroesByType   Hero templates grouped by class (see {@link #groupByType}); a class is picked
+     *                       uniformly, then a hero within it. Templates are copied, never mutated.
+     * @param monsterCatalog Monster templates used for spawning.
+     * @param policy         Thread-safe policy shared by every worker (stateless, or with per-thread state).
+     * @param partySize      Heroes per party (1-3).
+     */
+    public BalanceSimulator(List<List<Hero>> heroesByType, List<Monster> monsterCatalog,
+                            ActionPolicy policy, int partySize) {
+        if (partySize < 1 || partySize > 3) {
+            throw new IllegalArgumentException("Party size must be between 1 and 3.");
+        }
+        this.heroesByType = heroesByType;
+        this.spawner = new MonsterSpawner(monsterCatalog);
+        this.policy = policy;
+        this.partySize = partySize;
+    }
+
+    /**
+     * Simulates {@code battles} battles on the given pool.
+     *
+     * @param battles    Number of battles to resolve.
+     * @param masterSeed Root seed; the same seed always yields the same statistics.
+     * @param pool       The pool to run on (e.g. {@link ForkJoinPool#commonPool()}).
+     */
+    public BalanceStats run(long battles, long masterSeed, ForkJoinPool pool) {
+        return pool.invoke(new BattleBatch(masterSeed, 0, battles));
+    }
+
+    /**
+     * Turns (master seed, index) into a well-mixed per-battle seed.
+     */
+    static long battleSeed(long masterSeed, long index) {
+        return RandomGenerator.deriveSeed(masterSeed, index);
+    }
+
+    /**
+     * Same draws as {@link #buildParty}, but loads the templates into a reused encounter.
+     * Templates with an empty inventory are loaded as they are: the encounter never writes to a
+     * Hero, and with nothing carried there is nothing for a battle to use up.
+     */
+    private void loadParty(Encounter encounter, RandomGenerator rng) {
+        encounter.clear();
+        for (int i = 0; i < partySize; i++) {
+            List<Hero> pool = heroesByType.get(rng.nextInt(heroesByType.size()));
+            Hero template = pool.get(rng.nextInt(pool.size()));
+            encounter.addHero(template.getInventory().isEmpty() ? template : template.copy());
+        }
+    }
+
+    private Party buildParty(RandomGenerator rng) {
+        Party party = new Party();
+        for (int i = 0; i < partySize; i++) {
+            List<Hero> pool = heroesByType.get(rng.nextInt(heroesByType.size()));
+            party.addHero(pool.get(rng.nextInt(pool.size())).copy());
+        }
+        return party;
+    }
+
+    /**
+     * Splits the index range in halves until it fits in one batch, then runs it sequentially.
+     */
+    private class BattleBatch extends RecursiveTask<BalanceStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long masterSeed;
+        private final long from;
+        private final long to;
+
+        BattleBatch(long masterSeed, long from, long to) {
+            this.masterSeed = masterSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BalanceStats compute() {
+            if (to - from <= BATCH_SIZE) {
+                return simulateRange();
+            }
+            long mid = (from + to) >>> 1;
+            BattleBatch left = new BattleBatch(masterSeed, from, mid);
+            left.fork();
+            BalanceStats right = new BattleBatch(masterSeed, mid, to).compute();
+            return left.join().merge(right);
+        }
+
+        private BalanceStats simulateRange() {
+            // Thread-confined engine: one generator and controller per batch, reseeded per battle
+            RandomGenerator rng = RandomGenerator.newSeeded(0);
+            BattleController controller = new BattleController(spawner, rng);
+            BalanceStats stats = new BalanceStats();
+
+            if (policy instanceof EncounterPolicy) {
+                EncounterPolicy encounterPolicy = (EncounterPolicy) policy;
+                Encounter encounter = new Encounter();
+                int[] hpPercent = new int[Encounter.MAX_COMBATANTS];
+                for (long i = from; i < to; i++) {
+                    rng.setSeed(battleSeed(masterSeed, i));
+                    loadParty(encounter, rng);
+                    boolean won = controller.runEncounter(encounter, encounterPolicy) == BattleResult.Outcome.VICTORY;
+                    for (int h = 0; h < encounter.getHeroCount(); h++) {
+                        hpPercent[h] = won
+                                ? (int) Math.round(encounter.getHeroHp(h) * 100 / (encounter.getHeroLevel(h) * 100.0))
+                                : 0;
+                    }
+                    stats.record(encounter, hpPercent);
+                }
+                controller.flushMetrics();
+                return stats;
+            }
+
+            HpSnapshot snapshot = new HpSnapshot();
+            for (long i = from; i < to; i++) {
+                rng.setSeed(battleSeed(masterSeed, i));
+                Party party = buildParty(rng);
+                snapshot.reset();
+                BattleResult result = controller.runBattle(party, policy, snapshot);
+                stats.record(party, result, snapshot.hpPercent);
+            }
+            controller.flushMetrics();
+            return stats;
+        }
+    }
+
+    /**
+     * Captures each hero's HP at the moment of victory, before fainted heroes are revived.
+     */
+    private static class HpSnapshot implements BattleListener {
+        private final int[] hpPercent = new int[3];
+
+        void reset() {
+            Arrays.fill(hpPercent, 0);
+        }
+
+        @Override
+        public void battleWon(Party party, double goldReward, int xpReward) {
+            for (int i = 0; i < party.getSize(); i++) {
+                Hero h = party.getHero(i);
+                hpPercent[i] = (int) Math.round(h.getHp() * 100 / (h.getLevel() * 100.0));
+            }
+        }
+    }
+
+    /**
+     * Groups a flat hero list by class, in HeroType ordinal order.
+     */
+    public static List<List<Hero>> groupByType(List<Hero> heroes) {
+        List<List<Hero>> grouped = new ArrayList<>();
+        for (HeroType type : HeroType.values()) {
+            List<Hero> ofType = new ArrayList<>();
+            for (Hero h : heroes) {
+                if (h.getType() == type) ofType.add(h);
+            }
+            if (!ofType.isEmpty()) grouped.add(ofType);
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,120 @@
+package simulation;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import entities.Party;
+import game.BattleResult;
+import game.Encounter;
+
+/**
+ * Balance statistics broken down by hero class and monster type.
+ * One instance is filled per worker batch and batches are merged pairwise,
+ * so recording never contends on shared state.
+ */
+public class BalanceStats {
+
+    private final OutcomeStats[] byHeroType = newTable(HeroType.values().length);
+    private final OutcomeStats[] byMonsterType = newTable(MonsterType.values().length);
+    private long battles;
+    private long draws;
+
+    /**
+     * Records one finished battle.
+     *
+     * @param party     The party after the battle.
+     * @param result    The engine result.
+     * @param hpPercent HP left per party member (percent of max) at the moment of victory.
+     */
+    void record(Party party, BattleResult result, int[] hpPercent) {
+        battles++;
+        boolean won = result.isVictory();
+        boolean drawn = result.getOutcome() == BattleResult.Outcome.DRAW;
+        if (drawn) draws++;
+
+        int partyHpSum = 0;
+        for (int i = 0; i < party.getSize(); i++) {
+            Hero hero = party.getHero(i);
+            OutcomeStats stats = byHeroType[hero.getType().ordinal()];
+            if (won) stats.recordWin(result.getRounds(), hpPercent[i]);
+            else if (drawn) stats.recordDraw();
+            else stats.recordLoss();
+            partyHpSum += hpPercent[i];
+        }
+
+        // Count each monster type once per battle, even if it spawned several times
+        boolean[] seen = new boolean[byMonsterType.length];
+        for (Monster m : result.getEnemies()) {
+            int t = m.getType().ordinal();
+            if (seen[t]) continue;
+            seen[t] = true;
+            if (won) byMonsterType[t].recordWin(result.getRounds(), partyHpSum / party.getSize());
+            else if (drawn) byMonsterType[t].recordDraw();
+            else byMonsterType[t].recordLoss();
+        }
+    }
+
+    /**
+     * Records one finished encounter; same bookkeeping as {@link #record(Party, BattleResult, int[])}.
+     *
+     * @param hpPercent HP left per hero slot (percent of max) at the moment of victory.
+     */
+    void record(Encounter encounter, int[] hpPercent) {
+        battles++;
+        boolean won = encounter.getOutcome() == BattleResult.Outcome.VICTORY;
+        boolean drawn = encounter.getOutcome() == BattleResult.Outcome.DRAW;
+        if (drawn) draws++;
+        int rounds = encounter.getRounds();
+
+        int partyHpSum = 0;
+        for (int i = 0; i < encounter.getHeroCount(); i++) {
+            OutcomeStats stats = byHeroType[encounter.getHero(i).getType().ordinal()];
+            if (won) stats.recordWin(rounds, hpPercent[i]);
+            else if (drawn) stats.recordDraw();
+            else stats.recordLoss();
+            partyHpSum += hpPercent[i];
+        }
+
+        // Bit set of the monster types already counted, instead of a boolean[] per battle
+        int seen = 0;
+        for (int m = 0; m < encounter.getMonsterCount(); m++) {
+            int t = encounter.getMonsterType(m).ordinal();
+            if ((seen & (1 << t)) != 0) continue;
+            seen |= 1 << t;
+            if (won) byMonsterType[t].recordWin(rounds, partyHpSum / encounter.getHeroCount());
+            else if (drawn) byMonsterType[t].recordDraw();
+            else byMonsterType[t].recordLoss();
+        }
+    }
+
+    BalanceStats merge(BalanceStats other) {
+        battles += other.battles;
+        draws += other.draws;
+        for (int i = 0; i < byHeroType.length; i++) byHeroType[i].merge(other.byHeroType[i]);
+        for (int i = 0; i < byMonsterType.length; i++) byMonsterType[i].merge(other.byMonsterType[i]);
+        return this;
+    }
+
+    public long getBattles() { return battles; }
+
+    /** @return Battles stopped at the engine's round limit with both sides standing. */
+    public long getDraws() { return draws; }
+
+    public OutcomeStats forHero(HeroType type) {
+        return byHeroType[type.ordinal()];
+    }
+
+    /**
+     * Stats are from the party's point of view: a "win" means the party beat a group containing this type.
+     */
+    public OutcomeStats forMonster(MonsterType type) {
+        return byMonsterType[type.ordinal()];
+    }
+
+    private static OutcomeStats[] newTable(int size) {
+        OutcomeStats[] table = new OutcomeStats[size];
+        for (int i = 0; i < size; i++) table[i] = new OutcomeStats();
+        return table;
+    }
+}
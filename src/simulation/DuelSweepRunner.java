@@ -0,0 +1,204 @@
+package simulation;
+
+import common.RandomGenerator;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import game.AutoBattlePolicy;
+import game.BattleController;
+import game.BattleResult;
+import game.DuelBatch;
+import game.DuelResolver;
+import game.Encounter;
+import game.EncounterPolicy;
+import game.MonsterSpawner;
+import utils.GameData;
+import utils.GameDataLoader;
+
+import java.util.List;
+
+/**
+ * Balance sweep over one-hero-vs-one-monster duels, resolved in batches by a {@link DuelResolver}.
+ * Duel {@code i} pits hero template {@code i % heroes} against a monster spawned at its level
+ * from seed {@code battleSeed(seed, i)}, and reports win rate and rounds per hero class and
+ * monster type.
+ *
+ * <p>{@code --verify} replays every duel through {@link BattleController#runEncounter} and checks
+ * that outcome, rounds and final HP and mana match bit for bit; {@code --vector} uses the SIMD
+ * resolver, which needs the JVM started with {@code --add-modules jdk.incubator.vector}.</p>
+ *
+ * <p>Usage: {@code java --add-modules jdk.incubator.vector -cp bin simulation.DuelSweepRunner
+ * [duels] [seed] [--vector] [--verify]}</p>
+ */
+public class DuelSweepRunner {
+
+    private static final int BATCH_SIZE = 4096;
+    private static final int MAX_ROUNDS = 1000;
+    private static final int MISMATCHES_SHOWN = 10;
+
+    private static final String ROW_BORDER = "+-------------+------------+---------+--------+-----------+";
+    private static final String ROW_FORMAT = "| %-11s | %10d | %6.2f%% | %6.2f | %9d |%n";
+
+    public static void main(String[] args) {
+        long duels = 1_000_000L;
+        long seed = 42L;
+        boolean vector = false;
+        boolean verify = false;
+        int positional = 0;
+        for (String arg : args) {
+            if (arg.equals("--vector")) {
+                vector = true;
+            } else if (arg.equals("--verify")) {
+                verify = true;
+            } else if (positional == 0) {
+                duels = Long.parseLong(arg);
+                positional++;
+            } else if (positional == 1) {
+                seed = Long.parseLong(arg);
+                positional++;
+            } else {
+                System.err.println("Usage: java --add-modules jdk.incubator.vector -cp bin simulation.DuelSweepRunner [duels] [seed] [--vector] [--verify]");
+                System.exit(1);
+            }
+        }
+
+        GameData data = GameDataLoader.loadAll();
+        GameDataLoader.printDiagnostics(data.getDiagnostics());
+        List<Hero> heroes = data.getAllHeroes();
+        List<Monster> monsters = data.getMonsters();
+        if (heroes.isEmpty() || monsters.isEmpty()) {
+            System.err.println("No heroes or monsters loaded. Run from the project root so data/ is found.");
+            return;
+        }
+
+        DuelResolver resolver;
+        try {
+            resolver = vector ? DuelResolver.vector() : DuelResolver.scalar();
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        MonsterSpawner spawner = new MonsterSpawner(monsters);
+        DuelBatch batch = new DuelBatch(BATCH_SIZE);
+        DuelStats[] byHero = newStats(HeroType.values().length);
+        DuelStats[] byMonster = newStats(MonsterType.values().length);
+        Verifier verifier = verify ? new Verifier(spawner) : null;
+
+        long resolveNanos = 0;
+        long start = System.nanoTime();
+        for (long first = 0; first < duels; first += BATCH_SIZE) {
+            int count = (int) Math.min(BATCH_SIZE, duels - first);
+            batch.clear();
+            for (int k = 0; k < count; k++) {
+                long i = first + k;
+                batch.add(heroes.get((int) (i % heroes.size())), spawner, BalanceSimulator.battleSeed(seed, i));
+            }
+
+            long resolveStart = System.nanoTime();
+            resolver.resolve(batch, MAX_ROUNDS);
+            resolveNanos += System.nanoTime() - resolveStart;
+
+            for (int k = 0; k < count; k++) {
+                byHero[batch.getHero(k).getType().ordinal()].record(batch, k);
+                byMonster[batch.getMonsterType(k).ordinal()].record(batch, k);
+                if (verifier != null) verifier.check(batch, k, BalanceSimulator.battleSeed(seed, first + k));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double resolveSeconds = resolveNanos / 1e9;
+
+        System.out.printf("Resolved %d duels (seed %d) with the %s resolver in %.3fs (%.0f duels/s); %.2fs in total%n",
+                duels, seed, resolver.getName(), resolveSeconds, duels / resolveSeconds, seconds);
+
+        printHeader("HERO CLASS");
+        for (HeroType type : HeroType.values()) byHero[type.ordinal()].print(type.name());
+        System.out.println(ROW_BORDER);
+        printHeader("MONSTER TYPE");
+        for (MonsterType type : MonsterType.values()) byMonster[type.ordinal()].print(type.name());
+        System.out.println(ROW_BORDER);
+
+        if (verifier != null) {
+            if (verifier.mismatches == 0) {
+                System.out.println("\nVerified: all " + duels + " duels match BattleController.runEncounter.");
+            } else {
+                System.out.println("\n" + verifier.mismatches + " of " + duels + " duels differ from BattleController.runEncounter.");
+                System.exit(1);
+            }
+        }
+    }
+
+    private static DuelStats[] newStats(int n) {
+        DuelStats[] stats = new DuelStats[n];
+        for (int i = 0; i < n; i++) stats[i] = new DuelStats();
+        return stats;
+    }
+
+    private static void printHeader(String title) {
+        System.out.println();
+        System.out.println(title + " (hero perspective; rounds over won duels)");
+        System.out.println(ROW_BORDER);
+        System.out.printf("| %-11s | %10s | %7s | %6s | %9s |%n", "NAME", "DUELS", "WIN", "ROUNDS", "UNDECIDED");
+        System.out.println(ROW_BORDER);
+    }
+
+    private static final class DuelStats {
+        long duels;
+        long wins;
+        long winRounds;
+        long undecided;
+
+        void record(DuelBatch batch, int i) {
+            duels++;
+            if (batch.getOutcome(i) == BattleResult.Outcome.VICTORY) {
+                wins++;
+                winRounds += batch.getRounds(i);
+            } else if (batch.getOutcome(i) == BattleResult.Outcome.DRAW) {
+                undecided++;
+            }
+        }
+
+        void print(String name) {
+            System.out.printf(ROW_FORMAT, name, duels, (duels == 0) ? 0 : wins * 100.0 / duels,
+                    (wins == 0) ? 0 : (double) winRounds / wins, undecided);
+        }
+    }
+
+    /**
+     * Replays duels one by one through the per-battle engine and compares the results.
+     */
+    private static final class Verifier {
+        private final RandomGenerator rng = RandomGenerator.newSeeded(0);
+        private final BattleController controller;
+        private final Encounter encounter = new Encounter();
+        private final EncounterPolicy policy = new AutoBattlePolicy();
+        long mismatches;
+
+        Verifier(MonsterSpawner spawner) {
+            this.controller = new BattleController(spawner, rng);
+            controller.setMaxRounds(MAX_ROUNDS);
+        }
+
+        void check(DuelBatch batch, int i, long seed) {
+            encounter.clear();
+            encounter.addHero(batch.getHero(i));
+            rng.setSeed(seed);
+            BattleResult.Outcome outcome = controller.runEncounter(encounter, policy);
+
+            boolean same = outcome == batch.getOutcome(i)
+                    && encounter.getRounds() == batch.getRounds(i)
+                    && Double.doubleToLongBits(encounter.getHeroHp(0)) == Double.doubleToLongBits(batch.getHeroHp(i))
+                    && Double.doubleToLongBits(encounter.getHeroMana(0)) == Double.doubleToLongBits(batch.getHeroMana(i))
+                    && Double.doubleToLongBits(encounter.getMonsterHp(0)) == Double.doubleToLongBits(batch.getMonsterHp(i));
+            if (same) return;
+            if (mismatches++ < MISMATCHES_SHOWN) {
+                System.out.printf("Mismatch (seed %d, %s): engine %s in %d rounds, hero %s/%s, monster %s;"
+                                + " batch %s in %d rounds, hero %s/%s, monster %s%n",
+                        seed, batch.getHero(i).getName(),
+                        outcome, encounter.getRounds(), encounter.getHeroHp(0), encounter.getHeroMana(0), encounter.getMonsterHp(0),
+                        batch.getOutcome(i), batch.getRounds(i), batch.getHeroHp(i), batch.getHeroMana(i), batch.getMonsterHp(i));
+            }
+        }
+    }
+}
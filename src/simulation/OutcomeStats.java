@@ -0,0 +1,103 @@
+package simulation;
+
+/**
+ * Aggregated battle outcomes for one hero class or monster type.
+ * Keeps fixed-size histograms instead of raw samples so millions of battles
+ * cost a few hundred longs, and partial results from different workers can be merged.
+ */
+public class OutcomeStats {
+
+    // Rounds beyond this land in the last (overflow) bucket
+    static final int MAX_ROUNDS = 100;
+    // HP left is tracked in whole percent of max HP, capped at 100 (regeneration can overshoot)
+    static final int MAX_HP_PERCENT = 100;
+
+    private long battles;
+    private long wins;
+    private long draws;
+    private long roundsToWinSum;
+    private long hpLeftSum;
+    private final long[] roundsToWin = new long[MAX_ROUNDS + 1];
+    private final long[] hpLeftPercent = new long[MAX_HP_PERCENT + 1];
+
+    void recordLoss() {
+        battles++;
+    }
+
+    /**
+     * A battle stopped at the engine's round limit; counted in the battles but not as a loss.
+     */
+    void recordDraw() {
+        battles++;
+        draws++;
+    }
+
+    void recordWin(int rounds, int hpPercent) {
+        battles++;
+        wins++;
+
+        int r = Math.min(rounds, MAX_ROUNDS);
+        int hp = Math.max(0, Math.min(hpPercent, MAX_HP_PERCENT));
+        roundsToWin[r]++;
+        roundsToWinSum += r;
+        hpLeftPercent[hp]++;
+        hpLeftSum += hp;
+    }
+
+    void merge(OutcomeStats other) {
+        battles += other.battles;
+        wins += other.wins;
+        draws += other.draws;
+        roundsToWinSum += other.roundsToWinSum;
+        hpLeftSum += other.hpLeftSum;
+        for (int i = 0; i < roundsToWin.length; i++) roundsToWin[i] += other.roundsToWin[i];
+        for (int i = 0; i < hpLeftPercent.length; i++) hpLeftPercent[i] += other.hpLeftPercent[i];
+    }
+
+    public long getBattles() { return battles; }
+    public long getWins() { return wins; }
+    public long getDraws() { return draws; }
+
+    public double getWinRate() {
+        return battles == 0 ? 0 : (double) wins / battles;
+    }
+
+    public double getDrawRate() {
+        return battles == 0 ? 0 : (double) draws / battles;
+    }
+
+    public double getMeanRoundsToWin() {
+        return wins == 0 ? 0 : (double) roundsToWinSum / wins;
+    }
+
+    /**
+     * @param p Quantile in [0, 1], e.g. 0.5 for the median.
+     * @return Rounds needed to win at that quantile of won battles.
+     */
+    public int getRoundsToWinPercentile(double p) {
+        return percentile(roundsToWin, p);
+    }
+
+    public double getMeanHpLeftPercent() {
+        return wins == 0 ? 0 : (double) hpLeftSum / wins;
+    }
+
+    /**
+     * @param p Quantile in [0, 1], e.g. 0.1 for the closest 10% of wins.
+     * @return HP left (percent of max) at that quantile of won battles.
+     */
+    public int getHpLeftPercentile(double p) {
+        return percentile(hpLeftPercent, p);
+    }
+
+    private int percentile(long[] histogram, double p) {
+        if (wins == 0) return 0;
+        long rank = (long) Math.ceil(p * wins);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= Math.max(1, rank)) return i;
+        }
+        return histogram.length - 1;
+    }
+}
@@ -0,0 +1,125 @@
+package simulation;
+
+import common.GameIO;
+import common.RandomGenerator;
+import common.SessionJournal;
+import common.SilentIO;
+import common.StreamIO;
+import game.LegendsGame;
+import utils.GameData;
+import utils.GameDataLoader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line entry point that plays recorded sessions back through {@link LegendsGame}.
+ * Each journal's seed is restored and its input lines are fed in as fast as the game consumes
+ * them, with board rendering off and all other game output discarded, so a recorded bug
+ * reproduces exactly and a folder of journals doubles as a regression and throughput suite.
+ * A session that continued a saved game is offered the save recorded in its journal; the
+ * replay never reads or writes the autosave on disk.
+ *
+ * <p>A session passes if the game consumes its journal without throwing. Running out of input
+ * mid-game is fine (the player may have been cut off); input left over after the game ended
+ * means the replay diverged from the recording and counts as a failure.</p>
+ *
+ * <p>Usage: {@code java -cp bin simulation.SessionReplayer [--verbose] <journal or directory>...}
+ * ({@code --verbose} shows the game output, frames included).</p>
+ */
+public class SessionReplayer {
+
+    public static void main(String[] args) throws IOException {
+        boolean verbose = false;
+        List<Path> journals = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--verbose")) {
+                verbose = true;
+            } else {
+                journals.addAll(findJournals(Paths.get(arg)));
+            }
+        }
+        if (journals.isEmpty()) {
+            System.err.println("Usage: java -cp bin simulation.SessionReplayer [--verbose] <journal or directory>...");
+            return;
+        }
+
+        // Loaded once and shared: LegendsGame never modifies a catalog it is given
+        GameData data = GameDataLoader.loadAll();
+        GameDataLoader.printDiagnostics(data.getDiagnostics());
+
+        int failures = 0;
+        long totalLines = 0;
+        long start = System.nanoTime();
+        for (Path file : journals) {
+            SessionJournal journal;
+            try {
+                journal = SessionJournal.read(file);
+            } catch (IOException e) {
+                System.out.println("FAIL " + file + ": " + e.getMessage());
+                failures++;
+                continue;
+            }
+            long sessionStart = System.nanoTime();
+            String outcome = replay(journal, data, verbose);
+            double millis = (System.nanoTime() - sessionStart) / 1e6;
+            totalLines += journal.getLines().size();
+            if (outcome.startsWith("FAIL")) failures++;
+            System.out.printf("%s %s (%d lines, seed %d, %.1f ms)%n",
+                    outcome, file, journal.getLines().size(), journal.getSeed(), millis);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Replayed %d sessions (%d input lines) in %.2fs (%.0f lines/s); %d failed%n",
+                journals.size(), totalLines, seconds, totalLines / seconds, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    /**
+     * Plays one journal.
+     * @return "OK", or "FAIL: reason".
+     */
+    static String replay(SessionJournal journal, GameData data, boolean verbose) {
+        BufferedReader input = journal.newReader();
+        // Silent: the game skips rendering and formatting altogether, not just the printing
+        GameIO io = verbose ? new StreamIO(input, System.out) : new SilentIO(input);
+        RandomGenerator.startSession(journal.getSeed());
+        try {
+            new LegendsGame(data, journal.getSaves()).play(io);
+        } catch (NoSuchElementException e) {
+            return "OK";    // Journal ended mid-game
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return "FAIL: " + e;
+        } finally {
+            io.flush();
+        }
+        try {
+            int left = 0;
+            while (input.readLine() != null) left++;
+            if (left > 0) return "FAIL: game ended with " + left + " input lines left (replay diverged)";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // Cannot happen: the lines are in memory
+        }
+        return "OK";
+    }
+
+    private static List<Path> findJournals(Path path) throws IOException {
+        if (!Files.isDirectory(path)) return Collections.singletonList(path);
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(SessionJournal.EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Armor;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+import items.Weapon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the text data files into the binary catalog read by {@link CompiledCatalog}.
+ * Parsing uses GameDataLoader's row schemas, so both forms always agree.
+ *
+ * <p>Usage: {@code java -cp bin utils.CatalogCompiler [dataDir] [outputFile]}
+ * (defaults: {@code data} and {@code data/catalog.bin}).</p>
+ */
+public class CatalogCompiler {
+
+    private static final Source[] SOURCES = {
+            new Source("Warriors.txt", CompiledCatalog.KIND_HERO, HeroType.WARRIOR),
+            new Source("Sorcerers.txt", CompiledCatalog.KIND_HERO, HeroType.SORCERER),
+            new Source("Paladins.txt", CompiledCatalog.KIND_HERO, HeroType.PALADIN),
+            new Source("Dragons.txt", CompiledCatalog.KIND_MONSTER, MonsterType.DRAGON),
+            new Source("Exoskeletons.txt", CompiledCatalog.KIND_MONSTER, MonsterType.EXOSKELETON),
+            new Source("Spirits.txt", CompiledCatalog.KIND_MONSTER, MonsterType.SPIRIT),
+            new Source("Weaponry.txt", CompiledCatalog.KIND_WEAPON, null),
+            new Source("Armory.txt", CompiledCatalog.KIND_ARMOR, null),
+            new Source("Potions.txt", CompiledCatalog.KIND_POTION, null),
+            new Source("FireSpells.txt", CompiledCatalog.KIND_SPELL, SpellType.FIRE),
+            new Source("IceSpells.txt", CompiledCatalog.KIND_SPELL, SpellType.ICE),
+            new Source("LightningSpells.txt", CompiledCatalog.KIND_SPELL, SpellType.LIGHTNING),
+    };
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        Path dataDir = Paths.get(args.length > 0 ? args[0] : GameDataLoader.DATA_DIR);
+        Path output = args.length > 1 ? Paths.get(args[1]) : dataDir.resolve(GameDataLoader.CATALOG_FILE);
+        int sections = new CatalogCompiler().compile(dataDir, output);
+        System.out.println("Compiled " + sections + " data files into " + output);
+    }
+
+    /**
+     * Compiles every data file found in {@code dataDir} and atomically replaces {@code output}.
+     * @return The number of sections written.
+     */
+    public int compile(Path dataDir, Path output) throws IOException {
+        ByteArrayOutputStream directoryBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream directory = new DataOutputStream(directoryBytes);
+        DataOutputStream records = new DataOutputStream(recordBytes);
+
+        List<Source> present = new ArrayList<>();
+        for (Source source : SOURCES) {
+            if (Files.isRegularFile(dataDir.resolve(source.fileName))) present.add(source);
+        }
+        int recordsStart = CompiledCatalog.HEADER_SIZE + present.size() * CompiledCatalog.SECTION_SIZE;
+
+        for (Source source : present) {
+            Path file = dataDir.resolve(source.fileName);
+            // Stamp before parsing: an edit made while compiling then shows up as stale
+            BasicFileAttributes stamp = Files.readAttributes(file, BasicFileAttributes.class);
+            int offset = recordsStart + records.size();
+            int count = writeRecords(records, file, source);
+
+            directory.writeInt(intern(source.fileName));
+            directory.writeInt(source.kind);
+            directory.writeLong(stamp.lastModifiedTime().toMillis());
+            directory.writeLong(stamp.size());
+            directory.writeInt(count);
+            directory.writeInt(offset);
+        }
+
+        ByteArrayOutputStream fileBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(fileBytes);
+        out.writeInt(CompiledCatalog.MAGIC);
+        out.writeInt(CompiledCatalog.VERSION);
+        out.writeInt(present.size());
+        out.writeInt(recordsStart + records.size());
+        directoryBytes.writeTo(out);
+        recordBytes.writeTo(out);
+        writeStringTable(out);
+        out.flush();
+
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        Files.write(temp, fileBytes.toByteArray());
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return present.size();
+    }
+
+    private int writeRecords(DataOutputStream out, Path file, Source source) throws IOException {
+        switch (source.kind) {
+            case CompiledCatalog.KIND_HERO: {
+                List<Hero> heroes = parse(file, GameDataLoader.heroSchema((HeroType) source.type));
+                for (Hero h : heroes) {
+                    out.writeInt(intern(h.getName()));
+                    out.writeDouble(h.getMana());
+                    out.writeDouble(h.getStrength());
+                    out.writeDouble(h.getAgility());
+                    out.writeDouble(h.getDexterity());
+                    out.writeDouble(h.getMoney());
+                    out.writeInt(h.getExperience());
+                }
+                return heroes.size();
+            }
+            case CompiledCatalog.KIND_MONSTER: {
+                List<Monster> monsters = parse(file, GameDataLoader.monsterSchema((MonsterType) source.type));
+                for (Monster m : monsters) {
+                    out.writeInt(intern(m.getName()));
+                    out.writeInt(m.getLevel());
+                    out.writeDouble(m.getBaseDamage());
+                    out.writeDouble(m.getDefense());
+                    out.writeDouble(m.getBaseDodgeChance());
+                }
+                return monsters.size();
+            }
+            case CompiledCatalog.KIND_WEAPON: {
+                List<Weapon> weapons = parse(file, GameDataLoader.WEAPON_SCHEMA);
+                for (Weapon w : weapons) {
+                    out.writeInt(intern(w.getName()));
+                    out.writeDouble(w.getPrice());
+                    out.writeInt(w.getMinLevel());
+                    out.writeDouble(w.getDamage());
+                    out.writeInt(w.getRequiredHands());
+                }
+                return weapons.size();
+            }
+            case CompiledCatalog.KIND_ARMOR: {
+                List<Armor> armor = parse(file, GameDataLoader.ARMOR_SCHEMA);
+                for (Armor a : armor) {
+                    out.writeInt(intern(a.getName()));
+                    out.writeDouble(a.getPrice());
+                    out.writeInt(a.getMinLevel());
+                    out.writeDouble(a.getDamageReduction());
+                }
+                return armor.size();
+            }
+            case CompiledCatalog.KIND_POTION: {
+                List<Potion> potions = parse(file, GameDataLoader.POTION_SCHEMA);
+                for (Potion p : potions) {
+                    out.writeInt(intern(p.getName()));
+                    out.writeDouble(p.getPrice());
+                    out.writeInt(p.getMinLevel());
+                    out.writeDouble(p.getAttributeIncrease());
+                    out.writeInt(intern(p.getAttributeString()));
+                }
+                return potions.size();
+            }
+            default: {
+                List<Spell> spells = parse(file, GameDataLoader.spellSchema((SpellType) source.type));
+                for (Spell s : spells) {
+                    out.writeInt(intern(s.getName()));
+                    out.writeDouble(s.getPrice());
+                    out.writeInt(s.getMinLevel());
+                    out.writeDouble(s.getDamage());
+                    out.writeDouble(s.getManaCost());
+                }
+                return spells.size();
+            }
+        }
+    }
+
+    private static <T> List<T> parse(Path file, RecordSchema<T> schema) {
+        List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        List<T> records = DataFileParser.parse(file, schema, diagnostics);
+        GameDataLoader.printDiagnostics(diagnostics);
+        return records;
+    }
+
+    private int intern(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    private void writeStringTable(DataOutputStream out) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        for (String s : strings) encoded.add(s.getBytes(StandardCharsets.UTF_8));
+
+        out.writeInt(strings.size());
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            out.writeInt(offset);
+            offset += bytes.length;
+        }
+        out.writeInt(offset);
+        for (byte[] bytes : encoded) out.write(bytes);
+    }
+
+    private static final class Source {
+        final String fileName;
+        final int kind;
+        final Enum<?> type;
+
+        Source(String fileName, int kind, Enum<?> type) {
+            this.fileName = fileName;
+            this.kind = kind;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Watches the data directory and hot-swaps the catalog when a data file changes.
+ *
+ * <p>The current catalog is an immutable {@link GameData} held in an AtomicReference. When a
+ * watched file is written, only that file is parsed again; a new snapshot is derived from the
+ * current one with {@link GameData#withFile} and published with a single reference swap.
+ * Readers never lock and never see a half-built catalog: anything that took a snapshot before
+ * the swap (a battle that already spawned, a market visit that already rolled its stock) keeps
+ * using it, and the next {@link #current()} call sees the new one.</p>
+ *
+ * <p>Editors often save in several steps (truncate, write, rename), so events are collected
+ * until the directory has been quiet for {@link #SETTLE_MILLIS} before anything is parsed.
+ * A reload that finds the file gone or yields no valid rows while the old version had some is
+ * treated as a bad edit: the old records are kept and the diagnostics are still reported.</p>
+ */
+public class CatalogReloader implements AutoCloseable {
+
+    /** How long the directory must be quiet before changed files are parsed again. */
+    static final long SETTLE_MILLIS = 200;
+
+    /** Notified on the watcher thread after each file has been reloaded (or rejected). */
+    public interface Listener {
+        /**
+         * @param fileName    The data file that changed.
+         * @param applied     True if a new snapshot was published, false if the old records were kept.
+         * @param diagnostics Problems found while parsing the new version.
+         */
+        void catalogReloaded(String fileName, boolean applied, List<ParseDiagnostic> diagnostics);
+    }
+
+    private final Path dataDir;
+    private final AtomicReference<GameData> current;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private WatchService watcher;
+    private Thread thread;
+
+    /**
+     * @param initial The catalog to serve until the first change (normally GameDataLoader.loadAll()).
+     */
+    public CatalogReloader(GameData initial) {
+        this.dataDir = Paths.get(GameDataLoader.DATA_DIR);
+        this.current = new AtomicReference<>(initial);
+    }
+
+    /** @return The latest published snapshot. Callers should read it once per battle or visit. */
+    public GameData current() {
+        return current.get();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts watching the data directory on a daemon thread.
+     *
+     * @return False if the directory cannot be watched; the initial snapshot is then served forever.
+     */
+    public synchronized boolean start() {
+        if (thread != null) return true;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            dataDir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Warning: Data hot-reload disabled, cannot watch " + dataDir + ": " + e.getMessage());
+            return false;
+        }
+        thread = new Thread(this::watchLoop, "catalog-reloader");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Stops watching. The last published snapshot stays available through {@link #current()}.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            // Closing only fails if the service is already broken; the thread exits either way
+        }
+        watcher = null;
+        thread = null;
+    }
+
+    /**
+     * Parses one data file again and, if the result is usable, publishes a snapshot with it.
+     * Runs on the watcher thread but may also be called directly.
+     *
+     * @return True if a new snapshot was published.
+     */
+    public boolean reload(String fileName) {
+        List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        List<?> records = GameDataLoader.loadFile(fileName, diagnostics);
+        if (records == null) return false;
+
+        boolean applied;
+        GameData before = current.get();
+        if (records.isEmpty() && !before.getRecords(fileName).isEmpty()) {
+            applied = false;
+        } else {
+            // Only this thread replaces snapshots, but a CAS loop keeps reload() safe to call from anywhere
+            GameData next;
+            do {
+                before = current.get();
+                next = before.withFile(fileName, records, diagnostics);
+            } while (!current.compareAndSet(before, next));
+            applied = true;
+        }
+        for (Listener listener : listeners) {
+            listener.catalogReloaded(fileName, applied, diagnostics);
+        }
+        return applied;
+    }
+
+    private void watchLoop() {
+        WatchService service = watcher;
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<>();
+                WatchKey key = service.take();
+                // Keep collecting until the directory has been quiet for a moment
+                while (key != null) {
+                    if (!collect(key, changed)) return;
+                    key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                for (String fileName : changed) {
+                    reload(fileName);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    /**
+     * Adds the data files named by a key's events to {@code changed} and re-arms the key.
+     *
+     * @return False if the key is no longer valid (the directory went away).
+     */
+    private boolean collect(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were dropped: we no longer know what changed, so check everything
+                for (String fileName : GameDataLoader.dataFileNames()) changed.add(fileName);
+                continue;
+            }
+            String fileName = ((Path) event.context()).getFileName().toString();
+            if (GameDataLoader.isDataFile(fileName)) changed.add(fileName);
+        }
+        return key.reset();
+    }
+}
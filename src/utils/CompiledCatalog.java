@@ -0,0 +1,220 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import items.Armor;
+import items.Potion;
+import items.Spell;
+import items.Spell.SpellType;
+import items.Weapon;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the precompiled binary catalog written by {@link CatalogCompiler}.
+ * The file is memory-mapped once; records are decoded straight from the mapping.
+ *
+ * <p>Layout (big-endian):</p>
+ * <pre>
+ * header    int magic 'LMHC' | int version | int sectionCount | int stringTableOffset
+ * sections  sectionCount x { int fileNameId | int kind | long sourceModified | long sourceSize
+ *                            | int recordCount | int recordsOffset }
+ * records   fixed-width rows per kind (see the RECORD_* sizes); strings are string-table ids
+ * strings   int count | int[count + 1] offsets into the blob | UTF-8 blob
+ * </pre>
+ *
+ * <p>Each section remembers the modification time and size of the text file it was compiled
+ * from. A section whose text file has changed since is reported as missing, and the caller
+ * falls back to parsing the text: the .txt files remain the source of truth.</p>
+ */
+public final class CompiledCatalog {
+
+    static final int MAGIC = 0x4C4D4843; // "LMHC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int SECTION_SIZE = 32;
+
+    static final int KIND_HERO = 0;
+    static final int KIND_MONSTER = 1;
+    static final int KIND_WEAPON = 2;
+    static final int KIND_ARMOR = 3;
+    static final int KIND_POTION = 4;
+    static final int KIND_SPELL = 5;
+
+    // name | mana, strength, agility, dexterity, money | experience
+    static final int RECORD_HERO = 4 + 5 * 8 + 4;
+    // name | level | damage, defense, dodge
+    static final int RECORD_MONSTER = 4 + 4 + 3 * 8;
+    // name | cost | level | damage | hands
+    static final int RECORD_WEAPON = 4 + 8 + 4 + 8 + 4;
+    // name | cost | level | reduction
+    static final int RECORD_ARMOR = 4 + 8 + 4 + 8;
+    // name | cost | level | increase | attributes
+    static final int RECORD_POTION = 4 + 8 + 4 + 8 + 4;
+    // name | cost | level | damage | mana cost
+    static final int RECORD_SPELL = 4 + 8 + 4 + 8 + 8;
+
+    private final ByteBuffer buffer;
+    private final Path dataDir;
+    private final Map<String, Integer> sectionByFile = new HashMap<>();
+    private final String[] strings;
+
+    private CompiledCatalog(ByteBuffer buffer, Path dataDir) {
+        this.buffer = buffer;
+        this.dataDir = dataDir;
+        this.strings = new String[buffer.getInt(buffer.getInt(12))];
+        int sections = buffer.getInt(8);
+        for (int i = 0; i < sections; i++) {
+            sectionByFile.put(string(buffer.getInt(HEADER_SIZE + i * SECTION_SIZE)), i);
+        }
+    }
+
+    /**
+     * Maps a compiled catalog.
+     *
+     * @param file    The catalog file.
+     * @param dataDir The directory holding the text sources it was compiled from.
+     * @return The catalog, or null if the file is missing, truncated or of another version.
+     */
+    public static CompiledCatalog open(Path file, Path dataDir) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) return null;
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) return null;
+            return new CompiledCatalog(buffer, dataDir);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            System.err.println("Warning: Ignoring unreadable compiled catalog " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public List<Hero> heroes(String fileName, HeroType type) {
+        int section = freshSection(fileName, KIND_HERO);
+        if (section < 0) return null;
+        List<Hero> heroes = new ArrayList<>(recordCount(section));
+        for (int i = 0, at = recordsOffset(section); i < recordCount(section); i++, at += RECORD_HERO) {
+            heroes.add(new Hero(string(buffer.getInt(at)), type,
+                    buffer.getDouble(at + 4), buffer.getDouble(at + 12), buffer.getDouble(at + 20),
+                    buffer.getDouble(at + 28), buffer.getDouble(at + 36), buffer.getInt(at + 44)));
+        }
+        return heroes;
+    }
+
+    public List<Monster> monsters(String fileName, MonsterType type) {
+        int section = freshSection(fileName, KIND_MONSTER);
+        if (section < 0) return null;
+        List<Monster> monsters = new ArrayList<>(recordCount(section));
+        for (int i = 0, at = recordsOffset(section); i < recordCount(section); i++, at += RECORD_MONSTER) {
+            monsters.add(new Monster(string(buffer.getInt(at)), type, buffer.getInt(at + 4),
+                    buffer.getDouble(at + 8), buffer.getDouble(at + 16), buffer.getDouble(at + 24)));
+        }
+        return monsters;
+    }
+
+    public List<Weapon> weapons(String fileName) {
+        int section = freshSection(fileName, KIND_WEAPON);
+        if (section < 0) return null;
+        List<Weapon> weapons = new ArrayList<>(recordCount(section));
+        for (int i = 0, at = recordsOffset(section); i < recordCount(section); i++, at += RECORD_WEAPON) {
+            weapons.add(new Weapon(string(buffer.getInt(at)), buffer.getDouble(at + 4),
+                    buffer.getInt(at + 12), buffer.getDouble(at + 16), buffer.getInt(at + 24)));
+        }
+        return weapons;
+    }
+
+    public List<Armor> armor(String fileName) {
+        int section = freshSection(fileName, KIND_ARMOR);
+        if (section < 0) return null;
+        List<Armor> armor = new ArrayList<>(recordCount(section));
+        for (int i = 0, at = recordsOffset(section); i < recordCount(section); i++, at += RECORD_ARMOR) {
+            armor.add(new Armor(string(buffer.getInt(at)), buffer.getDouble(at + 4),
+                    buffer.getInt(at + 12), buffer.getDouble(at + 16)));
+        }
+        return armor;
+    }
+
+    public List<Potion> potions(String fileName) {
+        int section = freshSection(fileName, KIND_POTION);
+        if (section < 0) return null;
+        List<Potion> potions = new ArrayList<>(recordCount(section));
+        for (int i = 0, at = recordsOffset(section); i < recordCount(section); i++, at += RECORD_POTION) {
+            potions.add(new Potion(string(buffer.getInt(at)), buffer.getDouble(at + 4),
+                    buffer.getInt(at + 12), buffer.getDouble(at + 16), string(buffer.getInt(at + 24))));
+        }
+        return potions;
+    }
+
+    public List<Spell> spells(String fileName, SpellType type) {
+        int section = freshSection(fileName, KIND_SPELL);
+        if (section < 0) return null;
+        List<Spell> spells = new ArrayList<>(recordCount(section));
+        for (int i = 0, at = recordsOffset(section); i < recordCount(section); i++, at += RECORD_SPELL) {
+            spells.add(new Spell(string(buffer.getInt(at)), buffer.getDouble(at + 4),
+                    buffer.getInt(at + 12), buffer.getDouble(at + 16), buffer.getDouble(at + 24), type));
+        }
+        return spells;
+    }
+
+    /**
+     * @return The section index, or -1 if the file was not compiled, holds another kind of
+     *         record, or its text source no longer matches the recorded time and size.
+     */
+    private int freshSection(String fileName, int kind) {
+        Integer section = sectionByFile.get(fileName);
+        if (section == null) return -1;
+        int at = HEADER_SIZE + section * SECTION_SIZE;
+        if (buffer.getInt(at + 4) != kind) return -1;
+        try {
+            BasicFileAttributes source = Files.readAttributes(dataDir.resolve(fileName), BasicFileAttributes.class);
+            if (source.lastModifiedTime().toMillis() != buffer.getLong(at + 8)
+                    || source.size() != buffer.getLong(at + 16)) {
+                return -1;
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return section;
+    }
+
+    private int recordCount(int section) {
+        return buffer.getInt(HEADER_SIZE + section * SECTION_SIZE + 24);
+    }
+
+    private int recordsOffset(int section) {
+        return buffer.getInt(HEADER_SIZE + section * SECTION_SIZE + 28);
+    }
+
+    /**
+     * Decodes a string-table entry on first use and keeps it.
+     */
+    private synchronized String string(int id) {
+        String s = strings[id];
+        if (s == null) {
+            int table = buffer.getInt(12);
+            int blob = table + 4 + (strings.length + 1) * 4;
+            int start = buffer.getInt(table + 4 + id * 4);
+            int end = buffer.getInt(table + 8 + id * 4);
+            byte[] bytes = new byte[end - start];
+            buffer.get(blob + start, bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = s;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,276 @@
+package utils;
+
+import utils.RecordSchema.Row;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming tokenizer for the whitespace-separated data files, driven by a {@link RecordSchema}.
+ *
+ * <p>The file is read in fixed-size blocks and tokenized in place: no per-line strings, no
+ * regex splitting, and numbers are decoded straight from the bytes. Only TEXT columns allocate.
+ * A bad row never throws; it is skipped and reported as a {@link ParseDiagnostic}.</p>
+ *
+ * <p>Blank lines and header lines (first token starting with {@code Name/}) are skipped. A row
+ * must have at least as many tokens as the schema has columns; extra tokens are ignored.</p>
+ */
+final class DataFileParser<T> {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final byte[] HEADER_PREFIX = "Name/".getBytes(StandardCharsets.US_ASCII);
+
+    // Powers of ten that are exact doubles; dividing an exact mantissa by one is correctly rounded
+    private static final double[] EXACT_POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        EXACT_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < EXACT_POWERS_OF_TEN.length; i++) {
+            EXACT_POWERS_OF_TEN[i] = EXACT_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final String fileName;
+    private final RecordSchema<T> schema;
+    private final List<T> records;
+    private final List<ParseDiagnostic> diagnostics;
+    private final Row row;
+    private final int[] tokenStart;
+    private final int[] tokenEnd;
+
+    private byte[] carry = new byte[256];   // Line split across two blocks
+    private int carryLength;
+    private int lineNumber;
+    private double decimal;                 // Result of the last successful parseDecimal
+    private int integer;                    // Result of the last successful parseInteger
+
+    private DataFileParser(String fileName, RecordSchema<T> schema, List<T> records,
+                           List<ParseDiagnostic> diagnostics) {
+        this.fileName = fileName;
+        this.schema = schema;
+        this.records = records;
+        this.diagnostics = diagnostics;
+        this.row = new Row(schema.getColumnCount());
+        this.tokenStart = new int[schema.getColumnCount()];
+        this.tokenEnd = new int[schema.getColumnCount()];
+    }
+
+    /**
+     * Parses every row of a data file.
+     *
+     * @param file        The file to read.
+     * @param schema      The row layout.
+     * @param diagnostics Receives one entry per skipped row, or for a missing or unreadable file.
+     * @return The records of all valid rows, in file order.
+     */
+    static <T> List<T> parse(Path file, RecordSchema<T> schema, List<ParseDiagnostic> diagnostics) {
+        String fileName = file.getFileName().toString();
+        List<T> records = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            diagnostics.add(new ParseDiagnostic(fileName, 0, "Config file not found", ""));
+            return records;
+        }
+        DataFileParser<T> parser = new DataFileParser<>(fileName, schema, records, diagnostics);
+        try (InputStream in = Files.newInputStream(file)) {
+            parser.read(in);
+        } catch (IOException e) {
+            diagnostics.add(new ParseDiagnostic(fileName, parser.lineNumber, "Read failed: " + e.getMessage(), ""));
+        }
+        return records;
+    }
+
+    private void read(InputStream in) throws IOException {
+        byte[] block = new byte[BLOCK_SIZE];
+        int read;
+        while ((read = in.read(block)) > 0) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (block[i] != '\n') continue;
+                if (carryLength == 0) {
+                    parseLine(block, start, i);
+                } else {
+                    appendCarry(block, start, i);
+                    parseLine(carry, 0, carryLength);
+                    carryLength = 0;
+                }
+                start = i + 1;
+            }
+            appendCarry(block, start, read);
+        }
+        if (carryLength > 0) {
+            parseLine(carry, 0, carryLength);
+        }
+    }
+
+    private void appendCarry(byte[] bytes, int from, int to) {
+        int length = to - from;
+        if (carryLength + length > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + length));
+        }
+        System.arraycopy(bytes, from, carry, carryLength, length);
+        carryLength += length;
+    }
+
+    private void parseLine(byte[] bytes, int from, int to) {
+        lineNumber++;
+        int columns = schema.getColumnCount();
+        int at = skipSpace(bytes, from, to);
+        if (at == to || startsWith(bytes, at, to, HEADER_PREFIX)) return;
+
+        for (int column = 0; column < columns; column++) {
+            if (at == to) {
+                report(bytes, from, to, "expected " + columns + " fields, found " + column);
+                return;
+            }
+            tokenStart[column] = at;
+            while (at < to && !isSpace(bytes[at])) at++;
+            tokenEnd[column] = at;
+            at = skipSpace(bytes, at, to);
+        }
+
+        for (int column = 0; column < columns; column++) {
+            int start = tokenStart[column];
+            int end = tokenEnd[column];
+            switch (schema.getColumnType(column)) {
+                case TEXT:
+                    row.setText(column, new String(bytes, start, end - start, StandardCharsets.UTF_8));
+                    break;
+                case INT:
+                    if (!parseInteger(bytes, start, end)) {
+                        reportBadField(bytes, from, to, column, "a whole number");
+                        return;
+                    }
+                    row.setInteger(column, integer);
+                    break;
+                case DECIMAL:
+                    if (!parseDecimal(bytes, start, end)) {
+                        reportBadField(bytes, from, to, column, "a number");
+                        return;
+                    }
+                    row.setDecimal(column, decimal);
+                    break;
+            }
+        }
+        records.add(schema.map(row));
+    }
+
+    /**
+     * Reads an optionally signed decimal integer that fits in an int into {@link #integer}.
+     */
+    private boolean parseInteger(byte[] bytes, int start, int end) {
+        int at = start;
+        boolean negative = false;
+        if (bytes[at] == '-' || bytes[at] == '+') {
+            negative = bytes[at] == '-';
+            at++;
+        }
+        if (at == end) return false;
+        long value = 0;
+        for (; at < end; at++) {
+            int digit = bytes[at] - '0';
+            if (digit < 0 || digit > 9) return false;
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) return false;
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) return false;
+        integer = (int) value;
+        return true;
+    }
+
+    /**
+     * Reads {@code [+-] digits [. digits] [(e|E) [+-] digits]} into {@link #decimal}.
+     * Plain decimals whose digits fit in 53 bits are decoded from the bytes (one exact division,
+     * so the result matches Double.parseDouble); anything longer, or with an exponent, is handed
+     * to Double.parseDouble once the grammar has been checked, so that call cannot fail.
+     */
+    private boolean parseDecimal(byte[] bytes, int start, int end) {
+        int at = start;
+        boolean negative = false;
+        if (bytes[at] == '-' || bytes[at] == '+') {
+            negative = bytes[at] == '-';
+            at++;
+        }
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean anyDigit = false;
+        boolean exact = true;
+
+        for (; at < end && isDigit(bytes[at]); at++) {
+            anyDigit = true;
+            if (mantissa < MAX_EXACT_MANTISSA) mantissa = mantissa * 10 + (bytes[at] - '0');
+            else exact = false;
+        }
+        if (at < end && bytes[at] == '.') {
+            for (at++; at < end && isDigit(bytes[at]); at++) {
+                anyDigit = true;
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (bytes[at] - '0');
+                    fractionDigits++;
+                } else {
+                    exact = false;
+                }
+            }
+        }
+        if (!anyDigit) return false;
+        if (at < end && (bytes[at] == 'e' || bytes[at] == 'E')) {
+            at++;
+            if (at < end && (bytes[at] == '-' || bytes[at] == '+')) at++;
+            if (at == end) return false;
+            for (; at < end; at++) {
+                if (!isDigit(bytes[at])) return false;
+            }
+            exact = false;
+        }
+        if (at != end) return false;
+
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && fractionDigits < EXACT_POWERS_OF_TEN.length) {
+            double value = mantissa / EXACT_POWERS_OF_TEN[fractionDigits];
+            decimal = negative ? -value : value;
+        } else {
+            decimal = Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+        }
+        return true;
+    }
+
+    private void reportBadField(byte[] bytes, int from, int to, int column, String expected) {
+        String token = new String(bytes, tokenStart[column], tokenEnd[column] - tokenStart[column],
+                StandardCharsets.UTF_8);
+        report(bytes, from, to, schema.getColumnName(column) + " '" + token + "' is not " + expected);
+    }
+
+    private void report(byte[] bytes, int from, int to, String message) {
+        String text = new String(bytes, from, to - from, StandardCharsets.UTF_8).trim();
+        diagnostics.add(new ParseDiagnostic(fileName, lineNumber, "Skipping malformed " + schema.getRecordName()
+                + " (" + message + ")", text));
+    }
+
+    private static int skipSpace(byte[] bytes, int at, int to) {
+        while (at < to && isSpace(bytes[at])) at++;
+        return at;
+    }
+
+    private static boolean startsWith(byte[] bytes, int at, int to, byte[] prefix) {
+        if (to - at < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[at + i] != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    // Same set as the regex \s the loaders used to split on
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
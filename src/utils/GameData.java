@@ -0,0 +1,108 @@
+package utils;
+
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Monster;
+import items.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of everything read from the data directory, plus the diagnostics for rows
+ * and files that could not be loaded. All lists are read-only and never change after
+ * construction, so a snapshot can be shared freely between threads.
+ *
+ * <p>Records are kept per source file; {@link #withFile} derives a new snapshot in which one
+ * file's records are replaced, which is how {@link CatalogReloader} applies an edit without
+ * re-reading the other files.</p>
+ */
+public final class GameData {
+
+    // Per-file state, in load order (which fixes the order of the combined lists)
+    private final Map<String, List<?>> recordsByFile;
+    private final Map<String, List<ParseDiagnostic>> diagnosticsByFile;
+
+    private final Map<HeroType, List<Hero>> heroes = new EnumMap<>(HeroType.class);
+    private final List<Hero> allHeroes;
+    private final List<Monster> monsters;
+    private final List<Item> items;
+    private final List<ParseDiagnostic> diagnostics;
+
+    GameData(Map<String, List<?>> recordsByFile, Map<String, List<ParseDiagnostic>> diagnosticsByFile) {
+        this.recordsByFile = Collections.unmodifiableMap(new LinkedHashMap<>(recordsByFile));
+        this.diagnosticsByFile = Collections.unmodifiableMap(new LinkedHashMap<>(diagnosticsByFile));
+
+        Map<HeroType, List<Hero>> byType = new EnumMap<>(HeroType.class);
+        for (HeroType type : HeroType.values()) byType.put(type, new ArrayList<>());
+        List<Monster> monsterList = new ArrayList<>();
+        List<Item> itemList = new ArrayList<>();
+        for (List<?> records : this.recordsByFile.values()) {
+            for (Object record : records) {
+                if (record instanceof Hero) byType.get(((Hero) record).getType()).add((Hero) record);
+                else if (record instanceof Monster) monsterList.add((Monster) record);
+                else if (record instanceof Item) itemList.add((Item) record);
+            }
+        }
+
+        List<Hero> all = new ArrayList<>();
+        for (HeroType type : HeroType.values()) {
+            heroes.put(type, Collections.unmodifiableList(byType.get(type)));
+            all.addAll(byType.get(type));
+        }
+        this.allHeroes = Collections.unmodifiableList(all);
+        this.monsters = Collections.unmodifiableList(monsterList);
+        this.items = Collections.unmodifiableList(itemList);
+
+        List<ParseDiagnostic> allDiagnostics = new ArrayList<>();
+        for (List<ParseDiagnostic> fileDiagnostics : this.diagnosticsByFile.values()) {
+            allDiagnostics.addAll(fileDiagnostics);
+        }
+        this.diagnostics = Collections.unmodifiableList(allDiagnostics);
+    }
+
+    /**
+     * @return A snapshot equal to this one except that {@code fileName}'s records and diagnostics
+     *         are replaced. This snapshot is left untouched.
+     */
+    GameData withFile(String fileName, List<?> records, List<ParseDiagnostic> fileDiagnostics) {
+        Map<String, List<?>> newRecords = new LinkedHashMap<>(recordsByFile);
+        Map<String, List<ParseDiagnostic>> newDiagnostics = new LinkedHashMap<>(diagnosticsByFile);
+        newRecords.put(fileName, Collections.unmodifiableList(new ArrayList<>(records)));
+        newDiagnostics.put(fileName, Collections.unmodifiableList(new ArrayList<>(fileDiagnostics)));
+        return new GameData(newRecords, newDiagnostics);
+    }
+
+    /** @return The records currently loaded from one data file (empty if it is not part of the catalog). */
+    public List<?> getRecords(String fileName) {
+        return recordsByFile.getOrDefault(fileName, Collections.emptyList());
+    }
+
+    /** @return The heroes of one class, in file order (empty if the file was missing). */
+    public List<Hero> getHeroes(HeroType type) {
+        return heroes.get(type);
+    }
+
+    /** @return Every hero, grouped by class in {@link HeroType} order. */
+    public List<Hero> getAllHeroes() {
+        return allHeroes;
+    }
+
+    public List<Monster> getMonsters() {
+        return monsters;
+    }
+
+    /** @return The full market catalog: weapons, armor, potions, then fire, ice and lightning spells. */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    /** @return Problems found while loading, grouped by file in load order. */
+    public List<ParseDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+}
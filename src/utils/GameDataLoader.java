@@ -1,5 +1,6 @@
 package utils;
 
+import common.GameEvents;
 import entities.Hero;
 import entities.Hero.HeroType;
 import entities.Monster;
@@ -7,230 +8,284 @@ import entities.Monster.MonsterType;
 import items.*;
 import items.Spell.SpellType;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static utils.RecordSchema.ColumnType.DECIMAL;
+import static utils.RecordSchema.ColumnType.INT;
+import static utils.RecordSchema.ColumnType.TEXT;
 
 /**
  * Utility class responsible for parsing game data from external text files.
  * Acts as the centralized Asset Manager / Factory for the game.
  * Robustly handles missing files and malformed lines.
+ *
+ * <p>Each file format is declared once as a {@link RecordSchema} and read by the shared
+ * {@link DataFileParser}. Bad rows are skipped and reported as {@link ParseDiagnostic}s:
+ * the single-file loaders print them to stderr, {@link #loadAll()} returns them.</p>
+ *
+ * <p>Each load first looks for the file in the precompiled binary catalog (see CatalogCompiler)
+ * and only parses the text file when the catalog lacks it or is out of date.</p>
  */
 public class GameDataLoader {
 
-    private static final String DATA_DIR = "data";
+    static final String DATA_DIR = "data";
+    static final String CATALOG_FILE = "catalog.bin";
 
-    // ENTITY LOADERS
-    public static List<Hero> loadHeroes(String fileName, HeroType type) {
-        List<Hero> heroes = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
+    // ROW SCHEMAS (column order as in each file's header line)
+    static RecordSchema<Hero> heroSchema(HeroType type) {
+        return new RecordSchema<>("hero",
+                row -> new Hero(row.text(0), type, row.decimal(1), row.decimal(2), row.decimal(3),
+                        row.decimal(4), row.decimal(5), row.integer(6)),
+                "name", TEXT, "mana", DECIMAL, "strength", DECIMAL, "agility", DECIMAL,
+                "dexterity", DECIMAL, "starting money", DECIMAL, "starting experience", INT);
+    }
 
-        if (!file.exists()) {
-            System.err.println("Warning: Config file not found: " + fileName);
-            return heroes;
-        }
+    static RecordSchema<Monster> monsterSchema(MonsterType type) {
+        return new RecordSchema<>("monster",
+                row -> new Monster(row.text(0), type, row.integer(1), row.decimal(2), row.decimal(3), row.decimal(4)),
+                "name", TEXT, "level", INT, "damage", DECIMAL, "defense", DECIMAL, "dodge chance", DECIMAL);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/mana/strength/agility/dexterity/starting money/starting experience
-                    if (parts.length < 7) continue;
-
-                    heroes.add(new Hero(
-                            parts[0], type,
-                            Double.parseDouble(parts[1]), // Mana
-                            Double.parseDouble(parts[2]), // Str
-                            Double.parseDouble(parts[3]), // Agi
-                            Double.parseDouble(parts[4]), // Dex
-                            Double.parseDouble(parts[5]), // Money
-                            Integer.parseInt(parts[6])    // XP
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return heroes;
+    static final RecordSchema<Weapon> WEAPON_SCHEMA = new RecordSchema<>("weapon",
+            row -> new Weapon(row.text(0), row.decimal(1), row.integer(2), row.decimal(3), row.integer(4)),
+            "name", TEXT, "cost", DECIMAL, "level", INT, "damage", DECIMAL, "required hands", INT);
+
+    static final RecordSchema<Armor> ARMOR_SCHEMA = new RecordSchema<>("armor",
+            row -> new Armor(row.text(0), row.decimal(1), row.integer(2), row.decimal(3)),
+            "name", TEXT, "cost", DECIMAL, "required level", INT, "damage reduction", DECIMAL);
+
+    static final RecordSchema<Potion> POTION_SCHEMA = new RecordSchema<>("potion",
+            row -> new Potion(row.text(0), row.decimal(1), row.integer(2), row.decimal(3), row.text(4)),
+            "name", TEXT, "cost", DECIMAL, "required level", INT, "attribute increase", DECIMAL,
+            "attribute affected", TEXT);
+
+    static RecordSchema<Spell> spellSchema(SpellType type) {
+        return new RecordSchema<>("spell",
+                row -> new Spell(row.text(0), row.decimal(1), row.integer(2), row.decimal(3), row.decimal(4), type),
+                "name", TEXT, "cost", DECIMAL, "required level", INT, "damage", DECIMAL, "mana cost", DECIMAL);
     }
 
-    public static List<Monster> loadMonsters(String fileName, MonsterType type) {
-        List<Monster> monsters = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
+    // Opened on first use; null when there is no usable compiled catalog
+    private static CompiledCatalog compiledCatalog;
+    private static boolean catalogChecked;
+
+    /**
+     * The twelve data files in load order, each with the loader for its record type.
+     * The order fixes the order of GameData's combined hero, monster and item lists.
+     */
+    private static final List<DataFile> DATA_FILES = List.of(
+            new DataFile("Warriors.txt", (f, d) -> loadHeroes(f, HeroType.WARRIOR, d)),
+            new DataFile("Sorcerers.txt", (f, d) -> loadHeroes(f, HeroType.SORCERER, d)),
+            new DataFile("Paladins.txt", (f, d) -> loadHeroes(f, HeroType.PALADIN, d)),
+            new DataFile("Dragons.txt", (f, d) -> loadMonsters(f, MonsterType.DRAGON, d)),
+            new DataFile("Exoskeletons.txt", (f, d) -> loadMonsters(f, MonsterType.EXOSKELETON, d)),
+            new DataFile("Spirits.txt", (f, d) -> loadMonsters(f, MonsterType.SPIRIT, d)),
+            new DataFile("Weaponry.txt", GameDataLoader::loadWeapons),
+            new DataFile("Armory.txt", GameDataLoader::loadArmor),
+            new DataFile("Potions.txt", GameDataLoader::loadPotions),
+            new DataFile("FireSpells.txt", (f, d) -> loadSpells(f, SpellType.FIRE, d)),
+            new DataFile("IceSpells.txt", (f, d) -> loadSpells(f, SpellType.ICE, d)),
+            new DataFile("LightningSpells.txt", (f, d) -> loadSpells(f, SpellType.LIGHTNING, d)));
 
-        if (!file.exists()) {
-            System.err.println("Warning: Config file not found: " + fileName);
-            return monsters;
+    /**
+     * Loads all twelve data files concurrently (one task per file on the common pool).
+     * Never throws for bad data: missing files and malformed rows end up in
+     * {@link GameData#getDiagnostics()}.
+     */
+    public static GameData loadAll() {
+        GameEvents.CatalogLoad event = new GameEvents.CatalogLoad();
+        event.begin();
+        List<FileLoad> loads = new ArrayList<>(DATA_FILES.size());
+        for (DataFile file : DATA_FILES) {
+            loads.add(new FileLoad(file));
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/level/damage/defense/dodge chance
-                    if (parts.length < 5) continue;
-
-                    monsters.add(new Monster(
-                            parts[0], type,
-                            Integer.parseInt(parts[1]),   // Level
-                            Double.parseDouble(parts[2]), // Damage
-                            Double.parseDouble(parts[3]), // Defense
-                            Double.parseDouble(parts[4])  // Dodge
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
+        Map<String, List<?>> records = new LinkedHashMap<>();
+        Map<String, List<ParseDiagnostic>> diagnostics = new LinkedHashMap<>();
+        for (FileLoad load : loads) {
+            records.put(load.file.fileName, load.records.join());
+            diagnostics.put(load.file.fileName, load.diagnostics);
+        }
+
+        if (event.shouldCommit()) {
+            event.files = loads.size();
+            for (FileLoad load : loads) {
+                event.records += records.get(load.file.fileName).size();
+                event.diagnostics += load.diagnostics.size();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            event.commit();
         }
-        return monsters;
+        return new GameData(records, diagnostics);
+    }
+
+    /** @return The names of the catalog's data files, in load order. */
+    static List<String> dataFileNames() {
+        List<String> names = new ArrayList<>(DATA_FILES.size());
+        for (DataFile file : DATA_FILES) names.add(file.fileName);
+        return names;
+    }
+
+    /**
+     * @return True if {@code fileName} is one of the data files that make up the catalog.
+     */
+    static boolean isDataFile(String fileName) {
+        return dataFile(fileName) != null;
+    }
+
+    /**
+     * Loads a single data file with the loader for its record type.
+     *
+     * @return Its records, or null if {@code fileName} is not one of the catalog's data files.
+     */
+    static List<?> loadFile(String fileName, List<ParseDiagnostic> diagnostics) {
+        DataFile file = dataFile(fileName);
+        return file != null ? file.load(diagnostics) : null;
+    }
+
+    // ENTITY LOADERS
+    public static List<Hero> loadHeroes(String fileName, HeroType type) {
+        return loadAndReport(d -> loadHeroes(fileName, type, d));
+    }
+
+    static List<Hero> loadHeroes(String fileName, HeroType type, List<ParseDiagnostic> diagnostics) {
+        CompiledCatalog catalog = compiledCatalog();
+        List<Hero> compiled = catalog != null ? catalog.heroes(fileName, type) : null;
+        return compiled != null ? compiled : parse(fileName, heroSchema(type), diagnostics);
+    }
+
+    public static List<Monster> loadMonsters(String fileName, MonsterType type) {
+        return loadAndReport(d -> loadMonsters(fileName, type, d));
+    }
+
+    static List<Monster> loadMonsters(String fileName, MonsterType type, List<ParseDiagnostic> diagnostics) {
+        CompiledCatalog catalog = compiledCatalog();
+        List<Monster> compiled = catalog != null ? catalog.monsters(fileName, type) : null;
+        return compiled != null ? compiled : parse(fileName, monsterSchema(type), diagnostics);
     }
 
     // ITEM LOADERS
     public static List<Weapon> loadWeapons(String fileName) {
-        List<Weapon> weapons = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return weapons;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/level/damage/required hands
-                    if (parts.length < 5) continue;
-
-                    weapons.add(new Weapon(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3]), // Damage
-                            Integer.parseInt(parts[4])    // Hands
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return weapons;
+        return loadAndReport(d -> loadWeapons(fileName, d));
+    }
+
+    static List<Weapon> loadWeapons(String fileName, List<ParseDiagnostic> diagnostics) {
+        CompiledCatalog catalog = compiledCatalog();
+        List<Weapon> compiled = catalog != null ? catalog.weapons(fileName) : null;
+        return compiled != null ? compiled : parse(fileName, WEAPON_SCHEMA, diagnostics);
     }
 
     public static List<Armor> loadArmor(String fileName) {
-        List<Armor> armorList = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return armorList;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/required level/damage reduction
-                    if (parts.length < 4) continue;
-
-                    armorList.add(new Armor(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3])  // Damage Reduction
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return armorList;
+        return loadAndReport(d -> loadArmor(fileName, d));
+    }
+
+    static List<Armor> loadArmor(String fileName, List<ParseDiagnostic> diagnostics) {
+        CompiledCatalog catalog = compiledCatalog();
+        List<Armor> compiled = catalog != null ? catalog.armor(fileName) : null;
+        return compiled != null ? compiled : parse(fileName, ARMOR_SCHEMA, diagnostics);
     }
 
     public static List<Potion> loadPotions(String fileName) {
-        List<Potion> potions = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return potions;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/required level/attribute increase/attribute affected
-                    if (parts.length < 5) continue;
-
-                    potions.add(new Potion(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3]), // Increase Amount
-                            parts[4]                      // Attribute String
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return potions;
+        return loadAndReport(d -> loadPotions(fileName, d));
+    }
+
+    static List<Potion> loadPotions(String fileName, List<ParseDiagnostic> diagnostics) {
+        CompiledCatalog catalog = compiledCatalog();
+        List<Potion> compiled = catalog != null ? catalog.potions(fileName) : null;
+        return compiled != null ? compiled : parse(fileName, POTION_SCHEMA, diagnostics);
     }
 
     public static List<Spell> loadSpells(String fileName, SpellType type) {
-        List<Spell> spells = new ArrayList<>();
-        File file = new File(DATA_DIR + File.separator + fileName);
-
-        if (!file.exists()) return spells;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (shouldSkip(line)) continue;
-                try {
-                    String[] parts = line.trim().split("\\s+");
-                    // Format: Name/cost/required level/damage/mana cost
-                    if (parts.length < 5) continue;
-
-                    spells.add(new Spell(
-                            parts[0],                     // Name
-                            Double.parseDouble(parts[1]), // Cost
-                            Integer.parseInt(parts[2]),   // Min Level
-                            Double.parseDouble(parts[3]), // Damage
-                            Double.parseDouble(parts[4]), // Mana Cost
-                            type
-                    ));
-                } catch (Exception e) {
-                    logError(fileName, line);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        return loadAndReport(d -> loadSpells(fileName, type, d));
+    }
+
+    static List<Spell> loadSpells(String fileName, SpellType type, List<ParseDiagnostic> diagnostics) {
+        CompiledCatalog catalog = compiledCatalog();
+        List<Spell> compiled = catalog != null ? catalog.spells(fileName, type) : null;
+        return compiled != null ? compiled : parse(fileName, spellSchema(type), diagnostics);
+    }
+
+    /**
+     * Prints a list of diagnostics as warnings on stderr.
+     */
+    public static void printDiagnostics(List<ParseDiagnostic> diagnostics) {
+        for (ParseDiagnostic diagnostic : diagnostics) {
+            System.err.println("Warning: " + diagnostic);
         }
-        return spells;
     }
 
-    private static boolean shouldSkip(String line) {
-        // Skip empty lines or header lines that start with "Name/"
-        return line.trim().isEmpty() || line.trim().startsWith("Name/");
+    /**
+     * Returns the compiled catalog (data/catalog.bin), mapping it on first use.
+     * Sections that are missing from it or older than their text file are parsed from text instead.
+     */
+    private static synchronized CompiledCatalog compiledCatalog() {
+        if (!catalogChecked) {
+            catalogChecked = true;
+            compiledCatalog = CompiledCatalog.open(Paths.get(DATA_DIR, CATALOG_FILE), Paths.get(DATA_DIR));
+        }
+        return compiledCatalog;
     }
 
-    private static void logError(String fileName, String line) {
-        System.err.println("Skipping malformed line in " + fileName + ": " + line);
+    private static <T> List<T> parse(String fileName, RecordSchema<T> schema, List<ParseDiagnostic> diagnostics) {
+        return DataFileParser.parse(Paths.get(DATA_DIR, fileName), schema, diagnostics);
+    }
+
+    private static <T> List<T> loadAndReport(Function<List<ParseDiagnostic>, List<T>> load) {
+        List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        List<T> records = load.apply(diagnostics);
+        printDiagnostics(diagnostics);
+        return records;
+    }
+
+    private static DataFile dataFile(String fileName) {
+        for (DataFile file : DATA_FILES) {
+            if (file.fileName.equals(fileName)) return file;
+        }
+        return null;
+    }
+
+    private static final class DataFile {
+        final String fileName;
+        final BiFunction<String, List<ParseDiagnostic>, List<?>> load;
+
+        DataFile(String fileName, BiFunction<String, List<ParseDiagnostic>, List<?>> load) {
+            this.fileName = fileName;
+            this.load = load;
+        }
+
+        List<?> load(List<ParseDiagnostic> diagnostics) {
+            GameEvents.CatalogFileLoad event = new GameEvents.CatalogFileLoad();
+            event.begin();
+            int reportedBefore = diagnostics.size();
+            List<?> records = load.apply(fileName, diagnostics);
+            if (event.shouldCommit()) {
+                event.fileName = fileName;
+                event.records = records.size();
+                event.diagnostics = diagnostics.size() - reportedBefore;
+                event.commit();
+            }
+            return records;
+        }
+    }
+
+    /**
+     * One file being loaded on the common pool, with its own diagnostics list so that
+     * files never contend and diagnostics come out grouped by file.
+     */
+    private static final class FileLoad {
+        final DataFile file;
+        final List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        final CompletableFuture<List<?>> records;
+
+        FileLoad(DataFile file) {
+            this.file = file;
+            this.records = CompletableFuture.supplyAsync(() -> file.load(diagnostics));
+        }
     }
-}
\ No newline at end of file
+}
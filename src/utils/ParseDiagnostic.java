@@ -0,0 +1,44 @@
+package utils;
+
+/**
+ * One problem found while loading a data file: which file, which line (1-based, 0 for
+ * problems with the file as a whole) and what was wrong. The offending line is skipped;
+ * loading carries on with the rest of the file.
+ */
+public final class ParseDiagnostic {
+
+    private final String fileName;
+    private final int line;
+    private final String message;
+    private final String text;
+
+    public ParseDiagnostic(String fileName, int line, String message, String text) {
+        this.fileName = fileName;
+        this.line = line;
+        this.message = message;
+        this.text = text;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /** @return The offending line as read, or an empty string for file-level problems. */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        String where = line > 0 ? fileName + ":" + line : fileName;
+        return text.isEmpty() ? where + ": " + message : where + ": " + message + ": " + text;
+    }
+}
@@ -0,0 +1,107 @@
+package utils;
+
+/**
+ * Declarative description of one kind of data-file row: the whitespace-separated columns it
+ * starts with, and how a parsed row becomes a game object.
+ * {@link DataFileParser} uses the column list to tokenize and validate each line before the
+ * mapper ever sees it, so mappers only read already-typed values.
+ *
+ * @param <T> The type each row is turned into.
+ */
+final class RecordSchema<T> {
+
+    /** How a column's token is read. */
+    public enum ColumnType {
+        TEXT, INT, DECIMAL
+    }
+
+    /** Builds the record for one fully validated row. */
+    public interface RowMapper<T> {
+        T map(Row row);
+    }
+
+    private final String recordName;
+    private final String[] columnNames;
+    private final ColumnType[] columnTypes;
+    private final RowMapper<T> mapper;
+
+    /**
+     * @param recordName What a row describes; used in diagnostics ("weapon", "hero", ...).
+     * @param mapper     Turns a parsed row into a record.
+     * @param columns    Alternating column name and {@link ColumnType}, in file order.
+     *                   Tokens past the last column are ignored.
+     */
+    public RecordSchema(String recordName, RowMapper<T> mapper, Object... columns) {
+        if (columns.length == 0 || columns.length % 2 != 0) {
+            throw new IllegalArgumentException("Columns must be given as name/type pairs");
+        }
+        this.recordName = recordName;
+        this.mapper = mapper;
+        this.columnNames = new String[columns.length / 2];
+        this.columnTypes = new ColumnType[columns.length / 2];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = (String) columns[2 * i];
+            columnTypes[i] = (ColumnType) columns[2 * i + 1];
+        }
+    }
+
+    public String getRecordName() {
+        return recordName;
+    }
+
+    public int getColumnCount() {
+        return columnTypes.length;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    public ColumnType getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    T map(Row row) {
+        return mapper.map(row);
+    }
+
+    /**
+     * Typed values of the row being parsed, indexed by column.
+     * One instance is reused for every line of a file; mappers must not keep it.
+     */
+    public static final class Row {
+        private final String[] texts;
+        private final int[] integers;
+        private final double[] decimals;
+
+        Row(int columns) {
+            this.texts = new String[columns];
+            this.integers = new int[columns];
+            this.decimals = new double[columns];
+        }
+
+        public String text(int column) {
+            return texts[column];
+        }
+
+        public int integer(int column) {
+            return integers[column];
+        }
+
+        public double decimal(int column) {
+            return decimals[column];
+        }
+
+        void setText(int column, String value) {
+            texts[column] = value;
+        }
+
+        void setInteger(int column, int value) {
+            integers[column] = value;
+        }
+
+        void setDecimal(int column, double value) {
+            decimals[column] = value;
+        }
+    }
+}
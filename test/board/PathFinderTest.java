@@ -0,0 +1,161 @@
+package board;
+
+import common.GameIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathFinderTest {
+
+    /** Bounded board with walls set by the test. */
+    private static final class WallBoard extends Board {
+        final boolean[][] wall;
+
+        WallBoard(int size) {
+            super(size, size);
+            wall = new boolean[size][size];
+        }
+
+        @Override
+        public Cell getCell(int row, int col) {
+            return Cell.of(wall[row][col] ? CellType.INACCESSIBLE : CellType.COMMON);
+        }
+
+        @Override
+        public void printBoard(GameIO io) {
+        }
+
+        @Override
+        public void invalidateFrame() {
+        }
+    }
+
+    // Regression: the first route found inside the search window used to be returned (72 steps)
+    @ParameterizedTest
+    @EnumSource(PathFinder.Algorithm.class)
+    void findsShortestRouteThatLeavesTheFirstWindow(PathFinder.Algorithm algorithm) {
+        WallBoard board = new WallBoard(300);
+        for (int r = 0; r < 300; r++) board.wall[r][105] = r != 83 && r != 116;
+        for (int c = 60; c <= 104; c++) board.wall[108][c] = c != 85;
+
+        Route route = new PathFinder(board, algorithm).findRoute(100, 100, 100, 110);
+
+        assertEquals(44, route.length());
+        assertValid(board, route, 100, 100, 100, 110);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PathFinder.Algorithm.class)
+    void matchesBreadthFirstSearchOnRandomMazes(PathFinder.Algorithm algorithm) {
+        Random random = new Random(3);
+        for (int maze = 0; maze < 10; maze++) {
+            WallBoard board = randomMaze(120, random);
+            PathFinder finder = new PathFinder(board, algorithm);
+            for (int i = 0; i < 40; i++) {
+                int fromRow = random.nextInt(120);
+                int fromCol = random.nextInt(120);
+                int toRow = random.nextInt(120);
+                int toCol = random.nextInt(120);
+                if (board.wall[fromRow][fromCol]) continue;
+
+                Route route = finder.findRoute(fromRow, fromCol, toRow, toCol);
+                int expected = distance(board, fromRow, fromCol, toRow, toCol);
+                if (expected < 0) {
+                    assertNull(route);
+                } else {
+                    assertEquals(expected, route.length(), "route length from " + fromRow + "," + fromCol
+                            + " to " + toRow + "," + toCol);
+                    assertValid(board, route, fromRow, fromCol, toRow, toCol);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsBlockedTarget() {
+        WallBoard board = new WallBoard(8);
+        board.wall[4][4] = true;
+        assertNull(new PathFinder(board, PathFinder.Algorithm.A_STAR).findRoute(0, 0, 4, 4));
+    }
+
+    // Lookups reuse one key object; stored keys must keep their own coordinates
+    @Test
+    void cachesEachRouteUnderItsOwnEndpoints() {
+        WallBoard board = new WallBoard(16);
+        PathFinder finder = new PathFinder(board, PathFinder.Algorithm.A_STAR);
+        Route first = finder.findRoute(0, 0, 5, 9);
+        Route second = finder.findRoute(3, 3, 12, 1);
+        assertSame(first, finder.findRoute(0, 0, 5, 9));
+        assertSame(second, finder.findRoute(3, 3, 12, 1));
+        assertNotSame(first, finder.findRoute(0, 0, 9, 5));
+    }
+
+    private static WallBoard randomMaze(int size, Random random) {
+        WallBoard board = new WallBoard(size);
+        for (boolean[] row : board.wall) {
+            for (int c = 0; c < size; c++) row[c] = random.nextDouble() < 0.25;
+        }
+        // Long walls with rare gaps force detours well past the first window
+        for (int k = 0; k < size / 10; k++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            for (int i = 0; i < size; i++) {
+                if (random.nextInt(40) != 0) board.wall[row][i] = true;
+                if (random.nextInt(40) != 0) board.wall[i][col] = true;
+            }
+        }
+        return board;
+    }
+
+    /** Breadth-first distance, or -1 if the target cannot be reached. */
+    private static int distance(WallBoard board, int fromRow, int fromCol, int toRow, int toCol) {
+        if (board.wall[toRow][toCol]) return -1;
+        int size = board.getWidth();
+        int[] dist = new int[size * size];
+        Arrays.fill(dist, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        dist[fromRow * size + fromCol] = 0;
+        queue.add(fromRow * size + fromCol);
+        int[] dr = {-1, 0, 1, 0};
+        int[] dc = {0, 1, 0, -1};
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            int row = node / size;
+            int col = node % size;
+            if (row == toRow && col == toCol) return dist[node];
+            for (int d = 0; d < 4; d++) {
+                int r = row + dr[d];
+                int c = col + dc[d];
+                if (!board.isValidCoordinate(r, c) || board.wall[r][c] || dist[r * size + c] >= 0) continue;
+                dist[r * size + c] = dist[node] + 1;
+                queue.add(r * size + c);
+            }
+        }
+        return -1;
+    }
+
+    private static void assertValid(WallBoard board, Route route, int fromRow, int fromCol, int toRow, int toCol) {
+        int row = fromRow;
+        int col = fromCol;
+        for (int step = 0; step < route.length(); step++) {
+            int r = route.getRow(step);
+            int c = route.getCol(step);
+            assertEquals(1, Math.abs(r - row) + Math.abs(c - col), "step " + step + " is not one tile");
+            assertTrue(!board.wall[r][c], "step " + step + " enters a wall");
+            row = r;
+            col = c;
+        }
+        assertEquals(toRow, row);
+        assertEquals(toCol, col);
+    }
+}
@@ -0,0 +1,54 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Seeded sessions and journals depend on drawing exactly what SplittableRandom draws
+class RandomGeneratorTest {
+
+    private static final int[] BOUNDS = {1, 2, 3, 7, 10, 64, 100, 1 << 30, (1 << 30) + 1, Integer.MAX_VALUE};
+
+    @Test
+    void drawsMatchSplittableRandom() {
+        for (long seed : new long[] {0, 1, 42, -7, Long.MIN_VALUE}) {
+            RandomGenerator ours = RandomGenerator.newSeeded(seed);
+            SplittableRandom reference = new SplittableRandom(seed);
+            assertSameDraws(ours, reference, 1000);
+        }
+    }
+
+    @Test
+    void splitStreamsMatchSplittableRandom() {
+        RandomGenerator ours = RandomGenerator.newSeeded(2024);
+        SplittableRandom reference = new SplittableRandom(2024);
+        for (int depth = 0; depth < 4; depth++) {
+            assertSameDraws(ours, reference, 50);
+            RandomGenerator ourChild = ours.split();
+            SplittableRandom referenceChild = reference.split();
+            assertSameDraws(ourChild, referenceChild, 200);
+            ours = ourChild;
+            reference = referenceChild;
+        }
+    }
+
+    // setSeed must also drop a split stream's gamma
+    @Test
+    void setSeedRestartsEvenASplitStream() {
+        RandomGenerator ours = RandomGenerator.newSeeded(5).split();
+        ours.nextLong();
+        ours.setSeed(99);
+        assertSameDraws(ours, new SplittableRandom(99), 200);
+    }
+
+    private static void assertSameDraws(RandomGenerator ours, SplittableRandom reference, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            assertEquals(reference.nextLong(), ours.nextLong());
+            assertEquals(Double.doubleToLongBits(reference.nextDouble()), Double.doubleToLongBits(ours.nextDouble()));
+            int bound = BOUNDS[i % BOUNDS.length];
+            assertEquals(reference.nextInt(bound), ours.nextInt(bound), "bound " + bound);
+        }
+    }
+}
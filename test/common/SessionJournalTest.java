@@ -0,0 +1,58 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    // Regression: the save a world menu offered was not journaled, so "Continue saved game" could not replay
+    @Test
+    void roundTripsLinesAndOfferedSaves() throws IOException {
+        Path file = dir.resolve("session.lmj");
+        byte[] save = new byte[300];
+        for (int i = 0; i < save.length; i++) save[i] = (byte) i;
+        try (SessionJournal.Recorder recorder = SessionJournal.record(file, 42)) {
+            recorder.appendSave(null);
+            recorder.append("1");
+            recorder.append("w");
+            recorder.appendSave(save);
+            recorder.append("3");
+            recorder.append("");
+            recorder.append("é".repeat(100));
+        }
+
+        SessionJournal journal = SessionJournal.read(file);
+
+        assertEquals(42, journal.getSeed());
+        assertEquals(List.of("1", "w", "3", "", "é".repeat(100)), journal.getLines());
+        assertEquals(2, journal.getSaves().size());
+        assertNull(journal.getSaves().get(0));
+        assertArrayEquals(save, journal.getSaves().get(1));
+    }
+
+    @Test
+    void truncatedJournalKeepsItsCompleteEntries() throws IOException {
+        Path file = dir.resolve("session.lmj");
+        try (SessionJournal.Recorder recorder = SessionJournal.record(file, 7)) {
+            recorder.append("first");
+            recorder.append("second");
+        }
+        byte[] contents = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(contents, contents.length - 2));
+
+        assertEquals(List.of("first"), SessionJournal.read(file).getLines());
+    }
+}
@@ -0,0 +1,95 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Hero;
+import org.junit.jupiter.api.Test;
+import utils.GameData;
+import utils.GameDataLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Every duel in a seeded batch must end exactly as BattleController.runEncounter plays it
+class DuelResolverTest {
+
+    private static final int DUELS = 2000;      // Not a multiple of any vector length, so the scalar tail runs too
+    private static final long SEED = 42L;
+
+    private final GameData data = GameDataLoader.loadAll();
+    private final MonsterSpawner spawner = new MonsterSpawner(data.getMonsters());
+
+    @Test
+    void scalarResolverMatchesRunEncounter() {
+        checkAgainstEngine(DuelResolver.scalar(), 1000);
+    }
+
+    @Test
+    void vectorResolverMatchesRunEncounter() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "needs --add-modules jdk.incubator.vector");
+        checkAgainstEngine(DuelResolver.vector(), 1000);
+    }
+
+    // A short round limit leaves duels undecided: both sides must stop on the same round
+    @Test
+    void resolversMatchRunEncounterAtTheRoundLimit() {
+        checkAgainstEngine(DuelResolver.scalar(), 2);
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            checkAgainstEngine(DuelResolver.vector(), 2);
+        }
+    }
+
+    private void checkAgainstEngine(DuelResolver resolver, int maxRounds) {
+        List<Hero> heroes = heroesAtSeveralLevels();
+        DuelBatch batch = new DuelBatch(DUELS);
+        long[] seeds = new long[DUELS];
+        RandomGenerator seedSource = RandomGenerator.newSeeded(SEED);
+        for (int i = 0; i < DUELS; i++) {
+            seeds[i] = seedSource.nextLong();
+            batch.add(heroes.get(i % heroes.size()), spawner, seeds[i]);
+        }
+        resolver.resolve(batch, maxRounds);
+
+        RandomGenerator rng = RandomGenerator.newSeeded(0);
+        BattleController controller = new BattleController(spawner, rng);
+        controller.setMaxRounds(maxRounds);
+        Encounter encounter = new Encounter();
+        EncounterPolicy policy = new AutoBattlePolicy();
+        int decided = 0;
+        for (int i = 0; i < DUELS; i++) {
+            encounter.clear();
+            encounter.addHero(batch.getHero(i));
+            rng.setSeed(seeds[i]);
+            BattleResult.Outcome outcome = controller.runEncounter(encounter, policy);
+
+            String duel = resolver.getName() + ", duel " + i + " (seed " + seeds[i] + ")";
+            assertNotNull(batch.getOutcome(i), duel);
+            assertEquals(outcome, batch.getOutcome(i), duel);
+            assertEquals(encounter.getRounds(), batch.getRounds(i), duel);
+            assertEquals(Double.doubleToLongBits(encounter.getHeroHp(0)), Double.doubleToLongBits(batch.getHeroHp(i)), duel);
+            assertEquals(Double.doubleToLongBits(encounter.getHeroMana(0)), Double.doubleToLongBits(batch.getHeroMana(i)), duel);
+            assertEquals(Double.doubleToLongBits(encounter.getMonsterHp(0)), Double.doubleToLongBits(batch.getMonsterHp(i)), duel);
+            if (outcome != BattleResult.Outcome.DRAW) decided++;
+        }
+        assertTrue(decided > 0, "no duel was decided");
+        if (maxRounds <= 2) assertFalse(decided == DUELS, "no duel reached the round limit");
+    }
+
+    private List<Hero> heroesAtSeveralLevels() {
+        List<Hero> heroes = new ArrayList<>();
+        for (Hero template : data.getAllHeroes()) {
+            heroes.add(template);
+            Hero veteran = template.copy();
+            while (veteran.getLevel() < 5) veteran.gainExperience(veteran.getLevel() * 10);
+            heroes.add(veteran);
+        }
+        assertFalse(heroes.isEmpty(), "no heroes loaded; tests run from the project root");
+        return heroes;
+    }
+}
@@ -0,0 +1,78 @@
+package game;
+
+import common.RandomGenerator;
+import entities.Monster;
+import entities.Monster.MonsterType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MonsterSpawnerTest {
+
+    private static final int DRAWS = 200_000;
+
+    private final List<Monster> templates = List.of(
+            new Monster("Desghidorrah", MonsterType.DRAGON, 3, 300, 400, 35),
+            new Monster("Natsunomeryu", MonsterType.DRAGON, 1, 100, 200, 10),
+            new Monster("Cyrrollalee", MonsterType.EXOSKELETON, 7, 700, 800, 75),
+            new Monster("Andrealphus", MonsterType.SPIRIT, 2, 600, 500, 40),
+            new Monster("Aim-Haborym", MonsterType.SPIRIT, 1, 450, 350, 35));
+
+    @Test
+    void uniformSpawnerPicksEveryTemplateEquallyOften() {
+        Map<String, Integer> counts = draw(new MonsterSpawner(templates), 1);
+        for (Monster template : templates) {
+            assertEquals(1.0 / templates.size(), counts.get(template.getName()) / (double) DRAWS, 0.01,
+                    template.getName());
+        }
+    }
+
+    // The alias table must reproduce the weights: type weight times falloff^(level distance)
+    @Test
+    void weightedSpawnerFollowsTypeWeightsAndLevelFalloff() {
+        Map<MonsterType, Double> typeWeights = Map.of(MonsterType.DRAGON, 3.0, MonsterType.SPIRIT, 0.5);
+        double falloff = 0.5;
+        Map<String, Integer> counts = draw(new MonsterSpawner(templates, typeWeights, falloff), 2);
+
+        double[] weights = new double[templates.size()];
+        double total = 0;
+        for (int i = 0; i < templates.size(); i++) {
+            Monster template = templates.get(i);
+            weights[i] = typeWeights.getOrDefault(template.getType(), 1.0)
+                    * Math.pow(falloff, Math.abs(template.getLevel() - 2));
+            total += weights[i];
+        }
+        for (int i = 0; i < templates.size(); i++) {
+            String name = templates.get(i).getName();
+            assertEquals(weights[i] / total, counts.getOrDefault(name, 0) / (double) DRAWS, 0.01, name);
+        }
+    }
+
+    @Test
+    void disabledTypeNeverSpawns() {
+        Map<String, Integer> counts = draw(new MonsterSpawner(templates, Map.of(MonsterType.SPIRIT, 0.0), 1.0), 1);
+        assertFalse(counts.containsKey("Andrealphus"));
+        assertFalse(counts.containsKey("Aim-Haborym"));
+    }
+
+    @Test
+    void spawnScalesStatsToTheTargetLevel() {
+        MonsterSpawner spawner = new MonsterSpawner(List.of(templates.get(0)));
+        Monster monster = spawner.spawn(6, RandomGenerator.newSeeded(1));
+        assertEquals(6, monster.getLevel());
+        assertEquals(600, monster.getBaseDamage(), 1e-9);
+        assertEquals(800, monster.getDefense(), 1e-9);
+    }
+
+    private static Map<String, Integer> draw(MonsterSpawner spawner, int level) {
+        RandomGenerator rng = RandomGenerator.newSeeded(17);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < DRAWS; i++) counts.merge(spawner.spawn(level, rng).getName(), 1, Integer::sum);
+        return counts;
+    }
+}
@@ -0,0 +1,167 @@
+package game;
+
+import board.CellType;
+import board.LegendsBoard;
+import entities.Hero;
+import entities.Hero.HeroType;
+import entities.Party;
+import items.Item;
+import items.Potion;
+import items.Weapon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaveFileTest {
+
+    // Snapshot of an 8x8 board whose party has no items: header (5), kind, name count, world type,
+    // board size, two terrain words, then the party length and the party row
+    private static final int TERRAIN_OFFSET = 9;
+    private static final int PARTY_LENGTH_OFFSET = TERRAIN_OFFSET + 16;
+    private static final int PARTY_ROW_OFFSET = PARTY_LENGTH_OFFSET + 1;
+
+    @TempDir
+    Path dir;
+
+    private final Weapon sword = new Weapon("Sword", 500, 1, 800, 1);
+    private final Potion potion = new Potion("Healing_Potion", 250, 1, 100, "Health");
+    private final List<Item> catalog = List.of(sword, potion);
+
+    private LegendsBoard board;
+    private Party party;
+
+    @BeforeEach
+    void setUp() {
+        board = new LegendsBoard(8);
+        party = new Party();
+        party.addHero(new Hero("Gaerdal_Ironhand", HeroType.WARRIOR, 100, 700, 500, 600, 1354, 7));
+        party.setLocation(0, 0);
+    }
+
+    @Test
+    void roundTripsSnapshotAndDeltas() throws IOException {
+        Path file = dir.resolve("game.lms");
+        SaveFile save = new SaveFile(file);
+        save.save(board, party);
+
+        Hero hero = party.getHero(0);
+        hero.getInventory().addItem(sword);
+        hero.getInventory().addItem(potion);
+        hero.equipWeapon(sword);
+        party.setLocation(3, 4);
+        board.setCellType(7, 7, CellType.MARKET);
+        save.save(board, party);
+
+        SaveFile.Loaded loaded = new SaveFile(file).load(catalog);
+
+        assertTrue(loaded.getWarnings().isEmpty());
+        assertEquals(3, loaded.getParty().getRow());
+        assertEquals(4, loaded.getParty().getCol());
+        LegendsBoard restored = (LegendsBoard) loaded.getBoard();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                assertEquals(board.getCell(r, c).getType(), restored.getCell(r, c).getType());
+            }
+        }
+        Hero restoredHero = loaded.getParty().getHero(0);
+        assertEquals(hero.getName(), restoredHero.getName());
+        assertEquals(hero.getHp(), restoredHero.getHp());
+        assertEquals(sword, restoredHero.getEquippedWeapon());
+        assertEquals(List.of(sword, potion), restoredHero.getInventory().getItems());
+    }
+
+    @Test
+    void damagedLastSaveFallsBackToThePreviousOne() throws IOException {
+        Path file = dir.resolve("game.lms");
+        SaveFile save = new SaveFile(file);
+        save.save(board, party);
+        party.setLocation(1, 1);
+        save.save(board, party);
+
+        byte[] contents = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(contents, contents.length - 2));
+        SaveFile.Loaded loaded = new SaveFile(file).load(catalog);
+
+        assertEquals(0, loaded.getParty().getRow());
+        assertEquals(1, loaded.getWarnings().size());
+    }
+
+    // Regression: a negative varint reached new byte[length] and threw NegativeArraySizeException
+    @Test
+    void negativeLengthIsAnIoException() throws IOException {
+        byte[] contents = snapshot();
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        byte[] damaged = new byte[contents.length + negative.length - 1];
+        System.arraycopy(contents, 0, damaged, 0, PARTY_LENGTH_OFFSET);
+        System.arraycopy(negative, 0, damaged, PARTY_LENGTH_OFFSET, negative.length);
+        System.arraycopy(contents, PARTY_LENGTH_OFFSET + 1, damaged, PARTY_LENGTH_OFFSET + negative.length,
+                contents.length - PARTY_LENGTH_OFFSET - 1);
+
+        assertThrows(IOException.class, () -> SaveFile.decode(damaged, "test", catalog));
+    }
+
+    @Test
+    void unknownCellTypeIsAnIoException() throws IOException {
+        byte[] contents = snapshot();
+        ByteBuffer.wrap(contents).putLong(TERRAIN_OFFSET, -1L);   // Every tile code 3
+        fixChecksum(contents);
+
+        assertThrows(IOException.class, () -> SaveFile.decode(contents, "test", catalog));
+    }
+
+    @Test
+    void partyOffTheBoardIsAnIoException() throws IOException {
+        byte[] contents = snapshot();
+        ByteBuffer.wrap(contents).putInt(PARTY_ROW_OFFSET, 50);
+        fixChecksum(contents);
+
+        IOException e = assertThrows(IOException.class, () -> SaveFile.decode(contents, "test", catalog));
+        assertTrue(e.getMessage().contains("off the board"));
+    }
+
+    @Test
+    void checksumCatchesEveryFlippedBit() throws IOException {
+        byte[] contents = snapshot();
+        for (int i = 5; i < contents.length; i++) {
+            for (int bit = 0; bit < 8; bit++) {
+                byte[] damaged = contents.clone();
+                damaged[i] ^= (byte) (1 << bit);
+                assertThrows(IOException.class, () -> SaveFile.decode(damaged, "test", catalog));
+            }
+        }
+    }
+
+    @Test
+    void deleteRemovesTheFile() throws IOException {
+        SaveFile save = new SaveFile(dir.resolve("game.lms"));
+        save.save(board, party);
+        save.delete();
+        assertFalse(save.exists());
+    }
+
+    private byte[] snapshot() throws IOException {
+        SaveFile save = new SaveFile(dir.resolve("snapshot.lms"));
+        save.save(board, party);
+        return save.readContents();
+    }
+
+    /** Rewrites the snapshot's trailing CRC-32 after a test edited its payload. */
+    private static void fixChecksum(byte[] contents) {
+        CRC32 crc = new CRC32();
+        crc.update(contents, 5, contents.length - 9);
+        ByteBuffer.wrap(contents).putInt(contents.length - 4, (int) crc.getValue());
+    }
+}
@@ -0,0 +1,84 @@
+package items;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryTest {
+
+    private final Weapon sword = new Weapon("Sword", 500, 1, 800, 1);
+    private final Armor plate = new Armor("Platinum_Shield", 150, 1, 200);
+    private final Potion potion = new Potion("Healing_Potion", 250, 1, 100, "Health");
+    private final Spell flame = new Spell("Flame_Tornado", 700, 4, 850, 300, Spell.SpellType.FIRE);
+
+    @Test
+    void typedViewsFollowAddsAndRemoves() {
+        Inventory inventory = new Inventory();
+        inventory.addItem(sword);
+        inventory.addItem(potion);
+        inventory.addItem(plate);
+        inventory.addItem(flame);
+
+        List<Potion> potions = inventory.getPotions();
+        assertEquals(List.of(potion), potions);
+        assertTrue(inventory.removeItem(potion));
+        assertTrue(potions.isEmpty());
+        assertEquals(List.of(sword), inventory.getWeapons());
+        assertEquals(List.of(plate), inventory.getArmor());
+        assertEquals(List.of(flame), inventory.getSpells());
+        assertFalse(inventory.removeItem(potion));
+    }
+
+    // Regression: the swap-remove must update the moved item's slot, also when an instance is held twice
+    @Test
+    void swapRemoveKeepsEveryCopyOfSharedInstances() {
+        Inventory inventory = new Inventory();
+        inventory.addItem(potion);
+        inventory.addItem(sword);
+        inventory.addItem(potion);
+        inventory.addItem(flame);
+
+        assertTrue(inventory.removeItem(potion));
+        assertTrue(inventory.contains(potion));
+        assertEquals(3, inventory.getItems().size());
+        assertEquals(1, inventory.getPotions().size());
+
+        assertTrue(inventory.removeItem(potion));
+        assertFalse(inventory.contains(potion));
+        assertTrue(inventory.removeItem(flame));
+        assertTrue(inventory.removeItem(sword));
+        assertTrue(inventory.isEmpty());
+    }
+
+    @Test
+    void matchesAListUnderRandomAddsAndRemoves() {
+        Item[] pool = {sword, plate, potion, flame};
+        Inventory inventory = new Inventory();
+        List<Item> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            Item item = pool[random.nextInt(pool.length)];
+            if (random.nextBoolean()) {
+                inventory.addItem(item);
+                expected.add(item);
+            } else {
+                assertEquals(expected.remove(item), inventory.removeItem(item));
+            }
+            assertEquals(expected.size(), inventory.getItems().size());
+            for (Item each : pool) {
+                assertEquals(count(expected, each), count(inventory.getItems(), each));
+                assertEquals(expected.contains(each), inventory.contains(each));
+            }
+        }
+    }
+
+    private static long count(List<? extends Item> items, Item item) {
+        return items.stream().filter(each -> each == item).count();
+    }
+}
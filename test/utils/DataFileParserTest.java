@@ -0,0 +1,105 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataFileParserTest {
+
+    private static final RecordSchema<String[]> SCHEMA = new RecordSchema<>("row",
+            row -> new String[] {row.text(0), String.valueOf(row.integer(1)), String.valueOf(row.decimal(2))},
+            "Name", RecordSchema.ColumnType.TEXT,
+            "count", RecordSchema.ColumnType.INT,
+            "value", RecordSchema.ColumnType.DECIMAL);
+
+    @TempDir
+    Path dir;
+
+    // The fast path divides an exact mantissa by an exact power of ten: it must agree with parseDouble
+    @Test
+    void decimalsMatchDoubleParseDouble() throws IOException {
+        Random random = new Random(5);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            long whole = random.nextInt(4) == 0 ? (random.nextLong() >>> 1) >>> random.nextInt(63) : random.nextInt(100000);
+            String token = Long.toString(whole);
+            if (random.nextBoolean()) {
+                StringBuilder fraction = new StringBuilder(".");
+                int digits = 1 + random.nextInt(20);
+                for (int d = 0; d < digits; d++) fraction.append(random.nextInt(10));
+                token += fraction;
+            }
+            if (random.nextInt(8) == 0) token = "-" + token;
+            if (random.nextInt(16) == 0) token += "e" + (random.nextInt(40) - 20);
+            tokens.add(token);
+        }
+        tokens.add("9007199254740993");        // 2^53 + 1: just past the exact mantissa range
+        tokens.add("0.1");
+        tokens.add("+2.5");
+
+        StringBuilder text = new StringBuilder("Name/count/value\n");
+        for (int i = 0; i < tokens.size(); i++) text.append("item").append(i).append(' ').append(i).append(' ')
+                .append(tokens.get(i)).append('\n');
+        List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        List<String[]> rows = DataFileParser.parse(write(text.toString()), SCHEMA, diagnostics);
+
+        assertTrue(diagnostics.isEmpty(), () -> diagnostics.toString());
+        assertEquals(tokens.size(), rows.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(String.valueOf(Double.parseDouble(tokens.get(i))), rows.get(i)[2], tokens.get(i));
+        }
+    }
+
+    @Test
+    void malformedRowsAreSkippedAndReported() throws IOException {
+        String text = "Name/count/value\n"
+                + "good 1 2.5\n"
+                + "\n"
+                + "short 1\n"
+                + "badint x 1\n"
+                + "badint2 3000000000 1\n"
+                + "baddecimal 1 1.2.3\n"
+                + "badexponent 1 1e\n"
+                + "extra 2 3 ignored tokens\n";
+        List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        List<String[]> rows = DataFileParser.parse(write(text), SCHEMA, diagnostics);
+
+        assertEquals(2, rows.size());
+        assertEquals("good", rows.get(0)[0]);
+        assertEquals("extra", rows.get(1)[0]);
+        assertEquals(5, diagnostics.size());
+    }
+
+    @Test
+    void linesSpanningBlocksParse() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int rows = 20000;   // Well past one 64 KiB block
+        for (int i = 0; i < rows; i++) text.append("name_").append(i).append(' ').append(i).append(" 0.").append(i).append('\n');
+        List<ParseDiagnostic> diagnostics = new ArrayList<>();
+        List<String[]> parsed = DataFileParser.parse(write(text.toString()), SCHEMA, diagnostics);
+
+        assertTrue(diagnostics.isEmpty());
+        assertEquals(rows, parsed.size());
+        for (int i = 0; i < rows; i++) {
+            assertEquals("name_" + i, parsed.get(i)[0]);
+            assertEquals(String.valueOf(i), parsed.get(i)[1]);
+            assertEquals(String.valueOf(Double.parseDouble("0." + i)), parsed.get(i)[2]);
+        }
+    }
+
+    private Path write(String text) throws IOException {
+        Path file = dir.resolve("data.txt");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}